@@ -0,0 +1,146 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Provides per-thread resources that are reused across calls to the
+ * codecs. Compressing or decompressing a tile requires a Deflater or
+ * Inflater and a number of scratch buffers sized according to the
+ * dimensions of the tile.  Allocating these for each tile produces
+ * substantial garbage-collection overhead when processing large rasters.
+ * Also, the Deflater and Inflater classes hold native memory that is not
+ * released until they are ended or finalized.
+ * <p>
+ * The codec instances used by GVRS may be accessed by multiple threads
+ * (for example, when a file is configured for concurrent reading),
+ * so the reusable resources cannot be held by the codecs themselves.
+ * Instead, each thread obtains its own context through the get() method.
+ * <p>
+ * <strong>Usage constraints: </strong>
+ * The resources obtained from a context remain valid only until the
+ * next time the same resource is requested by the same thread. So
+ * a scratch buffer must never be returned to a calling application
+ * or retained after a codec method completes. Methods that require
+ * multiple buffers at the same time must use separate slots.
+ */
+public final class CodecContext {
+
+  /**
+   * The number of slots available for scratch buffers.
+   */
+  public static final int N_SCRATCH_SLOTS = 4;
+
+  private static final ThreadLocal<CodecContext> CONTEXTS
+    = ThreadLocal.withInitial(CodecContext::new);
+
+  private final Deflater[] deflaters = new Deflater[10];
+  private Inflater inflater;
+  private final byte[][] scratch = new byte[N_SCRATCH_SLOTS][];
+
+  private CodecContext() {
+    // instances are obtained from the get() method
+  }
+
+  /**
+   * Gets the context for the current thread.
+   *
+   * @return a valid instance
+   */
+  public static CodecContext get() {
+    return CONTEXTS.get();
+  }
+
+  /**
+   * Gets a Deflater for the specified compression level. The Deflater is
+   * reset and ready for a new set of input. Applications must not call
+   * the end() method of the Deflater.
+   *
+   * @param level a compression level in the range 0 to 9.
+   * @return a valid instance
+   */
+  public Deflater getDeflater(int level) {
+    if (level < 0 || level > 9) {
+      throw new IllegalArgumentException("Invalid compression level " + level);
+    }
+    Deflater deflater = deflaters[level];
+    if (deflater == null) {
+      deflater = new Deflater(level);
+      deflaters[level] = deflater;
+    } else {
+      deflater.reset();
+    }
+    return deflater;
+  }
+
+  /**
+   * Gets an Inflater that is reset and ready for a new set of input.
+   * Applications must not call the end() method of the Inflater.
+   *
+   * @return a valid instance
+   */
+  public Inflater getInflater() {
+    if (inflater == null) {
+      inflater = new Inflater();
+    } else {
+      inflater.reset();
+    }
+    return inflater;
+  }
+
+  /**
+   * Gets a scratch buffer of at least the specified length.
+   * The content of the buffer is undefined.
+   *
+   * @param slot the slot for the buffer, in the range 0 to N_SCRATCH_SLOTS-1
+   * @param minimumLength the minimum length of the buffer
+   * @return a valid array of length greater than or equal to the specified
+   * minimum.
+   */
+  public byte[] getScratch(int slot, int minimumLength) {
+    byte[] b = scratch[slot];
+    if (b == null || b.length < minimumLength) {
+      b = new byte[minimumLength];
+      scratch[slot] = b;
+    }
+    return b;
+  }
+}
@@ -89,12 +89,11 @@ public class CodecDeflate implements ICompressionEncoder, ICompressionDecoder {
             | ((packing[8] & 0xff) << 16)
             | ((packing[9] & 0xff) << 24);
 
-        byte[] codeM32s = new byte[nM32];
+        byte[] codeM32s = CodecContext.get().getScratch(0, nM32);
         try {
-            Inflater inflater = new Inflater();
+            Inflater inflater = CodecContext.get().getInflater();
             inflater.setInput(packing, 10, packing.length - 10);
             int test = inflater.inflate(codeM32s, 0, nM32);
-            inflater.end();
             if (test > 0) {
                 stats.addCountsForM32(nM32, codeM32s);
                 total.addCountsForM32(nM32, codeM32s);
@@ -136,12 +135,12 @@ public class CodecDeflate implements ICompressionEncoder, ICompressionDecoder {
             | ((packing[8] & 0xff) << 16)
             | ((packing[9] & 0xff) << 24);
 
-        byte[] codeM32s = new byte[nM32];
+        CodecContext context = CodecContext.get();
+        byte[] codeM32s = context.getScratch(0, nM32);
         try {
-            Inflater inflater = new Inflater();
+            Inflater inflater = context.getInflater();
             inflater.setInput(packing, 10, packing.length - 10);
-            int test = inflater.inflate(codeM32s);
-            inflater.end();
+            int test = inflater.inflate(codeM32s, 0, nM32);
             if (test > 0) {
                 int[] output = new int[nRows * nColumns];
                 pcc.decode(seed, nRows, nColumns, codeM32s, 0, nM32, output);
@@ -168,7 +167,8 @@ public class CodecDeflate implements ICompressionEncoder, ICompressionDecoder {
             return null;
         }
 
-        byte[] mCode = new byte[CodecM32.MAX_BYTES_PER_VALUE * nRows * nCols];
+        byte[] mCode = CodecContext.get().getScratch(
+            0, CodecM32.MAX_BYTES_PER_VALUE * nRows * nCols);
 
         int resultLength = Integer.MAX_VALUE;
         byte[] resultBytes = null;
@@ -203,13 +203,14 @@ public class CodecDeflate implements ICompressionEncoder, ICompressionDecoder {
 
     byte[] compress(int codecIndex, IPredictorModel pcc, byte[] mCodes, int nM32) {
         int seed = pcc.getSeed();
-        Deflater deflater = new Deflater(6);
+        CodecContext context = CodecContext.get();
+        Deflater deflater = context.getDeflater(6);
         deflater.setInput(mCodes, 0, nM32);
         deflater.finish();
-        byte[] deflaterResult = new byte[nM32 + 128];
-        int dN = deflater.deflate(deflaterResult, 10, deflaterResult.length - 10, Deflater.FULL_FLUSH);
-        if (dN <= 0) {
-            // deflate failed
+        byte[] deflaterResult = context.getScratch(1, nM32 + 128);
+        int dN = deflater.deflate(deflaterResult, 10, nM32 + 118, Deflater.FULL_FLUSH);
+        if (dN <= 0 || !deflater.finished()) {
+            // deflate failed or the output did not fit in the buffer
             return null;
         }
         deflaterResult[0] = (byte) codecIndex;
@@ -49,6 +49,15 @@ import org.gridfour.io.BitOutputStore;
 /**
  * Provides data compression and decompression for floating-point
  * values. Integer values are not supported.
+ * <p>
+ * By default, the values are split into sign, exponent, and mantissa
+ * sequences that are compressed separately. Alternately, the byte-shuffle
+ * and bit-shuffle preconditioners may be selected on a per-element basis
+ * (see FloatPreconditionerType).  The preconditioner is recorded in the
+ * second byte of the packing.  Implementations prior to GVRS version 1.05
+ * ignore that byte and would decode shuffled packings incorrectly,
+ * so the preconditioners are used only for files of version 1.05 or later.
+ * Those earlier implementations reject such files with a version error.
  */
 public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
 
@@ -111,6 +120,9 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
   SimpleStats sM1Delta = new SimpleStats();
   SimpleStats sM2Delta = new SimpleStats();
   SimpleStats sM3Delta = new SimpleStats();
+  SimpleStats sShuffle = new SimpleStats();
+
+  private CodecStats[] preconditionerStats;
 
   @Override
   public int[] decode(int nRows, int nColumns, byte[] packing) throws IOException {
@@ -127,8 +139,12 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
   @Override
   public void analyze(int nRows, int nColumns, byte[] packing) throws IOException {
     nCellsInTile = nRows * nColumns;
+    if (packing[1] != 0) {
+      analyzeShuffled(nRows, nColumns, packing);
+      return;
+    }
     int nBytesForSignBits = (nCellsInTile + 7) / 8;
-    byte[] scratch = new byte[nCellsInTile];
+    byte[] scratch = CodecContext.get().getScratch(0, nCellsInTile);
 
     wasDataEncoded = true;
     int offset = 2;
@@ -171,7 +187,7 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
       // no statistics were gathered, do nothing
       return;
     }
-    if (wasDataEncoded) {
+    if (wasDataEncoded && sSignBit.nSum > 0) {
       double avgBitsPerSample = sTotal.getAvgCount() * 8.0 / nCellsInTile;
       double avgBytesPerSample = sTotal.getAvgCount() / nCellsInTile;
 
@@ -226,9 +242,28 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
         avgBytesPerSample,
         100*avgBytesPerSample / 4);
       ps.format("   Average Bits/Sample   %12.2f%n", avgBitsPerSample);
-    } else {
+    } else if (preconditionerStats == null) {
       ps.println("Gridfour_Float (not used)");
     }
+
+    if (preconditionerStats != null) {
+      ps.println("Gridfour_Float with preconditioner");
+      ps.format("  Preconditioner      Times Used        bits/sym    bits/tile  |  avg-len   avg-unique  entropy%n");
+      for (CodecStats stats : preconditionerStats) {
+        long tileCount = stats.getTileCount();
+        if (tileCount == 0) {
+          continue;
+        }
+        double percentTiles = 100.0 * (double) tileCount / nTilesInRaster;
+        ps.format("   %-16.16s %8d (%4.1f %%)     %5.2f  %12.1f   | %8.1f     %6.1f    %6.2f%n",
+          stats.getLabel(), tileCount, percentTiles,
+          stats.getBitsPerSymbol(),
+          stats.getAverageLength() * 8,
+          stats.getAverageMCodeLength(),
+          stats.getAverageObservedMCodes(),
+          stats.getEntropy());
+      }
+    }
   }
 
   @Override
@@ -239,7 +274,8 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
     sM2Delta.clear();
     sM3Delta.clear();
     sTotal.clear();
-
+    sShuffle.clear();
+    preconditionerStats = null;
   }
 
   private int packBytes(byte[] output, int offset, byte[] sequence) {
@@ -265,16 +301,19 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
 
   }
 
-  private byte[] doDeflate(byte[] input, SimpleStats stats) {
-    // we always reset the deflater after operation to ensure
-    // that it does not retain any objects generated during the compression.
-    Deflater deflater = new Deflater(9);
-    deflater.setInput(input);
+  private byte[] doDeflate(byte[] input, int length, SimpleStats stats) {
+    // The deflater is obtained from the per-thread context and is
+    // reset before each use, so it does not retain any objects generated
+    // during the compression.  The result buffer uses a separate slot
+    // from the input.
+    CodecContext context = CodecContext.get();
+    Deflater deflater = context.getDeflater(9);
+    deflater.setInput(input, 0, length);
     deflater.finish();
-    byte[] resultB = new byte[input.length + 128];
-    int dB = deflater.deflate(resultB, 0, resultB.length, Deflater.FULL_FLUSH);
+    byte[] resultB = context.getScratch(1, length + 128);
+    int dB = deflater.deflate(resultB, 0, length + 128, Deflater.FULL_FLUSH);
     stats.addCount(dB);
-    if (dB <= 0) {
+    if (dB <= 0 || !deflater.finished()) {
       // deflate failed
       throw new RuntimeException("Deflate failed");
     }
@@ -283,11 +322,10 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
   }
 
   int doInflate(byte[] input, int offset, int length, byte[] output, int outputLength) {
-    Inflater inflater = new Inflater();
+    Inflater inflater = CodecContext.get().getInflater();
     inflater.setInput(input, offset, length);
     try {
       int test = inflater.inflate(output, 0, outputLength);
-      inflater.end();
       if (test < 0) {
         throw new RuntimeException("Inflate failed");
       }
@@ -339,34 +377,35 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
       bSign.appendBit(bit);
     }
 
-    byte[] compSignBit = doDeflate(bSign.getEncodedText(), this.sSignBit);
-    byte[] scratch = new byte[c.length];
+    byte[] signBits = bSign.getEncodedText();
+    byte[] compSignBit = doDeflate(signBits, signBits.length, this.sSignBit);
+    byte[] scratch = CodecContext.get().getScratch(0, c.length);
     for (int i = 0; i < c.length; i++) {
       // get the exponent part of the floating point value
       scratch[i] = (byte) ((c[i] >> 23) & 0xff);
     }
-    byte[] compExp = doDeflate(scratch, sExp);
+    byte[] compExp = doDeflate(scratch, c.length, sExp);
 
     for (int i = 0; i < c.length; i++) {
       // get the high byte of the mantissa (7 bits)
       scratch[i] = (byte) ((c[i] >> 16) & 0x7f);
     }
     encodeDeltas(scratch, nRows, nColumns);
-    byte[] compM1 = doDeflate(scratch, sM1Delta);
+    byte[] compM1 = doDeflate(scratch, c.length, sM1Delta);
 
     for (int i = 0; i < c.length; i++) {
       // get the middle byte of the mantissa (8 bits)
       scratch[i] = (byte) ((c[i] >> 8) & 0xff);
     }
     encodeDeltas(scratch, nRows, nColumns);
-    byte[] compM2 = doDeflate(scratch, sM2Delta);
+    byte[] compM2 = doDeflate(scratch, c.length, sM2Delta);
 
     for (int i = 0; i < c.length; i++) {
       // get the low byte of the mantissa (8 bits)
       scratch[i] = (byte) (c[i] & 0xff);
     }
     encodeDeltas(scratch, nRows, nColumns);
-    byte[] compM3 = doDeflate(scratch, sM3Delta);
+    byte[] compM3 = doDeflate(scratch, c.length, sM3Delta);
 
     int nPacked = compSignBit.length
       + compExp.length
@@ -392,12 +431,228 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
   }
 
   @Override
-  public float[] decodeFloats(int nRows, int nColumns, byte[] packing) throws IOException {
+  public byte[] encodeFloats(
+    int codecIndex, int nRows, int nColumns, float[] values,
+    FloatPreconditionerType preconditioner) {
+    if (preconditioner == null || preconditioner == FloatPreconditionerType.Split) {
+      return encodeFloats(codecIndex, nRows, nColumns, values);
+    }
     nCellsInTile = nRows * nColumns;
-    byte[] scratch = new byte[nCellsInTile];
-    int[] rawInt = new int[nCellsInTile];
-    float[] f = new float[nCellsInTile];
-    int nSignBytes = (nCellsInTile + 7) / 8;
+    wasDataEncoded = true;
+    int[] x = computeDeltas(nRows, nColumns, values);
+    int n = shuffle(preconditioner, x, nCellsInTile);
+    byte[] scratch = CodecContext.get().getScratch(0, n);
+    byte[] compressed = doDeflate(scratch, n, sShuffle);
+    byte[] packing = new byte[compressed.length + 2];
+    packing[0] = (byte) codecIndex;
+    packing[1] = (byte) preconditioner.getCodeValue();
+    System.arraycopy(compressed, 0, packing, 2, compressed.length);
+    return packing;
+  }
+
+  /**
+   * Computes the difference between the integer representation of
+   * the bits of each value and those of its predecessor.
+   * The predecessor is the value to the left or, for the first column,
+   * the value above.  For smoothly varying data of a consistent sign,
+   * the differences are small and their high-order bits are mostly
+   * all zeros or all ones.
+   */
+  private int[] computeDeltas(int nRows, int nColumns, float[] values) {
+    int[] x = new int[nRows * nColumns];
+    int prior0 = 0;
+    int k = 0;
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      int prior = prior0;
+      prior0 = Float.floatToRawIntBits(values[k]);
+      for (int iCol = 0; iCol < nColumns; iCol++) {
+        int test = Float.floatToRawIntBits(values[k]);
+        x[k++] = test - prior;
+        prior = test;
+      }
+    }
+    return x;
+  }
+
+  private void undoDeltas(int nRows, int nColumns, int[] x) {
+    int prior = 0;
+    int k = 0;
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nColumns; iCol++) {
+        prior += x[k];
+        x[k++] = prior;
+      }
+      prior = x[iRow * nColumns];
+    }
+  }
+
+  /**
+   * Rearranges the values into the scratch buffer from the
+   * per-thread context, grouping the bytes or bits by position
+   * with the high-order content first.
+   *
+   * @return the number of bytes written to the scratch buffer
+   */
+  private int shuffle(FloatPreconditionerType preconditioner, int[] x, int n) {
+    if (preconditioner == FloatPreconditionerType.ByteShuffle) {
+      byte[] scratch = CodecContext.get().getScratch(0, n * 4);
+      for (int i = 0; i < n; i++) {
+        int v = x[i];
+        scratch[i] = (byte) (v >>> 24);
+        scratch[n + i] = (byte) (v >>> 16);
+        scratch[2 * n + i] = (byte) (v >>> 8);
+        scratch[3 * n + i] = (byte) v;
+      }
+      return n * 4;
+    }
+    int nBytesPerPlane = (n + 7) / 8;
+    byte[] scratch = CodecContext.get().getScratch(0, nBytesPerPlane * 32);
+    int k = 0;
+    for (int iBit = 31; iBit >= 0; iBit--) {
+      for (int i = 0; i < n; i += 8) {
+        int b = 0;
+        int m = Math.min(8, n - i);
+        for (int j = 0; j < m; j++) {
+          b |= ((x[i + j] >>> iBit) & 1) << j;
+        }
+        scratch[k++] = (byte) b;
+      }
+    }
+    return k;
+  }
+
+  private void unshuffle(
+    FloatPreconditionerType preconditioner, byte[] scratch, int[] x, int n) {
+    if (preconditioner == FloatPreconditionerType.ByteShuffle) {
+      for (int i = 0; i < n; i++) {
+        x[i] = ((scratch[i] & 0xff) << 24)
+          | ((scratch[n + i] & 0xff) << 16)
+          | ((scratch[2 * n + i] & 0xff) << 8)
+          | (scratch[3 * n + i] & 0xff);
+      }
+      return;
+    }
+    // Each byte of a plane gives one bit for each of eight consecutive
+    // values. The bytes for eight successive planes are transposed
+    // using a table lookup to obtain one byte of each of the values.
+    int nBytesPerPlane = (n + 7) / 8;
+    for (int iGroup = 0; iGroup < nBytesPerPlane; iGroup++) {
+      int i = iGroup * 8;
+      int m = Math.min(8, n - i);
+      for (int q = 0; q < 4; q++) {
+        long lanes = 0;
+        int index = q * 8 * nBytesPerPlane + iGroup;
+        for (int t = 0; t < 8; t++) {
+          lanes |= SPREAD[scratch[index] & 0xff] << (7 - t);
+          index += nBytesPerPlane;
+        }
+        int shift = 24 - 8 * q;
+        for (int j = 0; j < m; j++) {
+          x[i + j] |= (int) ((lanes >>> (8 * j)) & 0xff) << shift;
+        }
+      }
+    }
+  }
+
+  /**
+   * A table that maps the bits of a byte to the low-order bits of the
+   * eight bytes of a long integer.
+   */
+  private static final long[] SPREAD = new long[256];
+
+  static {
+    for (int b = 0; b < 256; b++) {
+      long s = 0;
+      for (int j = 0; j < 8; j++) {
+        if (((b >> j) & 1) != 0) {
+          s |= 1L << (8 * j);
+        }
+      }
+      SPREAD[b] = s;
+    }
+  }
+
+  private static int getShuffledLength(FloatPreconditionerType preconditioner, int n) {
+    if (preconditioner == FloatPreconditionerType.ByteShuffle) {
+      return n * 4;
+    }
+    return ((n + 7) / 8) * 32;
+  }
+
+  private static FloatPreconditionerType getPreconditioner(byte[] packing)
+    throws IOException {
+    FloatPreconditionerType preconditioner
+      = FloatPreconditionerType.valueOf(packing[1] & 0xff);
+    if (preconditioner == null) {
+      throw new IOException("Unknown float preconditioner " + (packing[1] & 0xff));
+    }
+    return preconditioner;
+  }
+
+  private float[] decodeShuffled(int nRows, int nColumns, byte[] packing)
+    throws IOException {
+    FloatPreconditionerType preconditioner = getPreconditioner(packing);
+    int n = nRows * nColumns;
+    int nShuffled = getShuffledLength(preconditioner, n);
+    byte[] scratch = CodecContext.get().getScratch(0, nShuffled);
+    if (doInflate(packing, 2, packing.length - 2, scratch, nShuffled) != nShuffled) {
+      throw new IOException("Incomplete data in float packing");
+    }
+    int[] x = new int[n];
+    unshuffle(preconditioner, scratch, x, n);
+    undoDeltas(nRows, nColumns, x);
+    float[] f = new float[n];
+    for (int i = 0; i < n; i++) {
+      f[i] = Float.intBitsToFloat(x[i]);
+    }
+    return f;
+  }
+
+  private void analyzeShuffled(int nRows, int nColumns, byte[] packing)
+    throws IOException {
+    FloatPreconditionerType preconditioner = getPreconditioner(packing);
+    if (preconditionerStats == null) {
+      FloatPreconditionerType[] types = FloatPreconditionerType.values();
+      preconditionerStats = new CodecStats[types.length];
+      for (int i = 0; i < types.length; i++) {
+        preconditionerStats[i] = new CodecStats(types[i].name());
+      }
+    }
+    int n = nRows * nColumns;
+    int nShuffled = getShuffledLength(preconditioner, n);
+    byte[] scratch = CodecContext.get().getScratch(0, nShuffled);
+    doInflate(packing, 2, packing.length - 2, scratch, nShuffled);
+
+    // the symbol statistics describe the bytes of the preconditioned
+    // sequence, which are the input to the Deflate stage
+    int[] count = new int[256];
+    for (int i = 0; i < nShuffled; i++) {
+      count[scratch[i] & 0xff]++;
+    }
+    int nUnique = 0;
+    double e = 0;
+    for (int i = 0; i < 256; i++) {
+      if (count[i] > 0) {
+        nUnique++;
+        double p = (double) count[i] / nShuffled;
+        e -= p * Math.log(p);
+      }
+    }
+    CodecStats stats = preconditionerStats[preconditioner.getCodeValue()];
+    stats.addToCounts(packing.length - 2, n, 0);
+    stats.addStatsForNonM32(nShuffled, nUnique, e / Math.log(2.0));
+  }
+
+  @Override
+  public float[] decodeFloats(int nRows, int nColumns, byte[] packing) throws IOException {
+    if (packing[1] != 0) {
+      return decodeShuffled(nRows, nColumns, packing);
+    }
+    int nCells = nRows * nColumns;
+    byte[] scratch = CodecContext.get().getScratch(0, nCells);
+    int[] rawInt = new int[nCells];
+    float[] f = new float[nCells];
+    int nSignBytes = (nCells + 7) / 8;
 
     // int index = packing[0];      // not used at this time
     // int predictor = packing[1];  // not used at this time
@@ -407,7 +662,7 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
     doInflate(packing, offset, n, scratch, nSignBytes);
     BitInputStore bins = new BitInputStore(scratch);
     int signBit = 0;
-    for (int i = 0; i < nCellsInTile; i++) {
+    for (int i = 0; i < nCells; i++) {
       signBit = bins.getBit();
       rawInt[i] = signBit << 31;
     }
@@ -415,42 +670,42 @@ public class CodecFloat implements ICompressionEncoder, ICompressionDecoder {
 
     n = unpackInteger(packing, offset);
     offset += 4;
-    doInflate(packing, offset, n, scratch, nCellsInTile);
-    for (int i = 0; i < nCellsInTile; i++) {
+    doInflate(packing, offset, n, scratch, nCells);
+    for (int i = 0; i < nCells; i++) {
       rawInt[i] |= (scratch[i] & 0xff) << 23;
     }
     offset += n;
 
     n = unpackInteger(packing, offset);
     offset += 4;
-    doInflate(packing, offset, n, scratch, nCellsInTile);
+    doInflate(packing, offset, n, scratch, nCells);
     decodeDeltas(scratch, nRows, nColumns);
-    for (int i = 0; i < nCellsInTile; i++) {
+    for (int i = 0; i < nCells; i++) {
       rawInt[i] |= (scratch[i] & 0x7f) << 16;
     }
     offset += n;
 
     n = unpackInteger(packing, offset);
     offset += 4;
-    doInflate(packing, offset, n, scratch, nCellsInTile);
+    doInflate(packing, offset, n, scratch, nCells);
     decodeDeltas(scratch, nRows, nColumns);
-    for (int i = 0; i < nCellsInTile; i++) {
+    for (int i = 0; i < nCells; i++) {
       rawInt[i] |= (scratch[i] & 0xff) << 8;
     }
     offset += n;
 
     n = unpackInteger(packing, offset);
     offset += 4;
-    doInflate(packing, offset, n, scratch, nCellsInTile);
+    doInflate(packing, offset, n, scratch, nCells);
     decodeDeltas(scratch, nRows, nColumns);
-    for (int i = 0; i < nCellsInTile; i++) {
+    for (int i = 0; i < nCells; i++) {
       rawInt[i] |= scratch[i] & 0xff;
     }
     offset += n;
 
     assert offset == packing.length : "Incorrect packing";
 
-    for (int i = 0; i < nCellsInTile; i++) {
+    for (int i = 0; i < nCells; i++) {
       f[i] = Float.intBitsToFloat(rawInt[i]);
     }
 
@@ -0,0 +1,289 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Arrays;
+import static org.gridfour.util.GridfourConstants.INT4_NULL_CODE;
+
+/**
+ * Provides lossy data compression for floating-point values with
+ * a guaranteed maximum absolute error.
+ * <p>
+ * The values are quantized to integer multiples of twice the error bound,
+ * so that each reconstructed value lies within the bound of its source.
+ * The integer quantization codes are then compressed by the standard
+ * Huffman and Deflate codecs using the predictor models. Because the
+ * quantization removes the low-order content of the floating-point values,
+ * which is essentially noise for most real-valued data sets,
+ * the compressed output is usually several times smaller than that
+ * produced by the lossless float codec.
+ * <p>
+ * Values that cannot be quantized within the error bound are stored
+ * exactly. These include NaN, infinite values, the fill value for
+ * the element, and values that are too large in magnitude to be
+ * represented as quantization codes.
+ * <p>
+ * This codec only encodes data when it is given an error bound through the
+ * encodeFloatsWithErrorBound method. The encodeFloats method
+ * always returns a null. This codec is not included in the default codec list
+ * for a GVRS file specification. It is added automatically when
+ * a floating-point element with a non-zero maximum absolute error is added
+ * to a specification that enables data compression.
+ */
+public class CodecFloatErrorBounded implements ICompressionEncoder, ICompressionDecoder {
+
+  /**
+   * The largest magnitude for a quantization code. The limit ensures that
+   * the residuals computed by the predictor models do not overflow.
+   */
+  private static final int MAX_QUANTIZATION_CODE = 1 << 28;
+
+  private static final int HEADER_SIZE = 10;
+
+  private static final int INNER_HUFFMAN = 0;
+  private static final int INNER_DEFLATE = 1;
+  private static final int INNER_NONE = 2;
+
+  private final CodecHuffman huffman = new CodecHuffman();
+  private final CodecDeflate deflate = new CodecDeflate();
+
+  private int nTilesAnalyzed;
+  private int nCellsInTile;
+  private long nBytesAnalyzed;
+  private long nExceptionsAnalyzed;
+
+  /**
+   * Standard constructor
+   */
+  public CodecFloatErrorBounded() {
+    // no action required
+  }
+
+  @Override
+  public byte[] encode(int codecIndex, int nRows, int nCols, int[] values) {
+    throw new IllegalArgumentException(
+      "Attempt to encode an integral format not supported by this CODEC");
+  }
+
+  @Override
+  public int[] decode(int nRows, int nColumns, byte[] packing) throws IOException {
+    throw new IOException(
+      "Attempt to decode an integral format not supported by this CODEC");
+  }
+
+  @Override
+  public byte[] encodeFloats(int codecIndex, int nRows, int nCols, float[] values) {
+    // lossy compression is performed only when an error bound is specified
+    return null;
+  }
+
+  @Override
+  public byte[] encodeFloatsWithErrorBound(
+    int codecIndex, int nRows, int nCols, float[] values,
+    float fillValue, float maxAbsoluteError) {
+    if (!(maxAbsoluteError > 0) || Float.isInfinite(maxAbsoluteError)) {
+      return null;
+    }
+
+    int nValues = nRows * nCols;
+    double step = 2.0 * maxAbsoluteError;
+    int[] codes = new int[nValues];
+    int[] exceptions = new int[nValues];
+    int nExceptions = 0;
+    for (int i = 0; i < nValues; i++) {
+      float v = values[i];
+      if (Float.isNaN(v) || Float.isInfinite(v) || v == fillValue) {
+        codes[i] = INT4_NULL_CODE;
+        exceptions[nExceptions++] = Float.floatToRawIntBits(v);
+        continue;
+      }
+      double q = Math.rint(v / step);
+      if (Math.abs(q) <= MAX_QUANTIZATION_CODE) {
+        // verify the bound using the same arithmetic as the decoder
+        int code = (int) q;
+        float r = (float) (code * step);
+        if (Math.abs((double) r - (double) v) <= maxAbsoluteError) {
+          codes[i] = code;
+          continue;
+        }
+      }
+      codes[i] = INT4_NULL_CODE;
+      exceptions[nExceptions++] = Float.floatToRawIntBits(v);
+    }
+
+    int innerType = INNER_NONE;
+    byte[] inner = null;
+    if (nExceptions < nValues) {
+      inner = huffman.encode(codecIndex, nRows, nCols, codes);
+      innerType = INNER_HUFFMAN;
+      byte[] test = deflate.encode(codecIndex, nRows, nCols, codes);
+      if (test != null && (inner == null || test.length < inner.length)) {
+        inner = test;
+        innerType = INNER_DEFLATE;
+      }
+      if (inner == null) {
+        return null;
+      }
+    }
+
+    int innerLength = inner == null ? 0 : inner.length;
+    byte[] packing = new byte[HEADER_SIZE + nExceptions * 4 + innerLength];
+    packing[0] = (byte) codecIndex;
+    packing[1] = (byte) innerType;
+    int offset = packInteger(packing, 2, Float.floatToRawIntBits(maxAbsoluteError));
+    offset = packInteger(packing, offset, nExceptions);
+    for (int i = 0; i < nExceptions; i++) {
+      offset = packInteger(packing, offset, exceptions[i]);
+    }
+    if (inner != null) {
+      System.arraycopy(inner, 0, packing, offset, innerLength);
+    }
+    return packing;
+  }
+
+  @Override
+  public float[] decodeFloats(int nRows, int nColumns, byte[] packing) throws IOException {
+    int nValues = nRows * nColumns;
+    int innerType = packing[1] & 0xff;
+    float maxAbsoluteError = Float.intBitsToFloat(unpackInteger(packing, 2));
+    int nExceptions = unpackInteger(packing, 6);
+    int exceptionOffset = HEADER_SIZE;
+    int innerOffset = HEADER_SIZE + nExceptions * 4;
+    if (nExceptions < 0 || nExceptions > nValues || innerOffset > packing.length) {
+      throw new IOException("Invalid packing for error-bounded float codec");
+    }
+
+    float[] output = new float[nValues];
+    if (innerType == INNER_NONE) {
+      if (nExceptions != nValues) {
+        throw new IOException("Invalid packing for error-bounded float codec");
+      }
+      for (int i = 0; i < nValues; i++) {
+        output[i] = Float.intBitsToFloat(unpackInteger(packing, exceptionOffset));
+        exceptionOffset += 4;
+      }
+      return output;
+    }
+
+    byte[] inner = Arrays.copyOfRange(packing, innerOffset, packing.length);
+    int[] codes;
+    if (innerType == INNER_HUFFMAN) {
+      codes = huffman.decode(nRows, nColumns, inner);
+    } else if (innerType == INNER_DEFLATE) {
+      codes = deflate.decode(nRows, nColumns, inner);
+    } else {
+      throw new IOException("Unknown inner codec for error-bounded float codec");
+    }
+
+    double step = 2.0 * maxAbsoluteError;
+    for (int i = 0; i < nValues; i++) {
+      int code = codes[i];
+      if (code == INT4_NULL_CODE) {
+        if (exceptionOffset >= innerOffset) {
+          throw new IOException("Invalid packing for error-bounded float codec");
+        }
+        output[i] = Float.intBitsToFloat(unpackInteger(packing, exceptionOffset));
+        exceptionOffset += 4;
+      } else {
+        output[i] = (float) (code * step);
+      }
+    }
+    return output;
+  }
+
+  private int packInteger(byte[] output, int offset, int iValue) {
+    output[offset] = (byte) (iValue & 0xff);
+    output[offset + 1] = (byte) ((iValue >> 8) & 0xff);
+    output[offset + 2] = (byte) ((iValue >> 16) & 0xff);
+    output[offset + 3] = (byte) ((iValue >> 24) & 0xff);
+    return offset + 4;
+  }
+
+  private int unpackInteger(byte[] input, int offset) {
+    return (input[offset] & 0xff)
+      | ((input[offset + 1] & 0xff) << 8)
+      | ((input[offset + 2] & 0xff) << 16)
+      | ((input[offset + 3] & 0xff) << 24);
+  }
+
+  @Override
+  public void analyze(int nRows, int nColumns, byte[] packing) throws IOException {
+    nCellsInTile = nRows * nColumns;
+    nTilesAnalyzed++;
+    nBytesAnalyzed += packing.length;
+    nExceptionsAnalyzed += unpackInteger(packing, 6);
+  }
+
+  @Override
+  public void reportAnalysisData(PrintStream ps, int nTilesInRaster) {
+    ps.println("Gridfour_Float_Error_Bounded");
+    if (nTilesAnalyzed == 0 || nCellsInTile == 0) {
+      ps.format("   Tiles Compressed:  0%n");
+      return;
+    }
+    double avgBytesPerTile = (double) nBytesAnalyzed / nTilesAnalyzed;
+    double avgExceptions = (double) nExceptionsAnalyzed / nTilesAnalyzed;
+    ps.format("   Times Used: %d%n", nTilesAnalyzed);
+    ps.format("   Average Bytes/Tile    %12.2f        (%7.4f%%)%n",
+      avgBytesPerTile,
+      100 * avgBytesPerTile / (nCellsInTile * 4));
+    ps.format("   Average Bits/Sample   %12.2f%n",
+      avgBytesPerTile * 8.0 / nCellsInTile);
+    ps.format("   Average Exact Values/Tile %8.2f%n", avgExceptions);
+  }
+
+  @Override
+  public void clearAnalysisData() {
+    nTilesAnalyzed = 0;
+    nBytesAnalyzed = 0;
+    nExceptionsAnalyzed = 0;
+  }
+
+  @Override
+  public boolean implementsFloatingPointEncoding() {
+    return true;
+  }
+
+  @Override
+  public boolean implementsIntegerEncoding() {
+    return false;
+  }
+}
@@ -40,6 +40,8 @@ package org.gridfour.compress;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
 import org.gridfour.io.BitInputStore;
 import org.gridfour.io.BitOutputStore;
 import static org.gridfour.util.GridfourConstants.INT4_NULL_CODE;
@@ -81,10 +83,16 @@ public class CodecHuffman implements ICompressionEncoder, ICompressionDecoder {
             return null;
         }
 
-        byte[] mCode = new byte[CodecM32.MAX_BYTES_PER_VALUE * nRows * nCols];
+        CodecContext context = CodecContext.get();
+        byte[] mCode = context.getScratch(
+            0, CodecM32.MAX_BYTES_PER_VALUE * nRows * nCols);
 
+        // Trial encodings are written directly into scratch buffers,
+        // alternating between two slots so that the best result found
+        // so far is preserved. Only the final result is copied.
         int resultLength = Integer.MAX_VALUE;
-        BitOutputStore resultStore = null;
+        int resultSlot = -1;
+        int trialSlot = 2;
 
         for (IPredictorModel testModel : predictorModel) {
             if (containsNullValue) {
@@ -98,35 +106,65 @@ public class CodecHuffman implements ICompressionEncoder, ICompressionDecoder {
             }
             int mCodeLength = testModel.encode(nRows, nCols, values, mCode);
             if (mCodeLength > 0) {
-                BitOutputStore testStore = compress(
+                byte[] trial = context.getScratch(
+                    trialSlot, getMaximumPackingLength(mCodeLength));
+                int testLength = compress(
                     codecIndex,
                     testModel,
                     mCode,
-                    mCodeLength);
-                int testLength = testStore.getEncodedTextLengthInBytes();
+                    mCodeLength,
+                    ByteBuffer.wrap(trial));
                 if (testLength < resultLength) {
                     resultLength = testLength;
-                    resultStore = testStore;
+                    resultSlot = trialSlot;
+                    trialSlot = trialSlot == 2 ? 3 : 2;
                 }
             }
         }
 
-        if (resultStore == null) {
+        if (resultSlot < 0) {
             return null;
         }
 
-        return resultStore.getEncodedText();
+        return Arrays.copyOf(context.getScratch(resultSlot, resultLength), resultLength);
     }
 
-    BitOutputStore compress(int codecIndex, IPredictorModel pcc, byte[] mCodes, int nM32) {
+    /**
+     * Gets an upper bound for the length of the packing produced
+     * by the compress method.
+     * The average length of a Huffman code is less than one
+     * bit greater than the entropy of the symbols, so the text requires
+     * fewer than 9 bits per symbol. The header and code tree are
+     * short compared to the 2048 byte allowance.
+     *
+     * @param nM32 the number of M32 bytes to be encoded
+     * @return a positive value
+     */
+    static int getMaximumPackingLength(int nM32) {
+        return 2 * nM32 + 2048;
+    }
+
+    /**
+     * Encodes the M32 codes, writing the packing to the target buffer.
+     *
+     * @param codecIndex the index assigned to the codec
+     * @param pcc the predictor model used to produce the M32 codes
+     * @param mCodes the M32 codes
+     * @param nM32 the number of M32 bytes to be encoded
+     * @param target a buffer with at least getMaximumPackingLength(nM32)
+     * bytes remaining
+     * @return the number of bytes written to the target
+     */
+    int compress(
+        int codecIndex, IPredictorModel pcc, byte[] mCodes, int nM32, ByteBuffer target) {
         HuffmanEncoder huffman = new HuffmanEncoder();
-        BitOutputStore store = new BitOutputStore();
+        BitOutputStore store = new BitOutputStore(target);
         store.appendBits(8, codecIndex);
         store.appendBits(8, pcc.getPredictorType().getCodeValue());
         store.appendBits(32, pcc.getSeed());
         store.appendBits(32, nM32);
         huffman.encode(store, nM32, mCodes);
-        return store;
+        return store.flush();
     }
 
     @Override
@@ -144,7 +182,7 @@ public class CodecHuffman implements ICompressionEncoder, ICompressionDecoder {
 
         HuffmanDecoder decoder = new HuffmanDecoder();
         BitInputStore inputStore = new BitInputStore(packing, 10, packing.length - 10);
-        byte[] codeM32s = new byte[nM32];
+        byte[] codeM32s = CodecContext.get().getScratch(0, nM32);
         decoder.decode(inputStore, nM32, codeM32s);
 
         int[] output = new int[nRows * nColumns];
@@ -186,7 +224,7 @@ public class CodecHuffman implements ICompressionEncoder, ICompressionDecoder {
 
         HuffmanDecoder decoder = new HuffmanDecoder();
         BitInputStore inputStore = new BitInputStore(packing, 10, packing.length - 10);
-        byte[] codeM32s = new byte[nM32];
+        byte[] codeM32s = CodecContext.get().getScratch(0, nM32);
         decoder.decode(inputStore, nM32, codeM32s);
 
         CodecStats stats = codecStats[packing[1] & 0xff];
@@ -0,0 +1,107 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+/**
+ * Used to represent the method used to prepare floating-point values
+ * for compression by the Gridfour float codec.  The preconditioner
+ * rearranges the bytes or bits of the values so that the Deflate
+ * stage sees long runs of similar symbols.
+ */
+public enum FloatPreconditionerType {
+    /**
+     * The values are split into separate sequences for the sign bits,
+     * the exponents, and three mantissa bytes. Differencing is applied
+     * to the mantissa bytes and each sequence is compressed separately.
+     * This is the original format for the float codec.
+     */
+    Split(0),
+    /**
+     * The integer representation of the bits of each value is
+     * differenced against that of its predecessor. The bytes of the
+     * differences are then grouped by position (byte shuffle), so that the
+     * high-order bytes of all values precede the low-order bytes.
+     * The result is compressed as a single sequence.
+     */
+    ByteShuffle(1),
+    /**
+     * The integer representation of the bits of each value is
+     * differenced against that of its predecessor. The bits of the
+     * differences are then grouped by position (bit shuffle), so that the
+     * high-order bits of all values precede the low-order bits.
+     * The result is compressed as a single sequence.
+     */
+    BitShuffle(2);
+
+    final int codeValue;
+
+    FloatPreconditionerType(int codeValue) {
+        this.codeValue = codeValue;
+    }
+
+    /**
+     * Gets the code value to be stored in a data file to indicate what kind of
+     * preconditioner was used to store data
+     *
+     * @return an integer in the range 0 to 2.
+     */
+    public int getCodeValue() {
+        return codeValue;
+    }
+
+    /**
+     * Gets the enumeration instance associated with the specified code value
+     *
+     * @param codeValue a valid integer code value
+     * @return the associated enumeration instance, or a null if the
+     * code value is not recognized.
+     */
+    public static FloatPreconditionerType valueOf(int codeValue) {
+        switch (codeValue) {
+            case 0:
+                return Split;
+            case 1:
+                return ByteShuffle;
+            case 2:
+                return BitShuffle;
+            default:
+                return null;
+        }
+    }
+}
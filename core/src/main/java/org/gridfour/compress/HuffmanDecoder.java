@@ -176,12 +176,12 @@ public class HuffmanDecoder {
       return true;
     }
 
+    // Decode multiple bits at a time using a lookup table.  Codes that
+    // are longer than the table index are completed by traversing the tree.
+    HuffmanLookupTable table
+      = new HuffmanLookupTable(nodeIndex, HuffmanLookupTable.DEFAULT_TABLE_BITS);
     for (int i = 0; i < nSymbols; i++) {
-      int offset = nodeIndex[1 + input.getBit()]; // start from the root node
-      while (nodeIndex[offset] == -1) {
-        offset = nodeIndex[offset + 1 + input.getBit()];
-      }
-      symbols[i] = (byte) nodeIndex[offset];
+      symbols[i] = (byte) table.decode(input);
     }
     return true;
   }
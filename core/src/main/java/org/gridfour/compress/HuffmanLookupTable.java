@@ -0,0 +1,183 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import org.gridfour.io.BitInputStore;
+
+/**
+ * Provides a table-driven method for decoding symbols from a Huffman tree.
+ * Rather than traversing the tree one bit at a time, the decoder examines
+ * a fixed number of bits from the input and uses them as an index into
+ * a table. For symbols with codes no longer than the number of bits
+ * in the index, the table gives the symbol and the length of its code
+ * directly. For longer codes, the table gives the node in the tree
+ * that is reached after the indexed bits are consumed, and decoding
+ * continues one bit at a time from that node.
+ * <p>
+ * The tree is given using the array-based representation used by
+ * the Gridfour Huffman decoders.  Each node is represented by
+ * triplets of integer values:
+ * <pre>
+ *     [offset+0] symbol code (or -1 for a branch node)
+ *     [offset+1] index to left child node
+ *     [offset+2] index to right child node
+ * </pre>
+ * The root node is at offset zero. Bits are consumed in the order in which
+ * they are read from the input, so the first bit of a code is the
+ * low-order bit of the table index.
+ */
+public final class HuffmanLookupTable {
+
+  /**
+   * The default maximum number of bits used to index the table.
+   */
+  public static final int DEFAULT_TABLE_BITS = 10;
+
+  private final int[] nodeIndex;
+  private final int tableBits;
+  private final int[] table;
+
+  /**
+   * Constructs a lookup table for the specified tree.  The number of bits
+   * used to index the table is the lesser of the specified maximum
+   * and the depth of the tree.
+   *
+   * @param nodeIndex the array-based representation of a Huffman tree
+   * containing at least two symbols.
+   * @param maxTableBits the maximum number of bits used to index the table,
+   * in the range 1 to 16.
+   */
+  public HuffmanLookupTable(int[] nodeIndex, int maxTableBits) {
+    if (maxTableBits < 1 || maxTableBits > 16) {
+      throw new IllegalArgumentException(
+        "Table bits not in range [1..16]: " + maxTableBits);
+    }
+    this.nodeIndex = nodeIndex;
+    int depth = computeDepth(0);
+    tableBits = Math.max(1, Math.min(maxTableBits, depth));
+    table = new int[1 << tableBits];
+    populate(0, 0, 0);
+  }
+
+  private int computeDepth(int offset) {
+    if (nodeIndex[offset] != -1) {
+      return 0;
+    }
+    int depth = 0;
+    for (int bit = 0; bit < 2; bit++) {
+      int child = nodeIndex[offset + 1 + bit];
+      if (child > 0) {
+        int d = computeDepth(child);
+        if (d > depth) {
+          depth = d;
+        }
+      }
+    }
+    return depth + 1;
+  }
+
+  /**
+   * Populates the table entries for the subtree at the specified node.
+   * Entries for leaf nodes are stored as the symbol shifted left 8 bits
+   * combined with the length of the code, so they are always positive.
+   * Entries for branch nodes reached at the full table depth are
+   * stored as the bitwise complement of the node offset, so they are
+   * always negative.  Entries that do not correspond to a node in the tree
+   * (as may occur in a malformed tree) are left as zero.
+   */
+  private void populate(int offset, int depth, int code) {
+    if (nodeIndex[offset] != -1) {
+      if (depth == 0) {
+        // the root is a leaf, there is no proper tree
+        return;
+      }
+      int entry = (nodeIndex[offset] << 8) | depth;
+      int step = 1 << depth;
+      for (int i = code; i < table.length; i += step) {
+        table[i] = entry;
+      }
+      return;
+    }
+    if (depth == tableBits) {
+      table[code] = ~offset;
+      return;
+    }
+    for (int bit = 0; bit < 2; bit++) {
+      int child = nodeIndex[offset + 1 + bit];
+      if (child > 0) {
+        populate(child, depth + 1, code | (bit << depth));
+      }
+    }
+  }
+
+  /**
+   * Gets the number of bits used to index the table.
+   *
+   * @return a value in the range 1 to 16.
+   */
+  public int getTableBits() {
+    return tableBits;
+  }
+
+  /**
+   * Decodes the next symbol from the input.
+   *
+   * @param input a valid bit source positioned at the start of a code.
+   * @return the symbol
+   */
+  public int decode(BitInputStore input) {
+    int entry = table[input.peekBits(tableBits)];
+    if (entry > 0) {
+      input.skipBits(entry & 0xff);
+      return entry >>> 8;
+    }
+    int offset;
+    if (entry < 0) {
+      input.skipBits(tableBits);
+      offset = ~entry;
+    } else {
+      // not in the table, traverse the tree from the root
+      offset = nodeIndex[1 + input.getBit()];
+    }
+    while (nodeIndex[offset] == -1) {
+      offset = nodeIndex[offset + 1 + input.getBit()];
+    }
+    return nodeIndex[offset];
+  }
+}
@@ -75,6 +75,54 @@ public interface ICompressionEncoder {
      */
     byte[] encodeFloats(int codecIndex, int nRows, int nCols, float[] values);
 
+    /**
+     * Encodes the specified tile data in a compressed form using
+     * the specified preconditioner if the implementation supports it.
+     * The default implementation ignores the preconditioner and
+     * calls the standard encodeFloats method.
+     *
+     * @param codecIndex the index assigned by the application to
+     * associate a codec with an entry in the raster file.
+     * @param nRows a value of 1 or greater giving the number of rows in the
+     * tile
+     * @param nCols a value of 1 or greater giving the number of columns in the
+     * tile
+     * @param values the values of the tile in row-major order
+     * @param preconditioner a valid preconditioner type
+     * @return if successful, an array of bytes of length greater than 1;
+     * if unsuccessful, a null.
+     */
+    default byte[] encodeFloats(
+        int codecIndex, int nRows, int nCols, float[] values,
+        FloatPreconditionerType preconditioner) {
+        return encodeFloats(codecIndex, nRows, nCols, values);
+    }
+
+    /**
+     * Encodes the specified tile data in a compressed form that may be
+     * lossy, but that reproduces each value within the specified
+     * maximum absolute error. Values equal to the fill value, and NaN values,
+     * must be reproduced exactly. The default implementation does not
+     * support lossy encoding and returns a null.
+     *
+     * @param codecIndex the index assigned by the application to
+     * associate a codec with an entry in the raster file.
+     * @param nRows a value of 1 or greater giving the number of rows in the
+     * tile
+     * @param nCols a value of 1 or greater giving the number of columns in the
+     * tile
+     * @param values the values of the tile in row-major order
+     * @param fillValue the fill value for the element
+     * @param maxAbsoluteError a finite value greater than zero
+     * @return if successful, an array of bytes of length greater than 1;
+     * if unsuccessful, a null.
+     */
+    default byte[] encodeFloatsWithErrorBound(
+        int codecIndex, int nRows, int nCols, float[] values,
+        float fillValue, float maxAbsoluteError) {
+        return null;
+    }
+
     /**
      * Indicates whether the implementation can encode floating-point values
      *
@@ -41,6 +41,7 @@ package org.gridfour.compress.canonicalHuffman;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.gridfour.compress.HuffmanLookupTable;
 import org.gridfour.io.BitInputStore;
 
 /**
@@ -50,8 +51,7 @@ import org.gridfour.io.BitInputStore;
 
   final int[] nodeIndex;
   final int nUniqueSymbols;
-  final int kLookup;
-  final int [] lookup;
+  final HuffmanLookupTable table;
 
   /**
    * Given an array of symbol lengths, constructs a representation of the
@@ -97,21 +97,13 @@ import org.gridfour.io.BitInputStore;
     int nUsed = 3;
     Arrays.fill(nodeIndex, -1);
 
-    // arbitrarily limit the size of the lookup table to 2^8.
-    int minCodeLength = sortNodes[0].nBitsInCode;
-    kLookup = minCodeLength>8 ? 8 : minCodeLength;
-    lookup = new int[1<<kLookup];
-
-
     for (int iNode = 0; iNode < sortNodes.length; iNode++) {
       SymbolNode node = sortNodes[iNode];
       int index = 0;
       long bits = codeBits[iNode].bits;
-      int iLookup = 0;
       for(int k=0; k<node.nBitsInCode; k++){
         int i = node.nBitsInCode - 1 - k;
         int bit = (int) ((bits >> i) & 1);
-        iLookup |= (bit<<k);
         int test = nodeIndex[index + 1 + bit];
         if (test < 0) {
           nodeIndex[index + 1 + bit] = nUsed;
@@ -120,12 +112,13 @@ import org.gridfour.io.BitInputStore;
         } else {
           index = test;
         }
-        if(k==kLookup-1){
-          lookup[iLookup] = index;
-        }
       }
       nodeIndex[index] = node.symbol;
     }
+
+    // The lookup table resolves codes of up to the table size in a single
+    // operation.  Longer codes are completed by traversing the tree.
+    table = new HuffmanLookupTable(nodeIndex, HuffmanLookupTable.DEFAULT_TABLE_BITS);
   }
 
    boolean decodeTree(BitInputStore input, int nSymbols, int[] symbols) {
@@ -135,11 +128,7 @@ import org.gridfour.io.BitInputStore;
     int n;
     int i;
     for (i = 0; i < nSymbols; i++) {
-      int offset = nodeIndex[1 + input.getBit()]; // start from the root node
-      while (nodeIndex[offset] == -1) {
-        offset = nodeIndex[offset + 1 + input.getBit()];
-      }
-      int test = nodeIndex[offset];
+      int test = table.decode(input);
       if (test <= LengthEncoder.MAX_STANDARD_SYMBOL) {
         symbols[i] = test;
         prior = test;
@@ -189,11 +178,7 @@ import org.gridfour.io.BitInputStore;
    boolean decode(BitInputStore input, int nSymbolsInText, int[] text) {
 
     for (int i = 0; i < nSymbolsInText; i++) {
-      int offset = nodeIndex[1 + input.getBit()]; // start from the root node
-      while (nodeIndex[offset] == -1) {
-        offset = nodeIndex[offset + 1 + input.getBit()];
-      }
-      text[i] = nodeIndex[offset];
+      text[i] = table.decode(input);
     }
 
     return true;
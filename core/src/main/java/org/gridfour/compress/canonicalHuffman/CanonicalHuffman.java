@@ -44,6 +44,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.List;
+import org.gridfour.compress.HuffmanLookupTable;
 import org.gridfour.io.BitInputStore;
 import org.gridfour.io.BitOutputStore;
 import org.gridfour.util.GridfourConstants;
@@ -467,9 +468,7 @@ public class CanonicalHuffman {
 
 
   boolean decodeText(CanonHuffTreeDecoder textTree, BitInputStore input, int nSymbolsInText, int[] text) {
-    int[] nodeIndex = textTree.nodeIndex;
-    int []lookup = textTree.lookup;
-    int kLookup = textTree.kLookup;
+    HuffmanLookupTable table = textTree.table;
     int prior = 0;
     int part;
     int iSymbol = 0;
@@ -477,12 +476,7 @@ public class CanonicalHuffman {
     // because the last symbol in the encoding could be an escape cpde
     // which modifies the prior value.
     while (true) {
-      int iX = input.getBits(kLookup);
-      int offset = lookup[iX];
-      while (nodeIndex[offset] == -1) {
-        offset = nodeIndex[offset + 1 + input.getBit()];
-      }
-      int symbol = nodeIndex[offset];
+      int symbol = table.decode(input);
       if (symbol == I_END_OF_TEXT) {
         break;
       }
@@ -0,0 +1,312 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress.fse;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.gridfour.compress.CodecContext;
+import org.gridfour.compress.CodecM32;
+import org.gridfour.compress.CodecStats;
+import org.gridfour.compress.ICompressionDecoder;
+import org.gridfour.compress.ICompressionEncoder;
+import org.gridfour.compress.IPredictorModel;
+import org.gridfour.compress.PredictorModelDifferencing;
+import org.gridfour.compress.PredictorModelDifferencingWithNulls;
+import org.gridfour.compress.PredictorModelLinear;
+import org.gridfour.compress.PredictorModelTriangle;
+import org.gridfour.compress.PredictorModelType;
+import org.gridfour.io.BitOutputStore;
+import static org.gridfour.util.GridfourConstants.INT4_NULL_CODE;
+
+/**
+ * Provides a codec for data compression using finite-state entropy (FSE)
+ * coding and the predictor models.
+ * <p>
+ * This codec applies FSE to the same M32 residual codes that are used by
+ * the standard Huffman codec.  Because FSE is not restricted to whole-bit
+ * code lengths, it usually achieves better compression ratios than Huffman.
+ * Its decoding operations are simple table look-ups, so it decodes
+ * faster than Deflate.
+ * <p>
+ * This codec is not included in the default codec list for a GVRS file
+ * specification.  Applications that wish to use it may add it using
+ * the GvrsFileSpecification addCompressionCodec method.
+ */
+public class CodecFse implements ICompressionEncoder, ICompressionDecoder {
+
+  private final IPredictorModel[] predictorModel;
+
+  private CodecStats[] codecStats;
+
+  /**
+   * Standard constructor
+   */
+  public CodecFse() {
+    predictorModel = new IPredictorModel[4];
+    predictorModel[0] = new PredictorModelDifferencing();
+    predictorModel[1] = new PredictorModelLinear();
+    predictorModel[2] = new PredictorModelTriangle();
+    predictorModel[3] = new PredictorModelDifferencingWithNulls();
+  }
+
+  @Override
+  public byte[] encode(int codecIndex, int nRows, int nCols, int[] values) {
+    boolean containsNullValue = false;
+    boolean containsValidData = false;
+    for (int i = 0; i < values.length; i++) {
+      if (values[i] == INT4_NULL_CODE) {
+        containsNullValue = true;
+      } else {
+        containsValidData = true;
+      }
+    }
+    if (!containsValidData) {
+      return null;
+    }
+
+    CodecContext context = CodecContext.get();
+    byte[] mCode = context.getScratch(
+      0, CodecM32.MAX_BYTES_PER_VALUE * nRows * nCols);
+
+    // Trial encodings are written directly into scratch buffers,
+    // alternating between two slots so that the best result found
+    // so far is preserved. Only the final result is copied.
+    int resultLength = Integer.MAX_VALUE;
+    int resultSlot = -1;
+    int trialSlot = 2;
+
+    for (IPredictorModel testModel : predictorModel) {
+      if (containsNullValue) {
+        if (!testModel.isNullDataSupported()) {
+          continue;
+        }
+      } else {
+        if (testModel.isNullDataSupported()) {
+          continue;
+        }
+      }
+      int mCodeLength = testModel.encode(nRows, nCols, values, mCode);
+      if (mCodeLength > 0) {
+        byte[] trial = context.getScratch(
+          trialSlot, getMaximumPackingLength(mCodeLength));
+        int testLength = compress(
+          codecIndex,
+          testModel,
+          mCode,
+          mCodeLength,
+          ByteBuffer.wrap(trial));
+        if (testLength < resultLength) {
+          resultLength = testLength;
+          resultSlot = trialSlot;
+          trialSlot = trialSlot == 2 ? 3 : 2;
+        }
+      }
+    }
+
+    if (resultSlot < 0) {
+      return null;
+    }
+
+    return Arrays.copyOf(context.getScratch(resultSlot, resultLength), resultLength);
+  }
+
+  /**
+   * Gets an upper bound for the length of the packing produced
+   * by the compress method.
+   * The state transitions consume no more than the table log
+   * (at most 12) bits per symbol, and the header and table
+   * description are short compared to the 2048 byte allowance.
+   *
+   * @param nM32 the number of M32 bytes to be encoded
+   * @return a positive value
+   */
+  static int getMaximumPackingLength(int nM32) {
+    return 2 * nM32 + 2048;
+  }
+
+  /**
+   * Encodes the M32 codes, writing the packing to the target buffer.
+   *
+   * @param codecIndex the index assigned to the codec
+   * @param pcc the predictor model used to produce the M32 codes
+   * @param mCodes the M32 codes
+   * @param nM32 the number of M32 bytes to be encoded
+   * @param target a buffer with at least getMaximumPackingLength(nM32)
+   * bytes remaining
+   * @return the number of bytes written to the target
+   */
+  int compress(
+    int codecIndex, IPredictorModel pcc, byte[] mCodes, int nM32, ByteBuffer target) {
+    FseEncoder fse = new FseEncoder();
+    BitOutputStore store = new BitOutputStore(target);
+    store.appendBits(8, codecIndex);
+    store.appendBits(8, pcc.getPredictorType().getCodeValue());
+    store.appendBits(32, pcc.getSeed());
+    store.appendBits(32, nM32);
+    fse.encode(store, nM32, mCodes);
+    return store.flush();
+  }
+
+  @Override
+  public int[] decode(int nRows, int nColumns, byte[] packing) throws IOException {
+    IPredictorModel pcc = decodePredictorCorrector(packing[1]);
+    int seed
+      = (packing[2] & 0xff)
+      | ((packing[3] & 0xff) << 8)
+      | ((packing[4] & 0xff) << 16)
+      | ((packing[5] & 0xff) << 24);
+    int nM32 = (packing[6] & 0xff)
+      | ((packing[7] & 0xff) << 8)
+      | ((packing[8] & 0xff) << 16)
+      | ((packing[9] & 0xff) << 24);
+
+    FseDecoder decoder = new FseDecoder();
+    byte[] codeM32s = CodecContext.get().getScratch(0, nM32);
+    decoder.decode(packing, 10, packing.length - 10, nM32, codeM32s);
+
+    int[] output = new int[nRows * nColumns];
+    pcc.decode(seed, nRows, nColumns, codeM32s, 0, nM32, output);
+    return output;
+  }
+
+  private IPredictorModel decodePredictorCorrector(int code) throws IOException {
+    PredictorModelType pcType = PredictorModelType.valueOf(code);
+    switch (pcType) {
+      case Differencing:
+        return new PredictorModelDifferencing();
+      case Linear:
+        return new PredictorModelLinear();
+      case Triangle:
+        return new PredictorModelTriangle();
+      case DifferencingWithNulls:
+        return new PredictorModelDifferencingWithNulls();
+      default:
+        throw new IOException("Unknown PredictorCorrector type");
+    }
+  }
+
+  @Override
+  public void analyze(int nRows, int nColumns, byte[] packing) throws IOException {
+    if (codecStats == null) {
+      PredictorModelType[] pcArray = PredictorModelType.values();
+      codecStats = new CodecStats[pcArray.length + 1];
+      for (int i = 0; i < pcArray.length; i++) {
+        codecStats[i] = new CodecStats(pcArray[i]);
+      }
+      codecStats[pcArray.length] = new CodecStats("All Predictors");
+    }
+
+    int nM32 = (packing[6] & 0xff)
+      | ((packing[7] & 0xff) << 8)
+      | ((packing[8] & 0xff) << 16)
+      | ((packing[9] & 0xff) << 24);
+
+    FseDecoder decoder = new FseDecoder();
+    byte[] codeM32s = CodecContext.get().getScratch(0, nM32);
+    decoder.decode(packing, 10, packing.length - 10, nM32, codeM32s);
+
+    CodecStats stats = codecStats[packing[1] & 0xff];
+    int nValues = nRows * nColumns;
+    stats.addToCounts(packing.length - 10, nValues, decoder.getBitsInTableCount());
+    stats.addCountsForM32(nM32, codeM32s);
+    CodecStats total = codecStats[codecStats.length - 1];
+    total.addToCounts(packing.length - 10, nValues, decoder.getBitsInTableCount());
+    total.addCountsForM32(nM32, codeM32s);
+  }
+
+  @Override
+  public void reportAnalysisData(PrintStream ps, int nTilesInRaster) {
+    ps.println("GVRS FSE                                       Compressed Output    |       Predictor Residuals");
+    if (codecStats == null || nTilesInRaster == 0) {
+      ps.format("   Tiles Compressed:  0%n");
+      return;
+    }
+
+    ps.format("  Predictor                Times Used        bits/sym    bits/tile  |  m32 avg-len   avg-unique  entropy | bits in table%n");
+
+    for (CodecStats stats : codecStats) {
+      String label = stats.getLabel();
+      if (label.equalsIgnoreCase("None")) {
+        continue;
+      }
+      long tileCount = stats.getTileCount();
+      double bitsPerSymbol = stats.getBitsPerSymbol();
+      double avgBitsInTable = stats.getAverageOverhead();
+      double avgBitsInText = stats.getAverageLength() * 8;
+      double avgUniqueSymbols = stats.getAverageObservedMCodes();
+      double avgMCodeLength = stats.getAverageMCodeLength();
+      double percentTiles = 100.0 * (double) tileCount / nTilesInRaster;
+      double entropy = stats.getEntropy();
+      ps.format("   %-20.20s %8d (%4.1f %%)     %5.2f  %12.1f   | %10.1f      %6.1f    %6.2f   | %6.1f%n",
+        label, tileCount, percentTiles,
+        bitsPerSymbol, avgBitsInText,
+        avgMCodeLength,
+        avgUniqueSymbols,
+        entropy,
+        avgBitsInTable);
+    }
+  }
+
+  @Override
+  public void clearAnalysisData() {
+    codecStats = null;
+  }
+
+  @Override
+  public byte[] encodeFloats(int codecIndex, int nRows, int nCols, float[] values) {
+    return null;
+  }
+
+  @Override
+  public float[] decodeFloats(int nRows, int nColumns, byte[] packing) throws IOException {
+    return null;
+  }
+
+  @Override
+  public boolean implementsFloatingPointEncoding() {
+    return false;
+  }
+
+  @Override
+  public boolean implementsIntegerEncoding() {
+    return true;
+  }
+}
@@ -0,0 +1,168 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress.fse;
+
+import java.io.IOException;
+import org.gridfour.io.BitInputStore;
+
+/**
+ * Implements a decoder for the finite-state entropy (FSE) variation
+ * of the table-based asymmetric numeral system (tANS).
+ * <p>
+ * Each state in the decoding table gives the symbol to be output,
+ * the number of bits to be read from the input, and a base value that is
+ * combined with those bits to obtain the next state.  To reduce the
+ * overhead of the bit-level operations, the body of the encoded text
+ * is read using a local bit buffer rather than through a BitInputStore.
+ */
+public class FseDecoder {
+
+  int nBitsInTable;
+
+  /**
+   * Decodes the specified number of symbols from the encoded text.
+   *
+   * @param text an array containing the encoded text.
+   * @param offset the starting position of the encoding within the text.
+   * @param length the number of bytes in the encoding.
+   * @param nSymbols the number of symbols to be decoded.
+   * @param symbols an array dimensioned to at least nSymbols elements
+   * to receive the output.
+   * @return if successful, true; otherwise, false.
+   * @throws IOException in the event of an invalid encoding.
+   */
+  public boolean decode(byte[] text, int offset, int length, int nSymbols, byte[] symbols)
+    throws IOException {
+    nBitsInTable = 0;
+    if (nSymbols <= 0) {
+      return false;
+    }
+
+    BitInputStore input = new BitInputStore(text, offset, length);
+    FseTable fseTable = FseTable.read(input);
+    nBitsInTable = input.getPosition();
+
+    int tableLog = fseTable.tableLog;
+    int tableSize = fseTable.tableSize;
+    int[] norm = fseTable.norm;
+    byte[] spread = fseTable.spread();
+
+    // Each entry is packed as (base << 16) | (nBits << 8) | symbol.
+    int[] table = new int[tableSize];
+    int[] next = new int[FseTable.N_SYMBOLS];
+    System.arraycopy(norm, 0, next, 0, FseTable.N_SYMBOLS);
+    for (int u = 0; u < tableSize; u++) {
+      int s = spread[u] & 0xff;
+      int x = next[s]++;
+      int nBits = tableLog - (31 - Integer.numberOfLeadingZeros(x));
+      int base = (x << nBits) - tableSize;
+      table[u] = (base << 16) | (nBits << 8) | s;
+    }
+
+    // position the bit buffer at the start of the body of the encoding
+    int end = offset + length;
+    int bitPosition = offset * 8 + nBitsInTable;
+    int pos = bitPosition >> 3;
+    long buffer = 0;
+    int nBitsInBuffer = 0;
+    while (nBitsInBuffer <= 56 && pos < end) {
+      buffer |= (text[pos++] & 0xffL) << nBitsInBuffer;
+      nBitsInBuffer += 8;
+    }
+    int skip = bitPosition & 7;
+    buffer >>>= skip;
+    nBitsInBuffer -= skip;
+    if (nBitsInBuffer < 2 * tableLog) {
+      throw new IOException("Insufficient data for FSE encoding");
+    }
+
+    int stateMask = tableSize - 1;
+    int state0 = (int) buffer & stateMask;
+    int state1 = (int) (buffer >>> tableLog) & stateMask;
+    buffer >>>= 2 * tableLog;
+    nBitsInBuffer -= 2 * tableLog;
+
+    // The even-indexed symbols are decoded using state0, the odd using
+    // state1. Codes are no longer than the table log, which is at most
+    // 12 bits.  So the buffer is refilled only when it holds fewer
+    // bits than are needed for a pair of symbols.
+    int nPairs = nSymbols / 2;
+    int threshold = 2 * tableLog;
+    int i = 0;
+    for (int iPair = 0; iPair < nPairs; iPair++) {
+      if (nBitsInBuffer < threshold) {
+        while (nBitsInBuffer <= 56 && pos < end) {
+          buffer |= (text[pos++] & 0xffL) << nBitsInBuffer;
+          nBitsInBuffer += 8;
+        }
+      }
+      int entry0 = table[state0];
+      int entry1 = table[state1];
+      symbols[i++] = (byte) entry0;
+      symbols[i++] = (byte) entry1;
+      int nBits0 = (entry0 >> 8) & 0xff;
+      int nBits1 = (entry1 >> 8) & 0xff;
+      if (nBitsInBuffer < nBits0 + nBits1) {
+        throw new IOException("Insufficient data for FSE encoding");
+      }
+      state0 = (entry0 >>> 16) + ((int) buffer & ((1 << nBits0) - 1));
+      buffer >>>= nBits0;
+      state1 = (entry1 >>> 16) + ((int) buffer & ((1 << nBits1) - 1));
+      buffer >>>= nBits1;
+      nBitsInBuffer -= nBits0 + nBits1;
+    }
+
+    if (i < nSymbols) {
+      // the final symbol of an odd-length text
+      symbols[i] = (byte) table[state0];
+    }
+
+    return true;
+  }
+
+  /**
+   * Gets the number of bits in the frequency table for
+   * the most recently processed data set.
+   *
+   * @return a positive value, or zero if nothing was ever processed.
+   */
+  public int getBitsInTableCount() {
+    return nBitsInTable;
+  }
+}
@@ -0,0 +1,172 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress.fse;
+
+import org.gridfour.io.BitOutputStore;
+
+/**
+ * Implements an encoder for the finite-state entropy (FSE) variation
+ * of the table-based asymmetric numeral system (tANS).
+ * <p>
+ * Like Huffman coding, FSE assigns short codes to frequently occurring
+ * symbols. But rather than being restricted to a whole number of bits
+ * per symbol, FSE carries the fractional part of the code lengths
+ * forward in a state variable.  So its compression ratios approach
+ * the entropy of the text. Decoding requires only a table look-up and
+ * the extraction of a few bits for each symbol.
+ * <p>
+ * The encoder processes the symbols in reverse order so that the decoder
+ * can process them in forward order.  Two interleaved states are
+ * used to improve the throughput of the decoder.  The bits produced for each
+ * symbol are collected and then written to the output in reverse order.
+ */
+public class FseEncoder {
+
+  int nBitsInTable;
+  int nBitsInText;
+
+  private void clear() {
+    nBitsInTable = 0;
+    nBitsInText = 0;
+  }
+
+  /**
+   * Encodes the specified symbols and appends them to the output.
+   *
+   * @param output a valid instance to receive the encoding.
+   * @param nSymbols the number of symbols to be encoded, at least 1.
+   * @param symbols the symbols to be encoded
+   * @return if successful, true; otherwise, false.
+   */
+  public boolean encode(BitOutputStore output, int nSymbols, byte[] symbols) {
+    clear();
+    if (nSymbols <= 0) {
+      return false;
+    }
+
+    int bit0 = output.getEncodedTextLength();
+    FseTable fseTable = FseTable.fromSymbols(nSymbols, symbols);
+    fseTable.write(output);
+    int bit1 = output.getEncodedTextLength();
+    nBitsInTable = bit1 - bit0;
+
+    int tableLog = fseTable.tableLog;
+    int tableSize = fseTable.tableSize;
+    int[] norm = fseTable.norm;
+
+    // For each symbol, the states that are assigned to it are listed
+    // in ascending order in a segment of the stateTable.  The deltaNbBits
+    // value allows the number of bits to be output to be computed
+    // from the state without a branch. The deltaFindState value
+    // gives the position of the symbol's segment in the stateTable.
+    byte[] spread = fseTable.spread();
+    int[] cumulative = new int[FseTable.N_SYMBOLS + 1];
+    for (int s = 0; s < FseTable.N_SYMBOLS; s++) {
+      cumulative[s + 1] = cumulative[s] + norm[s];
+    }
+    int[] stateTable = new int[tableSize];
+    int[] next = new int[FseTable.N_SYMBOLS];
+    System.arraycopy(cumulative, 0, next, 0, FseTable.N_SYMBOLS);
+    for (int u = 0; u < tableSize; u++) {
+      int s = spread[u] & 0xff;
+      stateTable[next[s]++] = tableSize + u;
+    }
+    int[] deltaNbBits = new int[FseTable.N_SYMBOLS];
+    int[] deltaFindState = new int[FseTable.N_SYMBOLS];
+    for (int s = 0; s < FseTable.N_SYMBOLS; s++) {
+      int n = norm[s];
+      if (n > 0) {
+        // For a state x in the range [tableSize, 2*tableSize), the number
+        // of bits is the value that reduces x to the range [n, 2*n).
+        int maxBitsOut = tableLog - (31 - Integer.numberOfLeadingZeros(n - 1));
+        deltaNbBits[s] = (maxBitsOut << 16) - (n << maxBitsOut);
+        deltaFindState[s] = cumulative[s] - n;
+      }
+    }
+
+    // Each element of the chunks array stores the bits produced for
+    // a symbol in the high-order bits and the bit count in
+    // the low-order 4 bits.
+    // Two states are used in alternation, one for the even-indexed symbols
+    // and one for the odd.  Doing so breaks the dependency of each
+    // table look-up on the result of the previous one and allows the
+    // decoder to perform two look-ups concurrently.
+    int[] chunks = new int[nSymbols];
+    int[] state = {tableSize, tableSize};
+    for (int i = nSymbols - 1; i >= 0; i--) {
+      int s = symbols[i] & 0xff;
+      int x = state[i & 1];
+      int nBits = (x + deltaNbBits[s]) >> 16;
+      chunks[i] = ((x & ((1 << nBits) - 1)) << 4) | nBits;
+      state[i & 1] = stateTable[(x >> nBits) + deltaFindState[s]];
+    }
+
+    output.appendBits(tableLog, state[0] - tableSize);
+    output.appendBits(tableLog, state[1] - tableSize);
+    for (int i = 0; i < nSymbols; i++) {
+      int nBits = chunks[i] & 0x0f;
+      if (nBits > 0) {
+        output.appendBits(nBits, chunks[i] >>> 4);
+      }
+    }
+
+    nBitsInText = output.getEncodedTextLength() - bit1;
+    return true;
+  }
+
+  /**
+   * Gets the number of bits in the frequency table for
+   * the most recently processed data set.
+   *
+   * @return a positive value, or zero if nothing was ever processed.
+   */
+  public int getBitsInTableCount() {
+    return nBitsInTable;
+  }
+
+  /**
+   * Gets the number of bits in the encoded text for
+   * the most recently processed data set.
+   *
+   * @return a positive value, or zero if nothing was ever processed.
+   */
+  public int getBitsInTextCount() {
+    return nBitsInText;
+  }
+}
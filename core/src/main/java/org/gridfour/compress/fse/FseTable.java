@@ -0,0 +1,270 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress.fse;
+
+import java.io.IOException;
+import org.gridfour.io.BitInputStore;
+import org.gridfour.io.BitOutputStore;
+
+/**
+ * Provides the normalized symbol frequencies and the state-assignment
+ * (spread) table shared by the FSE encoder and decoder.
+ * <p>
+ * In table-based asymmetric numeral systems, each symbol is assigned
+ * a number of states in proportion to its frequency of occurrence.
+ * The number of states is always a power of two, given by the
+ * "table log" parameter.  The normalized frequencies are stored in
+ * the encoded text so that the decoder can reconstruct the same
+ * assignment of states.
+ */
+class FseTable {
+
+  /**
+   * The minimum value for the base-2 log of the table size.
+   */
+  static final int MIN_TABLE_LOG = 5;
+  /**
+   * The maximum value for the base-2 log of the table size.
+   */
+  static final int MAX_TABLE_LOG = 12;
+  /**
+   * The base-2 log of the table size used when there is sufficient
+   * data to support it.
+   */
+  static final int DEFAULT_TABLE_LOG = 11;
+
+  static final int N_SYMBOLS = 256;
+
+  final int tableLog;
+  final int tableSize;
+  final int[] norm;
+  final int maxSymbol;
+
+  private FseTable(int tableLog, int[] norm, int maxSymbol) {
+    this.tableLog = tableLog;
+    this.tableSize = 1 << tableLog;
+    this.norm = norm;
+    this.maxSymbol = maxSymbol;
+  }
+
+  /**
+   * Constructs a table with frequencies normalized from the symbol counts
+   * for the specified text.
+   *
+   * @param nSymbols the number of symbols in the text, must be at least 1.
+   * @param symbols the text
+   * @return a valid instance.
+   */
+  static FseTable fromSymbols(int nSymbols, byte[] symbols) {
+    int[] count = new int[N_SYMBOLS];
+    for (int i = 0; i < nSymbols; i++) {
+      count[symbols[i] & 0xff]++;
+    }
+
+    int maxSymbol = 0;
+    int nUnique = 0;
+    for (int i = 0; i < N_SYMBOLS; i++) {
+      if (count[i] > 0) {
+        maxSymbol = i;
+        nUnique++;
+      }
+    }
+
+    // A smaller table is sufficient for a short text and reduces
+    // the cost of building it. The table must have at least as many
+    // states as there are unique symbols.
+    int tableLog = 32 - Integer.numberOfLeadingZeros(nSymbols - 1);
+    if (tableLog > DEFAULT_TABLE_LOG) {
+      tableLog = DEFAULT_TABLE_LOG;
+    }
+    if (tableLog < MIN_TABLE_LOG) {
+      tableLog = MIN_TABLE_LOG;
+    }
+    int tableSize = 1 << tableLog;
+
+    // Scale the counts to the table size.  Every symbol that occurs
+    // in the text must be assigned at least one state.  Any difference
+    // between the sum and the table size is absorbed by the most
+    // frequent symbols.
+    int[] norm = new int[N_SYMBOLS];
+    int sum = 0;
+    int iMax = 0;
+    for (int i = 0; i <= maxSymbol; i++) {
+      if (count[i] > 0) {
+        int n = (int) (((long) count[i] * tableSize + nSymbols / 2) / nSymbols);
+        if (n < 1) {
+          n = 1;
+        }
+        norm[i] = n;
+        sum += n;
+        if (count[i] > count[iMax]) {
+          iMax = i;
+        }
+      }
+    }
+
+    if (sum < tableSize) {
+      norm[iMax] += tableSize - sum;
+    } else {
+      while (sum > tableSize) {
+        // take states from the symbol with the largest assignment
+        int k = 0;
+        for (int i = 1; i <= maxSymbol; i++) {
+          if (norm[i] > norm[k]) {
+            k = i;
+          }
+        }
+        int excess = sum - tableSize;
+        int reduction = Math.min(excess, norm[k] - (norm[k] + 1) / 2);
+        if (reduction < 1) {
+          reduction = 1;
+        }
+        norm[k] -= reduction;
+        sum -= reduction;
+      }
+    }
+
+    return new FseTable(tableLog, norm, maxSymbol);
+  }
+
+  /**
+   * Computes the state-assignment table.  The states for each symbol
+   * are scattered across the table using a fixed odd step so that
+   * the assignments for a symbol are distributed evenly. Because the
+   * table size is a power of two, the step visits every state.
+   *
+   * @return an array giving the symbol assigned to each state.
+   */
+  byte[] spread() {
+    byte[] spread = new byte[tableSize];
+    int mask = tableSize - 1;
+    int step = (tableSize >> 1) + (tableSize >> 3) + 3;
+    int position = 0;
+    for (int s = 0; s <= maxSymbol; s++) {
+      for (int i = 0; i < norm[s]; i++) {
+        spread[position] = (byte) s;
+        position = (position + step) & mask;
+      }
+    }
+    return spread;
+  }
+
+  /**
+   * Writes the table log and normalized frequencies to the output.
+   * Frequencies are written using an Elias gamma code.
+   * Because residual codes tend to cluster at the two ends of the
+   * range of symbols, a zero frequency is followed by a count of the
+   * additional zeros that follow it.
+   *
+   * @param output a valid instance.
+   */
+  void write(BitOutputStore output) {
+    output.appendBits(3, tableLog - MIN_TABLE_LOG);
+    output.appendBits(8, maxSymbol);
+    int s = 0;
+    while (s <= maxSymbol) {
+      writeGamma(output, norm[s] + 1);
+      if (norm[s] == 0) {
+        int nRun = 0;
+        while (s + 1 + nRun <= maxSymbol && norm[s + 1 + nRun] == 0) {
+          nRun++;
+        }
+        writeGamma(output, nRun + 1);
+        s += nRun;
+      }
+      s++;
+    }
+  }
+
+  /**
+   * Reads a table from the input.
+   *
+   * @param input a valid instance positioned at the start of the table.
+   * @return a valid instance.
+   * @throws IOException in the event of an invalid table specification.
+   */
+  static FseTable read(BitInputStore input) throws IOException {
+    int tableLog = input.getBits(3) + MIN_TABLE_LOG;
+    if (tableLog > MAX_TABLE_LOG) {
+      throw new IOException("Invalid FSE table log " + tableLog);
+    }
+    int maxSymbol = input.getBits(8);
+    int[] norm = new int[N_SYMBOLS];
+    int sum = 0;
+    int s = 0;
+    while (s <= maxSymbol) {
+      int n = readGamma(input) - 1;
+      if (n == 0) {
+        s += readGamma(input);
+      } else {
+        norm[s++] = n;
+        sum += n;
+      }
+    }
+    if (sum != (1 << tableLog) || s != maxSymbol + 1) {
+      throw new IOException("Invalid FSE frequency table");
+    }
+    return new FseTable(tableLog, norm, maxSymbol);
+  }
+
+  private static void writeGamma(BitOutputStore output, int value) {
+    int nBits = 31 - Integer.numberOfLeadingZeros(value);
+    if (nBits > 0) {
+      output.appendBits(nBits, 0);
+    }
+    output.appendBit(1);
+    if (nBits > 0) {
+      output.appendBits(nBits, value);
+    }
+  }
+
+  private static int readGamma(BitInputStore input) throws IOException {
+    int nBits = 0;
+    while (input.getBit() == 0) {
+      nBits++;
+      if (nBits > 16) {
+        throw new IOException("Invalid FSE frequency table");
+      }
+    }
+    if (nBits == 0) {
+      return 1;
+    }
+    return (1 << nBits) | input.getBits(nBits);
+  }
+}
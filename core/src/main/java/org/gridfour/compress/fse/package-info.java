@@ -0,0 +1,5 @@
+/**
+ * Provides support for entropy coding using the finite-state entropy (FSE)
+ * variation of the table-based asymmetric numeral system (tANS).
+ */
+package org.gridfour.compress.fse;
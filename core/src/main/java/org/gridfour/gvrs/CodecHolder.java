@@ -367,6 +367,22 @@ class CodecHolder {
       encodingTimeUsec += timeInUsec;
     }
 
+    /**
+     * Adds the encoding statistics from this instance to the target
+     * and clears the statistics for this instance.
+     * @param target a valid instance
+     */
+    synchronized void transferEncodingStatistics(CodecHolder target){
+      target.addEncodingStatistics(encodingCount, encodingTimeUsec);
+      encodingCount = 0;
+      encodingTimeUsec = 0;
+    }
+
+    private synchronized void addEncodingStatistics(int count, long timeInUsec){
+      encodingCount += count;
+      encodingTimeUsec += timeInUsec;
+    }
+
     /**
      * Gets the number of times the encoder was called.
      * @return a positive integer (may be zero)
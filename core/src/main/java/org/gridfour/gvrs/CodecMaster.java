@@ -38,11 +38,13 @@
  */
 package org.gridfour.gvrs;
 
+import org.gridfour.compress.FloatPreconditionerType;
 import org.gridfour.compress.ICompressionDecoder;
 import org.gridfour.compress.ICompressionEncoder;
 import java.io.IOException;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.gridfour.util.concurrent.TaskGroupExecutor;
 
@@ -109,6 +111,17 @@ class CodecMaster {
     private TaskGroupExecutor tgExecutor;
     private boolean multiThreadingEnabled;
 
+    // The adaptive-selection setting may be changed by a thread other than
+    // the one performing the encoding.  The selectors are created lazily
+    // and are accessed only by the encoding thread.
+    private volatile boolean adaptiveSelectionEnabled;
+    private CodecSelector intSelector;
+    private CodecSelector floatSelector;
+
+    // uniform tile records are not supported by files created
+    // with versions earlier than 1.05.
+    private boolean uniformRecordsEnabled = true;
+
 
     CodecMaster(List<CodecHolder> rasterCodecList) {
         codecList = new ArrayList<>();
@@ -126,9 +139,35 @@ class CodecMaster {
       this.multiThreadingEnabled = multiThreadingEnabled;
     }
 
+    /**
+     * Sets the adaptive codec selection mode. When adaptive selection
+     * is enabled, tiles are compressed using only the codecs that produced
+     * the best results for recent tiles, with periodic trials of all codecs.
+     * When it is disabled, each tile is compressed using all codecs.
+     *
+     * @param adaptiveSelectionEnabled true if adaptive selection is enabled;
+     * otherwise, false.
+     */
+    void setAdaptiveSelectionEnabled(boolean adaptiveSelectionEnabled) {
+      this.adaptiveSelectionEnabled = adaptiveSelectionEnabled;
+    }
+
+    /**
+     * Sets the option for storing tile elements in which all values
+     * are the same using compact uniform records.
+     *
+     * @param uniformRecordsEnabled true if uniform records may be used;
+     * otherwise, false.
+     */
+    void setUniformRecordsEnabled(boolean uniformRecordsEnabled) {
+      this.uniformRecordsEnabled = uniformRecordsEnabled;
+    }
+
     void setCodecs(List<CodecHolder> csList) throws IOException {
         codecList = new ArrayList<>();
         codecList.addAll(csList);
+        intSelector = null;
+        floatSelector = null;
         implementsFloats = false;
         for (CodecHolder spec : codecList) {
             if (spec.implementsFloatingPointEncoding()) {
@@ -140,6 +179,17 @@ class CodecMaster {
     }
 
     byte[] encode(int nRows, int nCols, int[] values) {
+        // a tile element in which all values are the same is stored
+        // using a compact record that does not require a codec.
+        if (uniformRecordsEnabled) {
+            byte[] uniform = UniformTile.encode(values);
+            if (uniform != null) {
+                return uniform;
+            }
+        }
+        if(adaptiveSelectionEnabled){
+           return encodeAdaptive(nRows, nCols, values);
+        }
         if(multiThreadingEnabled){
            return encodeMultiThread(nRows, nCols, values);
         }else{
@@ -153,11 +203,7 @@ class CodecMaster {
         int k = 0;
         for (CodecHolder codec : codecList) {
             if (codec.implementsIntegerEncoding()) {
-                ICompressionEncoder compressor = codec.getEncoderInstance();
-                long time0 = System.nanoTime();
-                byte[] test = compressor.encode(k, nRows, nCols, values);
-                long time1 = System.nanoTime();
-                codec.tabulateEncodingTime((time1 - time0) / 1000L);
+                byte[] test = encodeWithCodec(k, nRows, nCols, values);
                 if (test != null && test.length < resultLength) {
                     result = test;
                     resultLength = test.length;
@@ -168,6 +214,61 @@ class CodecMaster {
         return result;
     }
 
+    private byte[] encodeWithCodec(int k, int nRows, int nCols, int[] values) {
+        CodecHolder codec = codecList.get(k);
+        ICompressionEncoder compressor = codec.getEncoderInstance();
+        long time0 = System.nanoTime();
+        byte[] test = compressor.encode(k, nRows, nCols, values);
+        long time1 = System.nanoTime();
+        codec.tabulateEncodingTime((time1 - time0) / 1000L);
+        return test;
+    }
+
+    private byte[] encodeFloatsWithCodec(
+      int k, int nRows, int nCols, float[] values,
+      FloatPreconditionerType preconditioner) {
+        CodecHolder codec = codecList.get(k);
+        ICompressionEncoder encoder = codec.getEncoderInstance();
+        long time0 = System.nanoTime();
+        byte[] test = encoder.encodeFloats(k, nRows, nCols, values, preconditioner);
+        long time1 = System.nanoTime();
+        codec.tabulateEncodingTime((time1 - time0) / 1000L);
+        return test;
+    }
+
+    /**
+     * Encodes the tile using the codecs that were most successful
+     * for recent tiles.  If none of the candidate codecs produces
+     * a result, all codecs are tested.
+     */
+    private byte[] encodeAdaptive(int nRows, int nCols, int[] values) {
+        if (intSelector == null) {
+            boolean[] applicable = new boolean[codecList.size()];
+            for (int i = 0; i < applicable.length; i++) {
+                applicable[i] = codecList.get(i).implementsIntegerEncoding();
+            }
+            intSelector = new CodecSelector(applicable);
+        }
+        byte[] result = null;
+        if (!intSelector.startTile()) {
+            int n = intSelector.getCandidateCount();
+            for (int i = 0; i < n; i++) {
+                byte[] test = encodeWithCodec(
+                  intSelector.getCandidate(i), nRows, nCols, values);
+                if (test != null && (result == null || test.length < result.length)) {
+                    result = test;
+                }
+            }
+        }
+        if (result == null) {
+            result = encodeSingleThread(nRows, nCols, values);
+        }
+        if (result != null) {
+            intSelector.recordWinner(result[0] & 0xff);
+        }
+        return result;
+    }
+
 
     byte[] encodeMultiThread(int nRows, int nCols, int[] values) {
       if(tgExecutor == null){
@@ -193,6 +294,11 @@ class CodecMaster {
     }
 
     int[] decode(int nRows, int nColumns, byte[] packing) throws IOException {
+        if (UniformTile.isUniform(packing)) {
+            int[] output = new int[nRows * nColumns];
+            Arrays.fill(output, UniformTile.getValue(packing));
+            return output;
+        }
         int index = packing[0] & 0xff;
         if (index >= codecList.size()) {
             throw new IOException("Invalid compression-type code " + index);
@@ -203,6 +309,9 @@ class CodecMaster {
     }
 
     void analyze(int nRows, int nColumns, byte[] packing) throws IOException {
+        if (UniformTile.isUniform(packing)) {
+            return;
+        }
         int index = packing[0] & 0xff;
         if (index >= codecList.size()) {
             throw new IOException("Invalid compression-type code " + index);
@@ -259,16 +368,94 @@ class CodecMaster {
      * unsuccessful, a null.
      */
     byte[] encodeFloats(int nRows, int nCols, float[] values) {
+        return encodeFloats(nRows, nCols, values, FloatPreconditionerType.Split);
+    }
+
+    /**
+     * Encodes the specified tile data in a compressed form using the
+     * specified preconditioner for codecs that support it.
+     *
+     * @param nRows a value of 1 or greater giving the number of rows in the
+     * tile
+     * @param nCols a value of 1 or greater giving the number of columns in the
+     * tile
+     * @param values the values of the tile in row-major order
+     * @param preconditioner a valid preconditioner type
+     * @return if successful, an array of bytes of length greater than 1; if
+     * unsuccessful, a null.
+     */
+    byte[] encodeFloats(int nRows, int nCols, float[] values,
+      FloatPreconditionerType preconditioner) {
+        if (uniformRecordsEnabled) {
+            byte[] uniform = UniformTile.encode(values);
+            if (uniform != null) {
+                return uniform;
+            }
+        }
+        if (adaptiveSelectionEnabled) {
+            return encodeFloatsAdaptive(nRows, nCols, values, preconditioner);
+        }
+        return encodeFloatsWithAllCodecs(nRows, nCols, values, preconditioner);
+    }
+
+    /**
+     * Encodes the specified tile data in a compressed form that reproduces
+     * each value to within the specified maximum absolute error.
+     * If none of the codecs supports error-bounded encoding, the data
+     * is encoded using the lossless codecs.
+     *
+     * @param nRows a value of 1 or greater giving the number of rows in the
+     * tile
+     * @param nCols a value of 1 or greater giving the number of columns in the
+     * tile
+     * @param values the values of the tile in row-major order
+     * @param fillValue the fill value for the element, always
+     * reproduced exactly
+     * @param maxAbsoluteError a finite value greater than zero
+     * @return if successful, an array of bytes of length greater than 1; if
+     * unsuccessful, a null.
+     */
+    byte[] encodeFloats(int nRows, int nCols, float[] values,
+      float fillValue, float maxAbsoluteError) {
+        if (uniformRecordsEnabled) {
+            byte[] uniform = UniformTile.encode(values);
+            if (uniform != null) {
+                return uniform;
+            }
+        }
         byte[] result = null;
-        int resultLength = Integer.MAX_VALUE;
         int k = 0;
         for (CodecHolder codec : codecList) {
             if (codec.implementsFloatingPointEncoding()) {
                 ICompressionEncoder encoder = codec.getEncoderInstance();
                 long time0 = System.nanoTime();
-                byte[] test = encoder.encodeFloats(k, nRows, nCols, values);
+                byte[] test = encoder.encodeFloatsWithErrorBound(
+                  k, nRows, nCols, values, fillValue, maxAbsoluteError);
                 long time1 = System.nanoTime();
-                codec.tabulateEncodingTime((time1-time0)/1000L);
+                if (test != null) {
+                    codec.tabulateEncodingTime((time1 - time0) / 1000L);
+                    if (result == null || test.length < result.length) {
+                        result = test;
+                    }
+                }
+            }
+            k++;
+        }
+        if (result == null) {
+            result = encodeFloats(nRows, nCols, values);
+        }
+        return result;
+    }
+
+    private byte[] encodeFloatsWithAllCodecs(int nRows, int nCols, float[] values,
+      FloatPreconditionerType preconditioner) {
+        byte[] result = null;
+        int resultLength = Integer.MAX_VALUE;
+        int k = 0;
+        for (CodecHolder codec : codecList) {
+            if (codec.implementsFloatingPointEncoding()) {
+                byte[] test = encodeFloatsWithCodec(
+                  k, nRows, nCols, values, preconditioner);
                 if (test != null && test.length < resultLength) {
                     result = test;
                     resultLength = test.length;
@@ -279,6 +466,35 @@ class CodecMaster {
         return result;
     }
 
+    private byte[] encodeFloatsAdaptive(int nRows, int nCols, float[] values,
+      FloatPreconditionerType preconditioner) {
+        if (floatSelector == null) {
+            boolean[] applicable = new boolean[codecList.size()];
+            for (int i = 0; i < applicable.length; i++) {
+                applicable[i] = codecList.get(i).implementsFloatingPointEncoding();
+            }
+            floatSelector = new CodecSelector(applicable);
+        }
+        byte[] result = null;
+        if (!floatSelector.startTile()) {
+            int n = floatSelector.getCandidateCount();
+            for (int i = 0; i < n; i++) {
+                byte[] test = encodeFloatsWithCodec(
+                  floatSelector.getCandidate(i), nRows, nCols, values, preconditioner);
+                if (test != null && (result == null || test.length < result.length)) {
+                    result = test;
+                }
+            }
+        }
+        if (result == null) {
+            result = encodeFloatsWithAllCodecs(nRows, nCols, values, preconditioner);
+        }
+        if (result != null) {
+            floatSelector.recordWinner(result[0] & 0xff);
+        }
+        return result;
+    }
+
     /**
      * Decodes the content of the packing and populates an
      * integer array to store the data.
@@ -294,6 +510,11 @@ class CodecMaster {
      * @throws IOException in the event of an incompatible packing
      */
     float[] decodeFloats(int nRows, int nColumns, byte[] packing) throws IOException {
+        if (UniformTile.isUniform(packing)) {
+            float[] output = new float[nRows * nColumns];
+            Arrays.fill(output, Float.intBitsToFloat(UniformTile.getValue(packing)));
+            return output;
+        }
         int index = packing[0] & 0xff;
         if (index >= codecList.size()) {
             throw new IOException("Invalid compression-type code " + index);
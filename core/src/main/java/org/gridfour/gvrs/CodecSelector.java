@@ -0,0 +1,180 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Selects a subset of the available codecs to be used for compressing
+ * a tile based on the results from recent tiles. Ordinarily, GVRS
+ * compresses each tile using every available codec and retains the
+ * smallest result. For most data sets, the same one or two codecs produce
+ * the best result for nearly all tiles.  This class tracks a score for each
+ * codec that is increased each time the codec produces the best result
+ * and decays over time.  Between periodic full trials, only the
+ * highest-scoring codecs are used.
+ * <p>
+ * The full trials allow the selector to detect changes in the character
+ * of the data, so that a codec that performs poorly on the first tiles
+ * in a raster is not permanently excluded.
+ * <p>
+ * Instances of this class are not thread safe.
+ */
+class CodecSelector {
+
+  /**
+   * The number of tiles at the start of processing for which
+   * all codecs are tested.
+   */
+  static final int N_WARM_UP_TRIALS = 4;
+
+  /**
+   * The interval at which all codecs are tested after the
+   * warm-up period.
+   */
+  static final int FULL_TRIAL_INTERVAL = 16;
+
+  /**
+   * The number of codecs used for tiles that are not subject to a full trial.
+   */
+  static final int N_CANDIDATES = 2;
+
+  private static final double DECAY = 0.875;
+
+  private final boolean[] applicable;
+  private final double[] score;
+  private final int[] candidates;
+  private int nCandidates;
+  private int nTiles;
+
+  /**
+   * Constructs an instance for a set of codecs. The applicable array
+   * indicates which codecs support the type of data that will be
+   * encoded. The array is indexed in the same order as the
+   * codec list of the associated CodecMaster.
+   *
+   * @param applicable an array indicating which codecs may be selected.
+   */
+  CodecSelector(boolean[] applicable) {
+    this.applicable = applicable.clone();
+    score = new double[applicable.length];
+    candidates = new int[N_CANDIDATES];
+  }
+
+  /**
+   * Indicates whether the next tile should be encoded using all
+   * applicable codecs.  This method is to be called once for each
+   * encoding operation. For tiles that contain multiple elements,
+   * there is one encoding operation per element, so the candidates
+   * reflect the best codecs across all elements.
+   *
+   * @return true if a full trial is required; otherwise, false.
+   */
+  boolean startTile() {
+    nTiles++;
+    if (nTiles <= N_WARM_UP_TRIALS || nTiles % FULL_TRIAL_INTERVAL == 0) {
+      return true;
+    }
+    // establish the candidates, highest scores first
+    nCandidates = 0;
+    for (int i = 0; i < score.length; i++) {
+      if (!applicable[i] || score[i] <= 0) {
+        continue;
+      }
+      int k = nCandidates;
+      if (k < candidates.length) {
+        nCandidates++;
+      } else if (score[i] <= score[candidates[k - 1]]) {
+        continue;
+      } else {
+        k--;
+      }
+      while (k > 0 && score[candidates[k - 1]] < score[i]) {
+        candidates[k] = candidates[k - 1];
+        k--;
+      }
+      candidates[k] = i;
+    }
+    return nCandidates == 0;
+  }
+
+  /**
+   * Gets the number of candidate codecs selected for the current tile.
+   * Valid only when the most recent call to startTile() returned false.
+   *
+   * @return a positive integer
+   */
+  int getCandidateCount() {
+    return nCandidates;
+  }
+
+  /**
+   * Gets the index of a candidate codec. Candidates are ordered
+   * by descending score.
+   *
+   * @param index the index of the candidate, in the range zero to
+   * the candidate count.
+   * @return the index of the codec in the codec list.
+   */
+  int getCandidate(int index) {
+    return candidates[index];
+  }
+
+  /**
+   * Records the codec that produced the best result for a tile.
+   *
+   * @param codecIndex the index of the codec in the codec list.
+   */
+  void recordWinner(int codecIndex) {
+    for (int i = 0; i < score.length; i++) {
+      score[i] *= DECAY;
+    }
+    if (0 <= codecIndex && codecIndex < score.length) {
+      score[codecIndex] += 1.0;
+    }
+  }
+
+  /**
+   * Gets the current score for the specified codec.
+   *
+   * @param codecIndex the index of the codec in the codec list.
+   * @return a positive value, potentially zero.
+   */
+  double getScore(int codecIndex) {
+    return score[codecIndex];
+  }
+}
@@ -0,0 +1,242 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Maintains an index of the free-space blocks in a file, supporting
+ * best-fit allocation and the coalescing of adjacent blocks in
+ * O(log n) time.
+ * <p>
+ * Two views of the same set of blocks are maintained: one ordered by
+ * file position, which is used to find the neighbors of a released
+ * block, and one ordered by block size (with ties resolved by file
+ * position), which is used to find the smallest block that satisfies
+ * an allocation. Because the size view is keyed on mutable fields,
+ * a block is always removed from the size view before it is modified
+ * and re-inserted afterwards.
+ */
+class FreeSpaceIndex {
+
+  /**
+   * A block of free space in the file.
+   */
+  static class FreeNode {
+
+    long filePos;
+    int blockSize;
+
+    FreeNode(long filePos, int blockSize) {
+      this.filePos = filePos;
+      this.blockSize = blockSize;
+    }
+
+    @Override
+    public String toString() {
+      return "FreeNode " + filePos + ", " + blockSize;
+    }
+  }
+
+  private final TreeMap<Long, FreeNode> byPosition = new TreeMap<>();
+  private final TreeSet<FreeNode> bySize = new TreeSet<>((a, b) -> {
+    int test = Integer.compare(a.blockSize, b.blockSize);
+    if (test == 0) {
+      test = Long.compare(a.filePos, b.filePos);
+    }
+    return test;
+  });
+
+  private long sizeFreeSpace;
+
+  /**
+   * Removes all blocks from the index.
+   */
+  void clear() {
+    byPosition.clear();
+    bySize.clear();
+    sizeFreeSpace = 0;
+  }
+
+  /**
+   * Gets the number of free blocks in the index.
+   *
+   * @return a positive integer, potentially zero
+   */
+  int size() {
+    return byPosition.size();
+  }
+
+  /**
+   * Indicates whether the index is empty.
+   *
+   * @return true if there are no free blocks; otherwise, false.
+   */
+  boolean isEmpty() {
+    return byPosition.isEmpty();
+  }
+
+  /**
+   * Gets the total size of the free blocks in the index.
+   *
+   * @return a positive value, potentially zero
+   */
+  long getSizeFreeSpace() {
+    return sizeFreeSpace;
+  }
+
+  /**
+   * Gets the size of the largest free block in the index.
+   *
+   * @return a positive value, potentially zero
+   */
+  int getSizeLargestBlock() {
+    if (bySize.isEmpty()) {
+      return 0;
+    }
+    return bySize.last().blockSize;
+  }
+
+  /**
+   * Gets the free blocks in order of file position. The returned
+   * collection is a view of the index and must not be modified.
+   *
+   * @return a valid collection, potentially empty
+   */
+  Collection<FreeNode> getNodesInPositionOrder() {
+    return byPosition.values();
+  }
+
+  /**
+   * Gets the free block with the largest file position.
+   *
+   * @return if the index is not empty, a valid instance; otherwise, a null.
+   */
+  FreeNode getLastNode() {
+    Map.Entry<Long, FreeNode> entry = byPosition.lastEntry();
+    return entry == null ? null : entry.getValue();
+  }
+
+  /**
+   * Adds a block to the index without checking for adjacent blocks.
+   * Intended for use when loading blocks that are known to be
+   * distinct and non-adjacent, such as those read from a file.
+   *
+   * @param filePos the file position of the block
+   * @param blockSize the size of the block
+   * @return the node that was added to the index
+   */
+  FreeNode add(long filePos, int blockSize) {
+    FreeNode node = new FreeNode(filePos, blockSize);
+    byPosition.put(filePos, node);
+    bySize.add(node);
+    sizeFreeSpace += blockSize;
+    return node;
+  }
+
+  /**
+   * Removes the specified node from the index.
+   *
+   * @param node a node that is currently a member of the index
+   */
+  void remove(FreeNode node) {
+    bySize.remove(node);
+    byPosition.remove(node.filePos);
+    sizeFreeSpace -= node.blockSize;
+  }
+
+  /**
+   * Finds the smallest block that is either exactly the specified size
+   * or large enough to be split into a block of the specified size and
+   * a surplus block of at least the specified minimum size.
+   * The block is not removed from the index.
+   *
+   * @param sizeToStore the size required for storage
+   * @param minSizeForSplit the minimum size of a block that may be split
+   * @return if a suitable block is found, a valid instance;
+   * otherwise, a null.
+   */
+  FreeNode findBestFit(int sizeToStore, int minSizeForSplit) {
+    FreeNode probe = new FreeNode(Long.MIN_VALUE, sizeToStore);
+    FreeNode node = bySize.ceiling(probe);
+    if (node == null || node.blockSize == sizeToStore) {
+      return node;
+    }
+    if (node.blockSize < minSizeForSplit) {
+      probe.blockSize = minSizeForSplit;
+      node = bySize.ceiling(probe);
+    }
+    return node;
+  }
+
+  /**
+   * Adds a released block to the index, merging it with any
+   * free blocks that immediately precede or follow it in the file.
+   *
+   * @param filePos the file position of the released block
+   * @param blockSize the size of the released block
+   * @return the node that contains the released block; if a merge
+   * was performed, its position and size will differ from the inputs.
+   */
+  FreeNode release(long filePos, int blockSize) {
+    long mergedPos = filePos;
+    int mergedSize = blockSize;
+
+    Map.Entry<Long, FreeNode> lower = byPosition.lowerEntry(filePos);
+    if (lower != null) {
+      FreeNode prior = lower.getValue();
+      if (prior.filePos + prior.blockSize == filePos) {
+        remove(prior);
+        mergedPos = prior.filePos;
+        mergedSize += prior.blockSize;
+      }
+    }
+
+    FreeNode next = byPosition.get(filePos + blockSize);
+    if (next != null) {
+      remove(next);
+      mergedSize += next.blockSize;
+    }
+
+    return add(mergedPos, mergedSize);
+  }
+}
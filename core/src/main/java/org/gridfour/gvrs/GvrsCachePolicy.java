@@ -0,0 +1,69 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Specifies the policy used to select tiles for removal when the
+ * tile cache of a GvrsFile reaches its memory limit.
+ */
+public enum GvrsCachePolicy {
+  /**
+   * Removes the least-recently used tile. This policy is the default
+   * and is appropriate for most applications.
+   */
+  LRU,
+  /**
+   * An approximation of LRU that gives each tile a "second chance"
+   * if it has been accessed since the last time it was considered
+   * for removal. It requires less maintenance than LRU when an
+   * application accesses tiles that are already in the cache
+   * in a random order.
+   */
+  Clock,
+  /**
+   * The "2Q" policy of Johnson and Shasha.  Tiles that are read for the
+   * first time are held in a short first-in, first-out queue. Tiles are
+   * promoted to the main LRU queue only if they are requested again
+   * after being removed from the first queue.  This policy resists
+   * "cache pollution" from sequential scans over large areas, which
+   * would otherwise flush the frequently accessed tiles out of
+   * the cache.
+   */
+  TwoQueue
+}
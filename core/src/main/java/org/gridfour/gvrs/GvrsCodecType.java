@@ -58,4 +58,20 @@ public enum GvrsCodecType {
      * Compression using an implementation of the canonical Huffman algorithm.
      */
     GvrsCanonicalHuffman,
+
+    /**
+     * Compression using finite-state entropy (FSE) coding, an implementation
+     * of the table-based asymmetric numeral system (tANS).
+     * This codec is not included in the default codec list and must
+     * be added to a specification explicitly.
+     */
+    GvrsFse,
+
+    /**
+     * A lossy float format that reproduces values to within a
+     * specified maximum absolute error. This codec is added to a
+     * specification automatically when a floating-point element with
+     * a non-zero maximum absolute error is added.
+     */
+    GvrsFloatErrorBounded,
 }
@@ -37,6 +37,9 @@
 package org.gridfour.gvrs;
 
 import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
 import org.gridfour.coordinates.GridPoint;
 
 /**
@@ -68,6 +71,10 @@ public abstract class GvrsElement {
   int tileIndex;
   TileElement tileElement;
 
+  // the position of this element within the tile elements array,
+  // assigned by the GvrsFile when the element is created.
+  int elementIndex;
+
   /**
    * Standard constructor used to populate base elements.
    * Since this class is only instantiated in the GVRS package, it
@@ -102,6 +109,60 @@ public abstract class GvrsElement {
     this.tileElement = tileElement;
   }
 
+  /**
+   * Gets the tile element for the specified tile from the concurrent
+   * tile cache. This method does not modify the state of this instance
+   * and may be called safely by multiple threads.  It is used only when
+   * the associated GVRS file is configured for concurrent access.
+   *
+   * @param tileIndex the index of the tile of interest
+   * @return if the tile is populated, a valid instance; otherwise, a null.
+   * @throws IOException in the event of a non-recoverable I/O exception.
+   */
+  TileElement getTileElementConcurrent(int tileIndex) throws IOException {
+    RasterTile tile = gvrsFile.getTileConcurrent(tileIndex);
+    if (tile == null) {
+      return null;
+    }
+    return tile.elements[elementIndex];
+  }
+
+  /**
+   * Gets the tile element for the specified tile in support of the
+   * block-read operations.  If the GVRS file is configured for
+   * concurrent access, the tile is obtained without modifying the
+   * state of this instance.
+   *
+   * @param tileIndex the index of the tile of interest
+   * @return if the tile is populated, a valid instance; otherwise, a null.
+   * @throws IOException in the event of a non-recoverable I/O exception.
+   */
+  private TileElement getTileElementForBlock(int tileIndex) throws IOException {
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      return getTileElementConcurrent(tileIndex);
+    }
+    if (gvrsFile.loadTile(tileIndex, false)) {
+      return tileElement;
+    }
+    return null;
+  }
+
+  /**
+   * Gets the floating-point value used to populate block-read results
+   * for tiles that are not populated.
+   *
+   * @return a valid floating-point value, potentially NaN.
+   */
+  abstract float getFillValueForBlock();
+
+  /**
+   * Gets the integer value used to populate block-read results
+   * for tiles that are not populated.
+   *
+   * @return an integer value.
+   */
+  abstract int getFillValueIntForBlock();
+
   /**
    * Gets the name associated with the element.
    *
@@ -329,78 +390,190 @@ public abstract class GvrsElement {
       throw new IOException(
         "Invalid dimensions: nRows=" + nRows + ", nColumns=" + nColumns);
     }
+    int[] block = new int[nRows * nColumns];
+    transferBlockInt(row, column, nRows, nColumns, block, null, 0, nColumns);
+    return block;
+  }
+
+  /**
+   * Reads a block (sub-grid) of integer values from the GVRS file and
+   * stores them in an array supplied by the calling application.
+   * This method is intended for applications that read blocks repeatedly
+   * and wish to avoid allocating a new array for each call.
+   * The values are stored in row-major order, with the index into the
+   * array for a particular row and column within the sub-grid given by:
+   * <pre>
+   *   index = offset + row * stride + column
+   *   where rows and columns are all numbered starting at zero.
+   * </pre>
+   * Elements of the array that fall outside the block (for example,
+   * when the stride is larger than the number of columns) are not modified.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @param block the array to receive the values
+   * @param offset the index in the array for the first value in the block
+   * @param stride the spacing between the starting indices of successive
+   * rows in the array; must be greater than or equal to nColumns.
+   * @throws IOException in the event of an I/O error.
+   */
+  public void readBlockInt(
+    int row, int column, int nRows, int nColumns,
+    int[] block, int offset, int stride) throws IOException {
+    if (block == null) {
+      throw new IllegalArgumentException("Null output array not supported");
+    }
+    checkBlockArguments(nRows, nColumns, offset, stride, block.length);
+    transferBlockInt(row, column, nRows, nColumns, block, null, offset, stride);
+  }
+
+  /**
+   * Reads a block (sub-grid) of integer values from the GVRS file and
+   * stores them in a buffer supplied by the calling application.
+   * The values are stored beginning at the current position of the
+   * buffer using the layout described for the array-based variation
+   * of this method. The position of the buffer is not modified.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @param buffer the buffer to receive the values
+   * @param stride the spacing between the starting indices of successive
+   * rows in the buffer; must be greater than or equal to nColumns.
+   * @throws IOException in the event of an I/O error.
+   */
+  public void readBlockInt(
+    int row, int column, int nRows, int nColumns,
+    IntBuffer buffer, int stride) throws IOException {
+    if (buffer == null) {
+      throw new IllegalArgumentException("Null output buffer not supported");
+    }
+    int position = buffer.position();
+    checkBlockArguments(nRows, nColumns, position, stride, buffer.limit());
+    if (buffer.hasArray()) {
+      transferBlockInt(row, column, nRows, nColumns,
+        buffer.array(), null, buffer.arrayOffset() + position, stride);
+    } else {
+      transferBlockInt(row, column, nRows, nColumns,
+        null, buffer, position, stride);
+    }
+  }
+
+  /**
+   * Transfers a block of values to either an array or a buffer.
+   * Exactly one of the block and buffer arguments is expected to be
+   * non-null. The calling method is responsible for checking the
+   * dimensions of the block and the capacity of the output.
+   */
+  private void transferBlockInt(
+    int row, int column, int nRows, int nColumns,
+    int[] block, IntBuffer buffer, int offset, int stride)
+    throws IOException {
     // bounds checking for resulting grid row and column computations
-    // are performed in the tileAccessIndices.computeAccessIndices() method
-    // which will throw an exception if bounds are violated.
-    int nValuesInSubBlock = nRows * nColumns;
-    int[] block = new int[nValuesInSubBlock];
+    // are performed in the tileAccessIndices.checkBounds() method
+    // which will throw an exception if bounds are violated.  The access
+    // indices object is not modified, so that this method may be used
+    // when the file is configured for concurrent access.
     int gr0 = row;
     int gc0 = column;
     int gr1 = row + nRows - 1;
     int gc1 = column + nColumns - 1;
-    accessIndices.computeAccessIndices(gr0, gc0);
-    int tileRow0 = accessIndices.tileRow;
-    int tileCol0 = accessIndices.tileCol;
-    accessIndices.computeAccessIndices(gr1, gc1);
-    int tileRow1 = accessIndices.tileRow;
-    int tileCol1 = accessIndices.tileCol;
+    accessIndices.checkBounds(gr0, gc0);
+    accessIndices.checkBounds(gr1, gc1);
+    int tileRow0 = gr0 / accessIndices.nRowsInTile;
+    int tileCol0 = gc0 / accessIndices.nColsInTile;
+    int tileRow1 = gr1 / accessIndices.nRowsInTile;
+    int tileCol1 = gc1 / accessIndices.nColsInTile;
 
-    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
-      // find the tile row limits tr0 and tr1 for this row of tiles.
-      // because the tiles in this row may extend beyond the requested
-      // range of grid rows, we need to enforce limits.
-      int gtRowOffset = tileRow * accessIndices.nRowsInTile;
-      int gtr0 = gtRowOffset;
-      int gtr1 = gtRowOffset + accessIndices.nRowsInTile - 1;
-      // enforce limits
-      if (gtr0 < gr0) {
-        gtr0 = gr0;
-      }
-      if (gtr1 > gr1) {
-        gtr1 = gr1;
-      }
-      int tr0 = gtr0 - gtRowOffset; // must be in range 0 to spec.nRowsInTile.
-      int tr1 = gtr1 - gtRowOffset; //    ""        ""          ""
-      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
-        int gtColOffset = tileCol * accessIndices.nColsInTile;
-        int gtc0 = gtColOffset;
-        int gtc1 = gtColOffset + accessIndices.nColsInTile - 1;
+    // Provide a hint so that, when multi-threading is enabled, the tile
+    // cache can predict the tiles that will be read. The hint is
+    // cleared even if an exception is thrown.
+    boolean regionHint = tileRow0 < tileRow1 || tileCol0 < tileCol1;
+    if (regionHint) {
+      gvrsFile.setPrefetchRegion(tileRow0, tileCol0, tileRow1, tileCol1);
+    }
+
+    try {
+      for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+        if (regionHint) {
+          // read the remaining tiles in the region using combined reads
+          // (to the extent permitted by the cache size).
+          gvrsFile.preloadTiles(tileRow, tileCol0, tileRow1, tileCol1);
+        }
+        // find the tile row limits tr0 and tr1 for this row of tiles.
+        // because the tiles in this row may extend beyond the requested
+        // range of grid rows, we need to enforce limits.
+        int gtRowOffset = tileRow * accessIndices.nRowsInTile;
+        int gtr0 = gtRowOffset;
+        int gtr1 = gtRowOffset + accessIndices.nRowsInTile - 1;
         // enforce limits
-        if (gtc0 < gc0) {
-          gtc0 = gc0;
+        if (gtr0 < gr0) {
+          gtr0 = gr0;
         }
-        if (gtc1 > gc1) {
-          gtc1 = gc1;
+        if (gtr1 > gr1) {
+          gtr1 = gr1;
         }
-        int tc0 = gtc0 - gtColOffset;
-        int tc1 = gtc1 - gtColOffset;
+        int tr0 = gtr0 - gtRowOffset; // must be in range 0 to spec.nRowsInTile.
+        int tr1 = gtr1 - gtRowOffset; //    ""        ""          ""
+        for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+          int gtColOffset = tileCol * accessIndices.nColsInTile;
+          int gtc0 = gtColOffset;
+          int gtc1 = gtColOffset + accessIndices.nColsInTile - 1;
+          // enforce limits
+          if (gtc0 < gc0) {
+            gtc0 = gc0;
+          }
+          if (gtc1 > gc1) {
+            gtc1 = gc1;
+          }
+          int tc0 = gtc0 - gtColOffset;
+          int tc1 = gtc1 - gtColOffset;
 
-        int targetTileIndex = tileRow * accessIndices.nColsOfTiles + tileCol;
-        if (gvrsFile.loadTile(targetTileIndex, false)) {
-          for (int tr = tr0; tr <= tr1; tr++) {
-            int br = tr + gtRowOffset - gr0;
-            int bc = tc0 + gtColOffset - gc0;
-            int bIndex = br * nColumns + bc;
-            int tIndex = tr * accessIndices.nColsInTile;
-            for (int tc = tc0; tc <= tc1; tc++) {
-              block[bIndex] = tileElement.getValueInt(tIndex + tc);
-              bIndex++;
+          int targetTileIndex = tileRow * accessIndices.nColsOfTiles + tileCol;
+          TileElement te = getTileElementForBlock(targetTileIndex);
+          if (te != null) {
+            for (int tr = tr0; tr <= tr1; tr++) {
+              int br = tr + gtRowOffset - gr0;
+              int bc = tc0 + gtColOffset - gc0;
+              int bIndex = offset + br * stride + bc;
+              int tIndex = tr * accessIndices.nColsInTile;
+              if (block != null) {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  block[bIndex++] = te.getValueInt(tIndex + tc);
+                }
+              } else {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  buffer.put(bIndex++, te.getValueInt(tIndex + tc));
+                }
+              }
             }
-          }
-        } else {
-          for (int tr = tr0; tr <= tr1; tr++) {
-            int br = tr + gtRowOffset - gr0;
-            int bc = tc0 + gtColOffset - gc0;
-            int bIndex = br * nColumns + bc;
-            for (int tc = tc0; tc <= tc1; tc++) {
-              block[bIndex] = tileElement.getFillValueInt();
-              bIndex++;
+          } else {
+            int fillValue = getFillValueIntForBlock();
+            for (int tr = tr0; tr <= tr1; tr++) {
+              int br = tr + gtRowOffset - gr0;
+              int bc = tc0 + gtColOffset - gc0;
+              int bIndex = offset + br * stride + bc;
+              if (block != null) {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  block[bIndex++] = fillValue;
+                }
+              } else {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  buffer.put(bIndex++, fillValue);
+                }
+              }
             }
           }
         }
       }
+    } finally {
+      if (regionHint) {
+        gvrsFile.clearPrefetchRegion();
+      }
     }
-    return block;
   }
 
   /**
@@ -458,78 +631,598 @@ public abstract class GvrsElement {
       throw new IOException(
         "Invalid dimensions: nRows=" + nRows + ", nColumns=" + nColumns);
     }
+    float[] block = new float[nRows * nColumns];
+    transferBlock(row, column, nRows, nColumns, block, null, 0, nColumns);
+    return block;
+  }
+
+  /**
+   * Reads a block (sub-grid) of floating-point values from the GVRS file and
+   * stores them in an array supplied by the calling application.
+   * This method is intended for applications that read blocks repeatedly
+   * and wish to avoid allocating a new array for each call.
+   * The values are stored in row-major order, with the index into the
+   * array for a particular row and column within the sub-grid given by:
+   * <pre>
+   *   index = offset + row * stride + column
+   *   where rows and columns are all numbered starting at zero.
+   * </pre>
+   * Elements of the array that fall outside the block (for example,
+   * when the stride is larger than the number of columns) are not modified.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @param block the array to receive the values
+   * @param offset the index in the array for the first value in the block
+   * @param stride the spacing between the starting indices of successive
+   * rows in the array; must be greater than or equal to nColumns.
+   * @throws IOException in the event of an I/O error.
+   */
+  public void readBlock(
+    int row, int column, int nRows, int nColumns,
+    float[] block, int offset, int stride) throws IOException {
+    if (block == null) {
+      throw new IllegalArgumentException("Null output array not supported");
+    }
+    checkBlockArguments(nRows, nColumns, offset, stride, block.length);
+    transferBlock(row, column, nRows, nColumns, block, null, offset, stride);
+  }
+
+  /**
+   * Reads a block (sub-grid) of floating-point values from the GVRS file and
+   * stores them in a buffer supplied by the calling application.
+   * The values are stored beginning at the current position of the
+   * buffer using the layout described for the array-based variation
+   * of this method. The position of the buffer is not modified.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @param buffer the buffer to receive the values
+   * @param stride the spacing between the starting indices of successive
+   * rows in the buffer; must be greater than or equal to nColumns.
+   * @throws IOException in the event of an I/O error.
+   */
+  public void readBlock(
+    int row, int column, int nRows, int nColumns,
+    FloatBuffer buffer, int stride) throws IOException {
+    if (buffer == null) {
+      throw new IllegalArgumentException("Null output buffer not supported");
+    }
+    int position = buffer.position();
+    checkBlockArguments(nRows, nColumns, position, stride, buffer.limit());
+    if (buffer.hasArray()) {
+      transferBlock(row, column, nRows, nColumns,
+        buffer.array(), null, buffer.arrayOffset() + position, stride);
+    } else {
+      transferBlock(row, column, nRows, nColumns,
+        null, buffer, position, stride);
+    }
+  }
+
+  /**
+   * Transfers a block of values to either an array or a buffer.
+   * Exactly one of the block and buffer arguments is expected to be
+   * non-null. The calling method is responsible for checking the
+   * dimensions of the block and the capacity of the output.
+   */
+  private void transferBlock(
+    int row, int column, int nRows, int nColumns,
+    float[] block, FloatBuffer buffer, int offset, int stride)
+    throws IOException {
     // bounds checking for resulting grid row and column computations
-    // are performed in the tileAccessIndices.computeAccessIndices() method
-    // which will throw an exception if bounds are violated.
-    int nValuesInSubBlock = nRows * nColumns;
-    float[] block = new float[nValuesInSubBlock];
+    // are performed in the tileAccessIndices.checkBounds() method
+    // which will throw an exception if bounds are violated.  The access
+    // indices object is not modified, so that this method may be used
+    // when the file is configured for concurrent access.
     int gr0 = row;
     int gc0 = column;
     int gr1 = row + nRows - 1;
     int gc1 = column + nColumns - 1;
-    accessIndices.computeAccessIndices(gr0, gc0);
-    int tileRow0 = accessIndices.tileRow;
-    int tileCol0 = accessIndices.tileCol;
-    accessIndices.computeAccessIndices(gr1, gc1);
-    int tileRow1 = accessIndices.tileRow;
-    int tileCol1 = accessIndices.tileCol;
+    accessIndices.checkBounds(gr0, gc0);
+    accessIndices.checkBounds(gr1, gc1);
+    int tileRow0 = gr0 / accessIndices.nRowsInTile;
+    int tileCol0 = gc0 / accessIndices.nColsInTile;
+    int tileRow1 = gr1 / accessIndices.nRowsInTile;
+    int tileCol1 = gc1 / accessIndices.nColsInTile;
 
-    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
-      // find the tile row limits tr0 and tr1 for this row of tiles.
-      // because the tiles in this row may extend beyond the requested
-      // range of grid rows, we need to enforce limits.
-      int gtRowOffset = tileRow * accessIndices.nRowsInTile;
-      int gtr0 = gtRowOffset;
-      int gtr1 = gtRowOffset + accessIndices.nRowsInTile - 1;
-      // enforce limits
-      if (gtr0 < gr0) {
-        gtr0 = gr0;
-      }
-      if (gtr1 > gr1) {
-        gtr1 = gr1;
-      }
-      int tr0 = gtr0 - gtRowOffset; // must be in range 0 to spec.nRowsInTile.
-      int tr1 = gtr1 - gtRowOffset; //    ""        ""          ""
-      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
-        int gtColOffset = tileCol * accessIndices.nColsInTile;
-        int gtc0 = gtColOffset;
-        int gtc1 = gtColOffset + accessIndices.nColsInTile - 1;
+    // Provide a hint so that, when multi-threading is enabled, the tile
+    // cache can predict the tiles that will be read. The hint is
+    // cleared even if an exception is thrown.
+    boolean regionHint = tileRow0 < tileRow1 || tileCol0 < tileCol1;
+    if (regionHint) {
+      gvrsFile.setPrefetchRegion(tileRow0, tileCol0, tileRow1, tileCol1);
+    }
+
+    try {
+      for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+        if (regionHint) {
+          // read the remaining tiles in the region using combined reads
+          // (to the extent permitted by the cache size).
+          gvrsFile.preloadTiles(tileRow, tileCol0, tileRow1, tileCol1);
+        }
+        // find the tile row limits tr0 and tr1 for this row of tiles.
+        // because the tiles in this row may extend beyond the requested
+        // range of grid rows, we need to enforce limits.
+        int gtRowOffset = tileRow * accessIndices.nRowsInTile;
+        int gtr0 = gtRowOffset;
+        int gtr1 = gtRowOffset + accessIndices.nRowsInTile - 1;
         // enforce limits
-        if (gtc0 < gc0) {
-          gtc0 = gc0;
+        if (gtr0 < gr0) {
+          gtr0 = gr0;
         }
-        if (gtc1 > gc1) {
-          gtc1 = gc1;
+        if (gtr1 > gr1) {
+          gtr1 = gr1;
         }
-        int tc0 = gtc0 - gtColOffset;
-        int tc1 = gtc1 - gtColOffset;
+        int tr0 = gtr0 - gtRowOffset; // must be in range 0 to spec.nRowsInTile.
+        int tr1 = gtr1 - gtRowOffset; //    ""        ""          ""
+        for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+          int gtColOffset = tileCol * accessIndices.nColsInTile;
+          int gtc0 = gtColOffset;
+          int gtc1 = gtColOffset + accessIndices.nColsInTile - 1;
+          // enforce limits
+          if (gtc0 < gc0) {
+            gtc0 = gc0;
+          }
+          if (gtc1 > gc1) {
+            gtc1 = gc1;
+          }
+          int tc0 = gtc0 - gtColOffset;
+          int tc1 = gtc1 - gtColOffset;
 
-        int targetTileIndex = tileRow * accessIndices.nColsOfTiles + tileCol;
-        if (gvrsFile.loadTile(targetTileIndex, false)) {
-          for (int tr = tr0; tr <= tr1; tr++) {
-            int br = tr + gtRowOffset - gr0;
-            int bc = tc0 + gtColOffset - gc0;
-            int bIndex = br * nColumns + bc;
-            int tIndex = tr * accessIndices.nColsInTile;
-            for (int tc = tc0; tc <= tc1; tc++) {
-              block[bIndex] = tileElement.getValue(tIndex + tc);
-              bIndex++;
+          int targetTileIndex = tileRow * accessIndices.nColsOfTiles + tileCol;
+          TileElement te = getTileElementForBlock(targetTileIndex);
+          if (te != null) {
+            for (int tr = tr0; tr <= tr1; tr++) {
+              int br = tr + gtRowOffset - gr0;
+              int bc = tc0 + gtColOffset - gc0;
+              int bIndex = offset + br * stride + bc;
+              int tIndex = tr * accessIndices.nColsInTile;
+              if (block != null) {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  block[bIndex++] = te.getValue(tIndex + tc);
+                }
+              } else {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  buffer.put(bIndex++, te.getValue(tIndex + tc));
+                }
+              }
             }
-          }
-        } else {
-          for (int tr = tr0; tr <= tr1; tr++) {
-            int br = tr + gtRowOffset - gr0;
-            int bc = tc0 + gtColOffset - gc0;
-            int bIndex = br * nColumns + bc;
-            for (int tc = tc0; tc <= tc1; tc++) {
-              block[bIndex] = tileElement.getFillValue();
-              bIndex++;
+          } else {
+            float fillValue = getFillValueForBlock();
+            for (int tr = tr0; tr <= tr1; tr++) {
+              int br = tr + gtRowOffset - gr0;
+              int bc = tc0 + gtColOffset - gc0;
+              int bIndex = offset + br * stride + bc;
+              if (block != null) {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  block[bIndex++] = fillValue;
+                }
+              } else {
+                for (int tc = tc0; tc <= tc1; tc++) {
+                  buffer.put(bIndex++, fillValue);
+                }
+              }
             }
           }
         }
       }
+    } finally {
+      if (regionHint) {
+        gvrsFile.clearPrefetchRegion();
+      }
     }
-    return block;
+  }
+
+  /**
+   * Writes a block (sub-grid) of integer values to the GVRS file based
+   * on the grid row, column, and block-size specifications. The values
+   * are given in row-major order following the conventions of readBlockInt().
+   * Writing data in a block is often more efficient than writing data
+   * one grid-value-at-a-time since the values for each tile are transferred
+   * as a group.
+   * <p>
+   * The values are subject to the range checking defined by the element
+   * specification. If an out-of-range value is encountered, an
+   * IllegalArgumentException is thrown and the block may be partially written.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @param values an array of at least nRows*nColumns values
+   * @throws IOException in the event of an I/O error.
+   */
+  public void writeBlockInt(
+    int row, int column, int nRows, int nColumns, int[] values)
+    throws IOException {
+    if (values == null) {
+      throw new IllegalArgumentException("Null input array not supported");
+    }
+    transferBlockToTiles(row, column, nRows, nColumns, values, null);
+  }
+
+  /**
+   * Writes a block (sub-grid) of floating-point values to the GVRS file based
+   * on the grid row, column, and block-size specifications. The values
+   * are given in row-major order following the conventions of readBlock().
+   * Writing data in a block is often more efficient than writing data
+   * one grid-value-at-a-time since the values for each tile are transferred
+   * as a group.
+   * <p>
+   * The values are subject to the range checking defined by the element
+   * specification. For integral data types, values are truncated to integers.
+   * If an unsupported value is encountered, an
+   * IllegalArgumentException is thrown and the block may be partially written.
+   *
+   * @param row the grid row index for the starting row of the block
+   * @param column the grid column index for the starting column of the block
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @param values an array of at least nRows*nColumns values
+   * @throws IOException in the event of an I/O error.
+   */
+  public void writeBlock(
+    int row, int column, int nRows, int nColumns, float[] values)
+    throws IOException {
+    if (values == null) {
+      throw new IllegalArgumentException("Null input array not supported");
+    }
+    transferBlockToTiles(row, column, nRows, nColumns, null, values);
+  }
+
+  /**
+   * Transfers a block of values from either an integer or a floating-point
+   * array to the tiles that it overlaps. Exactly one of the arrays
+   * is expected to be non-null. The indexing follows the naming conventions
+   * described in readBlockInt().
+   */
+  private void transferBlockToTiles(
+    int row, int column, int nRows, int nColumns,
+    int[] iValues, float[] fValues) throws IOException {
+    if (!gvrsFile.isOpenedForWriting()) {
+      throw new IOException("Raster file not opened for writing");
+    }
+    if (nRows < 1 || nColumns < 1) {
+      throw new IOException(
+        "Invalid dimensions: nRows=" + nRows + ", nColumns=" + nColumns);
+    }
+    int nValues = iValues != null ? iValues.length : fValues.length;
+    if (nValues < (long) nRows * nColumns) {
+      throw new IllegalArgumentException(
+        "Input array is too small for " + nRows + "x" + nColumns + " block");
+    }
+    int gr0 = row;
+    int gc0 = column;
+    int gr1 = row + nRows - 1;
+    int gc1 = column + nColumns - 1;
+    accessIndices.checkBounds(gr0, gc0);
+    accessIndices.checkBounds(gr1, gc1);
+    int tileRow0 = gr0 / accessIndices.nRowsInTile;
+    int tileCol0 = gc0 / accessIndices.nColsInTile;
+    int tileRow1 = gr1 / accessIndices.nRowsInTile;
+    int tileCol1 = gc1 / accessIndices.nColsInTile;
+
+    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+      int gtRowOffset = tileRow * accessIndices.nRowsInTile;
+      int tr0 = Math.max(gr0, gtRowOffset) - gtRowOffset;
+      int tr1 = Math.min(gr1, gtRowOffset + accessIndices.nRowsInTile - 1)
+        - gtRowOffset;
+      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+        int gtColOffset = tileCol * accessIndices.nColsInTile;
+        int tc0 = Math.max(gc0, gtColOffset) - gtColOffset;
+        int tc1 = Math.min(gc1, gtColOffset + accessIndices.nColsInTile - 1)
+          - gtColOffset;
+        int n = tc1 - tc0 + 1;
+
+        // because write access is enabled, the load tile
+        // operation will always return a value of true
+        // unless an IOException was thrown while writing a new tile
+        int targetTileIndex = tileRow * accessIndices.nColsOfTiles + tileCol;
+        gvrsFile.loadTile(targetTileIndex, true);
+        TileElement te = tileElement;
+        for (int tr = tr0; tr <= tr1; tr++) {
+          int br = tr + gtRowOffset - gr0;
+          int bc = tc0 + gtColOffset - gc0;
+          int bIndex = br * nColumns + bc;
+          int tIndex = tr * accessIndices.nColsInTile + tc0;
+          if (iValues != null) {
+            te.setIntValues(tIndex, iValues, bIndex, n);
+          } else {
+            te.setValues(tIndex, fValues, bIndex, n);
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Checks the arguments for a block read that stores its results
+   * in an array or buffer supplied by the calling application.
+   *
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @param offset the index for the first value in the block
+   * @param stride the spacing between rows in the output
+   * @param capacity the number of values the output can accept
+   * @throws IOException if the file is closed or the dimensions of
+   * the block are invalid
+   */
+  private void checkBlockArguments(
+    int nRows, int nColumns, int offset, int stride, int capacity)
+    throws IOException {
+    if (gvrsFile.isClosed()) {
+      throw new IOException("Raster file is closed");
+    }
+    if (nRows < 1 || nColumns < 1) {
+      throw new IOException(
+        "Invalid dimensions: nRows=" + nRows + ", nColumns=" + nColumns);
+    }
+    if (offset < 0) {
+      throw new IllegalArgumentException("Invalid offset " + offset);
+    }
+    if (stride < nColumns) {
+      throw new IllegalArgumentException(
+        "Stride " + stride + " is less than number of columns " + nColumns);
+    }
+    long nRequired = offset + (long) (nRows - 1) * stride + nColumns;
+    if (nRequired > capacity) {
+      throw new IllegalArgumentException(
+        "Output capacity " + capacity + " is insufficient for block, "
+        + nRequired + " required");
+    }
+  }
+
+  /**
+   * Computes an ordering of the specified points that groups them by the
+   * tile in which they lie. The results are stored in the arrays supplied
+   * by the calling method.
+   *
+   * @param rows the grid row coordinates of the points
+   * @param columns the grid column coordinates of the points
+   * @param nPoints the number of points
+   * @param indexInTile an array to receive the index of each point
+   * within its tile
+   * @return an array of keys, sorted in ascending order, giving the tile
+   * index in the high-order 32 bits and the point index in the low-order bits.
+   * @throws IOException if any of the points are out of bounds.
+   */
+  private long[] groupPointsByTile(
+    double[] rows,
+    double[] columns,
+    int nPoints,
+    int[] indexInTile) throws IOException {
+    long[] keys = new long[nPoints];
+    for (int i = 0; i < nPoints; i++) {
+      // rounding follows the convention used by the GridPoint mappings
+      int row = (int) Math.floor(rows[i] + 0.5);
+      int col = (int) Math.floor(columns[i] + 0.5);
+      int tIndex = accessIndices.computeTileIndex(row, col);
+      indexInTile[i] = accessIndices.computeIndexInTile(row, col);
+      keys[i] = ((long) tIndex << 32) | i;
+    }
+    Arrays.sort(keys);
+    return keys;
+  }
+
+  private static void checkPointArrays(
+    double[] rows, double[] columns, int nValues) {
+    if (rows == null || columns == null) {
+      throw new IllegalArgumentException("Null input arrays not supported");
+    }
+    if (rows.length != columns.length) {
+      throw new IllegalArgumentException(
+        "Mismatched input array lengths " + rows.length + ", " + columns.length);
+    }
+    if (nValues < rows.length) {
+      throw new IllegalArgumentException(
+        "Output array is too small for " + rows.length + " values");
+    }
+  }
+
+  /**
+   * Reads the values for a set of points given in grid coordinates.
+   * This method is intended for applications that query large sets of
+   * scattered points, such as track lines or lists of stations.
+   * Rather than processing the points in the order they are given,
+   * it groups them according to the tile in which they lie so that each
+   * tile is accessed only once.  The results are stored in the output array
+   * in the same order as the input points.
+   * <p>
+   * Non-integral coordinates are rounded to the nearest grid cell.
+   * If a point lies in a tile that is not populated, it is assigned the
+   * fill value for the element.
+   * <p>
+   * When the file is configured for concurrent access, this method may
+   * be called by multiple threads, so an application may divide a
+   * very large set of points among several threads.
+   *
+   * @param rows the grid row coordinates of the points
+   * @param columns the grid column coordinates of the points, must be of
+   * the same length as the rows array.
+   * @param values an array to receive the values, must be at least as
+   * large as the input arrays.
+   * @throws IOException in the event of an I/O error or if any of the
+   * points lies outside the bounds of the grid.
+   */
+  public void readValues(double[] rows, double[] columns, float[] values)
+    throws IOException {
+    if (values == null) {
+      throw new IllegalArgumentException("Null output array not supported");
+    }
+    checkPointArrays(rows, columns, values.length);
+    if (gvrsFile.isClosed()) {
+      throw new IOException("Raster file is closed");
+    }
+    int nPoints = rows.length;
+    int[] indexInTile = new int[nPoints];
+    long[] keys = groupPointsByTile(rows, columns, nPoints, indexInTile);
+    int currentTile = -1;
+    TileElement te = null;
+    float fillValue = getFillValueForBlock();
+    for (int i = 0; i < nPoints; i++) {
+      int tIndex = (int) (keys[i] >>> 32);
+      int pIndex = (int) keys[i];
+      if (tIndex != currentTile) {
+        currentTile = tIndex;
+        te = getTileElementForBlock(tIndex);
+      }
+      if (te == null) {
+        values[pIndex] = fillValue;
+      } else {
+        values[pIndex] = te.getValue(indexInTile[pIndex]);
+      }
+    }
+  }
+
+  /**
+   * Reads the integer values for a set of points given in grid coordinates.
+   * The behavior of this method is the same as that of the floating-point
+   * version of readValues().
+   *
+   * @param rows the grid row coordinates of the points
+   * @param columns the grid column coordinates of the points, must be of
+   * the same length as the rows array.
+   * @param values an array to receive the values, must be at least as
+   * large as the input arrays.
+   * @throws IOException in the event of an I/O error or if any of the
+   * points lies outside the bounds of the grid.
+   */
+  public void readValuesInt(double[] rows, double[] columns, int[] values)
+    throws IOException {
+    if (values == null) {
+      throw new IllegalArgumentException("Null output array not supported");
+    }
+    checkPointArrays(rows, columns, values.length);
+    if (gvrsFile.isClosed()) {
+      throw new IOException("Raster file is closed");
+    }
+    int nPoints = rows.length;
+    int[] indexInTile = new int[nPoints];
+    long[] keys = groupPointsByTile(rows, columns, nPoints, indexInTile);
+    int currentTile = -1;
+    TileElement te = null;
+    int fillValue = getFillValueIntForBlock();
+    for (int i = 0; i < nPoints; i++) {
+      int tIndex = (int) (keys[i] >>> 32);
+      int pIndex = (int) keys[i];
+      if (tIndex != currentTile) {
+        currentTile = tIndex;
+        te = getTileElementForBlock(tIndex);
+      }
+      if (te == null) {
+        values[pIndex] = fillValue;
+      } else {
+        values[pIndex] = te.getValueInt(indexInTile[pIndex]);
+      }
+    }
+  }
+
+  /**
+   * Reads the values for a set of points given in geographic coordinates.
+   * The coordinates are mapped to the grid using the same rules as the
+   * GvrsFile mapGeographicToGridPoint() method, and the values
+   * are then obtained as described for readValues().
+   *
+   * @param latitudes the latitudes of the points
+   * @param longitudes the longitudes of the points, must be of
+   * the same length as the latitudes array.
+   * @param values an array to receive the values, must be at least as
+   * large as the input arrays.
+   * @throws IOException in the event of an I/O error or if any of the
+   * points lies outside the bounds of the grid.
+   */
+  public void readValuesGeographic(
+    double[] latitudes,
+    double[] longitudes,
+    float[] values)
+    throws IOException {
+    if (values == null) {
+      throw new IllegalArgumentException("Null output array not supported");
+    }
+    checkPointArrays(latitudes, longitudes, values.length);
+    int nPoints = latitudes.length;
+    double[] rows = new double[nPoints];
+    double[] columns = new double[nPoints];
+    for (int i = 0; i < nPoints; i++) {
+      GridPoint g = gvrsFile.mapGeographicToGridPoint(latitudes[i], longitudes[i]);
+      // the grid point applies special handling for coordinates
+      // that lie on the fringe of the grid, so use its integer values.
+      rows[i] = g.getRowInt();
+      columns[i] = g.getColumnInt();
+    }
+    readValues(rows, columns, values);
+  }
+
+  /**
+   * Reads a block (sub-grid) of integer values from the specified level
+   * of the GVRS file. Level zero is the full-resolution grid, and
+   * levels one and higher are the reduced-resolution overview levels.
+   * The row and column are given in the grid coordinates of the
+   * specified level.  For level L, the cell at row r and column c
+   * corresponds to the block of full-resolution cells starting at
+   * row r&middot;2<sup>L</sup> and column c&middot;2<sup>L</sup>.
+   * The dimensions of a level may be obtained from the GvrsFile
+   * getRowsInLevel() and getColumnsInLevel() methods.
+   * <p>
+   * The layout of the result follows the conventions of readBlockInt().
+   * Overview levels are not accessible while the file is opened for
+   * writing.
+   *
+   * @param level a level in the range zero to getNumberOfLevels()-1.
+   * @param row the level row index for the starting row of the block
+   * @param column the level column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @return if successful, a valid array of size nRow*nColumn in row-major
+   * order.
+   * @throws IOException in the event of an I/O error or an invalid level.
+   */
+  public int[] readLevelBlockInt(int level, int row, int column, int nRows, int nColumns)
+    throws IOException {
+    if (level == 0) {
+      return readBlockInt(row, column, nRows, nColumns);
+    }
+    OverviewLevel overview = gvrsFile.getOverviewLevel(level);
+    return overview.readBlockInt(elementIndex, getFillValueIntForBlock(),
+      row, column, nRows, nColumns);
+  }
+
+  /**
+   * Reads a block (sub-grid) of floating-point values from the specified
+   * level of the GVRS file. Level zero is the full-resolution grid, and
+   * levels one and higher are the reduced-resolution overview levels.
+   * The row and column are given in the grid coordinates of the
+   * specified level.  For level L, the cell at row r and column c
+   * corresponds to the block of full-resolution cells starting at
+   * row r&middot;2<sup>L</sup> and column c&middot;2<sup>L</sup>.
+   * The dimensions of a level may be obtained from the GvrsFile
+   * getRowsInLevel() and getColumnsInLevel() methods.
+   * <p>
+   * The layout of the result follows the conventions of readBlock().
+   * Overview levels are not accessible while the file is opened for
+   * writing.
+   *
+   * @param level a level in the range zero to getNumberOfLevels()-1.
+   * @param row the level row index for the starting row of the block
+   * @param column the level column index for the starting column of the block
+   * @param nRows the number of rows in the block to be retrieved
+   * @param nColumns the number of columns in the block to be retrieved
+   * @return if successful, a valid array of size nRow*nColumn in row-major
+   * order.
+   * @throws IOException in the event of an I/O error or an invalid level.
+   */
+  public float[] readLevelBlock(int level, int row, int column, int nRows, int nColumns)
+    throws IOException {
+    if (level == 0) {
+      return readBlock(row, column, nRows, nColumns);
+    }
+    OverviewLevel overview = gvrsFile.getOverviewLevel(level);
+    return overview.readBlock(elementIndex, getFillValueForBlock(),
+      row, column, nRows, nColumns);
   }
 
   /**
@@ -103,6 +103,14 @@ public class GvrsElementFloat extends GvrsElement {
 
   @Override
   public float readValue(int row, int column) throws IOException {
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      TileElement te
+        = getTileElementConcurrent(accessIndices.computeTileIndex(row, column));
+      if (te == null) {
+        return fillValue;
+      }
+      return te.getValue(accessIndices.computeIndexInTile(row, column));
+    }
     accessIndices.computeAccessIndices(row, column);
     if (tileIndex != accessIndices.tileIndex) {
       if (!gvrsFile.loadTile(accessIndices.tileIndex, false)) {
@@ -188,4 +196,13 @@ public class GvrsElementFloat extends GvrsElement {
     return minValue;
   }
 
+  @Override
+  float getFillValueForBlock() {
+    return fillValue;
+  }
+
+  @Override
+  int getFillValueIntForBlock() {
+    return Integer.MIN_VALUE;
+  }
 }
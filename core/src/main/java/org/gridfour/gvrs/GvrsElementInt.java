@@ -84,6 +84,14 @@ public class GvrsElementInt extends GvrsElement {
   @Override
   public int readValueInt(int row, int column) throws IOException {
 
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      TileElement te
+        = getTileElementConcurrent(accessIndices.computeTileIndex(row, column));
+      if (te == null) {
+        return fillValue;
+      }
+      return te.getValueInt(accessIndices.computeIndexInTile(row, column));
+    }
     accessIndices.computeAccessIndices(row, column);
     if (tileIndex != accessIndices.tileIndex) {
       if (!gvrsFile.loadTile(accessIndices.tileIndex, false)) {
@@ -188,4 +196,13 @@ public class GvrsElementInt extends GvrsElement {
     return minValue;
   }
 
+  @Override
+  float getFillValueForBlock() {
+    return Float.NaN;
+  }
+
+  @Override
+  int getFillValueIntForBlock() {
+    return fillValue;
+  }
 }
@@ -90,6 +90,14 @@ public class GvrsElementIntCodedFloat extends GvrsElement {
    */
   @Override
   public int readValueInt(int row, int column) throws IOException {
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      TileElement te
+        = getTileElementConcurrent(accessIndices.computeTileIndex(row, column));
+      if (te == null) {
+        return fillValueI;
+      }
+      return te.getValueInt(accessIndices.computeIndexInTile(row, column));
+    }
     accessIndices.computeAccessIndices(row, column);
     if (tileIndex != accessIndices.tileIndex) {
       if (!gvrsFile.loadTile(accessIndices.tileIndex, false)) {
@@ -134,6 +142,14 @@ public class GvrsElementIntCodedFloat extends GvrsElement {
 
   @Override
   public float readValue(int row, int column) throws IOException {
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      TileElement te
+        = getTileElementConcurrent(accessIndices.computeTileIndex(row, column));
+      if (te == null) {
+        return fillValue;
+      }
+      return te.getValue(accessIndices.computeIndexInTile(row, column));
+    }
     accessIndices.computeAccessIndices(row, column);
     if (tileIndex != accessIndices.tileIndex) {
       if (!gvrsFile.loadTile(accessIndices.tileIndex, false)) {
@@ -331,4 +347,13 @@ public class GvrsElementIntCodedFloat extends GvrsElement {
     return fillValue;
   }
 
+  @Override
+  float getFillValueForBlock() {
+    return fillValue;
+  }
+
+  @Override
+  int getFillValueIntForBlock() {
+    return fillValueI;
+  }
 }
@@ -84,6 +84,14 @@ public class GvrsElementShort extends GvrsElement {
   @Override
   public int readValueInt(int row, int column) throws IOException {
 
+    if (gvrsFile.isConcurrentAccessEnabled()) {
+      TileElement te
+        = getTileElementConcurrent(accessIndices.computeTileIndex(row, column));
+      if (te == null) {
+        return fillValue;
+      }
+      return te.getValueInt(accessIndices.computeIndexInTile(row, column));
+    }
     accessIndices.computeAccessIndices(row, column);
     if (tileIndex != accessIndices.tileIndex) {
       if (!gvrsFile.loadTile(accessIndices.tileIndex, false)) {
@@ -186,4 +194,13 @@ public class GvrsElementShort extends GvrsElement {
     return minValue;
   }
 
+  @Override
+  float getFillValueForBlock() {
+    return Float.NaN;
+  }
+
+  @Override
+  int getFillValueIntForBlock() {
+    return fillValue;
+  }
 }
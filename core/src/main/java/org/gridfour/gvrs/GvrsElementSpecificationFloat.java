@@ -37,6 +37,8 @@
 
 package org.gridfour.gvrs;
 
+import org.gridfour.compress.FloatPreconditionerType;
+
 /**
  * Provides a concrete definition of a GvrsElementSpecification that specifies
  * floating-point data
@@ -46,6 +48,8 @@ public class GvrsElementSpecificationFloat extends GvrsElementSpecification {
   final float minValue;
   final float maxValue;
   final float fillValue;
+  float maxAbsoluteError;
+  FloatPreconditionerType preconditioner = FloatPreconditionerType.Split;
 
   /**
    * Constructs a instance giving parameters for a
@@ -109,9 +113,75 @@ public class GvrsElementSpecificationFloat extends GvrsElementSpecification {
     this.fillValue = fillValue;
   }
 
+  /**
+   * Sets the maximum absolute error that is permitted when the
+   * values for this element are stored in compressed form.
+   * A value of zero, the default, specifies lossless compression.
+   * When a non-zero value is specified, the values may be stored using
+   * a lossy codec that reproduces each value to within the error bound.
+   * NaN values and the fill value are always stored exactly.
+   * <p>
+   * This setting is only applicable when data compression is enabled.
+   * It must be set before the specification is added to
+   * a GvrsFileSpecification instance.
+   *
+   * @param maxAbsoluteError a finite value greater than or equal to zero.
+   */
+  public void setMaximumAbsoluteError(float maxAbsoluteError) {
+    if (!(maxAbsoluteError >= 0) || Float.isInfinite(maxAbsoluteError)) {
+      throw new IllegalArgumentException(
+        "Invalid maximum absolute error " + maxAbsoluteError);
+    }
+    this.maxAbsoluteError = maxAbsoluteError;
+  }
+
+  /**
+   * Gets the maximum absolute error that is permitted when the
+   * values for this element are stored in compressed form.
+   *
+   * @return a value greater than or equal to zero; zero indicates
+   * lossless compression.
+   */
+  public float getMaximumAbsoluteError() {
+    return maxAbsoluteError;
+  }
+
+  /**
+   * Sets the preconditioner that the float codec applies to the
+   * values for this element before compressing them.  The default is
+   * the Split preconditioner, which separates the sign, exponent,
+   * and mantissa of the values.  The shuffle preconditioners often produce
+   * better results for smoothly varying data and decode faster.
+   * <p>
+   * This setting is only applicable when data compression is enabled.
+   * The shuffle preconditioners were introduced in version 1.05 of
+   * the file format. When an existing file created with an earlier version
+   * is opened for writing, the Split preconditioner is used.
+   *
+   * @param preconditioner a valid instance
+   */
+  public void setFloatPreconditioner(FloatPreconditionerType preconditioner) {
+    if (preconditioner == null) {
+      throw new IllegalArgumentException("Null preconditioner not supported");
+    }
+    this.preconditioner = preconditioner;
+  }
+
+  /**
+   * Gets the preconditioner that the float codec applies to the
+   * values for this element before compressing them.
+   *
+   * @return a valid instance
+   */
+  public FloatPreconditionerType getFloatPreconditioner() {
+    return preconditioner;
+  }
+
   @Override
   GvrsElementSpecification copy() {
-    GvrsElementSpecification spec = new GvrsElementSpecificationFloat(name, minValue, maxValue, fillValue);
+    GvrsElementSpecificationFloat spec = new GvrsElementSpecificationFloat(name, minValue, maxValue, fillValue);
+    spec.maxAbsoluteError = maxAbsoluteError;
+    spec.preconditioner = preconditioner;
     spec.copyApplicationData(this);
     return spec;
   }
@@ -42,8 +42,10 @@ import java.io.Closeable;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
+import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -60,6 +62,7 @@ import org.gridfour.coordinates.IGeoPoint;
 import org.gridfour.coordinates.IModelPoint;
 import org.gridfour.coordinates.ModelPoint;
 import org.gridfour.io.BufferedRandomAccessFile;
+import org.gridfour.io.MemoryMappedFile;
 import org.gridfour.util.GridfourCRC32C;
 
 /**
@@ -73,6 +76,12 @@ import org.gridfour.util.GridfourCRC32C;
  * caches that are not protected for concurrent access. Application requiring
  * multi-threaded access to a single GvrsFile object must manage
  * concurrency issues themselves.
+ * <p>
+ * The one exception to this rule is a file that is opened for read-only
+ * access and configured using setConcurrentAccessEnabled(). In that case,
+ * multiple threads may call the read methods of the GvrsElement instances
+ * associated with the file. See the documentation for that method for
+ * more detail.
  */
 public class GvrsFile implements Closeable, AutoCloseable {
 
@@ -92,6 +101,11 @@ public class GvrsFile implements Closeable, AutoCloseable {
    */
  final static long FILEPOS_MODIFICATION_TIME = 40;
 
+  /**
+   * The file position where the UUID is stored
+   */
+ final static long FILEPOS_UUID = 24;
+
 
 
   /**
@@ -109,7 +123,16 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR_PRE104 = 80;
 
 final static long FILEPOS_OFFSET_TO_FREESPACE_DIR = 56;
 final static long FILEPOS_OFFSET_TO_METADATA_DIR = 64;
+final static long FILEPOS_NUMBER_OF_LEVELS = 72;
 final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
+final static long FILEPOS_OFFSET_TO_OVERVIEW_DIR = 88;
+
+  /**
+   * The file position where the offset to the most recently published
+   * snapshot is stored.  This value is non-zero only while the file is
+   * opened for writing by an application that has published a snapshot.
+   */
+  final static long FILEPOS_OFFSET_TO_SNAPSHOT = 96;
 
 
 
@@ -136,7 +159,19 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
   private final List<GvrsElement> elements = new ArrayList<>();
 
   private boolean multiThreadingEnabled;
+  private boolean adaptiveCodecSelectionEnabled;
   private TileDecompressionAssistant tileDecompAssistant;
+  private TileCompressionAssistant tileCompAssistant;
+  private volatile RasterTileCacheConcurrent concurrentTileCache;
+
+  // The reduced-resolution overview levels, if any.  The array
+  // does not include the full-resolution base level.
+  private OverviewLevel[] overviewLevels = new OverviewLevel[0];
+
+  // The generation and record position for the most recently
+  // published snapshot, if any.
+  private long snapshotGeneration;
+  private long filePosSnapshot;
 
   private static File tempFile() throws IOException {
     Path filePath = Files.createTempFile("gvrstemp", ".gvrs");
@@ -259,13 +294,13 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     braf.leWriteLong(0); // pos 56: offset to freespace directory
     braf.leWriteLong(0); // pos 64: offset to metadata directory
 
-    braf.leWriteShort(1); // number of levels. Currently fixed at 1
+    braf.leWriteShort(1); // pos 72: number of levels, set when file is closed
     byte[] zeroes = new byte[6];
     braf.writeFully(zeroes);
-    braf.leWriteLong(0); // pos 80: offset to first (only) tile directory
+    braf.leWriteLong(0); // pos 80: offset to the full-resolution tile directory
+    braf.leWriteLong(0); // pos 88: offset to the overview directory
 
-    // write a block of two reserved longs for future use.
-    braf.leWriteLong(0);
+    // write a reserved long for future use.
     braf.leWriteLong(0);
 
     // write the specification
@@ -320,6 +355,7 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
 
     for (GvrsElementSpecification eSpec : specification.elementSpecifications) {
       GvrsElement e = eSpec.makeElement(this);
+      e.elementIndex = elements.size();
       elements.add(e);
     }
   }
@@ -331,6 +367,12 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
    * was
    * previously opened for writing and not properly closed, it may not be
    * accessible.
+   * <p>
+   * Applications that opened the file for read-only access before it
+   * was opened for writing continue to see its original content.
+   * While the file is opened for writing, existing records are not
+   * modified in place and file space that is released is not reused
+   * until the file is closed.
    *
    * @param file a valid file
    * @param access a valid access control following the general contract of
@@ -371,6 +413,7 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     }
 
     int versionCode = version*100+subversion;
+    long timeOpenedForWriting = 0;
     if (versionCode<=103) {
       if(openedForWriting){
         throw new IOException(
@@ -381,7 +424,7 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
       uuid = new UUID(uuidHigh, uuidLow);
 
       timeModified = braf.leReadLong(); // time modified from old file
-      long timeOpenedForWriting = braf.leReadLong();
+      timeOpenedForWriting = braf.leReadLong();
       if (timeOpenedForWriting != 0) {
         throw new IOException(
           "Attempt to access a file currently opened for writing"
@@ -406,8 +449,8 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
       uuid = new UUID(uuidHigh, uuidLow);
 
       timeModified = braf.leReadLong(); // time modified from old file
-      long timeOpenedForWriting = braf.leReadLong();
-      if (timeOpenedForWriting != 0) {
+      timeOpenedForWriting = braf.leReadLong();
+      if (timeOpenedForWriting != 0 && writingEnabled) {
         throw new IOException(
           "Attempt to access a file currently opened for writing"
           + " or not properly closed by previous application: "
@@ -417,20 +460,56 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
 
     long filePosFreeSpaceDirectory = braf.leReadLong();
     long filePosMetadataDirectory = braf.leReadLong();
-    int nLevels = braf.leReadShort(); // right now, always 1.
-    if(nLevels!=1){
+    // The number of levels includes the full-resolution base level
+    // and any reduced-resolution overview levels.  The tile directory
+    // for the base level is given in the header.  The tile directories
+    // for the overview levels are given by the overview directory.
+    int nLevels = braf.leReadShort();
+    if(nLevels<1){
       throw new IOException("Unsupported number of levels "+nLevels);
     }
     braf.skipBytes(6);
-    // for now, there is only one tile-directory record.  This may
-    // change in the future if we support raster pyramids.
     long filePosTileDirectory = braf.leReadLong();
+    long filePosOverviewDirectory = braf.leReadLong();
+    if (nLevels > 1 && filePosOverviewDirectory == 0) {
+      throw new IOException("Missing directory for overview levels");
+    }
 
-    // skip the currently reserved block of 16 bytes
-    braf.skipBytes(16);
+    // the position of the most recently published snapshot, if any.
+    // For files written by pre-1.04 versions, this block is reserved.
+    long filePosSnapshotHeader = braf.leReadLong();
+    if (timeOpenedForWriting != 0 && filePosSnapshotHeader == 0) {
+      braf.close();
+      throw new IOException(
+        "Attempt to access a file currently opened for writing"
+        + " or not properly closed by previous application: "
+        + file.getPath());
+    }
     spec = new GvrsFileSpecification(braf, version, subversion);
 
-    if (spec.isChecksumEnabled) {
+    if (timeOpenedForWriting != 0) {
+      // The file is opened for writing by another application
+      // which has published a snapshot. The header checksum is not
+      // maintained while the file is being written, so it is not checked.
+      // The directories are taken from the snapshot. The free-space
+      // directory is not needed for read-only access and the
+      // overview levels are not available until the writer closes the file.
+      long[] snapshot;
+      try {
+        snapshot = RecordManager.readSnapshot(
+          braf, filePosContent, filePosSnapshotHeader);
+      } catch (IOException ioex) {
+        braf.close();
+        throw ioex;
+      }
+      snapshotGeneration = snapshot[0];
+      filePosSnapshot = filePosSnapshotHeader;
+      filePosTileDirectory = snapshot[2];
+      filePosMetadataDirectory = snapshot[3];
+      filePosFreeSpaceDirectory = 0;
+      filePosOverviewDirectory = 0;
+      nLevels = 1;
+    } else if (spec.isChecksumEnabled) {
       braf.seek(filePosContent - 4);
       long checksum0 = braf.leReadInt() & 0xffffffffL;
       long checksum1 = tabulateChecksumFromHeader();
@@ -443,12 +522,21 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     if (writingEnabled) {
       braf.seek(FILEPOS_OPEN_FOR_WRITING_TIME);
       braf.leWriteLong(System.currentTimeMillis());
+      braf.seek(FILEPOS_OFFSET_TO_SNAPSHOT);
+      braf.leWriteLong(0);
       braf.flush();
       openedForWriting = true;
     }
 
     codecMaster = new CodecMaster(spec.codecList);
+    codecMaster.setUniformRecordsEnabled(spec.isVersion105OrLater());
     recordMan = new RecordManager(spec, codecMaster, braf, filePosContent);
+    if (writingEnabled) {
+      // Readers that opened the file before it was opened for writing
+      // may still be accessing its records, so copy-on-write is enabled
+      // before any of the existing records are released.
+      recordMan.setCopyOnWriteEnabled();
+    }
     long savePos = braf.getFilePosition();
     if (filePosFreeSpaceDirectory > 0) {
       recordMan.readFreespaceDirectory(filePosFreeSpaceDirectory);
@@ -480,6 +568,22 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
         recordMan.fileSpaceDealloc(filePosTileDirectory);
       }
     }
+
+    if (nLevels > 1) {
+      // If the file is opened for writing, the overview directory
+      // records are released.  The overview tiles are retained and
+      // will be replaced only if the content of the file is changed.
+      overviewLevels = recordMan.readOverviewDirectory(
+        filePosOverviewDirectory, writingEnabled);
+      if (overviewLevels.length != nLevels - 1) {
+        throw new IOException("Inconsistent number of levels "
+          + nLevels + ", " + (overviewLevels.length + 1));
+      }
+      if (writingEnabled) {
+        braf.seek(FILEPOS_OFFSET_TO_OVERVIEW_DIR);
+        braf.leWriteLong(0);
+      }
+    }
     braf.seek(savePos);
 
     tileCache = new RasterTileCache(spec, recordMan);
@@ -501,6 +605,7 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     }
     for (GvrsElementSpecification eSpec : spec.elementSpecifications) {
       GvrsElement e = eSpec.makeElement(this);
+      e.elementIndex = elements.size();
       elements.add(e);
     }
 
@@ -541,6 +646,145 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     }
   }
 
+  /**
+   * Writes any in-memory data to the file and publishes a snapshot
+   * of its current content for other applications that read the file.
+   * Ordinarily, a file that is opened for writing cannot be opened
+   * by other applications.  Once a snapshot is published, other applications
+   * may open the file for read-only access. Such readers see the content
+   * of the file as it was when the most recent snapshot was published.
+   * <p>
+   * After the first snapshot is published, the content of the file
+   * is written using a copy-on-write policy: tiles and other records
+   * are not modified in place and file space that is released is not
+   * reused until the file is closed.  For an existing file, this policy
+   * applies from the time the file is opened for writing.
+   * Thus readers that opened an earlier snapshot, or that opened
+   * the file before the writer, continue to see a stable view of the file. Readers that wish
+   * to access newer data should close and reopen the file.  A snapshot
+   * remains valid until a later application opens the file for writing
+   * and reuses its file space.
+   * <p>
+   * Overview levels are not included in a snapshot. They become
+   * available to readers when the writing application closes the file.
+   * If the file is recovered from a snapshot, the overview levels are
+   * rebuilt from the recovered data.
+   * <p>
+   * Each snapshot also serves as a checkpoint. If the writing application
+   * terminates without closing the file, the content as of the most
+   * recent snapshot may be restored using the recover() method.
+   *
+   * @return the generation number of the snapshot, a value starting at one
+   * and incremented with each snapshot published.
+   * @throws IOException in the event of an I/O error or if the file
+   * is not opened for writing.
+   */
+  public long publishSnapshot() throws IOException {
+    if (!openedForWriting) {
+      throw new IOException("Raster file not opened for writing");
+    }
+    tileCache.flush();
+    releaseSnapshotRecords();
+    long tileDirectoryPos = recordMan.writeTileDirectory();
+    long metadataDirectoryPos = recordMan.writeMetadataDirectory();
+    long generation = snapshotGeneration + 1;
+    // The overview levels are not part of the snapshot, so their tiles
+    // are listed as free space in the state of the file that it describes.
+    List<Long> overviewTilePositions = new ArrayList<>();
+    for (OverviewLevel overview : overviewLevels) {
+      overview.getTilePositions(overviewTilePositions);
+    }
+    long snapshotPos = recordMan.writeSnapshot(
+      generation, tileDirectoryPos, metadataDirectoryPos, overviewTilePositions);
+
+    // The snapshot records must be written to the file before
+    // the header is updated to refer to them.
+    braf.flush();
+    braf.seek(FILEPOS_OFFSET_TO_SNAPSHOT);
+    braf.leWriteLong(snapshotPos);
+    braf.flush();
+
+    recordMan.setCopyOnWriteEnabled();
+    snapshotGeneration = generation;
+    filePosSnapshot = snapshotPos;
+    return generation;
+  }
+
+  /**
+   * Gets the generation number of the snapshot. For an application that
+   * is writing the file, this is the generation of the most recently
+   * published snapshot. For an application that opened the file while
+   * it was being written, it is the generation of the snapshot that
+   * it is accessing.
+   *
+   * @return a positive value if a snapshot is in use; otherwise, zero.
+   */
+  public long getSnapshotGeneration() {
+    return snapshotGeneration;
+  }
+
+  /**
+   * Releases the records for the most recently published snapshot.
+   * Because copy-on-write is enabled once a snapshot is published,
+   * the space is not reused until the file is closed.
+   *
+   * @throws IOException in the event of an I/O error.
+   */
+  private void releaseSnapshotRecords() throws IOException {
+    if (filePosSnapshot != 0) {
+      recordMan.releaseSnapshot(filePosSnapshot);
+    }
+  }
+
+  /**
+   * Writes the content of the tile cache and the directories to the
+   * file as part of the close operation.  If a snapshot was published,
+   * the file header continues to refer to it so that it remains available
+   * for readers and for recovery until the close operation is complete.
+   *
+   * @return the closing time that was stored in the file header
+   * @throws IOException in the event of an I/O error.
+   */
+  long writeClosingDirectories() throws IOException {
+    tileCache.flush();
+    braf.seek(FILEPOS_MODIFICATION_TIME);
+    long closingTime = System.currentTimeMillis();
+    braf.leWriteLong(closingTime);
+    if (filePosSnapshot == 0) {
+      braf.leWriteLong(0); // opened for writing time
+    } else {
+      // Readers may still be accessing the most recent snapshot.
+      // Its records are released, but the file remains marked as
+      // opened for writing until the new directories are written.
+      releaseSnapshotRecords();
+    }
+
+    long metadataDirectoryPos = recordMan.writeMetadataDirectory();
+    braf.seek(FILEPOS_OFFSET_TO_METADATA_DIR);
+    braf.leWriteLong(metadataDirectoryPos);
+
+    // At present, there is only one tile directory record.
+    // In the future, addition records may be added.
+    long tileDirectoryPos = recordMan.writeTileDirectory();
+    braf.seek(FILEPOS_OFFSET_TO_TILE_DIR);
+    braf.leWriteLong(tileDirectoryPos);
+
+    long overviewDirectoryPos = writeOverviewLevels();
+    braf.seek(FILEPOS_NUMBER_OF_LEVELS);
+    braf.leWriteShort(overviewLevels.length + 1);
+    braf.seek(FILEPOS_OFFSET_TO_OVERVIEW_DIR);
+    braf.leWriteLong(overviewDirectoryPos);
+
+    // The free-space directory must be the last directory we write
+    // because in the course of writing the metadata and tile directories
+    // the allocation of free space may have changed.
+    long freeSpaceDirectoryPos = recordMan.writeFreeSpaceDirectory();
+    braf.seek(FILEPOS_OFFSET_TO_FREESPACE_DIR);
+    braf.leWriteLong(freeSpaceDirectoryPos);
+    braf.flush();
+    return closingTime;
+  }
+
   /**
    * Closes the file and releases all associated resources. If the file is
    * open
@@ -568,6 +812,9 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
       openedForWriting = false;
       isClosed = true;
       nullifyAccessElements();
+      if (tileCompAssistant != null) {
+        tileCompAssistant.shutdown();
+      }
       try{
          braf.close();
       }catch(IOException ioex){
@@ -585,35 +832,26 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
       openedForWriting = false;
       if(!recordMan.writeFailure){
         try {
-          tileCache.flush();
-          braf.seek(FILEPOS_MODIFICATION_TIME);
-          long closingTime = System.currentTimeMillis();
-          braf.leWriteLong(closingTime);
-          braf.leWriteLong(0); // opened for writing time
-
-
-          long metadataDirectoryPos = recordMan.writeMetadataDirectory();
-          braf.seek(FILEPOS_OFFSET_TO_METADATA_DIR);
-          braf.leWriteLong(metadataDirectoryPos);
-
-          // At present, there is only one tile directory record.
-          // In the future, addition records may be added.
-          long tileDirectoryPos = recordMan.writeTileDirectory();
-          braf.seek(FILEPOS_OFFSET_TO_TILE_DIR);
-          braf.leWriteLong(tileDirectoryPos);
-
-          // The free-space directory must be the last directory we write
-          // because in the course of writing the metadata and tile directories
-          // the allocation of free space may have changed.
-             long freeSpaceDirectoryPos = recordMan.writeFreeSpaceDirectory();
-          braf.seek(FILEPOS_OFFSET_TO_FREESPACE_DIR);
-          braf.leWriteLong(freeSpaceDirectoryPos);
+          long closingTime = writeClosingDirectories();
+          if (filePosSnapshot != 0) {
+            braf.seek(FILEPOS_OPEN_FOR_WRITING_TIME);
+            braf.leWriteLong(0);
+            braf.seek(FILEPOS_OFFSET_TO_SNAPSHOT);
+            braf.leWriteLong(0);
+            filePosSnapshot = 0;
+          }
 
           if (spec.isChecksumEnabled) {
             long checksum = tabulateChecksumFromHeader();
             braf.leWriteInt((int) checksum);
           }
           braf.flush();
+
+          // Now that the header no longer refers to a snapshot,
+          // the records released under the copy-on-write policy
+          // may be marked as free space.
+          recordMan.writeDeferredFreeSpaceHeaders();
+          braf.flush();
           timeModified = closingTime;
         } catch (IOException ioex) {
           exceptionDuringFlush = ioex;
@@ -622,8 +860,21 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     }
 
 
+    // The compression assistant is shut down after the final flush
+    // so that any pending tiles are written to the file.
+    if (tileCompAssistant != null) {
+      tileCompAssistant.shutdown();
+    }
     isClosed = true;
     nullifyAccessElements();
+    if (concurrentTileCache != null) {
+      concurrentTileCache.clear();
+    }
+    MemoryMappedFile mappedFile = recordMan.getMemoryMappedFile();
+    if (mappedFile != null) {
+      recordMan.setMemoryMappedFile(null);
+      mappedFile.close();
+    }
 
     braf.close();
 
@@ -632,6 +883,41 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     }
   }
 
+  /**
+   * Used during a close operation to build the overview levels (if any)
+   * and write their directories.  Overview levels are built from the
+   * full-resolution data, so this method must be called after the tile
+   * cache is flushed. If the file was opened for writing but the
+   * full-resolution data was not modified, the existing overview
+   * levels are retained.
+   *
+   * @return if overview levels are specified, the file position of the
+   * overview directory; otherwise, zero.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  private long writeOverviewLevels() throws IOException {
+    int nOverviews = spec.nOverviewLevels;
+    if (nOverviews == 0 || elements.isEmpty()) {
+      return 0;
+    }
+    if (overviewLevels.length != nOverviews || recordMan.nTileWrites > 0) {
+      for (OverviewLevel overview : overviewLevels) {
+        overview.releaseTiles();
+      }
+      overviewLevels = new OverviewLevel[nOverviews];
+      OverviewLevel source = null;
+      for (int i = 0; i < nOverviews; i++) {
+        GvrsFileSpecification levelSpec = new GvrsFileSpecification(spec, i + 1);
+        OverviewLevel overview = new OverviewLevel(
+          i + 1, levelSpec, recordMan.makeTileDirectory(levelSpec), recordMan);
+        overview.build(elements, source);
+        overviewLevels[i] = overview;
+        source = overview;
+      }
+    }
+    return recordMan.writeOverviewDirectory(overviewLevels);
+  }
+
   /**
    * Used during a close operation to null out any elements in the
    * tile cache and any elements that may be holding references to them.
@@ -706,8 +992,16 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     sdFormat.setTimeZone(new SimpleTimeZone(0, "UTC"));
     ps.format("Time last modified:     %s (UTC)%n", sdFormat.format(date));
 
+    if (tileCompAssistant != null) {
+      tileCompAssistant.transferEncodingStatistics();
+    }
     recordMan.summarize(ps);
-    tileCache.summarize(ps);
+    RasterTileCacheConcurrent concurrentCache = concurrentTileCache;
+    if (concurrentCache != null) {
+      concurrentCache.summarize(ps);
+    } else {
+      tileCache.summarize(ps);
+    }
     if (analyze && !braf.isClosed()) {
       try {
         recordMan.analyzeAndReport(ps);
@@ -746,6 +1040,10 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
         + " is not within of valid range");
     }
     tileCache.setTileCacheSize(tileCacheSize);
+    if (concurrentTileCache != null) {
+      concurrentTileCache
+        = new RasterTileCacheConcurrent(spec, recordMan, tileCacheSize);
+    }
   }
 
   /**
@@ -810,13 +1108,57 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
       default:
         target = 9; // again. the small size;
     }
-    int maxAllowed = cacheSize.maxBytesInCache/standardTileSize;
-    if (maxAllowed < 2) {
-      target = 2;
-    } else if (target > maxAllowed) {
-      target = maxAllowed;
+    long targetBytes = (long) target * standardTileSize;
+    long maxBytes = cacheSize.maxBytesInCache;
+    if (maxBytes < 2L * standardTileSize) {
+      maxBytes = 2L * standardTileSize;
+    }
+    setTileCacheSizeInBytes(Math.min(targetBytes, maxBytes));
+  }
+
+  /**
+   * Sets the maximum amount of memory to be used by the tile cache.
+   * The size of the tile cache is limited by the memory required to store
+   * the data for the tiles it holds. This method allows an application to
+   * set the limit directly, rather than as a number of tiles.  The cache
+   * always retains at least one tile.
+   * <p>
+   * Tile elements in which all values are the same may share a single
+   * array with other tiles. Such elements are not counted against the
+   * limit, so the cache may hold more tiles than the limit would suggest
+   * when the raster includes large uniform areas.
+   *
+   * @param maxBytesInCache a positive value, in bytes.
+   * @throws IOException in the event of a non-recoverable I/O exception.
+   */
+  public void setTileCacheSizeInBytes(long maxBytesInCache) throws IOException {
+    if (maxBytesInCache <= 0) {
+      throw new IOException("Cache size of " + maxBytesInCache
+        + " bytes is not within of valid range");
+    }
+    tileCache.setTileCacheSizeInBytes(maxBytesInCache);
+    if (concurrentTileCache != null) {
+      concurrentTileCache = new RasterTileCacheConcurrent(
+        spec, recordMan, Math.max(1, tileCache.tileCacheSize));
+    }
+  }
+
+  /**
+   * Sets the policy used to select tiles for removal when the tile cache
+   * is full.  The default policy is GvrsCachePolicy.LRU.  Applications
+   * that perform large sequential scans while also making repeated queries
+   * over a smaller area may benefit from the TwoQueue policy.
+   * <p>
+   * The policy does not apply to the cache used when concurrent access
+   * is enabled.
+   *
+   * @param cachePolicy a valid instance
+   */
+  public void setTileCachePolicy(GvrsCachePolicy cachePolicy) {
+    if (cachePolicy == null) {
+      throw new IllegalArgumentException("Null cache policy not allowed");
     }
-    setTileCacheSize(target);
+    tileCache.setCachePolicy(cachePolicy);
   }
 
 
@@ -1112,6 +1454,297 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     recordMan.deleteMetadata(name, recordID);
   }
 
+  /**
+   * Enables concurrent access so that multiple threads may read data from
+   * this instance at the same time. Concurrent access is supported only
+   * for files that are opened for read-only access.
+   * <p>
+   * When concurrent access is enabled, the GvrsElement read methods
+   * (readValue(), readValueInt(), readBlock(), and readBlockInt()) may be
+   * called safely from multiple threads.  All threads share a single
+   * tile cache, so that each tile is read and decompressed only once
+   * no matter how many threads access it.  The shared cache is divided
+   * into independently locked partitions (stripes) to reduce contention
+   * between threads. Decompression is performed by the requesting threads,
+   * so multiple tiles may be decompressed in parallel. The reading
+   * assistant enabled by setMultiThreadingEnabled() is not used when
+   * concurrent access is enabled.
+   * <p>
+   * Other methods, such as those used to read metadata or to change
+   * the tile cache size, are not thread safe and should not be called
+   * while other threads are reading data. Concurrent access should be
+   * enabled before the instance is shared among multiple threads.
+   * <p>
+   * Element access for a single thread is somewhat faster when concurrent
+   * access is not enabled, so the default setting is false.
+   *
+   * @param concurrentAccessEnabled true if concurrent access is to be
+   * enabled; otherwise, false.
+   * @throws IOException if the file is closed or open for writing.
+   */
+  public void setConcurrentAccessEnabled(boolean concurrentAccessEnabled) throws IOException {
+    if (isClosed) {
+      throw new IOException("Raster file is closed " + file.getPath());
+    }
+    if (!concurrentAccessEnabled) {
+      concurrentTileCache = null;
+      return;
+    }
+    if (openedForWriting) {
+      throw new IOException(
+        "Concurrent access is not supported for files opened for writing");
+    }
+    if (concurrentTileCache == null) {
+      concurrentTileCache = new RasterTileCacheConcurrent(
+        spec, recordMan, tileCache.tileCacheSize);
+    }
+  }
+
+  /**
+   * Indicates whether concurrent access is enabled for this instance.
+   *
+   * @return true if concurrent access is enabled; otherwise, false.
+   */
+  public boolean isConcurrentAccessEnabled() {
+    return concurrentTileCache != null;
+  }
+
+  /**
+   * Enables or disables memory-mapped access for reading tiles from the
+   * file. Memory mapping is supported only for files that are opened
+   * for read-only access.
+   * <p>
+   * When memory mapping is enabled, tile data is copied directly from
+   * memory that is mapped to the file by the operating system rather than
+   * being read through the file-access buffer. This approach avoids a system
+   * call and an intermediate copy for each tile and may improve
+   * performance when reading large files from fast storage devices.
+   * When used together with concurrent access, multiple threads may read
+   * tiles from the mapped memory at the same time without locking.
+   * Metadata and other non-tile records are still read using conventional
+   * file access.
+   * <p>
+   * The Java API does not provide a way to explicitly release the memory
+   * associated with a mapping. The memory is released when the mapping is
+   * garbage collected.  On some operating systems, a file cannot be
+   * deleted or modified until the mapping is released.
+   *
+   * @param memoryMappingEnabled true if memory mapping is to be enabled;
+   * otherwise, false.
+   * @throws IOException if the file is closed or open for writing, or if
+   * the file cannot be mapped.
+   */
+  public void setMemoryMappingEnabled(boolean memoryMappingEnabled) throws IOException {
+    if (isClosed) {
+      throw new IOException("Raster file is closed " + file.getPath());
+    }
+    MemoryMappedFile mappedFile = recordMan.getMemoryMappedFile();
+    if (!memoryMappingEnabled) {
+      if (mappedFile != null) {
+        recordMan.setMemoryMappedFile(null);
+        mappedFile.close();
+      }
+      return;
+    }
+    if (openedForWriting) {
+      throw new IOException(
+        "Memory mapping is not supported for files opened for writing");
+    }
+    if (mappedFile == null) {
+      recordMan.setMemoryMappedFile(new MemoryMappedFile(file));
+    }
+  }
+
+  /**
+   * Indicates whether memory-mapped access is enabled for this instance.
+   *
+   * @return true if memory mapping is enabled; otherwise, false.
+   */
+  public boolean isMemoryMappingEnabled() {
+    return recordMan.getMemoryMappedFile() != null;
+  }
+
+  /**
+   * Gets the specified tile from the concurrent tile cache.  This method
+   * is used only when concurrent access is enabled.
+   *
+   * @param tileIndex the index of the tile of interest
+   * @return if the tile is populated, a valid instance; otherwise, a null.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or if the file is closed.
+   */
+  RasterTile getTileConcurrent(int tileIndex) throws IOException {
+    RasterTileCacheConcurrent cache = concurrentTileCache;
+    if (this.isClosed || cache == null) {
+      throw new IOException("Raster file is closed " + file.getPath());
+    }
+    return cache.getTile(tileIndex);
+  }
+
+  /**
+   * Gets the number of levels stored in the file, including the
+   * full-resolution base level (level zero) and any reduced-resolution
+   * overview levels. Each overview level has half the number of rows
+   * and columns of the level that precedes it.
+   * <p>
+   * Overview levels are generated when a file that specifies them
+   * is closed after writing.  So, for a newly created file, this method
+   * will return a value of one until the file is closed and reopened.
+   *
+   * @return a value of one or greater.
+   */
+  public int getNumberOfLevels() {
+    return overviewLevels.length + 1;
+  }
+
+  /**
+   * Gets the number of rows in the grid for the specified level.
+   *
+   * @param level a level in the range zero to getNumberOfLevels()-1.
+   * @return a positive integer
+   */
+  public int getRowsInLevel(int level) {
+    checkLevel(level);
+    if (level == 0) {
+      return spec.nRowsInRaster;
+    }
+    return overviewLevels[level - 1].spec.nRowsInRaster;
+  }
+
+  /**
+   * Gets the number of columns in the grid for the specified level.
+   *
+   * @param level a level in the range zero to getNumberOfLevels()-1.
+   * @return a positive integer
+   */
+  public int getColumnsInLevel(int level) {
+    checkLevel(level);
+    if (level == 0) {
+      return spec.nColsInRaster;
+    }
+    return overviewLevels[level - 1].spec.nColsInRaster;
+  }
+
+  private void checkLevel(int level) {
+    if (level < 0 || level > overviewLevels.length) {
+      throw new IllegalArgumentException(
+        "Level " + level + " is not in the range 0 to " + overviewLevels.length);
+    }
+  }
+
+  /**
+   * Selects the level best suited to reading data at the specified
+   * resolution. The resolution is given as the number of full-resolution
+   * grid cells that correspond to one sample in the output product.
+   * For example, an application that renders a 10000 column grid into an
+   * image 1000 pixels wide would specify a value of 10. This method
+   * selects the coarsest level whose cell size does not exceed the
+   * specified resolution. For level L, the cell size is 2<sup>L</sup>
+   * full-resolution grid cells.
+   *
+   * @param gridCellsPerSample the number of full-resolution grid cells
+   * per sample in the output product, a positive value.
+   * @return a level in the range zero to getNumberOfLevels()-1.
+   */
+  public int selectLevel(double gridCellsPerSample) {
+    if (!(gridCellsPerSample > 0)) {
+      throw new IllegalArgumentException(
+        "Invalid resolution " + gridCellsPerSample);
+    }
+    int level = 0;
+    while (level < overviewLevels.length
+      && (1L << (level + 1)) <= gridCellsPerSample) {
+      level++;
+    }
+    return level;
+  }
+
+  /**
+   * Gets the overview level for the specified index.
+   *
+   * @param level a level in the range one to getNumberOfLevels()-1.
+   * @return a valid instance
+   * @throws IOException if the file is closed or opened for writing
+   */
+  OverviewLevel getOverviewLevel(int level) throws IOException {
+    if (isClosed) {
+      throw new IOException("Raster file is closed " + file.getPath());
+    }
+    if (openedForWriting) {
+      throw new IOException(
+        "Overview levels are not accessible while the file is opened for writing");
+    }
+    if (level < 1 || level > overviewLevels.length) {
+      throw new IOException(
+        "Overview level " + level + " is not in the range 1 to "
+        + overviewLevels.length);
+    }
+    return overviewLevels[level - 1];
+  }
+
+  /**
+   * Sets the strategy used to predict which tiles will be accessed when
+   * the file is opened for reading with multi-threading enabled.  Predicted
+   * tiles are read and decompressed by background threads so that they are
+   * available when the application requests them.  The choice of strategy
+   * does not affect the values that are read from the file.
+   * <p>
+   * The default strategy is GvrsPrefetchStrategy.Adaptive.
+   *
+   * @param strategy a valid instance
+   */
+  public void setPrefetchStrategy(GvrsPrefetchStrategy strategy) {
+    if (strategy == null) {
+      throw new IllegalArgumentException("Null prefetch strategy not supported");
+    }
+    tileCache.setPrefetchStrategy(strategy);
+  }
+
+  /**
+   * Sets a hint for the tile cache indicating the region of tiles that is
+   * about to be read.  Not used when concurrent access is enabled.
+   *
+   * @param tileRow0 the first row of tiles in the region
+   * @param tileCol0 the first column of tiles in the region
+   * @param tileRow1 the last row of tiles in the region (inclusive)
+   * @param tileCol1 the last column of tiles in the region (inclusive)
+   */
+  void setPrefetchRegion(int tileRow0, int tileCol0, int tileRow1, int tileCol1) {
+    if (tileDecompAssistant != null && concurrentTileCache == null) {
+      tileCache.setPrefetchRegion(tileRow0, tileCol0, tileRow1, tileCol1);
+    }
+  }
+
+  /**
+   * Clears the hint set by setPrefetchRegion.
+   */
+  void clearPrefetchRegion() {
+    if (tileDecompAssistant != null && concurrentTileCache == null) {
+      tileCache.clearPrefetchRegion();
+    }
+  }
+
+  /**
+   * Reads the tiles in the specified region in advance of their use,
+   * combining the reads for tiles that are stored in adjacent positions
+   * in the file.  Not used when concurrent access is enabled.
+   *
+   * @param tileRow0 the first row of tiles in the region
+   * @param tileCol0 the first column of tiles in the region
+   * @param tileRow1 the last row of tiles in the region (inclusive)
+   * @param tileCol1 the last column of tiles in the region (inclusive)
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void preloadTiles(int tileRow0, int tileCol0, int tileRow1, int tileCol1)
+    throws IOException {
+    if (isClosed) {
+      throw new IOException("Raster file is closed " + file.getPath());
+    }
+    if (concurrentTileCache == null) {
+      tileCache.preloadTiles(tileRow0, tileCol0, tileRow1, tileCol1);
+    }
+  }
+
   boolean loadTile(int tileIndex, boolean writeAccess) throws IOException {
     if (this.isClosed) {
       throw new IOException("Raster file is closed " + file.getPath());
@@ -1370,6 +2003,19 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
    * GvrsFile instance is not configured for data compression,
    * this setting will be ignored.
    * <p>
+   * When a file is opened for writing, tiles that are removed from the
+   * tile cache are compressed by a pool of background threads.
+   * The compressed tiles are written to the file by the application thread
+   * in the order in which they were removed from the cache.
+   * When a file is opened for reading, a pool of background threads is used
+   * to decompress tiles, including tiles that are predicted to be
+   * accessed in the near future.
+   * <p>
+   * The number of threads in the pool is one less than the number of
+   * processors available to the Java virtual machine, but not less than one.
+   * Applications that require a different number of threads may use
+   * the alternate form of this method.
+   * <p>
    * Future development for the GVRS API may expand the use of multi-threaded
    * processing.
    * <p>
@@ -1383,6 +2029,28 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
    * otherwise, false (default false).
    */
   public void setMultiThreadingEnabled(boolean multiThreadingEnabled) {
+    int nThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    setMultiThreadingEnabled(multiThreadingEnabled, nThreads);
+  }
+
+  /**
+   * Sets multi-threading enabled using the specified number of threads
+   * for the compression or decompression of tiles.  Aside from the
+   * specification of the number of threads, the behavior of this method
+   * is the same as that of the single-argument form of this method.
+   * <p>
+   * The number of threads is fixed when multi-threading is enabled.
+   * Subsequent calls to this method will not change it.
+   *
+   * @param multiThreadingEnabled true if multiple threads are enabled;
+   * otherwise, false (default false).
+   * @param nThreads the number of threads in the pool, one or greater.
+   */
+  public void setMultiThreadingEnabled(boolean multiThreadingEnabled, int nThreads) {
+    if (nThreads < 1) {
+      throw new IllegalArgumentException(
+        "Number of threads must be at least one: " + nThreads);
+    }
     if(multiThreadingEnabled){
         if(this.multiThreadingEnabled){
             // multi-threading has been enabled already, nothing to do
@@ -1393,19 +2061,60 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
         // if it's turned off, then there's nothing to do.
         return;
     }
+    this.multiThreadingEnabled = true;
 
     if(openedForWriting && spec.isDataCompressionEnabled()){
          codecMaster.setMultiThreadingEnabled(multiThreadingEnabled);
+         // tiles that are written to the file are compressed by
+         // a pool of background threads using the TileCompressionAssistant class.
+         tileCompAssistant = new TileCompressionAssistant(spec, recordMan, nThreads);
+         tileCompAssistant.setAdaptiveCodecSelectionEnabled(
+           adaptiveCodecSelectionEnabled);
+         tileCompAssistant.start();
+         tileCache.setTileCompAssistant(tileCompAssistant);
     }
     if(!this.openedForWriting && spec.isDataCompressionEnabled()){
         // when the file is open strictly for reading, GVRS can take advantage
-        // of a background thread using the TileDecompAssistant class.
-        tileDecompAssistant = new TileDecompressionAssistant(spec);
+        // of background threads using the TileDecompressionAssistant class.
+        tileDecompAssistant = new TileDecompressionAssistant(spec, nThreads);
         tileDecompAssistant.start();
         tileCache.setTileDecompAssistant(tileDecompAssistant);
     }
   }
 
+  /**
+   * Sets the adaptive codec selection mode for compressing tiles.
+   * By default, GVRS compresses each tile using all of the codecs
+   * specified for the file and stores the smallest result. While this
+   * approach yields the best compression ratios, it can require substantial
+   * processing time when packaging large data sets.
+   * <p>
+   * When adaptive selection is enabled, GVRS tracks which codecs produced
+   * the best results for recently compressed tiles and uses only
+   * the one or two most successful codecs for subsequent tiles.
+   * At regular intervals, all codecs are tested again so that the
+   * selection can follow changes in the character of the data.
+   * For most data sets, this approach reduces the time required for
+   * compression substantially with only a small change in the
+   * size of the output file.
+   * <p>
+   * This setting has no effect on files opened for reading or on files
+   * for which data compression is not enabled. It does not affect the
+   * format of the output, so files written with adaptive
+   * selection may be read by any version of the GVRS API that supports
+   * the codecs.
+   *
+   * @param enabled true if adaptive selection is enabled; otherwise, false
+   * (default false).
+   */
+  public void setAdaptiveCodecSelectionEnabled(boolean enabled) {
+    adaptiveCodecSelectionEnabled = enabled;
+    codecMaster.setAdaptiveSelectionEnabled(enabled);
+    if (tileCompAssistant != null) {
+      tileCompAssistant.setAdaptiveCodecSelectionEnabled(enabled);
+    }
+  }
+
 
    /**
    * Gets a count of the number of tiles that are currently populated with
@@ -1473,4 +2182,192 @@ final static long FILEPOS_OFFSET_TO_TILE_DIR = 80;
     ITileDirectory dir = recordMan.getTileDirectory();
     return dir.getFilePosition(tileIndex);
   }
+
+  /**
+   * Compacts the specified GVRS file, removing unused file space and
+   * storing the tiles in row-major order. The compaction is performed
+   * by copying the content to a temporary file in the same directory
+   * as the source and then replacing the source with the temporary file.
+   * The file must not be open for writing by any application.
+   * <p>
+   * Files that are modified many times may accumulate blocks of free
+   * space and their tiles may become scattered across the file.
+   * Compaction restores the file to the sequential organization
+   * that is produced when a file is written in a single pass.
+   *
+   * @param file a valid reference to an existing GVRS file
+   * @throws IOException in the event of an unrecoverable I/O error
+   */
+  public static void compact(File file) throws IOException {
+    if (file == null) {
+      throw new IOException("Null file reference not supported");
+    }
+    File absFile = file.getAbsoluteFile();
+    File temp = new File(absFile.getParentFile(), absFile.getName() + ".compact");
+    try {
+      compact(absFile, temp);
+    } catch (IOException ioex) {
+      temp.delete();
+      throw ioex;
+    }
+    try {
+      Files.move(temp.toPath(), absFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException ioex) {
+      // the file system may not support atomic moves
+      Files.move(temp.toPath(), absFile.toPath(),
+        StandardCopyOption.REPLACE_EXISTING);
+    }
+  }
+
+  /**
+   * Writes a compacted copy of the specified GVRS file to the specified
+   * output. The output file contains the same specification, UUID,
+   * metadata, and tile data as the input file. Its tile records are
+   * stored in row-major order without intervening free space, followed
+   * by the overview levels (if any) and the directory records.
+   * Tile records are copied directly, without being decompressed and
+   * re-compressed. Overview levels are rebuilt from the full-resolution
+   * data.
+   *
+   * @param input a valid reference to an existing GVRS file that is not
+   * open for writing
+   * @param output a valid reference to the output file; if the file exists,
+   * it will be replaced.
+   * @throws IOException in the event of an unrecoverable I/O error
+   */
+  public static void compact(File input, File output) throws IOException {
+    if (input == null || output == null) {
+      throw new IOException("Null file reference not supported");
+    }
+    if (input.getAbsoluteFile().equals(output.getAbsoluteFile())) {
+      throw new IOException("Input and output must be different files");
+    }
+    try (GvrsFile source = new GvrsFile(input, "r")) {
+      try (GvrsFile target = new GvrsFile(output, source.spec)) {
+        List<GvrsMetadata> metadataList = source.readMetadata();
+        for (GvrsMetadata metadata : metadataList) {
+          target.writeMetadata(metadata);
+        }
+        target.recordMan.copyTileRecords(source.recordMan);
+        UUID uuid = source.uuid;
+        target.braf.seek(FILEPOS_UUID);
+        target.braf.leWriteLong(uuid.getLeastSignificantBits());
+        target.braf.leWriteLong(uuid.getMostSignificantBits());
+      }
+    }
+  }
+
+  /**
+   * Recovers a GVRS file that was not properly closed by the application
+   * that was writing it. The content of the file is restored to the
+   * state of the most recent snapshot published by the writer.
+   * Any data written after that snapshot is discarded.
+   * The recovery uses the directories stored with the snapshot, so
+   * it does not require a scan of the full file.
+   * <p>
+   * Overview levels are not included in the snapshot. The number of
+   * overview levels and the overview method are stored with the snapshot
+   * and the overview levels are rebuilt from the recovered data as part of
+   * the recovery. The file space used by the previous overview tiles
+   * is released.
+   * <p>
+   * Because a file that is opened for writing has the same appearance
+   * as one that was not properly closed, the application must ensure
+   * that no other application is writing to the file before calling
+   * this method.
+   *
+   * @param file a valid reference to an existing GVRS file
+   * @return true if the file was recovered; false if the file was
+   * properly closed and recovery was not required.
+   * @throws IOException in the event of an unrecoverable I/O error or
+   * if the writer did not publish a snapshot.
+   */
+  public static boolean recover(File file) throws IOException {
+    if (file == null) {
+      throw new IOException("Null file reference not supported");
+    }
+    long sizeAtSnapshot;
+    int nOverviewLevels;
+    GvrsOverviewMethod overviewMethod;
+    try (BufferedRandomAccessFile braf = new BufferedRandomAccessFile(file, "rw")) {
+      String identification = braf.readASCII(12);
+      if (!RasterFileType.GvrsRaster.getIdentifier().equals(identification)) {
+        throw new IOException("Incompatible file type " + identification);
+      }
+      int version = braf.readUnsignedByte();
+      int subversion = braf.readUnsignedByte();
+      if (!GvrsFileSpecification.isVersionSupported(version, subversion)
+        || version * 100 + subversion <= 103) {
+        throw new IOException("Recovery is not supported for version "
+          + version + "." + subversion);
+      }
+      braf.seek(FILEPOS_OFFSET_TO_HEADER_RECORD);
+      int sizeOfHeaderInBytes = braf.leReadInt();
+      long filePosContent = sizeOfHeaderInBytes + FILEPOS_OFFSET_TO_HEADER_RECORD;
+
+      braf.seek(FILEPOS_OPEN_FOR_WRITING_TIME);
+      long timeOpenedForWriting = braf.leReadLong();
+      if (timeOpenedForWriting == 0) {
+        return false;
+      }
+      braf.seek(FILEPOS_OFFSET_TO_SNAPSHOT);
+      long filePosSnapshot = braf.leReadLong();
+      if (filePosSnapshot == 0) {
+        throw new IOException(
+          "No snapshot is available for recovery of " + file.getPath());
+      }
+      GvrsFileSpecification spec
+        = new GvrsFileSpecification(braf, version, subversion);
+      long[] snapshot
+        = RecordManager.readSnapshot(braf, filePosContent, filePosSnapshot);
+      sizeAtSnapshot = snapshot[5];
+      nOverviewLevels = (int) snapshot[6];
+      overviewMethod = GvrsOverviewMethod.valueOf((int) snapshot[7]);
+      if (overviewMethod == null) {
+        throw new IOException("Invalid overview method code " + snapshot[7]);
+      }
+
+      // The blocks released after the first snapshot was published
+      // are still marked with their original record types.
+      RecordManager.markFreeSpace(braf, snapshot[4], spec.isChecksumEnabled);
+
+      braf.seek(FILEPOS_MODIFICATION_TIME);
+      braf.leWriteLong(snapshot[1]);
+      braf.leWriteLong(0); // opened for writing time
+      braf.leWriteLong(snapshot[4]); // free-space directory
+      braf.leWriteLong(snapshot[3]); // metadata directory
+      braf.leWriteShort(1); // number of levels
+      braf.seek(FILEPOS_OFFSET_TO_TILE_DIR);
+      braf.leWriteLong(snapshot[2]);
+      braf.leWriteLong(0); // overview directory
+      braf.leWriteLong(0); // snapshot
+      if (spec.isChecksumEnabled) {
+        byte[] bytes = new byte[sizeOfHeaderInBytes - 4];
+        braf.seek(FILEPOS_OFFSET_TO_HEADER_RECORD);
+        braf.readFully(bytes);
+        GridfourCRC32C crc32 = new GridfourCRC32C();
+        crc32.update(bytes);
+        braf.leWriteInt((int) crc32.getValue());
+      }
+      braf.flush();
+    }
+
+    // discard any records that were written after the snapshot
+    if (file.length() > sizeAtSnapshot) {
+      try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+        raf.setLength(sizeAtSnapshot);
+      }
+    }
+
+    // The overview levels are built when a file that specifies
+    // them is closed.
+    if (nOverviewLevels > 0) {
+      try (GvrsFile gvrs = new GvrsFile(file, "rw")) {
+        gvrs.spec.setOverviewLevels(nOverviewLevels, overviewMethod);
+      }
+    }
+    return true;
+  }
 }
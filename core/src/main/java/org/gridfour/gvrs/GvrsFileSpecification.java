@@ -47,7 +47,9 @@ import java.util.ArrayList;
 import java.util.List;
 import org.gridfour.compress.CodecDeflate;
 import org.gridfour.compress.CodecFloat;
+import org.gridfour.compress.CodecFloatErrorBounded;
 import org.gridfour.compress.CodecHuffman;
+import org.gridfour.compress.FloatPreconditionerType;
 import org.gridfour.compress.ICompressionDecoder;
 import org.gridfour.compress.ICompressionEncoder;
 import org.gridfour.compress.canonicalHuffman.CodecCanonHuffman;
@@ -72,9 +74,11 @@ public class GvrsFileSpecification {
   static final byte VERSION = 1;
   /**
    * The sub-version identifier to be used by all raster-file and related
-   * implementations in this package.
+   * implementations in this package. Version 1.05 introduced the
+   * uniform tile records and the float preconditioners, which cannot
+   * be decoded by earlier readers.
    */
-  static final byte SUB_VERSION = 4;
+  static final byte SUB_VERSION = 5;
 
   /**
    * Major version for this instance (set by constructor or when read from a file)
@@ -191,6 +195,17 @@ public class GvrsFileSpecification {
    */
   private boolean dataCompressionEnabled;
 
+  /**
+   * The number of reduced-resolution overview levels to be generated
+   * for the raster, not including the full-resolution base level.
+   */
+  int nOverviewLevels;
+
+  /**
+   * The method used to derive values for the overview levels.
+   */
+  GvrsOverviewMethod overviewMethod = GvrsOverviewMethod.Average;
+
   /**
    * An arbitrary, application-assigned identification string.
    */
@@ -471,18 +486,45 @@ public class GvrsFileSpecification {
    * @param s a valid instance of GvrsFileSpecification.
    */
   public GvrsFileSpecification(GvrsFileSpecification s) {
+    this(s, 0);
+  }
+
+  /**
+   * Construct a specification describing the organization of one of
+   * the overview levels for a raster. The overview level has the same
+   * tile size and elements as the source, but the number of rows and
+   * columns in the raster are reduced by a factor of two for each level.
+   * The coordinate transformations are copied from the source without
+   * modification, so the derived specification is intended strictly
+   * for internal use in organizing tiles.
+   *
+   * @param s a valid instance of GvrsFileSpecification.
+   * @param overviewLevel the overview level, or zero for a
+   * full-resolution copy of the source specification.
+   */
+  GvrsFileSpecification(GvrsFileSpecification s, int overviewLevel) {
     version = VERSION;
     subversion = SUB_VERSION;
     version102 = false;
 
     timeCreated = s.timeCreated;
-    nRowsInRaster = s.nRowsInRaster;
-    nColsInRaster = s.nColsInRaster;
     nRowsInTile = s.nRowsInTile;
     nColsInTile = s.nColsInTile;
-    nRowsOfTiles = s.nRowsOfTiles;
-    nColsOfTiles = s.nColsOfTiles;
     nCellsInTile = s.nCellsInTile;
+    if (overviewLevel == 0) {
+      nRowsInRaster = s.nRowsInRaster;
+      nColsInRaster = s.nColsInRaster;
+      nRowsOfTiles = s.nRowsOfTiles;
+      nColsOfTiles = s.nColsOfTiles;
+    } else {
+      int scale = 1 << overviewLevel;
+      nRowsInRaster = (s.nRowsInRaster + scale - 1) / scale;
+      nColsInRaster = (s.nColsInRaster + scale - 1) / scale;
+      nRowsOfTiles = (nRowsInRaster + nRowsInTile - 1) / nRowsInTile;
+      nColsOfTiles = (nColsInRaster + nColsInTile - 1) / nColsInTile;
+    }
+    nOverviewLevels = s.nOverviewLevels;
+    overviewMethod = s.overviewMethod;
 
     productLabel = s.productLabel;
     for(GvrsElementSpecification eSpec : s.elementSpecifications){
@@ -977,7 +1019,9 @@ public class GvrsFileSpecification {
     for (int iElement = 0; iElement < nElements; iElement++) {
       int dataTypeCode = braf.readByte();
       boolean isContinuous = braf.readBoolean();
-      braf.skipBytes(6); // reserved for future use
+      float maxAbsoluteError = braf.leReadFloat();
+      int preconditionerCode = braf.readUnsignedByte();
+      braf.skipBytes(1); // reserved for future use
       String name = braf.leReadUTF();
       if (dataTypeCode < 0 || dataTypeCode > 3) {
         throw new IOException(
@@ -1003,6 +1047,16 @@ public class GvrsFileSpecification {
           float fFillValue = braf.leReadFloat();
           GvrsElementSpecificationFloat fSpec
             = new GvrsElementSpecificationFloat(name, fMinValue, fMaxValue, fFillValue);
+          if (maxAbsoluteError > 0 && !Float.isInfinite(maxAbsoluteError)) {
+            fSpec.maxAbsoluteError = maxAbsoluteError;
+          }
+          FloatPreconditionerType preconditioner
+            = FloatPreconditionerType.valueOf(preconditionerCode);
+          // the preconditioner is ignored for earlier versions so that
+          // files written by them remain readable by earlier implementations
+          if (preconditioner != null && isVersion105OrLater()) {
+            fSpec.preconditioner = preconditioner;
+          }
           elementSpecifications.add(fSpec);
             spec = fSpec;
         }
@@ -1227,8 +1281,17 @@ public class GvrsFileSpecification {
       int codeValue = (byte) dataType.getCodeValue();
       braf.writeByte(codeValue);
       braf.writeBoolean(e.continuous);
-      byte []zeroes = new byte[6]; // reserved for future use
-      braf.writeFully(zeroes);
+      if (dataType == GvrsElementType.FLOAT) {
+        // the maximum absolute error for lossy compression and
+        // the float preconditioner occupy the first five reserved bytes
+        GvrsElementSpecificationFloat fSpec = (GvrsElementSpecificationFloat) e;
+        braf.leWriteFloat(fSpec.maxAbsoluteError);
+        braf.writeByte(fSpec.preconditioner.getCodeValue());
+        braf.writeByte(0);
+      } else {
+        byte[] zeroes = new byte[6]; // reserved for future use
+        braf.writeFully(zeroes);
+      }
       braf.leWriteUTF(e.name);
       padMultipleOf4(braf);
       switch (dataType) {
@@ -1303,6 +1366,77 @@ public class GvrsFileSpecification {
     this.dataCompressionEnabled = dataCompressionEnabled;
   }
 
+  /**
+   * Sets the number of reduced-resolution overview levels to be generated
+   * for the raster. Each overview level has half the number of rows and
+   * columns of the level that precedes it. Overview levels are generated
+   * from the full-resolution data when the file is closed and are
+   * regenerated whenever the file is modified. They allow applications
+   * to read a coarse representation of a large raster (for example,
+   * for display at a small scale) without reading the full-resolution data.
+   * <p>
+   * A value of zero disables overview levels (the default).
+   * The maximum value is limited by the dimensions of the raster so that
+   * the coarsest overview level has at least two rows or two columns.
+   *
+   * @param nOverviewLevels the number of overview levels, zero or greater.
+   * @param method a valid method for deriving overview values.
+   */
+  public void setOverviewLevels(int nOverviewLevels, GvrsOverviewMethod method) {
+    if (method == null) {
+      throw new IllegalArgumentException("Null overview method not allowed");
+    }
+    int nMax = getMaximumNumberOfOverviewLevels();
+    if (nOverviewLevels < 0 || nOverviewLevels > nMax) {
+      throw new IllegalArgumentException(
+        "Number of overview levels " + nOverviewLevels
+        + " is not in the range 0 to " + nMax);
+    }
+    this.nOverviewLevels = nOverviewLevels;
+    this.overviewMethod = method;
+  }
+
+  /**
+   * Gets the maximum number of overview levels that may be specified
+   * for a raster of the dimensions given by this specification.
+   *
+   * @return a value of zero or greater.
+   */
+  public int getMaximumNumberOfOverviewLevels() {
+    int n = 0;
+    int nR = nRowsInRaster;
+    int nC = nColsInRaster;
+    while (nR > 1 || nC > 1) {
+      nR = (nR + 1) / 2;
+      nC = (nC + 1) / 2;
+      if (nR == 1 && nC == 1) {
+        break;
+      }
+      n++;
+    }
+    return n;
+  }
+
+  /**
+   * Gets the number of reduced-resolution overview levels specified
+   * for the raster. This value does not include the full-resolution
+   * base level.
+   *
+   * @return a value of zero or greater.
+   */
+  public int getNumberOfOverviewLevels() {
+    return nOverviewLevels;
+  }
+
+  /**
+   * Gets the method used to derive the values for overview levels.
+   *
+   * @return a valid instance.
+   */
+  public GvrsOverviewMethod getOverviewMethod() {
+    return overviewMethod;
+  }
+
   /**
    * Gets the number of rows in the overall raster.
    *
@@ -1771,6 +1905,10 @@ public class GvrsFileSpecification {
 
     ps.format("Data compression:       %s%n",
       isDataCompressionEnabled() ? "enabled" : "disabled");
+    if (nOverviewLevels > 0) {
+      ps.format("Overview levels:        %d (%s)%n",
+        nOverviewLevels, overviewMethod.name());
+    }
     ps.println("");
 
     ps.println("Elements");
@@ -1870,6 +2008,21 @@ public class GvrsFileSpecification {
       }
     }
     elementSpecifications.add(specification);
+    if (specification instanceof GvrsElementSpecificationFloat
+      && ((GvrsElementSpecificationFloat) specification).maxAbsoluteError > 0) {
+      boolean found = false;
+      for (CodecHolder holder : codecList) {
+        if (CodecFloatErrorBounded.class.equals(holder.getEncoder())) {
+          found = true;
+          break;
+        }
+      }
+      if (!found) {
+        addCompressionCodec(
+          GvrsCodecType.GvrsFloatErrorBounded.name(),
+          CodecFloatErrorBounded.class);
+      }
+    }
   }
 
   /**
@@ -2318,8 +2471,21 @@ public class GvrsFileSpecification {
    * @return true if the version is supported; otherwise false.
    */
   static boolean isVersionSupported(int version, int subversion){
-    // at this time, only versions 1.02 and 1.03 are supported
-    return (version==1 && 2 <= subversion && subversion<=4);
+    // at this time, only versions 1.02 through 1.05 are supported
+    return (version==1 && 2 <= subversion && subversion<=5);
+  }
+
+  /**
+   * Indicates whether the file format supports the uniform tile records
+   * and float preconditioners that were introduced in version 1.05.
+   * When an application writes to a file created with an earlier version,
+   * these features are not used so that the file remains readable by
+   * the earlier implementations.
+   *
+   * @return true if the version is 1.05 or later; otherwise, false.
+   */
+  boolean isVersion105OrLater() {
+    return version > 1 || (version == 1 && subversion >= 5);
   }
 
 
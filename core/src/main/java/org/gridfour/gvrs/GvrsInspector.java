@@ -317,7 +317,7 @@ public class GvrsInspector {
 
     int recordSize = braf.leReadInt();
     int recordType = braf.readUnsignedByte();
-    if (recordType > 6) {
+    if (RecordType.valueOf(recordType) == null) {
       return false;   // invalid record type
     }
     if (offsetToRecord + recordSize > braf.getFileSize()) {
@@ -0,0 +1,99 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Specifies the method used to derive the values for the reduced-resolution
+ * overview levels of a GVRS file. Each overview level has half the number
+ * of rows and columns of the level that precedes it. Each cell in an overview
+ * level is computed from a two-by-two block of cells in the preceding level.
+ */
+public enum GvrsOverviewMethod {
+  /**
+   * The value of an overview cell is the average of the valid
+   * (non-fill) values from the corresponding block of cells
+   * in the preceding level. If none of the cells in the block
+   * contain valid data, the overview cell is assigned the fill value.
+   * For integral data types, the average is rounded to the nearest integer.
+   * This method is appropriate for continuous data such as elevation.
+   */
+  Average(0),
+  /**
+   * The value of an overview cell is taken directly from the first
+   * (upper-left) cell of the corresponding block of cells in the
+   * preceding level. This method preserves the original values of the
+   * data and is appropriate for discrete data such as
+   * land-use classifications.
+   */
+  Decimate(1);
+
+  final int codeValue;
+
+  GvrsOverviewMethod(int codeValue) {
+    this.codeValue = codeValue;
+  }
+
+  /**
+   * Gets the code value to be stored in a data file to indicate which
+   * overview method was specified.
+   *
+   * @return an integer code value; used internally.
+   */
+  int getCodeValue() {
+    return codeValue;
+  }
+
+  /**
+   * Gets the enumeration type associated with the specified code value.
+   * Will return a null for an invalid code value.
+   *
+   * @param codeValue a value in the range 0 to 1
+   * @return if successful, a valid enumeration; otherwise, a null.
+   */
+  static GvrsOverviewMethod valueOf(int codeValue) {
+    switch (codeValue) {
+      case 0:
+        return Average;
+      case 1:
+        return Decimate;
+      default:
+        return null;
+    }
+  }
+}
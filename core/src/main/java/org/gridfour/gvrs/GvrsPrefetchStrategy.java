@@ -0,0 +1,76 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Specifies the strategy used to predict which tiles will be accessed
+ * next when a GVRS file is read with multi-threading enabled.  Predicted
+ * tiles are read and decompressed by background threads so that they
+ * are available in the tile cache when the application requests them.
+ * <p>
+ * Regardless of the strategy selected, the block-read methods of
+ * the GvrsElement class provide the range of tiles they will access as
+ * an explicit hint. Within a block read, tiles are predicted from
+ * that range rather than from the strategy.
+ */
+public enum GvrsPrefetchStrategy {
+  /**
+   * Predicts that tiles will be accessed in row-major order, so that
+   * the tile following the most recently requested tile in the same row of
+   * tiles (or the first tile in the next row) is read next.
+   */
+  RowMajor,
+  /**
+   * Predicts that tiles will be accessed in column-major order, so that
+   * the tile below the most recently requested tile in the same column of
+   * tiles (or the first tile in the next column) is read next.
+   */
+  ColumnMajor,
+  /**
+   * Detects a constant stride between successive requests for tiles
+   * that are not in the cache and predicts that the stride will continue.
+   * If no stride is detected, this strategy behaves the same as RowMajor.
+   * This strategy is the default.
+   */
+  Adaptive,
+  /**
+   * Disables prediction. Only block-read hints are used.
+   */
+  None
+}
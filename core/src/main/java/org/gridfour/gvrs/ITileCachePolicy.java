@@ -0,0 +1,84 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Defines an interface for the policies used to select tiles for
+ * removal from the tile cache.  The cache maintains the mapping
+ * from tile index to tile; implementations of this interface maintain
+ * only the information needed to select a tile for removal.
+ * <p>
+ * Implementations may use the next and prior links of the RasterTile class
+ * to maintain linked lists.  These links are not used by the cache itself.
+ */
+interface ITileCachePolicy {
+
+  /**
+   * Called when a tile is added to the cache.
+   *
+   * @param tile a valid tile that is not currently held by the policy.
+   */
+  void tileAdded(RasterTile tile);
+
+  /**
+   * Called when a tile that is already in the cache is requested.
+   * For efficiency, the cache does not call this method when the
+   * requested tile is the same as the tile that was requested most
+   * recently.
+   *
+   * @param tile a valid tile that is held by the policy.
+   */
+  void tileAccessed(RasterTile tile);
+
+  /**
+   * Selects a tile for removal from the cache and removes it from the
+   * structures maintained by the policy.
+   *
+   * @return if the policy holds any tiles, a valid instance;
+   * otherwise, a null.
+   */
+  RasterTile removeVictim();
+
+  /**
+   * Gets the number of tiles held by the policy.
+   *
+   * @return a positive integer, potentially zero.
+   */
+  int size();
+}
@@ -0,0 +1,71 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Defines an interface for predicting which tiles will be requested
+ * by an application so that they may be read in advance.
+ */
+interface ITilePrefetcher {
+
+  /**
+   * Called when the application requests a tile other than the one
+   * it requested most recently, whether or not the tile is in the cache.
+   * Implementations may use the sequence of calls to this method to track
+   * the access pattern of the application.
+   *
+   * @param tileIndex the index of the requested tile
+   */
+  void recordAccess(int tileIndex);
+
+  /**
+   * Called when the tile cache receives a request for a tile that
+   * is not in the cache.  Populates the specified array with the indices of
+   * the tiles that are predicted to be requested next, in order of priority.
+   * <p>
+   * The predicted indices are not required to be in the range of valid
+   * tile indices; the calling method is responsible for testing them.
+   *
+   * @param targetIndex the index of the requested tile
+   * @param predictions an array to receive the predicted tile indices;
+   * the length of the array gives the maximum number of predictions.
+   * @return the number of predicted tiles, potentially zero.
+   */
+  int predict(int targetIndex, int[] predictions);
+}
@@ -0,0 +1,426 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides storage and access for one of the reduced-resolution overview
+ * levels of a GVRS raster.
+ * <p>
+ * An overview level is organized using the same tile dimensions and
+ * elements as the full-resolution raster, but has half the number of rows
+ * and columns as the level that precedes it. Its tiles are stored in the
+ * same file as the full-resolution tiles using a separate tile directory.
+ * <p>
+ * Overview levels are built when a file that was opened for writing
+ * is closed. Once built, they are accessed on a read-only basis.
+ * Access methods are synchronized so that they may be used when
+ * the file is configured for concurrent access.
+ */
+class OverviewLevel {
+
+  /**
+   * The maximum number of tiles retained in the cache for an overview
+   * level. Overview levels are usually accessed for display purposes
+   * and a modest cache is adequate.
+   */
+  private static final int MAX_CACHE_SIZE = 64;
+
+  final int level;
+  final GvrsFileSpecification spec;
+  ITileDirectory tileDirectory;
+  private final RecordManager recordManager;
+  private final Map<Integer, RasterTile> tileCache;
+
+  /**
+   * Constructs an instance for the specified overview level.
+   *
+   * @param level the overview level, a value of one or greater
+   * @param spec a specification describing the organization of the level
+   * @param tileDirectory the directory of tile positions for the level
+   * @param recordManager the record manager for the file.
+   */
+  OverviewLevel(
+    int level,
+    GvrsFileSpecification spec,
+    ITileDirectory tileDirectory,
+    RecordManager recordManager) {
+    this.level = level;
+    this.spec = spec;
+    this.tileDirectory = tileDirectory;
+    this.recordManager = recordManager;
+
+    int n = spec.nColsOfTiles;
+    if (n < 9) {
+      n = 9;
+    } else if (n > MAX_CACHE_SIZE) {
+      n = MAX_CACHE_SIZE;
+    }
+    final int cacheSize = n;
+    tileCache = new LinkedHashMap<Integer, RasterTile>(cacheSize * 2, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<Integer, RasterTile> eldest) {
+        return size() > cacheSize;
+      }
+    };
+  }
+
+  /**
+   * Gets the number of tiles addressed by this level.
+   *
+   * @return a positive integer
+   */
+  int getNumberOfTiles() {
+    return spec.nRowsOfTiles * spec.nColsOfTiles;
+  }
+
+  /**
+   * Gets the specified tile, reading it from the file if necessary.
+   *
+   * @param tileIndex the index of the tile within the overview level
+   * @return if the tile is populated, a valid instance; otherwise, a null.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  private RasterTile getTile(int tileIndex) throws IOException {
+    if (tileDirectory.getFilePosition(tileIndex) == 0) {
+      return null;
+    }
+    RasterTile tile = tileCache.get(tileIndex);
+    if (tile == null) {
+      int tileRow = tileIndex / spec.nColsOfTiles;
+      int tileCol = tileIndex - tileRow * spec.nColsOfTiles;
+      tile = new RasterTile(
+        tileIndex,
+        tileRow,
+        tileCol,
+        spec.nRowsInTile,
+        spec.nColsInTile,
+        spec.elementSpecifications,
+        false);
+      synchronized (recordManager) {
+        recordManager.readTile(tile, tileDirectory);
+      }
+      tileCache.put(tileIndex, tile);
+    }
+    return tile;
+  }
+
+  /**
+   * Verifies that the specified block is within the bounds of the level.
+   *
+   * @param row the starting row of the block
+   * @param column the starting column of the block
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @throws IOException in the event of invalid coordinates.
+   */
+  private void checkBounds(int row, int column, int nRows, int nColumns)
+    throws IOException {
+    if (nRows < 1 || nColumns < 1) {
+      throw new IOException(
+        "Invalid dimensions: nRows=" + nRows + ", nColumns=" + nColumns);
+    }
+    if (row < 0 || row + nRows > spec.nRowsInRaster) {
+      throw new IOException("Row out of bounds for overview level "
+        + level + ": " + row);
+    }
+    if (column < 0 || column + nColumns > spec.nColsInRaster) {
+      throw new IOException("Column out of bounds for overview level "
+        + level + ": " + column);
+    }
+  }
+
+  /**
+   * Reads a block of floating-point values from the overview level.
+   *
+   * @param iElement the index of the element to be read
+   * @param fillValue the value to be used for unpopulated cells
+   * @param row the row of the first cell in the block
+   * @param column the column of the first cell in the block
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @return a valid array in row-major order.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  synchronized float[] readBlock(
+    int iElement, float fillValue,
+    int row, int column, int nRows, int nColumns) throws IOException {
+    checkBounds(row, column, nRows, nColumns);
+    float[] block = new float[nRows * nColumns];
+    int nRowsInTile = spec.nRowsInTile;
+    int nColsInTile = spec.nColsInTile;
+    int tileRow0 = row / nRowsInTile;
+    int tileRow1 = (row + nRows - 1) / nRowsInTile;
+    int tileCol0 = column / nColsInTile;
+    int tileCol1 = (column + nColumns - 1) / nColsInTile;
+    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+      int gr0 = Math.max(row, tileRow * nRowsInTile);
+      int gr1 = Math.min(row + nRows, (tileRow + 1) * nRowsInTile);
+      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+        int gc0 = Math.max(column, tileCol * nColsInTile);
+        int gc1 = Math.min(column + nColumns, (tileCol + 1) * nColsInTile);
+        RasterTile tile = getTile(tileRow * spec.nColsOfTiles + tileCol);
+        for (int gr = gr0; gr < gr1; gr++) {
+          int bIndex = (gr - row) * nColumns + gc0 - column;
+          if (tile == null) {
+            for (int gc = gc0; gc < gc1; gc++) {
+              block[bIndex++] = fillValue;
+            }
+          } else {
+            TileElement te = tile.elements[iElement];
+            int tIndex = (gr - tileRow * nRowsInTile) * nColsInTile
+              - tileCol * nColsInTile;
+            for (int gc = gc0; gc < gc1; gc++) {
+              block[bIndex++] = te.getValue(tIndex + gc);
+            }
+          }
+        }
+      }
+    }
+    return block;
+  }
+
+  /**
+   * Reads a block of integer values from the overview level.
+   *
+   * @param iElement the index of the element to be read
+   * @param fillValue the value to be used for unpopulated cells
+   * @param row the row of the first cell in the block
+   * @param column the column of the first cell in the block
+   * @param nRows the number of rows in the block
+   * @param nColumns the number of columns in the block
+   * @return a valid array in row-major order.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  synchronized int[] readBlockInt(
+    int iElement, int fillValue,
+    int row, int column, int nRows, int nColumns) throws IOException {
+    checkBounds(row, column, nRows, nColumns);
+    int[] block = new int[nRows * nColumns];
+    int nRowsInTile = spec.nRowsInTile;
+    int nColsInTile = spec.nColsInTile;
+    int tileRow0 = row / nRowsInTile;
+    int tileRow1 = (row + nRows - 1) / nRowsInTile;
+    int tileCol0 = column / nColsInTile;
+    int tileCol1 = (column + nColumns - 1) / nColsInTile;
+    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+      int gr0 = Math.max(row, tileRow * nRowsInTile);
+      int gr1 = Math.min(row + nRows, (tileRow + 1) * nRowsInTile);
+      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+        int gc0 = Math.max(column, tileCol * nColsInTile);
+        int gc1 = Math.min(column + nColumns, (tileCol + 1) * nColsInTile);
+        RasterTile tile = getTile(tileRow * spec.nColsOfTiles + tileCol);
+        for (int gr = gr0; gr < gr1; gr++) {
+          int bIndex = (gr - row) * nColumns + gc0 - column;
+          if (tile == null) {
+            for (int gc = gc0; gc < gc1; gc++) {
+              block[bIndex++] = fillValue;
+            }
+          } else {
+            TileElement te = tile.elements[iElement];
+            int tIndex = (gr - tileRow * nRowsInTile) * nColsInTile
+              - tileCol * nColsInTile;
+            for (int gc = gc0; gc < gc1; gc++) {
+              block[bIndex++] = te.getValueInt(tIndex + gc);
+            }
+          }
+        }
+      }
+    }
+    return block;
+  }
+
+  /**
+   * Populates the overview level using data from the preceding level.
+   * Each cell in this level is derived from a two-by-two block of cells
+   * in the source level. Tiles that contain no valid data are not stored.
+   * Any tiles previously stored for the level must be released before
+   * this method is called.
+   *
+   * @param elements the elements from the GVRS file, used to access the
+   * full-resolution data when the source is the base level.
+   * @param source the preceding overview level, or a null if this
+   * level is derived from the full-resolution base level.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void build(List<GvrsElement> elements, OverviewLevel source) throws IOException {
+    tileCache.clear();
+    int nRowsInTile = spec.nRowsInTile;
+    int nColsInTile = spec.nColsInTile;
+    int nSourceRows;
+    int nSourceCols;
+    if (source == null) {
+      nSourceRows = elements.get(0).accessIndices.nRowsInRaster;
+      nSourceCols = elements.get(0).accessIndices.nColsInRaster;
+    } else {
+      nSourceRows = source.spec.nRowsInRaster;
+      nSourceCols = source.spec.nColsInRaster;
+    }
+    boolean averaging = spec.overviewMethod == GvrsOverviewMethod.Average;
+
+    for (int tileRow = 0; tileRow < spec.nRowsOfTiles; tileRow++) {
+      int r0 = tileRow * nRowsInTile;
+      int r1 = Math.min(r0 + nRowsInTile, spec.nRowsInRaster);
+      int sr0 = r0 * 2;
+      int nSR = Math.min(r1 * 2, nSourceRows) - sr0;
+      for (int tileCol = 0; tileCol < spec.nColsOfTiles; tileCol++) {
+        int c0 = tileCol * nColsInTile;
+        int c1 = Math.min(c0 + nColsInTile, spec.nColsInRaster);
+        int sc0 = c0 * 2;
+        int nSC = Math.min(c1 * 2, nSourceCols) - sc0;
+        int tileIndex = tileRow * spec.nColsOfTiles + tileCol;
+        RasterTile tile = new RasterTile(
+          tileIndex,
+          tileRow,
+          tileCol,
+          nRowsInTile,
+          nColsInTile,
+          spec.elementSpecifications,
+          true);
+
+        for (int iElement = 0; iElement < tile.elements.length; iElement++) {
+          GvrsElement element = elements.get(iElement);
+          TileElement te = tile.elements[iElement];
+          GvrsElementType dataType = element.dataType;
+          if (dataType == GvrsElementType.INTEGER
+            || dataType == GvrsElementType.SHORT) {
+            int fill = element.getFillValueIntForBlock();
+            int[] s;
+            if (source == null) {
+              s = element.readBlockInt(sr0, sc0, nSR, nSC);
+            } else {
+              s = source.readBlockInt(iElement, fill, sr0, sc0, nSR, nSC);
+            }
+            for (int r = r0; r < r1; r++) {
+              int br = (r - r0) * 2;
+              for (int c = c0; c < c1; c++) {
+                int bc = (c - c0) * 2;
+                int value;
+                if (averaging) {
+                  long sum = 0;
+                  int n = 0;
+                  for (int i = br; i < br + 2 && i < nSR; i++) {
+                    for (int j = bc; j < bc + 2 && j < nSC; j++) {
+                      int v = s[i * nSC + j];
+                      if (v != fill) {
+                        sum += v;
+                        n++;
+                      }
+                    }
+                  }
+                  value = n == 0 ? fill : (int) Math.round((double) sum / n);
+                } else {
+                  value = s[br * nSC + bc];
+                }
+                te.setIntValue((r - r0) * nColsInTile + c - c0, value);
+              }
+            }
+          } else {
+            float fill = element.getFillValueForBlock();
+            float[] s;
+            if (source == null) {
+              s = element.readBlock(sr0, sc0, nSR, nSC);
+            } else {
+              s = source.readBlock(iElement, fill, sr0, sc0, nSR, nSC);
+            }
+            for (int r = r0; r < r1; r++) {
+              int br = (r - r0) * 2;
+              for (int c = c0; c < c1; c++) {
+                int bc = (c - c0) * 2;
+                float value;
+                if (averaging) {
+                  double sum = 0;
+                  int n = 0;
+                  for (int i = br; i < br + 2 && i < nSR; i++) {
+                    for (int j = bc; j < bc + 2 && j < nSC; j++) {
+                      float v = s[i * nSC + j];
+                      if (!Float.isNaN(v) && v != fill) {
+                        sum += v;
+                        n++;
+                      }
+                    }
+                  }
+                  value = n == 0 ? fill : (float) (sum / n);
+                } else {
+                  value = s[br * nSC + bc];
+                }
+                te.setValue((r - r0) * nColsInTile + c - c0, value);
+              }
+            }
+          }
+        }
+        tileDirectory = recordManager.writeTile(
+          tile, tileDirectory, RecordType.OverviewTile);
+      }
+    }
+  }
+
+  /**
+   * Releases the file space for all tiles stored for this level.
+   *
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void releaseTiles() throws IOException {
+    tileCache.clear();
+    recordManager.deallocTiles(tileDirectory, getNumberOfTiles());
+  }
+
+  /**
+   * Adds the file positions of the tiles stored for this level
+   * to the specified list.
+   *
+   * @param positions a valid list to receive the positions of the
+   * tile record content.
+   */
+  void getTilePositions(List<Long> positions) {
+    int nTiles = getNumberOfTiles();
+    for (int tileIndex = 0; tileIndex < nTiles; tileIndex++) {
+      long filePos = tileDirectory.getFilePosition(tileIndex);
+      if (filePos != 0) {
+        positions.add(filePos);
+      }
+    }
+  }
+}
@@ -63,6 +63,13 @@ class RasterTile {
   RasterTile prior;
   boolean writingRequired;
 
+  // elements used by the tile-cache eviction policies
+  boolean referenced;
+  int cacheQueue;
+
+  // the number of bytes charged for the tile by the tile cache
+  int cacheCharge;
+
   /**
    * Constructs a tile and allocates memory for storage.
    * <p>
@@ -141,6 +148,22 @@ class RasterTile {
     return standardSize;
   }
 
+  /**
+   * Gets the number of bytes of memory used privately by the elements
+   * of the tile. Elements that reference shared arrays from the UniformTile
+   * pool are not counted, so this value may be smaller than the
+   * standard size.
+   *
+   * @return a positive value, potentially zero.
+   */
+  int getMemorySize() {
+    int sum = 0;
+    for (TileElement e : elements) {
+      sum += e.getMemorySize();
+    }
+    return sum;
+  }
+
   void setIntValue(int tileRow, int tileColumn, int value) {
     writingRequired = true;
     int index = tileRow * nCols + tileColumn;
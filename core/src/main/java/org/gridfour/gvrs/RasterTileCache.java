@@ -44,7 +44,9 @@ import java.util.HashMap;
 import java.util.List;
 
 /**
- * Provides a cache for managing tiles
+ * Provides a cache for managing tiles.  The size of the cache is limited
+ * by the memory required for the tiles it holds.  The selection of tiles
+ * to be removed when the cache is full is delegated to a policy object.
  */
 class RasterTileCache {
 
@@ -52,12 +54,19 @@ class RasterTileCache {
 
   int tileCacheSize;
   int nTilesInCache;
+  long maxBytesInCache;
+  long nBytesInCache;
+  final int tileSizeInBytes;
+  // The most recently requested tile
   RasterTile firstTile;
-  RasterTile lastTile;
+  ITileCachePolicy policy;
+  GvrsCachePolicy cachePolicy;
   final RecordManager recordManager;
   final GvrsFileSpecification spec;
 
   TileDecompressionAssistant tileDecompAssistant;
+  TileCompressionAssistant tileCompAssistant;
+  TilePrefetcherRegion prefetcher;
 
   HashMap<Integer, RasterTile> cachedTilesMap = new HashMap<>();
   int priorUnsatistiedRequest = -1;
@@ -78,9 +87,33 @@ class RasterTileCache {
    * @param recordManager a valid instance
    */
   RasterTileCache(GvrsFileSpecification spec, RecordManager recordManager) {
-    tileCacheSize = DEFAULT_TILE_CACHE_SIZE;
     this.recordManager = recordManager;
     this.spec = spec;
+    tileSizeInBytes = Math.max(1, spec.getStandardTileSizeInBytes());
+    tileCacheSize = DEFAULT_TILE_CACHE_SIZE;
+    maxBytesInCache = (long) DEFAULT_TILE_CACHE_SIZE * tileSizeInBytes;
+    cachePolicy = GvrsCachePolicy.LRU;
+    policy = new TileCachePolicyLRU();
+    prefetcher = createPrefetcher(GvrsPrefetchStrategy.Adaptive);
+  }
+
+  private TilePrefetcherRegion createPrefetcher(GvrsPrefetchStrategy strategy) {
+    ITilePrefetcher base;
+    switch (strategy) {
+      case RowMajor:
+        base = new TilePrefetcherRowMajor();
+        break;
+      case ColumnMajor:
+        base = new TilePrefetcherColumnMajor(spec.nRowsOfTiles, spec.nColsOfTiles);
+        break;
+      case Adaptive:
+        base = new TilePrefetcherStride();
+        break;
+      default:
+        base = null;
+        break;
+    }
+    return new TilePrefetcherRegion(spec.nColsOfTiles, base);
   }
 
   void setTileCacheSize(int tileCacheSize) throws IOException {
@@ -88,21 +121,80 @@ class RasterTileCache {
       throw new IOException(
         "Cache size less than zero is not supported");
     }
-    this.tileCacheSize = tileCacheSize;
-    while (nTilesInCache > tileCacheSize) {
+    setTileCacheSizeInBytes((long) tileCacheSize * tileSizeInBytes);
+  }
+
+  /**
+   * Sets the maximum amount of memory to be used for the tiles in the
+   * cache.  The cache always retains at least one tile, even if
+   * the size of a tile exceeds the specified value.
+   * <p>
+   * Tiles are charged only for the memory they hold privately. Elements
+   * that reference the shared arrays used for uniform tiles are
+   * not counted.
+   *
+   * @param maxBytesInCache a positive value
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * while writing tiles that are removed from the cache.
+   */
+  void setTileCacheSizeInBytes(long maxBytesInCache) throws IOException {
+    if (maxBytesInCache < 0) {
+      throw new IOException(
+        "Cache size less than zero is not supported");
+    }
+    this.maxBytesInCache = maxBytesInCache;
+    long n = maxBytesInCache / tileSizeInBytes;
+    tileCacheSize = n > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) n;
+    if (firstTile != null) {
+      updateFirstTileCharge();
+    }
+    while (nTilesInCache > 1 && nBytesInCache > maxBytesInCache) {
       discardLastTile();
     }
   }
 
+  /**
+   * Sets the policy used to select tiles for removal from the cache.
+   * Tiles that are currently in the cache are retained.
+   *
+   * @param cachePolicy a valid instance
+   */
+  void setCachePolicy(GvrsCachePolicy cachePolicy) {
+    ITileCachePolicy p;
+    switch (cachePolicy) {
+      case Clock:
+        p = new TileCachePolicyClock();
+        break;
+      case TwoQueue:
+        p = new TileCachePolicyTwoQueue();
+        break;
+      default:
+        p = new TileCachePolicyLRU();
+        break;
+    }
+    for (RasterTile tile : cachedTilesMap.values()) {
+      if (tile != firstTile) {
+        p.tileAdded(tile);
+      }
+    }
+    if (firstTile != null) {
+      // add the most recently requested tile last so that it is given
+      // the highest priority by policies that depend on order of insertion.
+      p.tileAdded(firstTile);
+    }
+    this.cachePolicy = cachePolicy;
+    this.policy = p;
+  }
+
   /**
    * Fetch the specified tile from the cache. If the tile is in the
-   * cache, move it to the head of the linked list of tiles and
+   * cache, notify the cache policy of the access and
    * return the tile.
    * <p>
    * If a tile is not in the cache, but exists in the data file,
-   * read it and store it at the head of the linked list of tiles.
-   * If the cache is already full when a new tile is read, the last tile
-   * in the linked list is discarded.
+   * read it and add it to the cache.
+   * If the cache is already full when a new tile is read, the
+   * tile selected by the cache policy is discarded.
    *
    * @param tileIndex the index of the tile to be read from the file
    * @return if tile exists in the cache or reference file, a valid
@@ -127,23 +219,35 @@ class RasterTileCache {
         nTileFoundInCache++;
         return firstTile;
       }
+      if (tileDecompAssistant != null) {
+        prefetcher.recordAccess(tileIndex);
+      }
+      updateFirstTileCharge();
+    }
+    if (nTilesInCache > 0) {
       tile = cachedTilesMap.get(tileIndex);
       if (tile != null) {
-        // we've already established that the tile is not the first tile
-        tile.prior.next = tile.next;
-        if (tile.next == null) {
-          lastTile = tile.prior;
-        } else {
-          tile.next.prior = tile.prior;
-        }
-        tile.next = firstTile;
-        firstTile.prior = tile;
-        tile.prior = null;
+        policy.tileAccessed(tile);
         firstTile = tile;
         nTileFoundInCache++;
         return tile;
       }
+    }
 
+    // If the tile was recently discarded from the cache, it may still be
+    // waiting to be written by the compression assistant. In that case,
+    // its content is not yet available from the file, so the tile is
+    // written and then returned to the cache.
+    if (tileCompAssistant != null) {
+      tile = tileCompAssistant.reclaimTile(tileIndex);
+      if (tile != null) {
+        nTileFoundInCache++;
+        addTileToCache(tile);
+        return tile;
+      }
+    }
+
+    if (nTilesInCache > 0) {
       // the tile was not found in the cache.  If the tile exists
       // in the file, read it and add it to the cache.  Otherwise,
       // return a null to indicate "not found"
@@ -188,22 +292,43 @@ class RasterTileCache {
    * encounters a non-recoverable IOException.
    */
   void addTileToCache(RasterTile tile) throws IOException {
-    // the cache is full, make room for the new tile
-    if (nTilesInCache == tileCacheSize) {
+    // if the cache is full, make room for the new tile
+    if (firstTile != null) {
+      updateFirstTileCharge();
+    }
+    int tileSize = tile.getMemorySize();
+    while (nTilesInCache > 0 && nBytesInCache + tileSize > maxBytesInCache) {
       discardLastTile();
     }
 
-    // add to head of linked list
     cachedTilesMap.put(tile.tileIndex, tile);
     nTilesInCache++;
+    nBytesInCache += tileSize;
+    tile.cacheCharge = tileSize;
     //assert nTilesInCache == cachedTilesMap.size() : "cache size mismatch";
-    if (firstTile == null) {
-      firstTile = tile;
-      lastTile = tile;
-    } else {
-      tile.next = firstTile;
-      firstTile.prior = tile;
-      firstTile = tile;
+    policy.tileAdded(tile);
+    firstTile = tile;
+  }
+
+  /**
+   * Updates the memory charged for the most recently accessed tile.
+   * A tile that referenced shared uniform arrays when it was added to the
+   * cache acquires private arrays when its values are modified. Because
+   * the GVRS elements modify only the most recently accessed tile,
+   * it is the only tile for which the charge may have changed. If the
+   * charge increases beyond the limit for the cache, tiles are discarded.
+   *
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * while writing tiles that are removed from the cache.
+   */
+  private void updateFirstTileCharge() throws IOException {
+    int size = firstTile.getMemorySize();
+    if (size != firstTile.cacheCharge) {
+      nBytesInCache += size - firstTile.cacheCharge;
+      firstTile.cacheCharge = size;
+      while (nTilesInCache > 1 && nBytesInCache > maxBytesInCache) {
+        discardLastTile();
+      }
     }
   }
 
@@ -243,7 +368,7 @@ class RasterTileCache {
   }
 
   /**
-   * Discard the last tile in the linked list. If the file is opened
+   * Discard the tile selected by the cache policy. If the file is opened
    * for writing and the content of the tile has changed since the
    * last time it was read from the file (if ever), then the file
    * will be written to the file.
@@ -251,27 +376,28 @@ class RasterTileCache {
    * @throws IOException in the event of an unrecoverable IO exception.
    */
   private void discardLastTile() throws IOException {
-    if (lastTile == null) {
+    RasterTile temp = policy.removeVictim();
+    if (temp == null) {
       return;
     }
     nTilesDiscarded++;
 
-    RasterTile temp = lastTile;
-
-    if (nTilesInCache == 1) {
-      nTilesInCache = 0;
+    nTilesInCache--;
+    nBytesInCache -= temp.cacheCharge;
+    cachedTilesMap.remove(temp.tileIndex);
+    if (temp == firstTile) {
       firstTile = null;
-      lastTile = null;
-      cachedTilesMap.clear();
-    } else {
-      nTilesInCache--;
-      lastTile = lastTile.prior;
-      lastTile.next = null;
-      cachedTilesMap.remove(temp.tileIndex);
     }
 
     if (temp.isWritingRequired()) {
-      writeTile(temp);
+      if (tileCompAssistant != null) {
+        // The tile will be compressed by a background thread and
+        // written during a subsequent call to the assistant.
+        nTilesWritten++;
+        tileCompAssistant.submit(temp);
+      } else {
+        writeTile(temp);
+      }
     }
 
     temp.clear(); // nullifies links from linked list, ensures garbage collection.
@@ -284,12 +410,22 @@ class RasterTileCache {
   }
 
   void flush() throws IOException {
-    RasterTile tile = firstTile;
-    while (tile != null) {
+    if (tileCompAssistant != null) {
+      // Submit all dirty tiles so that they can be compressed in parallel,
+      // then wait for all pending tiles to be written.
+      for (RasterTile tile : cachedTilesMap.values()) {
+        if (tile.isWritingRequired()) {
+          nTilesWritten++;
+          tileCompAssistant.submit(tile);
+        }
+      }
+      tileCompAssistant.flush();
+      return;
+    }
+    for (RasterTile tile : cachedTilesMap.values()) {
       if (tile.isWritingRequired()) {
         writeTile(tile);
       }
-      tile = tile.next;
     }
   }
 
@@ -317,7 +453,10 @@ class RasterTileCache {
       }
     }
     ps.format("Tile Cache%n");
+    ps.format("   Cache Policy:              %12s%n", cachePolicy.name());
     ps.format("   Tiles In Cache:            %12d%n", cachedTilesMap.size());
+    ps.format("   Bytes In Cache:            %12d (limit %d)%n",
+      nBytesInCache, maxBytesInCache);
     ps.format("   Tiles Fetched:             %12d%n", nTileGets);
     ps.format("   Tiles Fetched from Cache:  %12d (%4.1f%%)%n", nTileFoundInCache, percentInCache);
     ps.format("   Repeated Fetches:          %12d (%4.1f%%)%n", nTileFirst, percentFirst);
@@ -336,6 +475,134 @@ class RasterTileCache {
     this.tileDecompAssistant = tileDecompAssistant;
   }
 
+  /**
+   * Sets the strategy used to predict which tiles will be requested
+   * when the decompression assistant is enabled.
+   *
+   * @param strategy a valid instance
+   */
+  void setPrefetchStrategy(GvrsPrefetchStrategy strategy) {
+    prefetcher = createPrefetcher(strategy);
+  }
+
+  /**
+   * Sets a hint indicating the region of tiles that is about to be accessed.
+   * Used by the block-read operations.
+   *
+   * @param tileRow0 the first row of tiles in the region
+   * @param tileCol0 the first column of tiles in the region
+   * @param tileRow1 the last row of tiles in the region (inclusive)
+   * @param tileCol1 the last column of tiles in the region (inclusive)
+   */
+  void setPrefetchRegion(int tileRow0, int tileCol0, int tileRow1, int tileCol1) {
+    prefetcher.setRegion(tileRow0, tileCol0, tileRow1, tileCol1);
+  }
+
+  /**
+   * Clears the region hint set by setPrefetchRegion.
+   */
+  void clearPrefetchRegion() {
+    prefetcher.clearRegion();
+  }
+
+  /**
+   * Reads the tiles in the specified region that are not already
+   * in the cache, combining the reads for tiles that are stored in
+   * adjacent positions in the file. Tiles are taken from the region in
+   * row-major order. To avoid removing tiles that are about to be used,
+   * the number of tiles that are read is limited to half the capacity
+   * of the cache. Tiles that are not loaded are read individually
+   * when they are requested.
+   * <p>
+   * This method is not used when a decompression assistant is available
+   * because the assistant reads tiles in advance of their use.
+   *
+   * @param tileRow0 the first row of tiles in the region
+   * @param tileCol0 the first column of tiles in the region
+   * @param tileRow1 the last row of tiles in the region (inclusive)
+   * @param tileCol1 the last column of tiles in the region (inclusive)
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void preloadTiles(int tileRow0, int tileCol0, int tileRow1, int tileCol1)
+    throws IOException {
+    if (tileDecompAssistant != null || tileCompAssistant != null) {
+      return;
+    }
+    int maxTiles = tileCacheSize / 2;
+    if (maxTiles < 2) {
+      return;
+    }
+    // The number of tiles examined is limited so that repeated calls
+    // for a large region do not spend excessive time on tiles that
+    // are already in the cache or are not populated.
+    int maxExamined = tileCacheSize * 2 + (tileCol1 - tileCol0 + 1);
+    int nExamined = 0;
+    int[] indices = new int[maxTiles];
+    int nTiles = 0;
+    collect:
+    for (int tileRow = tileRow0; tileRow <= tileRow1; tileRow++) {
+      for (int tileCol = tileCol0; tileCol <= tileCol1; tileCol++) {
+        if (++nExamined > maxExamined) {
+          break collect;
+        }
+        int tileIndex = tileRow * spec.nColsOfTiles + tileCol;
+        if (!cachedTilesMap.containsKey(tileIndex)
+          && recordManager.doesTileExist(tileIndex)) {
+          indices[nTiles++] = tileIndex;
+          if (nTiles == maxTiles) {
+            break collect;
+          }
+        }
+      }
+    }
+    if (nTiles < 2) {
+      return;
+    }
+
+    byte[][][] packings = recordManager.readTilePackings(indices, nTiles);
+    for (int i = 0; i < nTiles; i++) {
+      RasterTile tile = makeTile(indices[i]);
+      int k = 0;
+      for (TileElement e : tile.elements) {
+        e.decode(recordManager.codecMaster, packings[i][k++]);
+      }
+      nTileRead++;
+      addTileToCache(tile);
+    }
+  }
+
+  private static boolean isIndexInArray(int tileIndex, int[] indices, int n) {
+    for (int i = 0; i < n; i++) {
+      if (indices[i] == tileIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private RasterTile makeTile(int tileIndex) {
+    int tileRow = tileIndex / spec.nColsOfTiles;
+    int tileCol = tileIndex - tileRow * spec.nColsOfTiles;
+    return new RasterTile(
+      tileIndex,
+      tileRow,
+      tileCol,
+      spec.nRowsInTile,
+      spec.nColsInTile,
+      spec.elementSpecifications,
+      false);
+  }
+
+  /**
+   * Sets the compression-assistant element to enable the use of backing
+   * threads to compress tiles that are to be written to the file.
+   *
+   * @param tileCompAssistant a valid instance
+   */
+  void setTileCompAssistant(TileCompressionAssistant tileCompAssistant) {
+    this.tileCompAssistant = tileCompAssistant;
+  }
+
   private RasterTile readTileUsingAssistant(int targetIndex) throws IOException {
     // If the target tile is currently on the list of tiles submitted
     // to the decomp assistent for processing, the assistant will wait
@@ -364,54 +631,52 @@ class RasterTileCache {
 
     // --------------------------------------------------------------
     // The tile of interest was not available from the assistant.
-    // We will process it and also one predicted tile.  One slight
-    // complication here is that we read the packing for the target
-    // tile first, then the packing for predicted tile.  Presumably,
-    // if the tiles are stored in the file in order, then this approach
-    // we reduce the number of random-access seek operations that the
-    // RecordManager and BufferedRandomAccessFile need to make.
-    // In testing with a fast Solid-State Drive, this reduced access
-    // time but about 5 percent, but with a slower electro-mechanical drive,
-    // it might be even more important.
+    // We will process it and also the predicted tiles.  The packings for
+    // the target and predicted tiles are read together, so that tiles that
+    // are stored in adjacent positions in the file are obtained using
+    // a single read operation rather than a sequence of random-access
+    // seek operations.
     //   Also note that we read the target tile packing, but do not
     // perform the more time-consuming decompression until after we
-    // have read and submitted the predicted tile. Thus the predicted
-    // tile can be processed in the assistant thread rather while
+    // have submitted the predicted tiles. Thus the predicted
+    // tiles can be processed in the assistant threads while
     // the target tile is processed in the application thread.
-    int targetTileRow = targetIndex / spec.nColsOfTiles;
-    int targetTileCol = targetIndex - targetTileRow * spec.nColsOfTiles;
-
-    RasterTile target = new RasterTile(
-      targetIndex,
-      targetTileRow,
-      targetTileCol,
-      spec.nRowsInTile,
-      spec.nColsInTile,
-      spec.elementSpecifications,
-      false);
-    nTileRead++;
-    byte[][] targetPacking = recordManager.readTilePacking(target);
-
-    // ------------------------------------------------------------
+    //   The number of tiles that are in flight at one time is limited
+    // based on the number of threads in the assistant's pool. It is also
+    // limited by the size of the cache so that the predicted tiles do not
+    // displace too much of its content.
     int nTilesInRaster = spec.nRowsOfTiles * spec.nColsOfTiles;
-    int predictedIndex = targetIndex + 1;
-    if (tileDecompAssistant.getPendingTaskCount() < 2
-      && predictedIndex < nTilesInRaster
-      && !cachedTilesMap.containsKey(predictedIndex)
-      && recordManager.doesTileExist(predictedIndex)) {
-      int predictedTileRow = predictedIndex / spec.nColsOfTiles;
-      int predictedTileCol = predictedIndex - predictedTileRow * spec.nColsOfTiles;
-      RasterTile predictedTile = new RasterTile(
-        predictedIndex,
-        predictedTileRow,
-        predictedTileCol,
-        spec.nRowsInTile,
-        spec.nColsInTile,
-        spec.elementSpecifications,
-        false);
-      nTileRead++;
-      byte[][] predictedPacking = recordManager.readTilePacking(predictedTile);
-      tileDecompAssistant.submitDecompression(predictedTile, predictedPacking);
+    int nThreads = tileDecompAssistant.getNumberOfThreads();
+    int maxInFlight = 2 * nThreads;
+    int maxPredictions = Math.min(nThreads, Math.max(1, tileCacheSize / 2));
+    int[] p = new int[maxPredictions];
+    int nPredictions = prefetcher.predict(targetIndex, p);
+    int[] indices = new int[nPredictions + 1];
+    indices[0] = targetIndex;
+    int nIndices = 1;
+    int nPending = tileDecompAssistant.getPendingTaskCount();
+    for (int iPrediction = 0; iPrediction < nPredictions; iPrediction++) {
+      if (nPending + nIndices - 1 >= maxInFlight) {
+        break;
+      }
+      int predictedIndex = p[iPrediction];
+      if (predictedIndex < 0 || predictedIndex >= nTilesInRaster
+        || predictedIndex == targetIndex
+        || cachedTilesMap.containsKey(predictedIndex)
+        || tileDecompAssistant.isTileSubmitted(predictedIndex)
+        || !recordManager.doesTileExist(predictedIndex)
+        || isIndexInArray(predictedIndex, indices, nIndices)) {
+        continue;
+      }
+      indices[nIndices++] = predictedIndex;
+    }
+
+    byte[][][] packings = recordManager.readTilePackings(indices, nIndices);
+    nTileRead += nIndices;
+    RasterTile target = makeTile(targetIndex);
+    byte[][] targetPacking = packings[0];
+    for (int i = 1; i < nIndices; i++) {
+      tileDecompAssistant.submitDecompression(makeTile(indices[i]), packings[i]);
     }
 
     // Now decode the target packing
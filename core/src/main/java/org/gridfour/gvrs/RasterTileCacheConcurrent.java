@@ -0,0 +1,354 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Provides a tile cache that may be shared by multiple threads reading
+ * from a single GVRS file.
+ * <p>
+ * The cache is divided into a number of stripes, each of which is
+ * an independent least-recently-used collection protected by its own
+ * lock. Tiles are assigned to stripes based on their tile index, so
+ * threads accessing different tiles seldom contend for the same lock.
+ * The capacity of the cache is divided evenly among the stripes.
+ * <p>
+ * Reading the packing for a tile requires exclusive access to the
+ * underlying file and is serialized using the record manager as a lock.
+ * If the file is memory mapped, packings are read without a lock.
+ * Decompression, which is usually the more expensive operation,
+ * is performed outside of any lock so that multiple tiles can
+ * be decoded in parallel.  If two threads request the same tile
+ * at the same time, only one of them reads it; the other waits
+ * for the result.
+ * <p>
+ * This class is intended strictly for files that are opened for
+ * read-only access. It does not support writing tiles.
+ */
+class RasterTileCacheConcurrent {
+
+  /**
+   * The maximum number of stripes. Sixteen stripes are enough to make
+   * lock contention negligible for the number of threads that can
+   * reasonably share a single file.
+   */
+  private static final int MAX_STRIPE_COUNT = 16;
+
+  /**
+   * Provides a place holder for a tile that is being loaded or
+   * has been loaded into the cache. Threads that request a tile
+   * while it is being loaded wait on the holder until the loading
+   * thread is finished.
+   */
+  private static class TileHolder {
+
+    RasterTile tile;
+    boolean loading;
+    boolean ready;
+    IOException failure;
+  }
+
+  /**
+   * A single stripe of the cache, implemented as an access-ordered
+   * linked hash map that removes its least-recently used entry when it
+   * exceeds its capacity.  All access must be synchronized on the stripe.
+   */
+  private static class Stripe extends LinkedHashMap<Integer, TileHolder> {
+
+    private static final long serialVersionUID = 1L;
+    final int capacity;
+    long nTileGets;
+    long nTileFoundInCache;
+    long nTilesDiscarded;
+
+    Stripe(int capacity) {
+      super(capacity * 2, 0.75f, true);
+      this.capacity = capacity;
+    }
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Integer, TileHolder> eldest) {
+      if (size() > capacity) {
+        nTilesDiscarded++;
+        return true;
+      }
+      return false;
+    }
+  }
+
+  final RecordManager recordManager;
+  final GvrsFileSpecification spec;
+  private final Stripe[] stripes;
+  private final int stripeMask;
+  private final int tileCacheSize;
+
+  // The codec classes are not thread safe, so each thread that
+  // decodes tiles is given its own codec master with private
+  // instances of the codecs.
+  private final ThreadLocal<CodecMaster> threadCodecMaster
+    = new ThreadLocal<CodecMaster>() {
+    @Override
+    protected CodecMaster initialValue() {
+      List<CodecHolder> copyList = new ArrayList<>();
+      for (CodecHolder holder : spec.codecList) {
+        copyList.add(new CodecHolder(holder));
+      }
+      return new CodecMaster(copyList);
+    }
+  };
+
+  // Counters for gathering access statistics. Access is
+  // synchronized on the record manager.
+  private long nTileRead;
+
+  /**
+   * Constructs a concurrent tile-cache tied to the GvrsFile from which the
+   * file specification and record manager were taken.
+   *
+   * @param spec a valid instance
+   * @param recordManager a valid instance
+   * @param tileCacheSize the maximum number of tiles to be stored in
+   * the cache, a value greater than zero.
+   */
+  RasterTileCacheConcurrent(
+    GvrsFileSpecification spec,
+    RecordManager recordManager,
+    int tileCacheSize) {
+    this.spec = spec;
+    this.recordManager = recordManager;
+    this.tileCacheSize = tileCacheSize;
+
+    // The number of stripes is a power of two so that a stripe
+    // can be selected using a bit mask.  Each stripe should hold at least
+    // two tiles, so small caches use fewer stripes.
+    int nStripes = 1;
+    while (nStripes < MAX_STRIPE_COUNT && nStripes * 4 <= tileCacheSize) {
+      nStripes *= 2;
+    }
+    stripeMask = nStripes - 1;
+    int capacity = (tileCacheSize + nStripes - 1) / nStripes;
+    stripes = new Stripe[nStripes];
+    for (int i = 0; i < nStripes; i++) {
+      stripes[i] = new Stripe(capacity);
+    }
+  }
+
+  /**
+   * Gets the maximum number of tiles that may be stored in the cache.
+   *
+   * @return a positive integer
+   */
+  int getTileCacheSize() {
+    return tileCacheSize;
+  }
+
+  /**
+   * Fetch the specified tile from the cache. If the tile is not in
+   * the cache, but exists in the data file, read it and store it in the
+   * cache. This method may be called safely by multiple threads.
+   *
+   * @param tileIndex the index of the tile to be read from the file
+   * @return if tile exists in the cache or reference file, a valid
+   * instance; otherwise, a null.
+   * @throws IOException in the event of an unrecoverable IO exception while
+   * reading a tile.
+   */
+  RasterTile getTile(int tileIndex) throws IOException {
+    // The tile directory is not modified while a file is opened
+    // for read-only access, so it may be inspected without locking.
+    if (!recordManager.doesTileExist(tileIndex)) {
+      return null;
+    }
+
+    Stripe stripe = stripes[tileIndex & stripeMask];
+    TileHolder holder;
+    synchronized (stripe) {
+      stripe.nTileGets++;
+      holder = stripe.get(tileIndex);
+      if (holder != null) {
+        stripe.nTileFoundInCache++;
+      } else {
+        holder = new TileHolder();
+        stripe.put(tileIndex, holder);
+      }
+    }
+
+    synchronized (holder) {
+      // if another thread is loading the tile, wait for it to finish
+      while (holder.loading && !holder.ready) {
+        try {
+          holder.wait();
+        } catch (InterruptedException iex) {
+          // restore the interrupt status so that the caller's thread
+          // pool can shut down cleanly.
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioex = new InterruptedIOException(
+            "Interrupted while waiting for tile " + tileIndex);
+          ioex.initCause(iex);
+          throw ioex;
+        }
+      }
+      if (holder.ready) {
+        if (holder.failure != null) {
+          throw new IOException(
+            "Failure reading tile " + tileIndex + ": "
+            + holder.failure.getMessage(), holder.failure);
+        }
+        return holder.tile;
+      }
+      // This thread will load the tile.  The loading flag is set
+      // before the holder is released so that other threads will
+      // recognize that loading is in progress.
+      holder.loading = true;
+      int tileRow = tileIndex / spec.nColsOfTiles;
+      int tileCol = tileIndex - tileRow * spec.nColsOfTiles;
+      holder.tile = new RasterTile(
+        tileIndex,
+        tileRow,
+        tileCol,
+        spec.nRowsInTile,
+        spec.nColsInTile,
+        spec.elementSpecifications,
+        false);
+    }
+
+    RasterTile tile = holder.tile;
+    try {
+      // When the file is memory mapped, the packing can be read
+      // without exclusive access to the file.
+      byte[][] packing = recordManager.readTilePackingConcurrent(tile);
+      synchronized (recordManager) {
+        nTileRead++;
+        if (packing == null) {
+          packing = recordManager.readTilePacking(tile);
+        } else {
+          recordManager.nTileReads++;
+        }
+      }
+      CodecMaster codecMaster = threadCodecMaster.get();
+      int k = 0;
+      for (TileElement e : tile.elements) {
+        e.decode(codecMaster, packing[k++]);
+      }
+    } catch (IOException ioex) {
+      synchronized (stripe) {
+        if (stripe.get(tileIndex) == holder) {
+          stripe.remove(tileIndex);
+        }
+      }
+      synchronized (holder) {
+        holder.failure = ioex;
+        holder.ready = true;
+        holder.notifyAll();
+      }
+      throw ioex;
+    }
+
+    synchronized (holder) {
+      holder.ready = true;
+      holder.notifyAll();
+    }
+    return tile;
+  }
+
+  /**
+   * Removes all tiles from the cache.
+   */
+  void clear() {
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.clear();
+      }
+    }
+  }
+
+  void resetCounts() {
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        stripe.nTileGets = 0;
+        stripe.nTileFoundInCache = 0;
+        stripe.nTilesDiscarded = 0;
+      }
+    }
+    synchronized (recordManager) {
+      nTileRead = 0;
+    }
+  }
+
+  void summarize(PrintStream ps) {
+    long nTileGets = 0;
+    long nTileFoundInCache = 0;
+    long nTilesDiscarded = 0;
+    int nTilesInCache = 0;
+    for (Stripe stripe : stripes) {
+      synchronized (stripe) {
+        nTileGets += stripe.nTileGets;
+        nTileFoundInCache += stripe.nTileFoundInCache;
+        nTilesDiscarded += stripe.nTilesDiscarded;
+        nTilesInCache += stripe.size();
+      }
+    }
+    long nRead;
+    synchronized (recordManager) {
+      nRead = nTileRead;
+    }
+
+    double percentInCache = 0;
+    if (nTileGets > 0) {
+      percentInCache = 100.0 * ((double) nTileFoundInCache / (double) nTileGets);
+      // make sure it never says 100 percent.
+      if (percentInCache > 99.91) {
+        percentInCache = 99.91;
+      }
+    }
+    ps.format("Tile Cache (concurrent, %d stripes)%n", stripes.length);
+    ps.format("   Tiles In Cache:            %12d%n", nTilesInCache);
+    ps.format("   Tiles Fetched:             %12d%n", nTileGets);
+    ps.format("   Tiles Fetched from Cache:  %12d (%4.1f%%)%n", nTileFoundInCache, percentInCache);
+    ps.format("   Tiles Read:                %12d%n", nRead);
+    ps.format("   Tiles Dropped From Cache:  %12d%n", nTilesDiscarded);
+  }
+}
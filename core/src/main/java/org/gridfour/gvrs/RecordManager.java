@@ -40,13 +40,18 @@ package org.gridfour.gvrs;
 
 import java.io.IOException;
 import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import org.gridfour.io.BufferedRandomAccessFile;
+import org.gridfour.io.MemoryMappedFile;
+import org.gridfour.gvrs.FreeSpaceIndex.FreeNode;
 import org.gridfour.util.GridfourCRC32C;
 
 /**
@@ -55,18 +60,6 @@ import org.gridfour.util.GridfourCRC32C;
  */
 class RecordManager {
 
-  private static class FreeNode {
-
-    FreeNode next;
-    int blockSize;
-    long filePos;
-
-    FreeNode(long filePos, int blockSize) {
-      this.filePos = filePos;
-      this.blockSize = blockSize;
-    }
-  }
-
   // The record header size is 8 bytes
   //     4 bytes for the record size
   //     1 byte for the record type
@@ -77,8 +70,18 @@ class RecordManager {
   static final int RECORD_HEADER_SIZE = 8;
   static final int RECORD_OVERHEAD_SIZE = RECORD_HEADER_SIZE + 4;
 
+  // The size of the content of a snapshot record
+  private static final int SNAPSHOT_SIZE = 56;
+
   private static final int MIN_FREE_BLOCK_SIZE = 32;
 
+  // When reading multiple tiles, records with starting positions that
+  // are separated by no more than the maximum size of a tile record plus
+  // the gap size are combined into a single read operation, up to the
+  // limit on the size of a read.
+  private static final int COALESCED_READ_GAP = 4096;
+  private static final int COALESCED_READ_LIMIT = 4 * 1024 * 1024;
+
   // Ordinarily, the tile directory is constructed to use compact
   // (four byte) file offsets.  When the position address
   // returned by a file-space allocation is larger than what
@@ -93,13 +96,24 @@ class RecordManager {
   private final int standardTileDataSizeInBytes;
   private ITileDirectory tileDirectory;
 
-  private FreeNode freeList;
+  // An optional memory mapping of the file, used for read-only access
+  private volatile MemoryMappedFile mappedFile;
+
+  private final FreeSpaceIndex freeSpace = new FreeSpaceIndex();
+
+  // When copy-on-write is enabled, records are never modified in place
+  // and released file space is not reused until the file is closed,
+  // so that readers of a published snapshot see stable content.
+  private boolean copyOnWrite;
+  private final List<Long> deferredDealloc = new ArrayList<>();
+  private boolean freeSpaceHeadersDeferred;
   private long expectedFileSize;
   private long allocMostRecentPos;
   private int allocMostRecentSize;
 
   int nTileReads;
   int nTileWrites;
+  int nCombinedReads;
 
   final HashMap<String, GvrsMetadataReference> metadataDirectory = new HashMap<>();
 
@@ -223,38 +237,25 @@ class RecordManager {
     // this data or sufficiently large to split.  We do not want too many
     // tiny-sized free blocks to accumulate.  So a block that is only
     // a little bigger than our target will not work.
-    //   We search the list for a first found strategy.  We don't look for
-    // the best fit, just the first feasible fit.
-    FreeNode priorPrior = null;
-    FreeNode prior = null;
-    FreeNode node = freeList;
-    while (node != null) {
-      if (node.blockSize == sizeToStore || node.blockSize >= minSizeForSplit) {
-        break;
-      }
-      priorPrior = prior;
-      prior = node;
-      node = node.next;
-    }
+    //   The free-space index is ordered by block size, so we select
+    // the smallest feasible block (a best fit).
+    FreeNode node = freeSpace.findBestFit(sizeToStore, minSizeForSplit);
 
     if (node == null) {
       // The free-space search did not find a block large enough to
       // hold the stored element.  Extend the file size.
-      //   But first, check the last free node in the list.  If it is
+      //   But first, check the last free node in the file.  If it is
       // at the end of the file, we can reuse the space that it occupies
       // and just extend the file size as necessary
       long fileSize = braf.getFileSize();
-      if (prior != null && prior.filePos + prior.blockSize == fileSize && prior.blockSize<sizeToStore) {
+      FreeNode last = freeSpace.getLastNode();
+      if (last != null && last.filePos + last.blockSize == fileSize && last.blockSize<sizeToStore) {
         // The end of the file includes a free block that is smaller than the targeted
         // size-to-store.  We can simply overwrite it, extending the file size.
-        if (priorPrior != null) {
-          priorPrior.next = null;
-        } else {
-          freeList = null;
-        }
-        expectedFileSize = prior.filePos + sizeToStore;
-        fileSpaceInitRecord(prior.filePos, sizeToStore, recordType);
-        return prior.filePos + RECORD_HEADER_SIZE;
+        freeSpace.remove(last);
+        expectedFileSize = last.filePos + sizeToStore;
+        fileSpaceInitRecord(last.filePos, sizeToStore, recordType);
+        return last.filePos + RECORD_HEADER_SIZE;
       }
 
       // There ar no free blocks that can be used for output.
@@ -264,14 +265,8 @@ class RecordManager {
       return fileSize + RECORD_HEADER_SIZE;
     }
 
-    // Remove the node from the free list
-    if (prior == null) {
-      freeList = node.next;
-    } else {
-      prior.next = node.next;
-    }
-
-    node.next = null; // pro forma
+    // Remove the node from the free-space index
+    freeSpace.remove(node);
     long posToStore = node.filePos;
 
     // check the existing file block and make sure that
@@ -286,24 +281,12 @@ class RecordManager {
     //assert foundSize >= sizeToStore : "alloc found insufficient block size";
     int surplus = foundSize - sizeToStore;
     if (surplus > 0) {
+      // The neighbors of the node were not free (otherwise they would
+      // have been merged with it), so the surplus does not need to be
+      // coalesced.
       long surplusPos = node.filePos + sizeToStore;
-      FreeNode surplusNode = new FreeNode(surplusPos, surplus);
       fileSpaceInitRecord(surplusPos, surplus, RecordType.Freespace);
-      prior = null;
-      FreeNode next = freeList;
-      while (next != null) {
-        if (next.filePos > surplusPos) {
-          break;
-        }
-        prior = next;
-        next = next.next;
-      }
-      if (prior == null) {
-        freeList = surplusNode;
-      } else {
-        prior.next = surplusNode;
-      }
-      surplusNode.next = next;
+      freeSpace.add(surplusPos, surplus);
     }
     braf.seek(posToStore);
     fileSpaceInitRecord(posToStore, sizeToStore, recordType);
@@ -311,7 +294,34 @@ class RecordManager {
     return posToStore + RECORD_HEADER_SIZE;
   }
 
+  /**
+   * Enables copy-on-write behavior. Once enabled, existing records are
+   * never modified in place and file space that is released is not
+   * made available for reuse until the free-space directory is written
+   * when the file is closed.
+   */
+  void setCopyOnWriteEnabled() {
+    copyOnWrite = true;
+  }
+
+  /**
+   * Indicates whether copy-on-write behavior is enabled.
+   *
+   * @return true if copy-on-write is enabled; otherwise, false.
+   */
+  boolean isCopyOnWriteEnabled() {
+    return copyOnWrite;
+  }
+
   void fileSpaceDealloc(long contentPos) throws IOException {
+    if (copyOnWrite) {
+      deferredDealloc.add(contentPos);
+      return;
+    }
+    fileSpaceDeallocNow(contentPos);
+  }
+
+  private void fileSpaceDeallocNow(long contentPos) throws IOException {
     long releasePos = contentPos - RECORD_HEADER_SIZE;
     // the tile was previously written to the file.
     // replace it with the current tile
@@ -324,66 +334,67 @@ class RecordManager {
     braf.write(0);
     braf.write(0);
 
-    // we will insert the file-space management information for the
-    // existing record located at position filePos into the free list.
-    // the free list is organized in order of file position.  so we must
-    // traverse the list to find the appropriate place for this free node.
-    // when we do, it may turn out that the file-space we are freeing is
-    // adjacent to a previously freed block.  If so, we can merge the two
-    // into a single free node.
-    FreeNode prior = null;
-    FreeNode next = freeList;
-    while (next != null) {
-      if (next.filePos > releasePos) {
-        break;
-      }
-      prior = next;
-      next = next.next;
-    }
-
-    // see if we can merge the prior block with the released block.
-    if (prior != null && prior.filePos + prior.blockSize == releasePos) {
-      prior.blockSize += releaseSize;
-      // extending the prior block may have led to an opportunity to merge
-      // the prior block with the next block
-      if (next != null && prior.filePos + prior.blockSize == next.filePos) {
-        // merge prior with next, remove next from the free list.
-        prior.blockSize += next.blockSize;
-        prior.next = next.next;
-        next.next = null;
-      }
-      braf.seek(prior.filePos);
-      braf.leWriteInt(prior.blockSize);
-      braf.leWriteInt(RecordType.Freespace.codeValue); // should already have been set
-      return;
-    }
-
-    // the released block was not merged with the prior, see if it should
-    // be merged with the next
-    if (next != null && releasePos + releaseSize == next.filePos) {
-      // for the merger, we don't create a new node or modify the
-      // links in the list...  we just adjust the file posiiton
-      // of the next node back to the released position
-      next.filePos = releasePos;
-      next.blockSize += releaseSize;
-      braf.seek(next.filePos);
-      braf.leWriteInt(next.blockSize);
+    // Add the released block to the free-space index.  It may turn out
+    // that the block is adjacent to one or two previously freed blocks.
+    // If so, the index merges them into a single free node and we
+    // must update the record header for the merged block.
+    FreeNode node = freeSpace.release(releasePos, releaseSize);
+    if (node.filePos != releasePos || node.blockSize != releaseSize) {
+      braf.seek(node.filePos);
+      braf.leWriteInt(node.blockSize);
       braf.leWriteInt(RecordType.Freespace.codeValue);
-      return;
     }
+  }
 
-    // if we got here, no mergers were accomplished.  insert a new
-    // node into the list
-    FreeNode node = new FreeNode(releasePos, releaseSize);
-    if (prior == null) {
-      freeList = node;
-    } else {
-      prior.next = node;
+  void writeTile(RasterTile tile) throws IOException {
+    nTileWrites++;
+    tileDirectory = writeTile(tile, tileDirectory, RecordType.Tile);
+  }
+
+  /**
+   * Writes the specified tile to the file using a packing that was
+   * computed in advance, typically by a background thread.
+   *
+   * @param tile a valid tile
+   * @param packing the compressed packing for the tile; or a null
+   * if compression is not enabled or the tile contains no valid data.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void writeTile(RasterTile tile, byte[] packing) throws IOException {
+    nTileWrites++;
+    tileDirectory = writeTile(tile, packing, tileDirectory, RecordType.Tile);
+  }
+
+  /**
+   * Writes the specified tile to the file, recording its position in the
+   * specified tile directory. This method supports both the primary
+   * tile directory and the directories for overview levels.
+   *
+   * @param tile a valid tile
+   * @param directory the directory in which the tile position is recorded
+   * @param recordType the record type for the tile
+   * @return the directory in which the tile position was recorded;
+   * usually the input directory, but a new instance if it was necessary
+   * to switch to extended file offsets.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  ITileDirectory writeTile(
+    RasterTile tile,
+    ITileDirectory directory,
+    RecordType recordType) throws IOException {
+    byte[] packing = null;
+    if (spec.isDataCompressionEnabled() && tile.hasValidData()) {
+      packing = tile.getCompressedPacking(codecMaster);
     }
-    node.next = next;
+    return writeTile(tile, packing, directory, recordType);
   }
 
-  void writeTile(RasterTile tile) throws IOException {
+  private ITileDirectory writeTile(
+    RasterTile tile,
+    byte[] packing,
+    ITileDirectory directory,
+    RecordType recordType) throws IOException {
+    ITileDirectory tileDirectory = directory;
     // In its uncompressed format, the organization of the
     // output content is as follows:
     //     1.  Tile index (positive integer)
@@ -406,8 +417,6 @@ class RecordManager {
       + standardTileDataSizeInBytes;
     long posToStore;
 
-    nTileWrites++;
-
     long initialFilePos = tileDirectory.getFilePosition(tileIndex);
 
     if (!tile.hasValidData()) {
@@ -415,7 +424,7 @@ class RecordManager {
         fileSpaceDealloc(initialFilePos);
         tileDirectory.setFilePosition(tileIndex, 0);
       }
-      return;
+      return tileDirectory;
     }
 
     if (spec.isDataCompressionEnabled()) {
@@ -429,9 +438,8 @@ class RecordManager {
       if (initialFilePos > 0) {
         fileSpaceDealloc(initialFilePos);
         tileDirectory.setFilePosition(tileIndex, 0);
+        initialFilePos = 0;
       }
-      byte[] packing = tile.getCompressedPacking(codecMaster);
-
       if (packing != null) {
         // The compression was successful.  Usually, it will be much smaller
         // than the native form of the data. But, if the data is noisy,
@@ -447,7 +455,7 @@ class RecordManager {
         //        at run-time in a manner similar to the cache size setting
         int compressedSize = 4 + packing.length;
         if (compressedSize < payloadSize) {
-          posToStore = fileSpaceAlloc(compressedSize, RecordType.Tile);
+          posToStore = fileSpaceAlloc(compressedSize, recordType);
           if (posToStore > MAX_NON_EXTENDED_FILE_POS
             && !tileDirectory.usesExtendedFileOffset()) {
             tileDirectory = tileDirectory.getExtendedDirectory();
@@ -457,13 +465,21 @@ class RecordManager {
           braf.leWriteInt(tileIndex);
           braf.writeFully(packing, 0, packing.length);
           fileSpaceFinishRecord(posToStore, compressedSize);
-          return;
+          return tileDirectory;
         }
       }
     }
 
+    if (initialFilePos > 0 && copyOnWrite) {
+      // the existing record may be in use by a reader, so it is
+      // replaced rather than modified in place.
+      fileSpaceDealloc(initialFilePos);
+      tileDirectory.setFilePosition(tileIndex, 0);
+      initialFilePos = 0;
+    }
+
     if (initialFilePos == 0) {
-      posToStore = fileSpaceAlloc(payloadSize, RecordType.Tile);
+      posToStore = fileSpaceAlloc(payloadSize, recordType);
       if (posToStore > MAX_NON_EXTENDED_FILE_POS
         && !tileDirectory.usesExtendedFileOffset()) {
         tileDirectory = tileDirectory.getExtendedDirectory();
@@ -486,18 +502,85 @@ class RecordManager {
       e.writeStandardFormat(braf);
     }
     fileSpaceFinishRecord(posToStore, payloadSize);
+    return tileDirectory;
+  }
+
+  /**
+   * Copies the tile records from the specified source to the file
+   * associated with this instance without decoding them. The records
+   * are copied in order of tile index, so that the tiles are stored
+   * in the sequence in which they would be read by a row-major scan.
+   * Intended for use in compacting a file.
+   *
+   * @param source a valid instance associated with a file that has
+   * the same tile structure as this instance.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void copyTileRecords(RecordManager source) throws IOException {
+    ITileDirectory sourceDirectory = source.tileDirectory;
+    int nTiles = spec.nRowsOfTiles * spec.nColsOfTiles;
+    byte[] content = new byte[0];
+    for (int tileIndex = 0; tileIndex < nTiles; tileIndex++) {
+      long sourcePos = sourceDirectory.getFilePosition(tileIndex);
+      if (sourcePos == 0) {
+        continue;
+      }
+      source.braf.seek(sourcePos - RECORD_HEADER_SIZE);
+      int recordSize = source.braf.leReadInt();
+      int recordTypeCode = source.braf.leReadInt();
+      RecordType recordType = RecordType.valueOf(recordTypeCode);
+      if (recordType == null) {
+        throw new IOException("Invalid record-type code " + recordTypeCode);
+      }
+      int contentSize = recordSize - RECORD_OVERHEAD_SIZE;
+      if (content.length < contentSize) {
+        content = new byte[contentSize];
+      }
+      source.braf.readFully(content, 0, contentSize);
 
+      long posToStore = fileSpaceAlloc(contentSize, recordType);
+      if (posToStore > MAX_NON_EXTENDED_FILE_POS
+        && !tileDirectory.usesExtendedFileOffset()) {
+        tileDirectory = tileDirectory.getExtendedDirectory();
+      }
+      tileDirectory.setFilePosition(tileIndex, posToStore);
+      braf.seek(posToStore);
+      braf.writeFully(content, 0, contentSize);
+      fileSpaceFinishRecord(posToStore, contentSize);
+    }
   }
 
   void readTile(RasterTile tile) throws IOException {
+    readTile(tile, tileDirectory);
+  }
+
+  /**
+   * Reads the specified tile using the file position recorded in the
+   * specified tile directory. If the directory does not contain a position
+   * for the tile, the tile is set to its null state.
+   *
+   * @param tile a valid tile
+   * @param directory the directory in which the tile position is recorded
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void readTile(RasterTile tile, ITileDirectory directory) throws IOException {
     int tileIndex = tile.tileIndex;
-    long filePos = tileDirectory.getFilePosition(tileIndex);
+    long filePos = directory.getFilePosition(tileIndex);
     if (filePos == 0) {
       tile.setToNullState();
       return;
     }
 
     nTileReads++;
+    MemoryMappedFile mapped = mappedFile;
+    if (mapped != null) {
+      byte[][] packing = readTilePackingMapped(mapped, tile, filePos);
+      int k = 0;
+      for (TileElement e : tile.elements) {
+        e.decode(codecMaster, packing[k++]);
+      }
+      return;
+    }
     braf.seek(filePos);
     braf.skipBytes(4);  // skip tileIndex, could be used for diagnostics.
     //int tileIndexFromFile = braf.leReadInt();
@@ -523,6 +606,10 @@ class RecordManager {
     }
 
     nTileReads++;
+    MemoryMappedFile mapped = mappedFile;
+    if (mapped != null) {
+      return readTilePackingMapped(mapped, tile, filePos);
+    }
     braf.seek(filePos);
     braf.skipBytes(4);  // skip tileIndex, could be used for diagnostics.
     //int tileIndexFromFile = braf.leReadInt();
@@ -536,9 +623,181 @@ class RecordManager {
     return packing;
   }
 
+  /**
+   * Reads the packings for a set of tiles, combining the reads for tiles
+   * that are stored at adjacent or nearly adjacent positions in the file.
+   * The tiles are sorted by file position and divided into runs in which
+   * the distance between the starting positions of successive records
+   * does not exceed the maximum size of a tile record plus a small gap.
+   * Each run is obtained with a single read operation and then divided
+   * into the packings for the individual tiles.
+   * <p>
+   * Because the directory does not record the sizes of tile records,
+   * a run is read through the maximum size of the record for the last
+   * tile that it contains. Thus a run may include bytes that are not
+   * used, but the cost of reading them is usually small compared to the
+   * cost of additional I/O operations.
+   *
+   * @param tileIndices an array of tile indices
+   * @param nTiles the number of tile indices in the array
+   * @return an array dimensioned to nTiles giving the packings for
+   * each tile in the order specified by the tileIndices array;
+   * a null is given for tiles that are not stored in the file.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  byte[][][] readTilePackings(int[] tileIndices, int nTiles) throws IOException {
+    byte[][][] results = new byte[nTiles][][];
+    int nElements = spec.elementSpecifications.size();
+
+    int nFound = 0;
+    long[] positions = new long[nTiles];
+    Integer[] order = new Integer[nTiles];
+    for (int i = 0; i < nTiles; i++) {
+      long filePos = tileDirectory.getFilePosition(tileIndices[i]);
+      if (filePos != 0) {
+        positions[i] = filePos;
+        order[nFound++] = i;
+      }
+    }
+    if (nFound == 0) {
+      return results;
+    }
+    nTileReads += nFound;
+
+    MemoryMappedFile mapped = mappedFile;
+    if (mapped != null) {
+      for (int k = 0; k < nFound; k++) {
+        int i = order[k];
+        results[i] = readTilePackingMapped(mapped, nElements, positions[i]);
+      }
+      return results;
+    }
+
+    Arrays.sort(order, 0, nFound, (a, b) -> Long.compare(positions[a], positions[b]));
+
+    int maxRecordSize = multipleOf8(
+      4 + 4 * nElements + standardTileDataSizeInBytes + RECORD_OVERHEAD_SIZE);
+    long maxSpan = (long) maxRecordSize + COALESCED_READ_GAP;
+    long fileSize = braf.getFileSize();
+
+    int k0 = 0;
+    while (k0 < nFound) {
+      long runStart = positions[order[k0]] - RECORD_HEADER_SIZE;
+      int k1 = k0 + 1;
+      while (k1 < nFound) {
+        long priorPos = positions[order[k1 - 1]];
+        long pos = positions[order[k1]];
+        if (pos - priorPos > maxSpan
+          || pos - RECORD_HEADER_SIZE + maxRecordSize - runStart > COALESCED_READ_LIMIT) {
+          break;
+        }
+        k1++;
+      }
+
+      long runEnd = positions[order[k1 - 1]] - RECORD_HEADER_SIZE + maxRecordSize;
+      if (runEnd > fileSize) {
+        runEnd = fileSize;
+      }
+      byte[] run = new byte[(int) (runEnd - runStart)];
+      braf.readFully(runStart, run, 0, run.length);
+      nCombinedReads++;
+      ByteBuffer bb = ByteBuffer.wrap(run).order(ByteOrder.LITTLE_ENDIAN);
+      for (int k = k0; k < k1; k++) {
+        int i = order[k];
+        int offset = (int) (positions[i] - runStart);
+        bb.position(offset + 4); // skip tileIndex
+        byte[][] packing = new byte[nElements][];
+        for (int iElement = 0; iElement < nElements; iElement++) {
+          int n = bb.remaining() < 4 ? -1 : bb.getInt();
+          if (n < 0 || n > bb.remaining()) {
+            throw new IOException("Invalid tile record for tile "
+              + tileIndices[i] + " at file position " + positions[i]);
+          }
+          packing[iElement] = new byte[n];
+          bb.get(packing[iElement]);
+        }
+        results[i] = packing;
+      }
+      k0 = k1;
+    }
+    return results;
+  }
+
+  /**
+   * Reads the packing for a tile from a memory-mapped file. Because the
+   * memory-mapped file does not maintain a file position, this method
+   * does not modify the state of this instance and may be called
+   * by multiple threads without synchronization.
+   *
+   * @param mapped a valid memory mapping of the file
+   * @param tile the tile to be read
+   * @param filePos the position of the tile record content
+   * @return a valid array of packings, one for each element.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  private byte[][] readTilePackingMapped(
+    MemoryMappedFile mapped, RasterTile tile, long filePos) throws IOException {
+    return readTilePackingMapped(mapped, tile.elements.length, filePos);
+  }
+
+  private byte[][] readTilePackingMapped(
+    MemoryMappedFile mapped, int nElements, long filePos) throws IOException {
+    long pos = filePos + 4; // skip tileIndex
+    byte[][] packing = new byte[nElements][];
+    for (int k = 0; k < nElements; k++) {
+      int n = mapped.leReadInt(pos);
+      pos += 4;
+      packing[k] = new byte[n];
+      mapped.readFully(pos, packing[k], 0, n);
+      pos += n;
+    }
+    return packing;
+  }
+
+  /**
+   * Reads the packing for a tile using the memory-mapped file, if enabled.
+   * This method may be called by multiple threads without synchronization,
+   * but it does not update the tile-read counter. If memory mapping
+   * is not enabled, this method returns a null.
+   *
+   * @param tile the tile to be read
+   * @return if the file is memory mapped, a valid array of packings,
+   * potentially of zero length; otherwise, a null.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  byte[][] readTilePackingConcurrent(RasterTile tile) throws IOException {
+    MemoryMappedFile mapped = mappedFile;
+    if (mapped == null) {
+      return null;
+    }
+    long filePos = tileDirectory.getFilePosition(tile.tileIndex);
+    if (filePos == 0) {
+      return new byte[0][];
+    }
+    return readTilePackingMapped(mapped, tile, filePos);
+  }
+
+  /**
+   * Sets a memory mapping to be used for reading tiles. The mapping
+   * must not be used for a file that is opened for writing.
+   *
+   * @param mappedFile a valid instance, or a null to disable mapped access.
+   */
+  void setMemoryMappedFile(MemoryMappedFile mappedFile) {
+    this.mappedFile = mappedFile;
+  }
+
+  /**
+   * Gets the memory mapping used for reading tiles, if any.
+   *
+   * @return if enabled, a valid instance; otherwise, a null.
+   */
+  MemoryMappedFile getMemoryMappedFile() {
+    return mappedFile;
+  }
+
   void scanFileForTiles() throws IOException {
-    freeList = null;  // for diagnostic use
-    FreeNode freeListEnd = null;
+    freeSpace.clear();  // for diagnostic use
     int maxTileIndex = spec.nRowsOfTiles * spec.nColsOfTiles;
     long fileSize = braf.getFileSize();
     long filePos = basePosition;
@@ -563,17 +822,8 @@ class RecordManager {
           tileDirectory.setFilePosition(tileIndex, filePos);
         }
       } else if (recordType == RecordType.Freespace) {
-        // add the block of file space to the free list.
-        // the free list is ordered by file position, so the new node
-        // goes on the end of the list.
-        FreeNode node = new FreeNode(filePos, recordSize);
-        if (freeListEnd == null) {
-          freeList = node;
-          freeListEnd = node;
-        } else {
-          freeListEnd.next = node;
-          freeListEnd = node;
-        }
+        // add the block of file space to the free-space index.
+        freeSpace.add(filePos, recordSize);
       } else if (recordType == RecordType.Metadata) {
         GvrsMetadataReference gmr = GvrsMetadata.readMetadataRef(braf, filePos);
         metadataDirectory.put(gmr.getKey(), gmr);
@@ -587,17 +837,12 @@ class RecordManager {
     ps.format("   Tile Reads:   %8d%n", nTileReads);
     ps.format("   Tile Writes:  %8d%n", nTileWrites);
 
-    int nFreeNodes = 0;
-    long freeSpace = 0;
-    FreeNode node = freeList;
-    while (node != null) {
-      nFreeNodes++;
-      freeSpace += node.blockSize;
-      node = node.next;
-    }
+    RecordManagerStats stats = getFreeSpaceStats();
     ps.println("File Space Allocation");
-    ps.format("   Free Nodes:   %8d%n", nFreeNodes);
-    ps.format("   Free Space:   %8d bytes%n", freeSpace);
+    ps.format("   Free Nodes:   %8d%n", stats.nFreeBlocks);
+    ps.format("   Free Space:   %8d bytes%n", stats.sizeFreeSpace);
+    ps.format("   Largest Free: %8d bytes%n", stats.sizeLargestFreeBlock);
+    ps.format("   Fragmentation: %7.3f%n", stats.getFragmentation());
 
     ps.format("GVRS Metadata Elements:  %d%n", metadataDirectory.size());
 
@@ -833,6 +1078,23 @@ class RecordManager {
   }
 
   void readTileDirectory(long filePosTileDirectory) throws IOException {
+    tileDirectory = readTileDirectory(filePosTileDirectory, tileDirectory);
+  }
+
+  /**
+   * Reads the tile directory record at the specified position, populating
+   * the specified directory.
+   *
+   * @param filePosTileDirectory the file position of the directory record
+   * @param directory a valid instance
+   * @return the populated directory; usually the input directory, but a
+   * new instance if the record uses extended file offsets.
+   * @throws IOException in the event of an unhandled I/O exception
+   */
+  ITileDirectory readTileDirectory(
+    long filePosTileDirectory,
+    ITileDirectory directory) throws IOException {
+    ITileDirectory tileDirectory = directory;
     // In version 1.02, 4 bytes are reserved for future use.
     // For versions 1.03 and beyond, 8 bytes are reserved for future use.
     // In future work, we may have different kinds of tile directories.
@@ -853,6 +1115,7 @@ class RecordManager {
     }
 
     tileDirectory.readTilePositions(braf);
+    return tileDirectory;
   }
 
   /**
@@ -862,6 +1125,17 @@ class RecordManager {
    * @throws IOException in the event of an unhandled I/O exception
    */
   long writeTileDirectory() throws IOException {
+    return writeTileDirectory(tileDirectory);
+  }
+
+  /**
+   * Write a tile directory record for the specified directory.
+   *
+   * @param tileDirectory a valid instance
+   * @return the file position of the tile directory record
+   * @throws IOException in the event of an unhandled I/O exception
+   */
+  long writeTileDirectory(ITileDirectory tileDirectory) throws IOException {
     int sizeTileDirectory = tileDirectory.getStorageSize();
     // add 4 bytes for tile directory version and any extra information
     // we may add later. At this time, the version is always zero.
@@ -882,33 +1156,144 @@ class RecordManager {
     return posToStore;
   }
 
+  /**
+   * Creates a new, empty tile directory for the specified
+   * raster organization.
+   *
+   * @param levelSpec a valid specification
+   * @return a valid instance
+   */
+  ITileDirectory makeTileDirectory(GvrsFileSpecification levelSpec) {
+    if (braf.getFileSize() > MAX_NON_EXTENDED_FILE_POS) {
+      return new TileDirectoryExtended(levelSpec);
+    }
+    return new TileDirectory(levelSpec);
+  }
+
+  /**
+   * Releases the file space for all tiles recorded in the specified
+   * directory and clears their positions from the directory.
+   *
+   * @param directory a valid instance
+   * @param nTiles the number of tiles addressed by the directory
+   * @throws IOException in the event of an unhandled I/O exception
+   */
+  void deallocTiles(ITileDirectory directory, int nTiles) throws IOException {
+    for (int tileIndex = 0; tileIndex < nTiles; tileIndex++) {
+      long filePos = directory.getFilePosition(tileIndex);
+      if (filePos != 0) {
+        fileSpaceDealloc(filePos);
+        directory.setFilePosition(tileIndex, 0);
+      }
+    }
+  }
+
+  /**
+   * Reads the overview directory record and the tile directories for
+   * each of the overview levels it references.  The overview method
+   * and the number of levels are stored in the file specification.
+   *
+   * @param filePosOverviewDirectory the position of the directory record
+   * @param release indicates that the directory records are to be
+   * released after they are read (used when the file is opened for writing)
+   * @return a valid array of overview levels
+   * @throws IOException in the event of an unhandled I/O exception
+   */
+  OverviewLevel[] readOverviewDirectory(
+    long filePosOverviewDirectory, boolean release) throws IOException {
+    // the first element in the overview directory is a set of 8 bytes:
+    //    0:        directory format, currently always set to zero
+    //    1:        overview method
+    //    2 to 7:   Reserved for future use
+    braf.seek(filePosOverviewDirectory + 1);
+    int methodCode = braf.readUnsignedByte();
+    GvrsOverviewMethod method = GvrsOverviewMethod.valueOf(methodCode);
+    if (method == null) {
+      throw new IOException("Invalid overview method code " + methodCode);
+    }
+    braf.skipBytes(6);
+    int nOverviews = braf.leReadInt();
+    long[] directoryPos = new long[nOverviews];
+    for (int i = 0; i < nOverviews; i++) {
+      // the dimensions are stored for diagnostic purposes, but
+      // may be computed from the specification.
+      braf.skipBytes(8);
+      directoryPos[i] = braf.leReadLong();
+    }
+    spec.nOverviewLevels = nOverviews;
+    spec.overviewMethod = method;
+
+    OverviewLevel[] levels = new OverviewLevel[nOverviews];
+    for (int i = 0; i < nOverviews; i++) {
+      GvrsFileSpecification levelSpec = new GvrsFileSpecification(spec, i + 1);
+      ITileDirectory directory = makeTileDirectory(levelSpec);
+      if (directoryPos[i] != 0) {
+        directory = readTileDirectory(directoryPos[i], directory);
+      }
+      levels[i] = new OverviewLevel(i + 1, levelSpec, directory, this);
+    }
+
+    if (release) {
+      for (int i = 0; i < nOverviews; i++) {
+        if (directoryPos[i] != 0) {
+          fileSpaceDealloc(directoryPos[i]);
+        }
+      }
+      fileSpaceDealloc(filePosOverviewDirectory);
+    }
+    return levels;
+  }
+
+  /**
+   * Writes the tile directories for each of the overview levels and
+   * an overview directory record giving their positions.
+   *
+   * @param levels a valid array of overview levels
+   * @return the file position of the overview directory record
+   * @throws IOException in the event of an unhandled I/O exception
+   */
+  long writeOverviewDirectory(OverviewLevel[] levels) throws IOException {
+    long[] directoryPos = new long[levels.length];
+    for (int i = 0; i < levels.length; i++) {
+      directoryPos[i] = writeTileDirectory(levels[i].tileDirectory);
+    }
+
+    int sizeOverviewDirectory = 8 + 4 + levels.length * 16;
+    long posToStore = fileSpaceAlloc(
+      sizeOverviewDirectory, RecordType.OverviewDirectory);
+    braf.write(0); // overview directory version
+    braf.write(spec.overviewMethod.getCodeValue());
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.leWriteInt(levels.length);
+    for (int i = 0; i < levels.length; i++) {
+      braf.leWriteInt(levels[i].spec.nRowsInRaster);
+      braf.leWriteInt(levels[i].spec.nColsInRaster);
+      braf.leWriteLong(directoryPos[i]);
+    }
+    fileSpaceFinishRecord(posToStore, sizeOverviewDirectory);
+    return posToStore;
+  }
+
   void readFreespaceDirectory(long filePosFreespaceDirectory) throws IOException {
     if (filePosFreespaceDirectory == 0) {
       return;
     }
     braf.seek(filePosFreespaceDirectory);
     int nFreeNodes = braf.leReadInt();
-    FreeNode lastNode = null;
     for (int iFree = 0; iFree < nFreeNodes; iFree++) {
       long freePos = braf.leReadLong();
       int freeSize = braf.leReadInt();
-      FreeNode node = new FreeNode(freePos, freeSize);
-      if (lastNode == null) {
-        freeList = node;
-      } else {
-        lastNode.next = node;
-      }
-      lastNode = node;
+      freeSpace.add(freePos, freeSize);
     }
   }
 
   long writeFreeSpaceDirectory() throws IOException {
-    int nFreeNodes = 0;
-    FreeNode node = freeList;
-    while (node != null) {
-      nFreeNodes++;
-      node = node.next;
-    }
+    int nFreeNodes = freeSpace.size() + deferredDealloc.size();
     if (nFreeNodes == 0) {
       return 0;
     }
@@ -917,29 +1302,48 @@ class RecordManager {
     long fileSpaceDirectoryPos
       = fileSpaceAlloc(sizeFreeNodes, RecordType.FreespaceDirectory);
 
+    // If copy-on-write was enabled, the released blocks are added to the
+    // free-space index only after the directory record is allocated
+    // so that the allocation does not overwrite content that may still
+    // be in use by readers.  The file header still refers to the most
+    // recent snapshot, which may be used to recover the file if the
+    // application terminates before the close is complete. So the record
+    // headers are not modified at this time.  They are written by
+    // writeDeferredFreeSpaceHeaders() after the file header is updated.
+    boolean preserveContent = copyOnWrite;
+    copyOnWrite = false;
+    if (!deferredDealloc.isEmpty()) {
+      for (Long contentPos : deferredDealloc) {
+        long releasePos = contentPos - RECORD_HEADER_SIZE;
+        braf.seek(releasePos);
+        int releaseSize = braf.leReadInt();
+        freeSpace.release(releasePos, releaseSize);
+      }
+      deferredDealloc.clear();
+      braf.seek(fileSpaceDirectoryPos);
+    }
+
     // Allocating space to store this record may have claimed free space
     // that was covered by one of the free nodes.  Thus the number of
     // free nodes could decrease by 1.  So it is necessary to count free nodes
     // again.  The storage size actually used may be 12 bytes less than
     // allocated, but we accept the wasted space for the sake of simplicity.
-    nFreeNodes = 0;
-    node = freeList;
-    while (node != null) {
-      nFreeNodes++;
-      node = node.next;
-    }
+    nFreeNodes = freeSpace.size();
     sizeFreeNodes = 4 + nFreeNodes * 12;
 
     braf.leWriteInt(nFreeNodes);
-    node = freeList;
-    for (int i = 0; i < nFreeNodes; i++) {
+    for (FreeNode node : freeSpace.getNodesInPositionOrder()) {
       braf.leWriteLong(node.filePos);
       braf.leWriteInt(node.blockSize);
-      node = node.next;
     }
 
     fileSpaceFinishRecord(fileSpaceDirectoryPos, sizeFreeNodes);
 
+    if (preserveContent) {
+      freeSpaceHeadersDeferred = true;
+      return fileSpaceDirectoryPos;
+    }
+
     // For information assurance reasons, we want to make sure that
     // all free space records contain zeroes (overwriting any junk bytes).
     // if checksums are enabled, we compute checksums for just the first
@@ -949,45 +1353,79 @@ class RecordManager {
     // of a free-space record may change several times in the course of
     // an application authoring a GVRS file.  So we do not wish to spend
     // resources writing them.
-    node = freeList;
-    while (node != null) {
-      long filePos = node.filePos;
-      int recordSize = node.blockSize;
-      if (spec.isChecksumEnabled) {
-        // in the case of a free-space record, the checksum
-        // is computed based on just the record header (since the
-        // content is undefined).  This implementation stores zeroes
-        // in the content, but that's just a good housekeeping measure.
-        braf.seek(filePos);
-        byte[] b = new byte[8];
-        braf.readFully(b);
-        GridfourCRC32C crc32 = new GridfourCRC32C();
-        crc32.update(b);
-
-        // Fill the body of the free space with zeroes. So far, we've
-        // read eight bytes for the Record Length and Record Type
-        // and used them to compute Checksum.  So we need enough zeroes
-        // to fill everything except the final checksum.
-        //     recordSize - (8 + 4)
-        b = new byte[recordSize - 12];
-        braf.writeFully(b);
-        braf.leWriteInt((int) crc32.getValue());
-      } else {
-        // since checksums are not enabled, we need to ensure
-        // that a zero is written to the checksum location as well
-        // as the body of the record.
-        // jump past the header and write zeroes.
-        // all other bytes are also set to zero.
-        braf.seek(filePos+8);
-        byte[] b = new byte[recordSize - 8];
-        braf.writeFully(b);
-      }
-      node = node.next;
+    for (FreeNode node : freeSpace.getNodesInPositionOrder()) {
+      writeFreeSpaceHeader(
+        braf, node.filePos, node.blockSize, true, spec.isChecksumEnabled);
     }
 
     return fileSpaceDirectoryPos;
   }
 
+  /**
+   * Writes the record headers for the free-space records that were released
+   * under the copy-on-write policy when the free-space directory was written.
+   * This method must not be called until the file header no longer
+   * refers to a snapshot. The content of the records is not zeroed out
+   * because it may still be in use by readers.
+   *
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void writeDeferredFreeSpaceHeaders() throws IOException {
+    if (!freeSpaceHeadersDeferred) {
+      return;
+    }
+    freeSpaceHeadersDeferred = false;
+    for (FreeNode node : freeSpace.getNodesInPositionOrder()) {
+      writeFreeSpaceHeader(
+        braf, node.filePos, node.blockSize, false, spec.isChecksumEnabled);
+    }
+  }
+
+  /**
+   * Writes the header for a free-space record and, if checksums are
+   * enabled, the checksum.  In the case of a free-space record, the checksum
+   * is computed based on just the record header (since the content
+   * is undefined).
+   *
+   * @param braf a valid instance
+   * @param filePos the position of the record
+   * @param recordSize the size of the record, including its header
+   * and checksum
+   * @param zeroContent indicates that the content of the record is
+   * to be set to zeroes
+   * @param checksumEnabled indicates whether checksums are enabled
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  private static void writeFreeSpaceHeader(
+    BufferedRandomAccessFile braf,
+    long filePos,
+    int recordSize,
+    boolean zeroContent,
+    boolean checksumEnabled) throws IOException {
+    byte[] header = new byte[RECORD_HEADER_SIZE];
+    ByteBuffer bb = ByteBuffer.wrap(header);
+    bb.order(ByteOrder.LITTLE_ENDIAN);
+    bb.putInt(recordSize);
+    bb.put((byte) RecordType.Freespace.getCodeValue());
+    braf.seek(filePos);
+    braf.writeFully(header);
+    if (zeroContent) {
+      // fill everything except the final checksum.
+      //     recordSize - (8 + 4)
+      braf.writeFully(new byte[recordSize - 12]);
+    }
+    if (checksumEnabled) {
+      GridfourCRC32C crc32 = new GridfourCRC32C();
+      crc32.update(header);
+      braf.seek(filePos + recordSize - 4);
+      braf.leWriteInt((int) crc32.getValue());
+    } else if (zeroContent) {
+      // since checksums are not enabled, a zero is written
+      // to the checksum location.
+      braf.leWriteInt(0);
+    }
+  }
+
   long writeMetadataDirectory() throws IOException {
     List<GvrsMetadataReference> gmrList = this.getMetadataReferences(true);
     if (gmrList.isEmpty()) {
@@ -1016,6 +1454,179 @@ class RecordManager {
     return metadataDirectoryPos;
   }
 
+  /**
+   * Writes a snapshot record giving the positions of the directories
+   * for a snapshot of the file content. The snapshot also serves as
+   * a checkpoint from which the file can be recovered if the application
+   * writing it terminates without closing it.  So a free-space directory
+   * is written giving the blocks that are free in the state of the file
+   * described by the snapshot. This list includes blocks whose release
+   * was deferred by the copy-on-write policy and the snapshot record itself.
+   * <p>
+   * The snapshot record gives the generation, the time the snapshot
+   * was published, the positions of the tile, metadata, and free-space
+   * directories, and the size of the file when the snapshot was written.
+   * Because overview levels are not included in a snapshot, the record
+   * also gives the number of overview levels and the overview method
+   * so that the overview levels can be rebuilt when the file is recovered.
+   *
+   * @param generation the sequential number of the snapshot
+   * @param tileDirectoryPos the position of the tile directory record
+   * @param metadataDirectoryPos the position of the metadata directory
+   * record, or zero if there is no metadata.
+   * @param excludedPositions the content positions of records that are
+   * in use by the writer but are not part of the snapshot; these are
+   * listed as free space in the state of the file described by the snapshot.
+   * @return the position of the snapshot record content
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  long writeSnapshot(
+    long generation,
+    long tileDirectoryPos,
+    long metadataDirectoryPos,
+    List<Long> excludedPositions)
+    throws IOException {
+    int sizeSnapshot = SNAPSHOT_SIZE;
+    long snapshotPos = fileSpaceAlloc(sizeSnapshot, RecordType.Snapshot);
+
+    // the allocation of the directory record may claim one of the
+    // free nodes, so the nodes are obtained after it is allocated.
+    int nFreeNodes = freeSpace.size()
+      + deferredDealloc.size() + excludedPositions.size() + 1;
+    long freeSpaceDirectoryPos = fileSpaceAlloc(
+      4 + nFreeNodes * 12, RecordType.FreespaceDirectory);
+    Collection<FreeNode> nodes = freeSpace.getNodesInPositionOrder();
+    List<Long> releasePositions = new ArrayList<>(deferredDealloc);
+    releasePositions.addAll(excludedPositions);
+    releasePositions.add(snapshotPos);
+    int[] releaseSizes = new int[releasePositions.size()];
+    for (int i = 0; i < releaseSizes.length; i++) {
+      braf.seek(releasePositions.get(i) - RECORD_HEADER_SIZE);
+      releaseSizes[i] = braf.leReadInt();
+    }
+
+    nFreeNodes = nodes.size() + releaseSizes.length;
+    braf.seek(freeSpaceDirectoryPos);
+    braf.leWriteInt(nFreeNodes);
+    for (FreeNode node : nodes) {
+      braf.leWriteLong(node.filePos);
+      braf.leWriteInt(node.blockSize);
+    }
+    for (int i = 0; i < releaseSizes.length; i++) {
+      braf.leWriteLong(releasePositions.get(i) - RECORD_HEADER_SIZE);
+      braf.leWriteInt(releaseSizes[i]);
+    }
+    fileSpaceFinishRecord(freeSpaceDirectoryPos, 4 + nFreeNodes * 12);
+
+    braf.seek(snapshotPos);
+    braf.leWriteLong(generation);
+    braf.leWriteLong(System.currentTimeMillis());
+    braf.leWriteLong(tileDirectoryPos);
+    braf.leWriteLong(metadataDirectoryPos);
+    braf.leWriteLong(freeSpaceDirectoryPos);
+    braf.leWriteLong(expectedFileSize);
+    braf.leWriteInt(spec.nOverviewLevels);
+    braf.write(spec.overviewMethod.getCodeValue());
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    braf.write(0); // reserved
+    fileSpaceFinishRecord(snapshotPos, sizeSnapshot);
+    return snapshotPos;
+  }
+
+  /**
+   * Releases the records associated with the specified snapshot,
+   * including the snapshot record itself.
+   *
+   * @param snapshotPos the position of the snapshot record content
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  void releaseSnapshot(long snapshotPos) throws IOException {
+    long[] snapshot = readSnapshot(braf, basePosition, snapshotPos);
+    for (int i = 2; i < 5; i++) {
+      if (snapshot[i] != 0) {
+        fileSpaceDealloc(snapshot[i]);
+      }
+    }
+    fileSpaceDealloc(snapshotPos);
+  }
+
+  /**
+   * Reads a snapshot record.
+   *
+   * @param braf a valid instance
+   * @param basePosition the position of the first record in the file
+   * @param filePosSnapshot the position of the snapshot record content
+   * @return an array giving the generation, the time the snapshot
+   * was published, the positions of the tile, metadata, and free-space
+   * directories, the size of the file when the snapshot was written,
+   * the number of overview levels, and the overview method code.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or if the record is not a valid snapshot
+   */
+  static long[] readSnapshot(
+    BufferedRandomAccessFile braf, long basePosition, long filePosSnapshot)
+    throws IOException {
+    if (filePosSnapshot < basePosition + RECORD_HEADER_SIZE
+      || filePosSnapshot + 48 > braf.getFileSize()) {
+      throw new IOException("Invalid snapshot position " + filePosSnapshot);
+    }
+    braf.seek(filePosSnapshot - RECORD_HEADER_SIZE);
+    int recordSize = braf.leReadInt();
+    int recordTypeCode = braf.leReadInt();
+    if (recordTypeCode != RecordType.Snapshot.codeValue) {
+      throw new IOException("Invalid snapshot record type " + recordTypeCode);
+    }
+    long[] snapshot = new long[8];
+    for (int i = 0; i < 6; i++) {
+      snapshot[i] = braf.leReadLong();
+    }
+    // snapshot records written before the overview specification
+    // was added to the record do not include it.
+    if (recordSize - RECORD_OVERHEAD_SIZE >= SNAPSHOT_SIZE) {
+      snapshot[6] = braf.leReadInt();
+      snapshot[7] = braf.readUnsignedByte();
+    }
+    if (snapshot[5] > braf.getFileSize()) {
+      throw new IOException("Invalid file size in snapshot " + snapshot[5]);
+    }
+    return snapshot;
+  }
+
+  /**
+   * Marks the blocks listed in a free-space directory as free-space
+   * records. This method is used when recovering a file from a snapshot
+   * because the blocks that were released by the copy-on-write policy
+   * are still marked with their original record types.
+   *
+   * @param braf a valid instance
+   * @param freeSpaceDirectoryPos the position of the free-space directory
+   * record content; if zero, no action is taken.
+   * @param checksumEnabled indicates whether checksums are to be computed
+   * for the free-space records
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  static void markFreeSpace(
+    BufferedRandomAccessFile braf,
+    long freeSpaceDirectoryPos,
+    boolean checksumEnabled) throws IOException {
+    if (freeSpaceDirectoryPos == 0) {
+      return;
+    }
+    braf.seek(freeSpaceDirectoryPos);
+    int nFreeNodes = braf.leReadInt();
+    long[] freePos = new long[nFreeNodes];
+    int[] freeSize = new int[nFreeNodes];
+    for (int iFree = 0; iFree < nFreeNodes; iFree++) {
+      freePos[iFree] = braf.leReadLong();
+      freeSize[iFree] = braf.leReadInt();
+    }
+    for (int iFree = 0; iFree < nFreeNodes; iFree++) {
+      writeFreeSpaceHeader(
+        braf, freePos[iFree], freeSize[iFree], false, checksumEnabled);
+    }
+  }
+
   long getExpectedFileSize() {
     return expectedFileSize;
   }
@@ -1033,6 +1644,8 @@ class RecordManager {
     long filePos = basePosition;
     long sizeFreeSpace = 0;
     long sizeAllocatedSpace = 0;
+    int nFreeBlocks = 0;
+    int sizeLargestFreeBlock = 0;
     while (filePos < fileSize - RECORD_HEADER_SIZE) {
       braf.seek(filePos);
       int recordSize = braf.leReadInt();
@@ -1042,13 +1655,36 @@ class RecordManager {
       int recordType = braf.leReadInt();
       if (recordType == RecordType.Freespace.codeValue) {
         sizeFreeSpace += recordSize;
+        nFreeBlocks++;
+        if (recordSize > sizeLargestFreeBlock) {
+          sizeLargestFreeBlock = recordSize;
+        }
       } else {
         sizeAllocatedSpace += recordSize;
       }
 
       filePos += recordSize;
     }
-    return new RecordManagerStats(sizeFreeSpace, sizeAllocatedSpace);
+    return new RecordManagerStats(
+      sizeFreeSpace, sizeAllocatedSpace, nFreeBlocks, sizeLargestFreeBlock);
+  }
+
+  /**
+   * Gets statistics on file space allocation from the free-space index
+   * maintained in memory.  Unlike the scanForFileSpaceStats method,
+   * this method does not access the file and is inexpensive enough
+   * to be called frequently.
+   *
+   * @return a valid instance
+   */
+  RecordManagerStats getFreeSpaceStats() {
+    long sizeFreeSpace = freeSpace.getSizeFreeSpace();
+    long sizeAllocatedSpace = expectedFileSize - basePosition - sizeFreeSpace;
+    return new RecordManagerStats(
+      sizeFreeSpace,
+      sizeAllocatedSpace,
+      freeSpace.size(),
+      freeSpace.getSizeLargestBlock());
   }
 
   /**
@@ -47,8 +47,45 @@ package org.gridfour.gvrs;
  class RecordManagerStats {
    long sizeFreeSpace;
    long sizeAllocatedSpace;
+   int nFreeBlocks;
+   int sizeLargestFreeBlock;
+
    RecordManagerStats(long sizeFreeSpace, long sizeAllocatedSpace){
      this.sizeFreeSpace = sizeFreeSpace;
      this.sizeAllocatedSpace = sizeAllocatedSpace;
    }
+
+   RecordManagerStats(
+     long sizeFreeSpace,
+     long sizeAllocatedSpace,
+     int nFreeBlocks,
+     int sizeLargestFreeBlock){
+     this.sizeFreeSpace = sizeFreeSpace;
+     this.sizeAllocatedSpace = sizeAllocatedSpace;
+     this.nFreeBlocks = nFreeBlocks;
+     this.sizeLargestFreeBlock = sizeLargestFreeBlock;
+   }
+
+   /**
+    * Gets a measure of the fragmentation of the free space, computed
+    * as one minus the ratio of the largest free block to the total
+    * free space.  A value of zero indicates that all free space is in
+    * a single block (or that there is no free space); values approaching
+    * one indicate that the free space is divided into many small blocks.
+    *
+    * @return a value in the range 0 to 1.
+    */
+   double getFragmentation(){
+     if(sizeFreeSpace<=0){
+       return 0;
+     }
+     return 1.0 - (double)sizeLargestFreeBlock/(double)sizeFreeSpace;
+   }
+
+   @Override
+   public String toString(){
+     return String.format(
+       "RecordManagerStats free=%d, allocated=%d, nFreeBlocks=%d, largest=%d",
+       sizeFreeSpace, sizeAllocatedSpace, nFreeBlocks, sizeLargestFreeBlock);
+   }
 }
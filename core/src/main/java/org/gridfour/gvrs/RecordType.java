@@ -73,7 +73,24 @@ enum RecordType {
   /**
    * The record contains the unique, mandatory file header
    */
-  FileHeader(6);
+  FileHeader(6),
+
+  /**
+   * The record contains a tile from one of the reduced-resolution
+   * overview levels.
+   */
+  OverviewTile(7),
+
+  /**
+   * The record contains a directory of overview levels.
+   */
+  OverviewDirectory(8),
+
+  /**
+   * The record contains a snapshot of the directories published
+   * by an application that is writing to the file.
+   */
+  Snapshot(9);
 
   final int codeValue;
 
@@ -96,7 +113,7 @@ enum RecordType {
   /**
    * Gets the enumeration type associated with the specified code value.
    * Will return a null for an invalid code value.
-   * @param codeValue a value in the range 0 to 5
+   * @param codeValue a value in the range 0 to 9
    * @return if successful, a valid enumeration; otherwise, a null.
    */
   static RecordType valueOf(int codeValue) {
@@ -113,6 +130,14 @@ enum RecordType {
         return MetadataDirectory;
       case 5:
         return TileDirectory;
+      case 6:
+        return FileHeader;
+      case 7:
+        return OverviewTile;
+      case 8:
+        return OverviewDirectory;
+      case 9:
+        return Snapshot;
       default:
         return null; // invalid type
     }
@@ -76,18 +76,62 @@ class TileAccessIndices {
    * @throws IOException in the event of a bad specification for row and column.
    */
   public void computeAccessIndices(int row, int col) throws IOException {
+    checkBounds(row, col);
+    tileRow = row / nRowsInTile;
+    tileCol = col / nColsInTile;
+    tileIndex = tileRow * nColsOfTiles + tileCol;
+    rowInTile = row - tileRow * nRowsInTile;
+    colInTile = col - tileCol * nColsInTile;
+    indexInTile = rowInTile * nColsInTile + colInTile;
+  }
+
+  /**
+   * Verifies that the specified row and column are within the bounds
+   * of the raster.  This method does not modify the state of the instance
+   * and may be called safely by multiple threads.
+   *
+   * @param row the grid row coordinate of interest
+   * @param col the grid column column of interest.
+   * @throws IOException in the event of a bad specification for row and column.
+   */
+  void checkBounds(int row, int col) throws IOException {
     if (row < 0 || row >= nRowsInRaster) {
       throw new IOException("Row out of bounds " + row);
     }
     if (col < 0 || col >= nColsInRaster) {
       throw new IOException("Column out of bounds " + col);
     }
+  }
 
-    tileRow = row / nRowsInTile;
-    tileCol = col / nColsInTile;
-    tileIndex = tileRow * nColsOfTiles + tileCol;
-    rowInTile = row - tileRow * nRowsInTile;
-    colInTile = col - tileCol * nColsInTile;
-    indexInTile = rowInTile * nColsInTile + colInTile;
+  /**
+   * Computes the tile index for the specified row and column. Unlike
+   * computeAccessIndices(), this method does not modify the state of the
+   * instance and may be called safely by multiple threads.
+   *
+   * @param row the grid row coordinate of interest
+   * @param col the grid column column of interest.
+   * @return a positive integer
+   * @throws IOException in the event of a bad specification for row and column.
+   */
+  int computeTileIndex(int row, int col) throws IOException {
+    checkBounds(row, col);
+    return (row / nRowsInTile) * nColsOfTiles + col / nColsInTile;
+  }
+
+  /**
+   * Computes the index of the cell within its tile for the specified
+   * row and column. The row and column are assumed to have been checked
+   * for valid range by the calling application.  This method does not
+   * modify the state of the instance and may be called safely by
+   * multiple threads.
+   *
+   * @param row the grid row coordinate of interest
+   * @param col the grid column column of interest.
+   * @return a positive integer
+   */
+  int computeIndexInTile(int row, int col) {
+    int rowInTile = row % nRowsInTile;
+    int colInTile = col % nColsInTile;
+    return rowInTile * nColsInTile + colInTile;
   }
 }
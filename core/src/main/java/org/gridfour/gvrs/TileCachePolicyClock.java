@@ -0,0 +1,107 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Implements the CLOCK policy.  The tiles are arranged in a circular list.
+ * When a tile must be removed, the "hand" of the clock advances through
+ * the list, clearing the reference flag of each tile that has been
+ * accessed since the hand last passed it, until it finds a tile that
+ * has not been accessed.  Unlike LRU, accessing a tile does not
+ * require the list to be modified.
+ */
+class TileCachePolicyClock implements ITileCachePolicy {
+
+  private RasterTile hand;
+  private int nTiles;
+
+  @Override
+  public void tileAdded(RasterTile tile) {
+    // A new tile is usually the one that the application is about to access,
+    // so it starts with its reference flag set.  It is inserted just
+    // behind the hand so that it is the last tile the hand will reach.
+    tile.referenced = true;
+    if (hand == null) {
+      tile.next = tile;
+      tile.prior = tile;
+      hand = tile;
+    } else {
+      tile.next = hand;
+      tile.prior = hand.prior;
+      hand.prior.next = tile;
+      hand.prior = tile;
+    }
+    nTiles++;
+  }
+
+  @Override
+  public void tileAccessed(RasterTile tile) {
+    tile.referenced = true;
+  }
+
+  @Override
+  public RasterTile removeVictim() {
+    if (hand == null) {
+      return null;
+    }
+    // Because the reference flags are cleared as the hand passes,
+    // this loop will make at most one complete circuit of the list.
+    while (hand.referenced) {
+      hand.referenced = false;
+      hand = hand.next;
+    }
+    RasterTile victim = hand;
+    if (victim.next == victim) {
+      hand = null;
+    } else {
+      victim.prior.next = victim.next;
+      victim.next.prior = victim.prior;
+      hand = victim.next;
+    }
+    victim.next = null;
+    victim.prior = null;
+    nTiles--;
+    return victim;
+  }
+
+  @Override
+  public int size() {
+    return nTiles;
+  }
+}
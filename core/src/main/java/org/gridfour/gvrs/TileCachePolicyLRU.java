@@ -0,0 +1,107 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Implements a least-recently-used policy using a doubly-linked list of
+ * tiles.  The most recently accessed tile is at the head of the list.
+ * <p>
+ * When the tileAccessed() method is not called, the list behaves as a
+ * first-in, first-out queue.
+ */
+class TileCachePolicyLRU implements ITileCachePolicy {
+
+  private RasterTile head;
+  private RasterTile tail;
+  private int nTiles;
+
+  @Override
+  public void tileAdded(RasterTile tile) {
+    tile.prior = null;
+    tile.next = head;
+    if (head == null) {
+      tail = tile;
+    } else {
+      head.prior = tile;
+    }
+    head = tile;
+    nTiles++;
+  }
+
+  @Override
+  public void tileAccessed(RasterTile tile) {
+    if (tile == head) {
+      return;
+    }
+    // we've already established that the tile is not the head
+    tile.prior.next = tile.next;
+    if (tile.next == null) {
+      tail = tile.prior;
+    } else {
+      tile.next.prior = tile.prior;
+    }
+    tile.next = head;
+    head.prior = tile;
+    tile.prior = null;
+    head = tile;
+  }
+
+  @Override
+  public RasterTile removeVictim() {
+    RasterTile victim = tail;
+    if (victim == null) {
+      return null;
+    }
+    tail = victim.prior;
+    if (tail == null) {
+      head = null;
+    } else {
+      tail.next = null;
+    }
+    victim.prior = null;
+    victim.next = null;
+    nTiles--;
+    return victim;
+  }
+
+  @Override
+  public int size() {
+    return nTiles;
+  }
+}
@@ -0,0 +1,115 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+
+/**
+ * Implements the "2Q" policy described by Johnson and Shasha (1994).
+ * Tiles that are added to the cache for the first time are placed in
+ * a first-in, first-out queue (A1in).  When a tile is removed from that
+ * queue, its index is recorded in a "ghost" queue (A1out) that does not
+ * hold any tile data.  If a tile whose index is in the ghost queue is
+ * added to the cache again, it is placed in the main LRU queue (Am).
+ * <p>
+ * Repeated requests for a tile while it is in the A1in queue do not
+ * promote it.  Thus a tile that is accessed many times during a single
+ * pass of a sequential scan does not displace the tiles in the main queue.
+ * <p>
+ * Following the recommendations of the original paper, the A1in queue
+ * is limited to one quarter of the tiles in the cache and the ghost
+ * queue is limited to one half.
+ */
+class TileCachePolicyTwoQueue implements ITileCachePolicy {
+
+  private static final int A1IN = 1;
+  private static final int AM = 2;
+
+  private final TileCachePolicyLRU a1in = new TileCachePolicyLRU();
+  private final TileCachePolicyLRU am = new TileCachePolicyLRU();
+  private final LinkedHashSet<Integer> a1out = new LinkedHashSet<>();
+
+  @Override
+  public void tileAdded(RasterTile tile) {
+    if (a1out.remove(tile.tileIndex)) {
+      tile.cacheQueue = AM;
+      am.tileAdded(tile);
+    } else {
+      tile.cacheQueue = A1IN;
+      a1in.tileAdded(tile);
+    }
+  }
+
+  @Override
+  public void tileAccessed(RasterTile tile) {
+    if (tile.cacheQueue == AM) {
+      am.tileAccessed(tile);
+    }
+  }
+
+  @Override
+  public RasterTile removeVictim() {
+    int nTiles = a1in.size() + am.size();
+    if (nTiles == 0) {
+      return null;
+    }
+    int kIn = Math.max(1, nTiles / 4);
+    RasterTile victim;
+    if (a1in.size() > kIn || am.size() == 0) {
+      victim = a1in.removeVictim();
+      a1out.add(victim.tileIndex);
+      int kOut = Math.max(1, nTiles / 2);
+      Iterator<Integer> iterator = a1out.iterator();
+      while (a1out.size() > kOut) {
+        iterator.next();
+        iterator.remove();
+      }
+    } else {
+      victim = am.removeVictim();
+    }
+    victim.cacheQueue = 0;
+    return victim;
+  }
+
+  @Override
+  public int size() {
+    return a1in.size() + am.size();
+  }
+}
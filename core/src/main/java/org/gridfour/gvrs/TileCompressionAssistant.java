@@ -0,0 +1,413 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ *  The compression of tile data is the most time-consuming part of
+ * writing a GVRS file. This class moves that work into a pool of
+ * background threads. The file I/O is still performed by the application
+ * thread, so the RecordManager and its BufferedRandomAccessFile
+ * are never accessed by more than one thread.
+ *   Compressed tiles are written in the order in which they were submitted.
+ * Because the free-space allocator assigns positions sequentially,
+ * this approach preserves the spatial ordering of tiles in the file that
+ * would have been produced by a single-threaded write.
+ *   The codec instances are not thread safe, so each worker thread
+ * uses its own CodecMaster with its own codec instances. The encoding
+ * statistics gathered by the worker codecs are transferred to the
+ * record manager's CodecMaster so that they are included in the
+ * file summary.
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Implements a pool of background threads to expedite the compression
+ * of tiles that are to be written to a file.
+ */
+class TileCompressionAssistant {
+
+  /**
+   * Holds a tile and its compressed packing while the tile is waiting
+   * to be written.
+   */
+  private static class CompTask {
+
+    final int tileIndex;
+    final RasterTile tile;
+    byte[] packing;
+    boolean done;
+    RuntimeException failure;
+
+    CompTask(RasterTile tile) {
+      this.tileIndex = tile.tileIndex;
+      this.tile = tile;
+    }
+  }
+
+  /**
+   * The worker implementation. Each worker maintains its own
+   * CodecMaster instance.
+   */
+  private class Worker implements Runnable {
+
+    final CodecMaster codecMaster;
+
+    Worker(List<CodecHolder> codecList) {
+      List<CodecHolder> copyList = new ArrayList<>();
+      for (CodecHolder holder : codecList) {
+        copyList.add(new CodecHolder(holder));
+      }
+      codecMaster = new CodecMaster(copyList);
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        CompTask task;
+        synchronized (TileCompressionAssistant.this) {
+          while (!stopRequested && taskQueue.isEmpty()) {
+            try {
+              TileCompressionAssistant.this.wait();
+            } catch (InterruptedException intex) {
+              // restore the interrupt status and let the thread
+              // terminate. If no workers remain, the queued tasks
+              // are marked as failed so that the writer does not
+              // wait for them indefinitely.
+              nInterruptedWaits++;
+              Thread.currentThread().interrupt();
+              nActiveWorkers--;
+              if (nActiveWorkers == 0) {
+                failQueuedTasks();
+              }
+              return;
+            }
+          }
+          if (stopRequested) {
+            nActiveWorkers--;
+            return;
+          }
+          task = taskQueue.removeFirst();
+        }
+
+        byte[] packing = null;
+        RuntimeException failure = null;
+        try {
+          if (task.tile.hasValidData()) {
+            packing = task.tile.getCompressedPacking(codecMaster);
+          }
+        } catch (RuntimeException rex) {
+          failure = rex;
+        }
+
+        synchronized (TileCompressionAssistant.this) {
+          task.packing = packing;
+          task.failure = failure;
+          task.done = true;
+          TileCompressionAssistant.this.notifyAll();
+        }
+      }
+    }
+  }
+
+  private final RecordManager recordManager;
+  private final int maxPendingTasks;
+  private final Thread[] threads;
+  private final Worker[] workers;
+  private boolean stopRequested;
+  private int nActiveWorkers;
+
+  // Tasks waiting to be picked up by a worker
+  private final ArrayDeque<CompTask> taskQueue = new ArrayDeque<>();
+  // All tasks that have not been written, in order of submission
+  private final ArrayDeque<CompTask> writeQueue = new ArrayDeque<>();
+  private final HashMap<Integer, CompTask> pendingMap = new HashMap<>();
+
+  // statistics gathering ----------------------------
+  int nInterruptedWaits;
+  int nTilesWritten;
+
+  /**
+   * Constructs an instance with the specified number of worker threads.
+   *
+   * @param spec a valid instance
+   * @param recordManager the record manager to which tiles will be written.
+   * @param nThreads the number of worker threads, must be one or greater.
+   */
+  TileCompressionAssistant(
+    GvrsFileSpecification spec,
+    RecordManager recordManager,
+    int nThreads) {
+    this.recordManager = recordManager;
+    // Allow enough pending tasks to keep the workers busy while
+    // the application thread is writing, but bound the number so
+    // that the memory use does not grow without limit.
+    maxPendingTasks = nThreads * 4;
+    threads = new Thread[nThreads];
+    workers = new Worker[nThreads];
+    for (int i = 0; i < nThreads; i++) {
+      workers[i] = new Worker(spec.codecList);
+      workers[i].codecMaster.setUniformRecordsEnabled(spec.isVersion105OrLater());
+      Thread thread = new Thread(workers[i]);
+      thread.setName("GVRS Writing Assistant " + i);
+      thread.setDaemon(true);
+      threads[i] = thread;
+    }
+    nActiveWorkers = nThreads;
+  }
+
+  /**
+   * Sets the adaptive codec selection mode for the workers.
+   *
+   * @param enabled true if adaptive selection is enabled; otherwise, false.
+   */
+  void setAdaptiveCodecSelectionEnabled(boolean enabled) {
+    for (Worker worker : workers) {
+      worker.codecMaster.setAdaptiveSelectionEnabled(enabled);
+    }
+  }
+
+  /**
+   * Starts the worker threads.
+   */
+  void start() {
+    for (Thread thread : threads) {
+      thread.start();
+    }
+  }
+
+  /**
+   * Submits a tile for compression and eventual writing. If the number of
+   * pending tiles exceeds the internal limit, this method will write
+   * the oldest pending tiles before returning, waiting for their
+   * compression to complete if necessary.
+   * <p>
+   * The tile must not be accessed by the application until it is
+   * written or reclaimed.
+   *
+   * @param tile a valid tile
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or a failure during compression.
+   */
+  void submit(RasterTile tile) throws IOException {
+    CompTask task = new CompTask(tile);
+    synchronized (this) {
+      taskQueue.addLast(task);
+      writeQueue.addLast(task);
+      pendingMap.put(task.tileIndex, task);
+      if (nActiveWorkers == 0) {
+        failQueuedTasks();
+      }
+      notifyAll();
+    }
+    writeCompletedTiles();
+    while (getPendingTaskCount() > maxPendingTasks) {
+      writeOldestTile();
+    }
+  }
+
+  /**
+   * Writes any tiles for which compression has completed, stopping at the
+   * first tile that is still in progress so that tiles are written in
+   * the order in which they were submitted.
+   *
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or a failure during compression.
+   */
+  void writeCompletedTiles() throws IOException {
+    while (true) {
+      CompTask task;
+      synchronized (this) {
+        task = writeQueue.peekFirst();
+        if (task == null || !task.done) {
+          return;
+        }
+      }
+      writeTask(task);
+    }
+  }
+
+  /**
+   * Indicates whether the specified tile is awaiting compression or writing.
+   *
+   * @param tileIndex the index of the tile
+   * @return true if the tile is pending; otherwise, false.
+   */
+  synchronized boolean isTilePending(int tileIndex) {
+    return pendingMap.containsKey(tileIndex);
+  }
+
+  /**
+   * Removes the specified tile from the pipeline so that it can be returned
+   * to the tile cache. The tile, and any tiles that were submitted before it,
+   * are written to the file before this method returns.
+   *
+   * @param tileIndex the index of the tile
+   * @return if the tile was pending, a valid instance; otherwise, a null.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or a failure during compression.
+   */
+  RasterTile reclaimTile(int tileIndex) throws IOException {
+    CompTask target;
+    synchronized (this) {
+      target = pendingMap.get(tileIndex);
+    }
+    if (target == null) {
+      return null;
+    }
+    while (isTilePending(tileIndex)) {
+      writeOldestTile();
+    }
+    return target.tile;
+  }
+
+  /**
+   * Waits for all pending tiles to be compressed and writes them to
+   * the file.
+   *
+   * @throws IOException in the event of an unrecoverable I/O exception
+   * or a failure during compression.
+   */
+  void flush() throws IOException {
+    while (getPendingTaskCount() > 0) {
+      writeOldestTile();
+    }
+    transferEncodingStatistics();
+  }
+
+  /**
+   * Transfers the encoding statistics gathered by the worker codecs
+   * to the corresponding codecs in the record manager's CodecMaster.
+   * The worker statistics are cleared, so this method may be called
+   * more than once without counting any encoding operation twice.
+   */
+  void transferEncodingStatistics() {
+    List<CodecHolder> targetList = recordManager.codecMaster.codecList;
+    for (Worker worker : workers) {
+      for (CodecHolder source : worker.codecMaster.codecList) {
+        for (CodecHolder target : targetList) {
+          if (target.getIdentification().equals(source.getIdentification())) {
+            source.transferEncodingStatistics(target);
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the count of tiles that have been submitted but not yet written.
+   *
+   * @return a positive integer, potentially zero
+   */
+  synchronized int getPendingTaskCount() {
+    return writeQueue.size();
+  }
+
+  private void writeOldestTile() throws IOException {
+    CompTask task;
+    synchronized (this) {
+      task = writeQueue.peekFirst();
+      if (task == null) {
+        return;
+      }
+      while (!task.done) {
+        try {
+          wait();
+        } catch (InterruptedException intex) {
+          nInterruptedWaits++;
+          Thread.currentThread().interrupt();
+          InterruptedIOException ioex = new InterruptedIOException(
+            "Interrupted while waiting for compression of tile "
+            + task.tileIndex);
+          ioex.initCause(intex);
+          throw ioex;
+        }
+      }
+    }
+    writeTask(task);
+  }
+
+  private void writeTask(CompTask task) throws IOException {
+    synchronized (this) {
+      writeQueue.removeFirst();
+      pendingMap.remove(task.tileIndex);
+    }
+    if (task.failure != null) {
+      throw new IOException(
+        "Failure compressing tile " + task.tileIndex
+        + ": " + task.failure.getMessage(), task.failure);
+    }
+    nTilesWritten++;
+    recordManager.writeTile(task.tile, task.packing);
+    task.tile.clearWritingRequired();
+  }
+
+  /**
+   * Marks all tasks that have not been picked up by a worker as failed.
+   * Called when no worker threads remain to process them.
+   * The caller must hold the lock on this instance.
+   */
+  private void failQueuedTasks() {
+    while (!taskQueue.isEmpty()) {
+      CompTask task = taskQueue.removeFirst();
+      task.failure = new IllegalStateException(
+        "Compression threads were interrupted");
+      task.done = true;
+    }
+    notifyAll();
+  }
+
+  /**
+   * Instructs the worker threads to shut down as soon as they can.
+   * Any tiles that have not been written are discarded, so the
+   * calling application should call flush() before calling this method.
+   */
+  void shutdown() {
+    synchronized (this) {
+      stopRequested = true;
+      taskQueue.clear();
+      writeQueue.clear();
+      pendingMap.clear();
+      notifyAll();
+    }
+  }
+}
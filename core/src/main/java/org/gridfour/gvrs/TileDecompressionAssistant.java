@@ -31,6 +31,7 @@
  * Date     Name         Description
  * ------   ---------    -------------------------------------------------
  * 06/2022  G. Lucas     Created
+ * 10/2026  G. Lucas     Revised to use a configurable pool of threads
  *
  * Notes:
  *
@@ -44,16 +45,16 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Implements a background thread to expedite the decompression
+ * Implements a pool of background threads to expedite the decompression
  * of data.
  */
-class TileDecompressionAssistant implements Runnable {
+class TileDecompressionAssistant {
 
   /**
    * Implements a private class that is used to run decompression operations
    * in a background thread.
    */
-  private class DecompTask {
+  private static class DecompTask {
 
     final int tileIndex;
     final RasterTile tile;
@@ -65,7 +66,7 @@ class TileDecompressionAssistant implements Runnable {
       this.packing = packing;
     }
 
-    void process() throws IOException {
+    void process(CodecMaster codecMaster) throws IOException {
       int k = 0;
       for (TileElement e : tile.elements) {
         e.decode(codecMaster, packing[k++]);
@@ -73,24 +74,125 @@ class TileDecompressionAssistant implements Runnable {
     }
   }
 
-  final CodecMaster codecMaster;
-  private Thread taskThread;
+  /**
+   * The worker implementation. Because the codec instances are not
+   * thread safe, each worker maintains its own CodecMaster instance.
+   */
+  private class Worker implements Runnable {
+
+    final CodecMaster codecMaster;
+
+    Worker(List<CodecHolder> codecList) {
+      List<CodecHolder> copyList = new ArrayList<>();
+      for (CodecHolder holder : codecList) {
+        copyList.add(new CodecHolder(holder));
+      }
+      codecMaster = new CodecMaster(copyList);
+    }
+
+    @Override
+    public void run() {
+      TileDecompressionAssistant assistant = TileDecompressionAssistant.this;
+      DecompTask task = null;
+      boolean taskFailed = false;
+      while (true) {
+        // the inner block happens inside a synchronized block.
+        // It posts the result from the previously processed task
+        // (if any) and fetches the next DecompTask to be processed.
+        // The processing is done outside the synchronized block, so that
+        // associated threads can obtain results or submit additional
+        // tasks while processing is running.
+        synchronized (assistant) {
+          if (task != null) {
+            // transfer the content of the task to the
+            // results list and clear the references to the task.
+            // If the decompression failed, the tile is not posted,
+            // so the application will read it again and receive
+            // the exception in its own thread.
+            tasksInProgress.remove(task);
+            if (!taskFailed) {
+              resultList.add(task.tile);
+            }
+            task = null;
+            assistant.notifyAll();
+          }
+          while (!stopRequested && taskQueue.isEmpty()) {
+            try {
+              assistant.wait();
+            } catch (InterruptedException intex) {
+              nInterruptedWaits++;
+            }
+          }
+          if (stopRequested) {
+            // return from this method will terminate the thread.
+            return;
+          }
+          task = taskQueue.removeFirst();
+          tasksInProgress.add(task);
+        }
+
+        try {
+          task.process(codecMaster);
+          taskFailed = false;
+        } catch (IOException | RuntimeException ex) {
+          taskFailed = true;
+        }
+      }
+    }
+  }
+
+  private final Thread[] threads;
   private boolean stopRequested = false;
   private final ArrayDeque<DecompTask> taskQueue = new ArrayDeque<>();
-  private DecompTask taskInProgress = null;
+  private final List<DecompTask> tasksInProgress = new ArrayList<>();
 
   // statistics gathering ----------------------------
   int nInterruptedWaits;
 
   ArrayList<RasterTile> resultList = new ArrayList<>();
 
+  /**
+   * Constructs an instance with a single worker thread.
+   *
+   * @param specification a valid instance
+   */
   TileDecompressionAssistant(GvrsFileSpecification specification) {
-    codecMaster = new CodecMaster(specification.codecList);
+    this(specification, 1);
+  }
+
+  /**
+   * Constructs an instance with the specified number of worker threads.
+   *
+   * @param specification a valid instance
+   * @param nThreads the number of worker threads, must be one or greater.
+   */
+  TileDecompressionAssistant(GvrsFileSpecification specification, int nThreads) {
+    if (nThreads < 1) {
+      throw new IllegalArgumentException(
+        "Number of threads must be at least one: " + nThreads);
+    }
+    threads = new Thread[nThreads];
+    for (int i = 0; i < nThreads; i++) {
+      threads[i] = new Thread(new Worker(specification.codecList));
+      threads[i].setName("GVRS Reading Assistant " + i);
+      threads[i].setDaemon(true);
+    }
+  }
+
+  /**
+   * Gets the number of worker threads used by this instance.
+   *
+   * @return a value of one or greater.
+   */
+  int getNumberOfThreads() {
+    return threads.length;
   }
 
   private boolean isIndexPending(int target) {
-    if (taskInProgress != null && taskInProgress.tileIndex == target) {
-      return true;
+    for (DecompTask t : tasksInProgress) {
+      if (t.tileIndex == target) {
+        return true;
+      }
     }
     for (DecompTask t : taskQueue) {
       if (t.tileIndex == target) {
@@ -100,6 +202,26 @@ class TileDecompressionAssistant implements Runnable {
     return false;
   }
 
+  /**
+   * Indicates whether the specified tile has been submitted to the assistant
+   * and has not yet been retrieved by the application.
+   *
+   * @param tileIndex the index of the tile
+   * @return true if the tile is queued, in progress, or available in
+   * the results list; otherwise, false.
+   */
+  synchronized boolean isTileSubmitted(int tileIndex) {
+    if (isIndexPending(tileIndex)) {
+      return true;
+    }
+    for (RasterTile t : resultList) {
+      if (t.tileIndex == tileIndex) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   void submitDecompression(RasterTile tile, byte[][] packing) {
     DecompTask task = new DecompTask(tile, packing);
     synchronized (this) {
@@ -109,68 +231,16 @@ class TileDecompressionAssistant implements Runnable {
   }
 
   /**
-   * Starts the internal task-processing thread.
+   * Starts the internal task-processing threads.
    */
   void start() {
     synchronized (this) {
-      if (taskThread == null) {
-        taskThread = new Thread(this);
-        taskThread.setName("GVRS Reading Assistant");
-        taskThread.start();
-      }
-    }
-  }
-
-  @Override
-  public void run() {
-    while (true) {
-      DecompTask task = null;
-      // the inner loop happens inside a synchronized block.
-      // It fetches the next DecompTask to be processed
-      // and then breaks.  The processing is done outside the
-      // synchronized block, so that associated threads can
-      // obtain results or submit additional tasks while processing
-      // is running.
-      synchronized (this) {
-        innerLoop:
-        while (true) {
-          if (stopRequested) {
-            // return from this method will terminate the thread.
-            return;
-          }
-          if (taskInProgress != null) {
-            // transfer the content of the task to the
-            // results list and clear the references to the task.
-            resultList.add(taskInProgress.tile);
-            taskInProgress = null;
-            notifyAll();
-          }
-
-          if (taskQueue.isEmpty()) {
-            try {
-              wait();
-            } catch (InterruptedException intex) {
-              nInterruptedWaits++;
-            }
-          } else {
-            taskInProgress = taskQueue.getFirst();
-            taskQueue.removeFirst();
-            task = taskInProgress;
-            break;  // break inner loop
-          }
-        } // end of innter loop
-      }
-
-      if (task != null) {
-        try {
-          task.process();
-        } catch (IOException ioex) {
-          // TO DO:
-          System.out.println("Need to address this " + ioex.getMessage());
+      for (Thread thread : threads) {
+        if (thread.getState() == Thread.State.NEW) {
+          thread.start();
         }
       }
-
-    }  // end of outter loop
+    }
   }
 
   /**
@@ -192,8 +262,8 @@ class TileDecompressionAssistant implements Runnable {
     List<RasterTile> list = new ArrayList<>();
     synchronized (this) {
       // if the target index is pending, the application
-      // thread waits for the background thread to finish processing.
-      // The background thread will call notifyAll() to break the
+      // thread waits for the background threads to finish processing.
+      // The background threads will call notifyAll() to break the
       // application thread out of its wait.
       while (isIndexPending(targetIndex)) {
         try {
@@ -233,14 +303,13 @@ class TileDecompressionAssistant implements Runnable {
    */
   int getPendingTaskCount() {
     synchronized (this) {
-      return (taskInProgress == null ? 0 : 1) + taskQueue.size();
+      return tasksInProgress.size() + taskQueue.size();
     }
   }
 
   /**
    * Waits for all running and queued tasks to complete. When this method
-   * is done, the thread will be in a quiescent state and the CodecMaster
-   * instance can be accessed safely by other threads.
+   * is done, the threads will be in a quiescent state.
    * <p>
    * It is assumed that in most cases, decompression tasks can be completed
    * relative quickly, so this method should not result in a long wait.
@@ -251,7 +320,7 @@ class TileDecompressionAssistant implements Runnable {
       // thread waits for the background thread to finish processing.
       // The background thread will call notifyAll() to break the
       // application thread out of its wait.
-      while (!(taskQueue.isEmpty() && taskInProgress == null)) {
+      while (!(taskQueue.isEmpty() && tasksInProgress.isEmpty())) {
         try {
           this.wait();
         } catch (InterruptedException inex) {
@@ -263,8 +332,8 @@ class TileDecompressionAssistant implements Runnable {
 
   /**
    * Instructs the reading assistance to shutdown as soon as it can.
-   * If a decompression operation is currently in progress, there may
-   * be a delay until it finishes.
+   * If decompression operations are currently in progress, there may
+   * be a delay until they finish.
    */
   void shutdown() {
     synchronized (this) {
@@ -58,6 +58,12 @@ abstract class TileElement {
   final String name;
   final GvrsElementType dataType;
   final int standardSizeInBytes;
+
+  // Indicates that the values array for the element is a shared instance
+  // obtained from the UniformTile class.  Shared arrays must not be
+  // modified, so the subclasses replace them with a private copy
+  // before changing any values.
+  boolean valuesShared;
  
 
   /**
@@ -120,6 +126,17 @@ abstract class TileElement {
     return standardSizeInBytes;
   }
 
+  /**
+   * Gets the number of bytes of memory used privately by the element.
+   * An element that references a shared array from the UniformTile
+   * pool does not use any private memory for its values.
+   *
+   * @return a positive value, or zero if the values array is shared.
+   */
+  int getMemorySize() {
+    return valuesShared ? 0 : getStandardSize();
+  }
+
   
   
 
@@ -140,6 +157,40 @@ abstract class TileElement {
 
   abstract float getValue(int index);
 
+  /**
+   * Sets a span of consecutive values starting at the specified index
+   * using the same conversion and range checking as setIntValue().
+   * This default implementation sets the values one at a time;
+   * subclasses may override it to transfer the span directly.
+   *
+   * @param index the index in the tile for the first value
+   * @param source an array of values
+   * @param sourceIndex the index in the source array for the first value
+   * @param n the number of values to transfer
+   */
+  void setIntValues(int index, int[] source, int sourceIndex, int n) {
+    for (int i = 0; i < n; i++) {
+      setIntValue(index + i, source[sourceIndex + i]);
+    }
+  }
+
+  /**
+   * Sets a span of consecutive values starting at the specified index
+   * using the same conversion and range checking as setValue().
+   * This default implementation sets the values one at a time;
+   * subclasses may override it to transfer the span directly.
+   *
+   * @param index the index in the tile for the first value
+   * @param source an array of values
+   * @param sourceIndex the index in the source array for the first value
+   * @param n the number of values to transfer
+   */
+  void setValues(int index, float[] source, int sourceIndex, int n) {
+    for (int i = 0; i < n; i++) {
+      setValue(index + i, source[sourceIndex + i]);
+    }
+  }
+
   abstract float getFillValue();
   
   abstract int getFillValueInt();
@@ -41,6 +41,7 @@ package org.gridfour.gvrs;
 import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
+import org.gridfour.compress.FloatPreconditionerType;
 import org.gridfour.io.BufferedRandomAccessFile;
 
 /**
@@ -48,11 +49,13 @@ import org.gridfour.io.BufferedRandomAccessFile;
  */
 class TileElementFloat extends TileElement {
 
-  final float[] values;
+  float[] values;
   final float minValue;
   final float maxValue;
   final float fillValue;
   final Float fillValueRef;
+  final float maxAbsoluteError;
+  final FloatPreconditionerType preconditioner;
 
   /**
    * Constructs a element and allocates memory for storage.
@@ -82,6 +85,8 @@ class TileElementFloat extends TileElement {
     maxValue = fSpec.maxValue;
     fillValue = fSpec.fillValue;
     fillValueRef = fillValue; // automatically boxed to instance of Float
+    maxAbsoluteError = fSpec.maxAbsoluteError;
+    preconditioner = fSpec.preconditioner;
 
     values = new float[nCells];
     if (initializeValues) {
@@ -89,6 +94,28 @@ class TileElementFloat extends TileElement {
     }
   }
 
+  /**
+   * Ensures that the values array is not shared before it is modified.
+   * A shared array is replaced with a private copy of its content.
+   */
+  private void unshareValues() {
+    if (valuesShared) {
+      values = values.clone();
+      valuesShared = false;
+    }
+  }
+
+  /**
+   * Ensures that the values array is not shared before its content
+   * is completely replaced.
+   */
+  private void allocateValues() {
+    if (valuesShared) {
+      values = new float[nCells];
+      valuesShared = false;
+    }
+  }
+
   @Override
   void writeStandardFormat(BufferedRandomAccessFile braf) throws IOException {
     for (int i = 0; i < values.length; i++) {
@@ -98,6 +125,7 @@ class TileElementFloat extends TileElement {
 
   @Override
   void readStandardFormat(BufferedRandomAccessFile braf) throws IOException {
+    allocateValues();
     braf.leReadFloatArray(values, 0, values.length);
   }
 
@@ -112,6 +140,7 @@ class TileElementFloat extends TileElement {
     int n = (((((d << 8) | c) << 8) | b) << 8) | a;
     braf.readFully(packing, 0, n);
     int[] v = codec.decode(nRows, nColumns, packing);
+    allocateValues();
     System.arraycopy(v, 0, values, 0, values.length);
   }
 
@@ -135,6 +164,7 @@ class TileElementFloat extends TileElement {
     // case where both the input and fill values are Float.NaN
 
     if (minValue <= value && value <= maxValue || fillValueRef.equals(value)) {
+      unshareValues();
       values[index] = value;
       parent.writingRequired = true;
     } else if (Float.isNaN(value)) {
@@ -153,6 +183,22 @@ class TileElementFloat extends TileElement {
 
   }
 
+  @Override
+  void setValues(int index, float[] source, int sourceIndex, int n) {
+    // validate the span before modifying the tile so that an
+    // out-of-range value does not result in a partial transfer
+    for (int i = 0; i < n; i++) {
+      float value = source[sourceIndex + i];
+      if (!(minValue <= value && value <= maxValue)
+        && !fillValueRef.equals(value)) {
+        setValue(index + i, value); // throws exception
+      }
+    }
+    unshareValues();
+    System.arraycopy(source, sourceIndex, values, index, n);
+    parent.writingRequired = true;
+  }
+
   @Override
   public boolean hasFillDataValues() {
     if (Float.isNaN(fillValue)) {
@@ -192,7 +238,8 @@ class TileElementFloat extends TileElement {
 
   @Override
   void setToNullState() {
-    Arrays.fill(values, fillValue);
+    values = UniformTile.getSharedArray(fillValue, nCells);
+    valuesShared = true;
   }
 
   @Override
@@ -207,7 +254,13 @@ class TileElementFloat extends TileElement {
 
   @Override
   byte[] encode(CodecMaster codec) {
-    byte[] encoding = codec.encodeFloats(nRows, nColumns, values);
+    byte[] encoding;
+    if (maxAbsoluteError > 0) {
+      encoding = codec.encodeFloats(
+        nRows, nColumns, values, fillValue, maxAbsoluteError);
+    } else {
+      encoding = codec.encodeFloats(nRows, nColumns, values, preconditioner);
+    }
     if (encoding == null || encoding.length >= standardSizeInBytes) {
       encoding = new byte[standardSizeInBytes];
       ByteBuffer byteBuffer = wrapEncodingInByteBuffer(encoding);
@@ -220,6 +273,12 @@ class TileElementFloat extends TileElement {
 
   @Override
   void decode(CodecMaster codec, byte[] encoding) throws IOException {
+    if (UniformTile.isUniform(encoding)) {
+      values = UniformTile.getSharedArray(Float.intBitsToFloat(UniformTile.getValue(encoding)), nCells);
+      valuesShared = true;
+      return;
+    }
+    allocateValues();
     if (encoding.length == standardSizeInBytes) {
       ByteBuffer byteBuffer = wrapEncodingInByteBuffer(encoding);
       for (int i = 0; i < values.length; i++) {
@@ -48,7 +48,7 @@ import org.gridfour.io.BufferedRandomAccessFile;
  */
 class TileElementInt extends TileElement {
 
-  final int[] values;
+  int[] values;
   final int minValue;
   final int maxValue;
   final int fillValue;
@@ -87,6 +87,28 @@ class TileElementInt extends TileElement {
     }
   }
 
+  /**
+   * Ensures that the values array is not shared before it is modified.
+   * A shared array is replaced with a private copy of its content.
+   */
+  private void unshareValues() {
+    if (valuesShared) {
+      values = values.clone();
+      valuesShared = false;
+    }
+  }
+
+  /**
+   * Ensures that the values array is not shared before its content
+   * is completely replaced.
+   */
+  private void allocateValues() {
+    if (valuesShared) {
+      values = new int[nCells];
+      valuesShared = false;
+    }
+  }
+
   @Override
   void writeStandardFormat(BufferedRandomAccessFile braf) throws IOException {
     for (int i = 0; i < values.length; i++) {
@@ -96,6 +118,7 @@ class TileElementInt extends TileElement {
 
   @Override
   void readStandardFormat(BufferedRandomAccessFile braf) throws IOException {
+    allocateValues();
     braf.leReadIntArray(values, 0, values.length);
   }
 
@@ -110,6 +133,7 @@ class TileElementInt extends TileElement {
     int n = (((((d << 8) | c) << 8) | b) << 8) | a;
     braf.readFully(packing, 0, n);
     int[] v = codec.decode(nRows, nColumns, packing);
+    allocateValues();
     System.arraycopy(v, 0, values, 0, values.length);
 
   }
@@ -117,6 +141,7 @@ class TileElementInt extends TileElement {
   @Override
   void setIntValue(int index, int value) {
     if (minValue <= value && value <= maxValue || value == fillValue) {
+      unshareValues();
       values[index] = value;
       parent.writingRequired = true;
     } else {
@@ -130,9 +155,25 @@ class TileElementInt extends TileElement {
     return values[index];
   }
 
+  @Override
+  void setIntValues(int index, int[] source, int sourceIndex, int n) {
+    // validate the span before modifying the tile so that an
+    // out-of-range value does not result in a partial transfer
+    for (int i = 0; i < n; i++) {
+      int value = source[sourceIndex + i];
+      if ((value < minValue || value > maxValue) && value != fillValue) {
+        setIntValue(index + i, value); // throws exception
+      }
+    }
+    unshareValues();
+    System.arraycopy(source, sourceIndex, values, index, n);
+    parent.writingRequired = true;
+  }
+
   @Override
   void setValue(int index, float value) {
     if (minValue <= value && value <= maxValue || value == fillValue) {
+      unshareValues();
       values[index] = (int) value;
       parent.writingRequired = true;
     } else if (Float.isFinite(value)) {
@@ -177,7 +218,8 @@ class TileElementInt extends TileElement {
 
   @Override
   void setToNullState() {
-    Arrays.fill(values, fillValue);
+    values = UniformTile.getSharedArray(fillValue, nCells);
+    valuesShared = true;
   }
 
 
@@ -207,6 +249,12 @@ class TileElementInt extends TileElement {
 
   @Override
   void decode(CodecMaster codec, byte[] encoding) throws IOException {
+    if (UniformTile.isUniform(encoding)) {
+      values = UniformTile.getSharedArray(UniformTile.getValue(encoding), nCells);
+      valuesShared = true;
+      return;
+    }
+    allocateValues();
     if (encoding.length == standardSizeInBytes) {
       ByteBuffer byteBuffer = wrapEncodingInByteBuffer(encoding);
       for (int i = 0; i < values.length; i++) {
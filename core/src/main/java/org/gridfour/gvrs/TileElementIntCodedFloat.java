@@ -54,7 +54,7 @@ class TileElementIntCodedFloat extends TileElement {
   // due to the integer encoding not being a perfect match for itself.
   // Need to make this an integer array and perform the conversion when
   // stuff is stored internally.
-  final int[] values;
+  int[] values;
   final float minValue;
   final float maxValue;
   final float fillValue;
@@ -106,6 +106,28 @@ class TileElementIntCodedFloat extends TileElement {
     }
   }
 
+  /**
+   * Ensures that the values array is not shared before it is modified.
+   * A shared array is replaced with a private copy of its content.
+   */
+  private void unshareValues() {
+    if (valuesShared) {
+      values = values.clone();
+      valuesShared = false;
+    }
+  }
+
+  /**
+   * Ensures that the values array is not shared before its content
+   * is completely replaced.
+   */
+  private void allocateValues() {
+    if (valuesShared) {
+      values = new int[nCells];
+      valuesShared = false;
+    }
+  }
+
   @Override
   void writeStandardFormat(BufferedRandomAccessFile braf) throws IOException {
     for (int i = 0; i < values.length; i++) {
@@ -115,6 +137,7 @@ class TileElementIntCodedFloat extends TileElement {
 
   @Override
   void readStandardFormat(BufferedRandomAccessFile braf) throws IOException {
+    allocateValues();
     braf.leReadIntArray(values, 0, values.length);
   }
 
@@ -129,12 +152,14 @@ class TileElementIntCodedFloat extends TileElement {
     int n = (((((d << 8) | c) << 8) | b) << 8) | a;
     braf.readFully(packing, 0, n);
     int[] v = codec.decode(nRows, nColumns, packing);
+    allocateValues();
     System.arraycopy(v, 0, values, 0, values.length);
   }
 
   @Override
   void setIntValue(int index, int value) {
     if (minValueI <= value && value <= maxValueI || value == fillValueI) {
+      unshareValues();
       values[index] = value;
       parent.writingRequired = true;
     } else {
@@ -153,9 +178,11 @@ class TileElementIntCodedFloat extends TileElement {
     // using the fillValueRef (an instance of Float) handles the
     // case where both the input and fill values are Float.NaN
     if (fillValueRef.equals(value)) {
+      unshareValues();
       values[index] = fillValueI;
       parent.writingRequired = true;
     } else if (minValue <= value && value <= maxValue) {
+      unshareValues();
       values[index] = (int) Math.floor((value - offset) * scale + 0.5);
       parent.writingRequired = true;
     } else if (Float.isNaN(value)) {
@@ -198,7 +225,8 @@ class TileElementIntCodedFloat extends TileElement {
 
   @Override
   void setToNullState() {
-    Arrays.fill(values, fillValueI);
+    values = UniformTile.getSharedArray(fillValueI, nCells);
+    valuesShared = true;
   }
 
   @Override
@@ -226,6 +254,12 @@ class TileElementIntCodedFloat extends TileElement {
 
   @Override
   void decode(CodecMaster codec, byte[] encoding) throws IOException {
+    if (UniformTile.isUniform(encoding)) {
+      values = UniformTile.getSharedArray(UniformTile.getValue(encoding), nCells);
+      valuesShared = true;
+      return;
+    }
+    allocateValues();
     if (encoding.length == standardSizeInBytes) {
       ByteBuffer byteBuffer = wrapEncodingInByteBuffer(encoding);
       for (int i = 0; i < values.length; i++) {
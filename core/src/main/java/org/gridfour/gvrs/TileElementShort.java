@@ -49,7 +49,7 @@ import org.gridfour.util.GridfourConstants;
  */
 class TileElementShort extends TileElement {
 
-  final short[] values;
+  short[] values;
   final short minValue;
   final short maxValue;
   final short fillValue;
@@ -96,6 +96,28 @@ class TileElementShort extends TileElement {
     return standardSizeInBytes;
   }
 
+  /**
+   * Ensures that the values array is not shared before it is modified.
+   * A shared array is replaced with a private copy of its content.
+   */
+  private void unshareValues() {
+    if (valuesShared) {
+      values = values.clone();
+      valuesShared = false;
+    }
+  }
+
+  /**
+   * Ensures that the values array is not shared before its content
+   * is completely replaced.
+   */
+  private void allocateValues() {
+    if (valuesShared) {
+      values = new short[nCells];
+      valuesShared = false;
+    }
+  }
+
   @Override
   void writeStandardFormat(BufferedRandomAccessFile braf) throws IOException {
     for (int i = 0; i < values.length; i++) {
@@ -111,6 +133,7 @@ class TileElementShort extends TileElement {
 
   @Override
   void readStandardFormat(BufferedRandomAccessFile braf) throws IOException {
+    allocateValues();
     braf.leReadShortArray(values, 0, values.length);
     if ((values.length & 1) != 0) {
       braf.skipBytes(2);  // padding for odd number of values
@@ -128,6 +151,7 @@ class TileElementShort extends TileElement {
     int n = (((((d << 8) | c) << 8) | b) << 8) | a;
     braf.readFully(packing, 0, n);
     int[] v = codec.decode(nRows, nColumns, packing);
+    allocateValues();
     System.arraycopy(v, 0, values, 0, values.length);
 
   }
@@ -135,6 +159,7 @@ class TileElementShort extends TileElement {
   @Override
   void setIntValue(int index, int value) {
     if (minValue <= value && value <= maxValue || value == fillValue) {
+      unshareValues();
       values[index] = (short) value;
       parent.writingRequired = true;
     } else {
@@ -150,6 +175,7 @@ class TileElementShort extends TileElement {
   @Override
   void setValue(int index, float value) {
     if (minValue <= value && value <= maxValue || value == fillValue) {
+      unshareValues();
       values[index] = (short) value;
       parent.writingRequired = true;
     } else if (Float.isFinite(value)) {
@@ -194,7 +220,8 @@ class TileElementShort extends TileElement {
 
   @Override
   void setToNullState() {
-    Arrays.fill(values, fillValue);
+    values = UniformTile.getSharedArray(fillValue, nCells);
+    valuesShared = true;
   }
 
   @Override
@@ -230,6 +257,19 @@ class TileElementShort extends TileElement {
 
   @Override
   void decode(CodecMaster codec, byte[] encoding) throws IOException {
+    if (UniformTile.isUniform(encoding)) {
+      int v = UniformTile.getValue(encoding);
+      short value;
+      if (v == GridfourConstants.INT4_NULL_CODE) {
+        value = GridfourConstants.SHORT_NULL_CODE;
+      } else {
+        value = (short) v;
+      }
+      values = UniformTile.getSharedArray(value, nCells);
+      valuesShared = true;
+      return;
+    }
+    allocateValues();
     if (encoding.length == standardSizeInBytes) {
       ByteBuffer byteBuffer = wrapEncodingInByteBuffer(encoding);
       for (int i = 0; i < values.length; i++) {
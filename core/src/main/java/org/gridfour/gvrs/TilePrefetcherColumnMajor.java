@@ -0,0 +1,79 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Predicts that tiles are accessed in column-major order.  When the
+ * prediction reaches the last row of tiles, it continues at the first
+ * row of the next column.
+ */
+class TilePrefetcherColumnMajor implements ITilePrefetcher {
+
+  private final int nRowsOfTiles;
+  private final int nColsOfTiles;
+
+  TilePrefetcherColumnMajor(int nRowsOfTiles, int nColsOfTiles) {
+    this.nRowsOfTiles = nRowsOfTiles;
+    this.nColsOfTiles = nColsOfTiles;
+  }
+
+  @Override
+  public void recordAccess(int tileIndex) {
+    // no action required
+  }
+
+  @Override
+  public int predict(int targetIndex, int[] predictions) {
+    int tileRow = targetIndex / nColsOfTiles;
+    int tileCol = targetIndex - tileRow * nColsOfTiles;
+    int n = 0;
+    while (n < predictions.length) {
+      tileRow++;
+      if (tileRow == nRowsOfTiles) {
+        tileRow = 0;
+        tileCol++;
+        if (tileCol == nColsOfTiles) {
+          break;
+        }
+      }
+      predictions[n++] = tileRow * nColsOfTiles + tileCol;
+    }
+    return n;
+  }
+}
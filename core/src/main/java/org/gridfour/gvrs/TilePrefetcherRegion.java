@@ -0,0 +1,132 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Uses an explicit hint giving the range of tiles that an operation
+ * is about to access.  The block-read methods of the GvrsElement class
+ * visit the tiles in a rectangular region in row-major order.
+ * While the hint is set and the target tile lies within the region,
+ * predictions are taken from the tiles that follow the target
+ * in the region, wrapping to the first tile of the next row of the region
+ * rather than to the next tile in the full raster.
+ * Otherwise, predictions are obtained from the base prefetcher.
+ */
+class TilePrefetcherRegion implements ITilePrefetcher {
+
+  private final int nColsOfTiles;
+  private final ITilePrefetcher base;
+
+  private boolean regionSet;
+  private int tileRow0;
+  private int tileCol0;
+  private int tileRow1;
+  private int tileCol1;
+
+  /**
+   * Constructs an instance that delegates to the specified base
+   * prefetcher when no region hint is in effect.
+   *
+   * @param nColsOfTiles the number of columns of tiles in the raster
+   * @param base the base prefetcher; a null disables predictions
+   * when no region hint is in effect.
+   */
+  TilePrefetcherRegion(int nColsOfTiles, ITilePrefetcher base) {
+    this.nColsOfTiles = nColsOfTiles;
+    this.base = base;
+  }
+
+  /**
+   * Sets the region of tiles that is about to be accessed.
+   *
+   * @param tileRow0 the first row of tiles in the region
+   * @param tileCol0 the first column of tiles in the region
+   * @param tileRow1 the last row of tiles in the region (inclusive)
+   * @param tileCol1 the last column of tiles in the region (inclusive)
+   */
+  void setRegion(int tileRow0, int tileCol0, int tileRow1, int tileCol1) {
+    this.tileRow0 = tileRow0;
+    this.tileCol0 = tileCol0;
+    this.tileRow1 = tileRow1;
+    this.tileCol1 = tileCol1;
+    regionSet = true;
+  }
+
+  /**
+   * Clears the region hint.
+   */
+  void clearRegion() {
+    regionSet = false;
+  }
+
+  @Override
+  public void recordAccess(int tileIndex) {
+    if (base != null) {
+      base.recordAccess(tileIndex);
+    }
+  }
+
+  @Override
+  public int predict(int targetIndex, int[] predictions) {
+    if (regionSet) {
+      int tileRow = targetIndex / nColsOfTiles;
+      int tileCol = targetIndex - tileRow * nColsOfTiles;
+      if (tileRow0 <= tileRow && tileRow <= tileRow1
+        && tileCol0 <= tileCol && tileCol <= tileCol1) {
+        int n = 0;
+        while (n < predictions.length) {
+          tileCol++;
+          if (tileCol > tileCol1) {
+            tileCol = tileCol0;
+            tileRow++;
+            if (tileRow > tileRow1) {
+              break;
+            }
+          }
+          predictions[n++] = tileRow * nColsOfTiles + tileCol;
+        }
+        return n;
+      }
+    }
+    if (base == null) {
+      return 0;
+    }
+    return base.predict(targetIndex, predictions);
+  }
+}
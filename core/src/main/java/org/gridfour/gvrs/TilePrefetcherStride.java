@@ -0,0 +1,86 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+/**
+ * Detects a constant stride between successive tile requests and predicts
+ * that it will continue.  A stride is accepted when the same non-zero
+ * difference is observed between two consecutive pairs of requests.
+ * Until a stride is accepted, predictions follow row-major order.
+ * <p>
+ * A column-major scan produces a stride equal to the number of columns
+ * of tiles; a scan that skips tiles produces a stride greater than one.
+ * A row-major scan produces a stride of one, which is also the fallback,
+ * so the behavior for row-major access is unchanged.
+ */
+class TilePrefetcherStride implements ITilePrefetcher {
+
+  private int priorIndex = -1;
+  private int priorDelta;
+  private int stride = 1;
+
+  @Override
+  public void recordAccess(int tileIndex) {
+    if (priorIndex >= 0) {
+      int delta = tileIndex - priorIndex;
+      if (delta != 0 && delta == priorDelta) {
+        stride = delta;
+      }
+      priorDelta = delta;
+    }
+    priorIndex = tileIndex;
+  }
+
+  @Override
+  public int predict(int targetIndex, int[] predictions) {
+    for (int i = 0; i < predictions.length; i++) {
+      predictions[i] = targetIndex + (i + 1) * stride;
+    }
+    return predictions.length;
+  }
+
+  /**
+   * Gets the stride currently used for predictions.
+   *
+   * @return a non-zero integer.
+   */
+  int getStride() {
+    return stride;
+  }
+}
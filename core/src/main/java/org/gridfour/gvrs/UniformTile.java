@@ -0,0 +1,247 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.gvrs;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Provides a compact encoding for tile elements in which all cells
+ * have the same value and a pool of shared arrays for representing
+ * such elements in memory.
+ * <p>
+ * The uniform-tile record consists of 5 bytes: the reserved codec index
+ * 255 followed by the integer value (or the bits of the floating-point
+ * value) in little-endian order.  Because a GVRS file may define
+ * at most 255 codecs (indices 0 to 254), the reserved index cannot
+ * conflict with a codec. Uniform records were introduced in version 1.05
+ * of the file format and are not written to files created with
+ * earlier versions.
+ * <p>
+ * Tile elements that are decoded from a uniform record, or set to their
+ * null state, may use an array from the pool as their backing storage.
+ * The pooled arrays are shared across tiles and must never be modified.
+ * A tile element that holds a shared array replaces it with a private copy
+ * before its first modification.
+ */
+final class UniformTile {
+
+  /**
+   * The codec index used to indicate a uniform-tile record.
+   */
+  static final int UNIFORM_TILE_CODE = 255;
+
+  /**
+   * The size of a uniform-tile record in bytes.
+   */
+  static final int RECORD_SIZE = 5;
+
+  private static final int MAX_POOL_SIZE = 32;
+
+  private static final int TYPE_INT = 0;
+  private static final int TYPE_FLOAT = 1;
+  private static final int TYPE_SHORT = 2;
+
+  private static final class Key {
+
+    final int type;
+    final int bits;
+    final int length;
+
+    Key(int type, int bits, int length) {
+      this.type = type;
+      this.bits = bits;
+      this.length = length;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key k = (Key) o;
+      return type == k.type && bits == k.bits && length == k.length;
+    }
+
+    @Override
+    public int hashCode() {
+      return (type * 31 + bits) * 31 + length;
+    }
+  }
+
+  private static final Map<Key, Object> pool
+    = new LinkedHashMap<Key, Object>(MAX_POOL_SIZE, 0.75f, true) {
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<Key, Object> eldest) {
+      return size() > MAX_POOL_SIZE;
+    }
+  };
+
+  private UniformTile() {
+    // a utility class, no instances
+  }
+
+  private static byte[] packRecord(int bits) {
+    byte[] record = new byte[RECORD_SIZE];
+    record[0] = (byte) UNIFORM_TILE_CODE;
+    record[1] = (byte) bits;
+    record[2] = (byte) (bits >> 8);
+    record[3] = (byte) (bits >> 16);
+    record[4] = (byte) (bits >> 24);
+    return record;
+  }
+
+  /**
+   * Encodes the specified values as a uniform-tile record if they
+   * are all the same.
+   *
+   * @param values a valid, non-empty array
+   * @return if the values are uniform, a valid record; otherwise, a null.
+   */
+  static byte[] encode(int[] values) {
+    int v = values[0];
+    for (int i = 1; i < values.length; i++) {
+      if (values[i] != v) {
+        return null;
+      }
+    }
+    return packRecord(v);
+  }
+
+  /**
+   * Encodes the specified values as a uniform-tile record if they
+   * are all the same. All NaN values are treated as equal.
+   *
+   * @param values a valid, non-empty array
+   * @return if the values are uniform, a valid record; otherwise, a null.
+   */
+  static byte[] encode(float[] values) {
+    int v = Float.floatToIntBits(values[0]);
+    for (int i = 1; i < values.length; i++) {
+      if (Float.floatToIntBits(values[i]) != v) {
+        return null;
+      }
+    }
+    return packRecord(v);
+  }
+
+  /**
+   * Indicates whether the packing is a uniform-tile record.
+   *
+   * @param packing a valid array
+   * @return true if the packing is a uniform-tile record; otherwise, false.
+   */
+  static boolean isUniform(byte[] packing) {
+    return packing.length == RECORD_SIZE
+      && (packing[0] & 0xff) == UNIFORM_TILE_CODE;
+  }
+
+  /**
+   * Gets the value from a uniform-tile record.
+   *
+   * @param packing a valid uniform-tile record
+   * @return the integer value, or the bits of a floating-point value
+   */
+  static int getValue(byte[] packing) {
+    return (packing[1] & 0xff)
+      | ((packing[2] & 0xff) << 8)
+      | ((packing[3] & 0xff) << 16)
+      | ((packing[4] & 0xff) << 24);
+  }
+
+  /**
+   * Gets a shared array of the specified length populated with the
+   * specified value. The array must not be modified.
+   *
+   * @param value the value for all elements of the array
+   * @param length the length of the array
+   * @return a valid array
+   */
+  static synchronized int[] getSharedArray(int value, int length) {
+    Key key = new Key(TYPE_INT, value, length);
+    int[] a = (int[]) pool.get(key);
+    if (a == null) {
+      a = new int[length];
+      Arrays.fill(a, value);
+      pool.put(key, a);
+    }
+    return a;
+  }
+
+  /**
+   * Gets a shared array of the specified length populated with the
+   * specified value. The array must not be modified.
+   *
+   * @param value the value for all elements of the array
+   * @param length the length of the array
+   * @return a valid array
+   */
+  static synchronized float[] getSharedArray(float value, int length) {
+    Key key = new Key(TYPE_FLOAT, Float.floatToIntBits(value), length);
+    float[] a = (float[]) pool.get(key);
+    if (a == null) {
+      a = new float[length];
+      Arrays.fill(a, value);
+      pool.put(key, a);
+    }
+    return a;
+  }
+
+  /**
+   * Gets a shared array of the specified length populated with the
+   * specified value. The array must not be modified.
+   *
+   * @param value the value for all elements of the array
+   * @param length the length of the array
+   * @return a valid array
+   */
+  static synchronized short[] getSharedArray(short value, int length) {
+    Key key = new Key(TYPE_SHORT, value, length);
+    short[] a = (short[]) pool.get(key);
+    if (a == null) {
+      a = new short[length];
+      Arrays.fill(a, value);
+      pool.put(key, a);
+    }
+    return a;
+  }
+}
@@ -42,8 +42,16 @@
  */
 package org.gridfour.io;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
 /**
  * Writes a series of bits to an internal memory buffer.
+ * <p>
+ * The content may be supplied as an array of bytes or as a ByteBuffer.
+ * When a ByteBuffer is used, the bits are read directly from the buffer,
+ * so content in a direct or memory-mapped buffer does not need to be
+ * copied to an array.
  */
 public class BitInputStore {
 
@@ -67,6 +75,12 @@ public class BitInputStore {
     private final int nBits;
     private int nBytesProcessed;
 
+  // used when the content is supplied as a ByteBuffer. The buffer
+  // is a little-endian view of the input and textLimit gives the
+  // index following the last byte of content.
+  private final ByteBuffer buffer;
+  private final int textLimit;
+
   private long scratch;
   private int iBit;
   private int nBitsInScratch;
@@ -81,6 +95,37 @@ public class BitInputStore {
     scratch = 0;
     nBitsInScratch = 0;
     text = input;
+    buffer = null;
+    textLimit = input.length;
+  }
+
+  /**
+   * Construct a reader that will extract bits from the content of the
+   * specified buffer, from its current position to its limit.
+   * The position of the buffer is not modified.
+   * <p>
+   * If the buffer is backed by an accessible array, the bits are read
+   * from the array.  Otherwise, they are read using the ByteBuffer
+   * access methods.
+   *
+   * @param input a valid buffer, heap or direct.
+   */
+  public BitInputStore(ByteBuffer input) {
+    int length = input.remaining();
+    nBits = length * 8;
+    scratch = 0;
+    nBitsInScratch = 0;
+    if (input.hasArray()) {
+      text = input.array();
+      buffer = null;
+      nBytesProcessed = input.arrayOffset() + input.position();
+      textLimit = nBytesProcessed + length;
+    } else {
+      text = null;
+      buffer = input.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+      nBytesProcessed = input.position();
+      textLimit = input.limit();
+    }
   }
 
 
@@ -102,6 +147,8 @@ public class BitInputStore {
     nBitsInScratch = 0;
     text = input;
     nBytesProcessed = offset;
+    buffer = null;
+    textLimit = input.length;
   }
 
   /**
@@ -173,6 +220,47 @@ public class BitInputStore {
   }
 
 
+  /**
+   * Gets the specified number of bits from the content without
+   * advancing the read position. This method is intended to support
+   * table-based decoding in which the number of bits that are actually
+   * consumed is not known until after the bits have been examined.
+   * If fewer than the specified number of bits remain in the content,
+   * the missing high-order bits are undefined.
+   *
+   * @param nBitsInValue number of bits in the range 1 to 32.
+   * @return a valid integer value composed using the specified number of bits
+   * from the content.
+   */
+  public int peekBits(int nBitsInValue) {
+    if (nBitsInScratch >= nBitsInValue) {
+      return (int) (scratch & mask[nBitsInValue]);
+    }
+    long v = scratch;
+    int k = nBitsInScratch;
+    int index = nBytesProcessed;
+    while (k < nBitsInValue && index < textLimit) {
+      v |= (getTextByte(index++) & 0xffL) << k;
+      k += 8;
+    }
+    return (int) (v & mask[nBitsInValue]);
+  }
+
+  /**
+   * Advances the read position by the specified number of bits.
+   *
+   * @param nBitsToSkip number of bits in the range 1 to 32.
+   */
+  public void skipBits(int nBitsToSkip) {
+    if (nBitsInScratch >= nBitsToSkip) {
+      scratch >>>= nBitsToSkip;
+      nBitsInScratch -= nBitsToSkip;
+      iBit += nBitsToSkip;
+    } else {
+      getBits(nBitsToSkip);
+    }
+  }
+
   /**
    * Transfers the content of the scratch buffer to the main text arrays. If
    * necessary, the storage for the text will be expanded. The marker element
@@ -182,8 +270,12 @@ public class BitInputStore {
    * that there is data remaining in the text.
    */
   private void moveTextToScratch() {
+    if (buffer != null) {
+      moveBufferToScratch();
+      return;
+    }
 
-    if (nBytesProcessed + 8 <= text.length) {
+    if (nBytesProcessed + 8 <= textLimit) {
       // there are enough bytes to populate an entire long
       // use a variation on Horners rule to unpack the content
       scratch = ((((((text[nBytesProcessed + 7] << 8
@@ -199,7 +291,7 @@ public class BitInputStore {
     } else {
       int k = 0;
       scratch = 0;
-      for (int i = text.length - 1; i >= nBytesProcessed; i--) {
+      for (int i = textLimit - 1; i >= nBytesProcessed; i--) {
         scratch <<= 8;
         scratch |= text[i] & 0xff;
         k++;
@@ -210,6 +302,34 @@ public class BitInputStore {
   }
 
 
+  /**
+   * Transfers content from the ByteBuffer to the scratch buffer.
+   */
+  private void moveBufferToScratch() {
+    if (nBytesProcessed + 8 <= textLimit) {
+      scratch = buffer.getLong(nBytesProcessed);
+      nBytesProcessed += 8;
+      nBitsInScratch = 64;
+    } else {
+      int k = 0;
+      scratch = 0;
+      for (int i = textLimit - 1; i >= nBytesProcessed; i--) {
+        scratch <<= 8;
+        scratch |= buffer.get(i) & 0xff;
+        k++;
+      }
+      nBytesProcessed += k;
+      nBitsInScratch = k * 8;
+    }
+  }
+
+  private byte getTextByte(int index) {
+    if (buffer != null) {
+      return buffer.get(index);
+    }
+    return text[index];
+  }
+
   /**
    * Gets the current bit position within the input store.
    * This is the position from which the next bit will be read.
@@ -85,10 +85,16 @@
  */
 package org.gridfour.io;
 
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.ArrayList;
 
 /**
  * Writes a series of bits to an internal memory buffer (a "store").
+ * <p>
+ * Alternately, the bits may be written directly to an application-supplied
+ * ByteBuffer (heap or direct).  Doing so avoids the intermediate
+ * storage and the copy operation performed by getEncodedText().
  */
 public class BitOutputStore {
 
@@ -111,13 +117,13 @@ public class BitOutputStore {
 
   private static final int BLOCK_SIZE = 1024;
 
-  private static class ByteBuffer {
+  private static class BlockBuffer {
 
     private int iByte;
     private byte[] block; // the current block
     private final ArrayList<byte[]> blockList;
 
-    ByteBuffer() {
+    BlockBuffer() {
       blockList = new ArrayList<>();
       block = new byte[BLOCK_SIZE];
       blockList.add(block);
@@ -186,13 +192,41 @@ public class BitOutputStore {
   private long scratch;
   int nBits;
 
-  ByteBuffer byteBuffer = new ByteBuffer();
+  BlockBuffer byteBuffer;
+
+  // the application-supplied buffer, a little-endian view of it used
+  // for writing, and the position of the start of the text within it.
+  private final ByteBuffer output;
+  private final ByteBuffer target;
+  private final int targetStart;
+  private boolean flushed;
 
   /**
    * Construct bit-writer instance with empty content
    */
   public BitOutputStore() {
     marker = 1;
+    byteBuffer = new BlockBuffer();
+    output = null;
+    target = null;
+    targetStart = 0;
+  }
+
+  /**
+   * Construct a bit-writer instance that writes its content directly
+   * to the specified buffer, starting at the buffer's current position.
+   * The byte order and position of the buffer are not modified until
+   * the flush() method is called.  The buffer must have sufficient space
+   * remaining to store the encoded text; otherwise, the append methods
+   * throw a BufferOverflowException.
+   *
+   * @param target a valid, writable buffer.
+   */
+  public BitOutputStore(ByteBuffer target) {
+    marker = 1;
+    output = target;
+    this.target = target.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    targetStart = target.position();
   }
 
   /**
@@ -203,6 +237,9 @@ public class BitOutputStore {
    * @param value an integer value.
    */
   public void appendBit(int value) {
+    if (flushed) {
+      throw new IllegalStateException("Attempt to append to a flushed store");
+    }
     if (value != 0) {
       scratch |= marker;
     }
@@ -228,7 +265,10 @@ public class BitOutputStore {
               "Attempt to add number of bits not in range (1, 32): "
               + nBitsInValue);
     }
-    
+    if (flushed) {
+      throw new IllegalStateException("Attempt to append to a flushed store");
+    }
+
         // presumably, the application passed in a value that does not 
     // have non-zero bits in the high-order positions greater than nBitsInValue.
     // but just in case, we mask the value.
@@ -270,6 +310,19 @@ public class BitOutputStore {
    */
   public byte[] getEncodedText() {
     int nBytesToEncode = (nBits+7)/8;
+    if (target != null) {
+      byte[] b = new byte[nBytesToEncode];
+      int nBytesInTarget = (nBits >> 6) * 8;
+      ByteBuffer source = target.duplicate();
+      source.position(targetStart);
+      source.get(b, 0, nBytesInTarget);
+      long s = scratch;
+      for (int i = nBytesInTarget; i < nBytesToEncode; i++) {
+        b[i] = (byte) (s & 0xffL);
+        s >>= 8;
+      }
+      return b;
+    }
     byte [] b = byteBuffer.getBytes(nBytesToEncode);
     
     int nBitsInScratch = nBits & 0x3F;
@@ -305,12 +358,43 @@ public class BitOutputStore {
    * the scratch tracking elements
    */
   private void moveScratchToText() {
+    if (target != null) {
+      target.putLong(scratch);
+      scratch = 0;
+      marker = 1;
+      return;
+    }
     byteBuffer.addLong(scratch);
     scratch = 0;  // not strictly necessary, but may help in debugging
     marker = 1;
   }
   
   
+  /**
+   * Completes the writing of content to the target buffer supplied to
+   * the constructor.  Any partially filled bytes are written to the buffer
+   * and its position is set to the first byte following the encoded text.
+   * Once this method is called, no further bits may be appended.
+   * If the store was not constructed with a target buffer,
+   * this method has no effect.
+   *
+   * @return the number of bytes of encoded text.
+   */
+  public int flush() {
+    int nBytesToEncode = (nBits + 7) / 8;
+    if (target != null && !flushed) {
+      long s = scratch;
+      int nBytesInScratch = nBytesToEncode - (nBits >> 6) * 8;
+      for (int i = 0; i < nBytesInScratch; i++) {
+        target.put((byte) (s & 0xffL));
+        s >>= 8;
+      }
+      output.position(targetStart + nBytesToEncode);
+      flushed = true;
+    }
+    return nBytesToEncode;
+  }
+
   @Override
   public String toString(){
     return "BitOutputStore nBits="+nBits;
@@ -841,6 +841,41 @@ public class BufferedRandomAccessFile
     }
   }
 
+  /**
+   * Reads the specified number of bytes starting at the specified file
+   * position, storing them in the array.  The bytes are transferred directly
+   * from the file to the array, bypassing the internal buffer, so this method
+   * is suitable for large reads. The current file position is not modified.
+   *
+   * @param filePos the file position of the first byte to be read
+   * @param array a valid array
+   * @param arrayOffset the starting index in the array
+   * @param length the number of bytes to read
+   * @throws IOException if an I/O error occurs, including an end-of-file
+   * condition.
+   */
+  public void readFully(long filePos, byte[] array, int arrayOffset, int length)
+          throws IOException {
+    if (raf == null) {
+      throw new IOException("Reading from a file that was closed");
+    }
+    if (length <= 0) {
+      return;
+    }
+    if (writeDataIsInBuffer) {
+      flushWrite();
+    }
+    ByteBuffer bb = ByteBuffer.wrap(array, arrayOffset, length);
+    long pos = filePos;
+    while (bb.hasRemaining()) {
+      int nBytesRead = rafChannel.read(bb, pos);
+      if (nBytesRead < 0) {
+        throw new EOFException();
+      }
+      pos += nBytesRead;
+    }
+  }
+
   /**
    * Reads a single unsigned byte from the file, interpreting it as a signed
    * value in the range 0 through 255, inclusive. This method is suitable for
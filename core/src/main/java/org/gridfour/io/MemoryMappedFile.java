@@ -0,0 +1,214 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.io;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Provides read-only access to a file through memory-mapped segments.
+ * <p>
+ * Because Java limits the size of an individual mapped buffer to
+ * 2 gigabytes, the file is mapped as a series of fixed-size segments.
+ * Read operations that span the boundary between two segments are
+ * handled transparently.
+ * <p>
+ * Unlike the BufferedRandomAccessFile class, this class does not maintain
+ * a file position.  All read operations specify an absolute file position.
+ * Because no state is modified by a read operation, instances of this
+ * class may be shared safely by multiple threads.
+ * <p>
+ * The file must not be modified while it is mapped. The Java API does
+ * not provide a way to explicitly release a mapping; the memory
+ * is released when the mapped buffers are garbage collected. On some
+ * operating systems, a file cannot be deleted while it is mapped.
+ */
+public class MemoryMappedFile implements Closeable, AutoCloseable {
+
+  private static final int SEGMENT_SHIFT = 30;
+  private static final long SEGMENT_SIZE = 1L << SEGMENT_SHIFT;
+  private static final long SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+  private final File file;
+  private final long fileSize;
+  private volatile MappedByteBuffer[] segments;
+
+  /**
+   * Maps the specified file for read-only access.
+   *
+   * @param file a valid reference to an existing file.
+   * @throws IOException in the event of an unrecoverable I/O exception
+   */
+  public MemoryMappedFile(File file) throws IOException {
+    if (file == null) {
+      throw new IllegalArgumentException("Null file reference not supported");
+    }
+    this.file = file;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r");
+      FileChannel channel = raf.getChannel()) {
+      fileSize = channel.size();
+      int nSegments = (int) ((fileSize + SEGMENT_SIZE - 1) >> SEGMENT_SHIFT);
+      MappedByteBuffer[] s = new MappedByteBuffer[nSegments];
+      for (int i = 0; i < nSegments; i++) {
+        long offset = (long) i << SEGMENT_SHIFT;
+        long size = Math.min(SEGMENT_SIZE, fileSize - offset);
+        s[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        s[i].order(ByteOrder.LITTLE_ENDIAN);
+      }
+      segments = s;
+    }
+    // The mapping remains valid after the channel is closed.
+  }
+
+  /**
+   * Gets the file associated with this instance.
+   *
+   * @return a valid instance
+   */
+  public File getFile() {
+    return file;
+  }
+
+  /**
+   * Gets the size of the file, in bytes.
+   *
+   * @return a positive value
+   */
+  public long getFileSize() {
+    return fileSize;
+  }
+
+  /**
+   * Indicates whether the instance is closed.
+   *
+   * @return true if the instance is closed; otherwise, false.
+   */
+  public boolean isClosed() {
+    return segments == null;
+  }
+
+  private MappedByteBuffer[] getSegments() throws IOException {
+    MappedByteBuffer[] s = segments;
+    if (s == null) {
+      throw new IOException("Attempt to access closed file " + file.getPath());
+    }
+    return s;
+  }
+
+  private void checkRange(long position, int length) throws IOException {
+    if (position < 0 || length < 0) {
+      throw new IOException("Invalid file position " + position);
+    }
+    if (position + length > fileSize) {
+      throw new EOFException(
+        "Attempt to read past end of file " + file.getPath());
+    }
+  }
+
+  /**
+   * Reads a four-byte integer given in little-endian byte order
+   * from the specified file position.
+   *
+   * @param position the file position
+   * @return if successful, a valid integer value
+   * @throws IOException if the position is out of range or the file is closed.
+   */
+  public int leReadInt(long position) throws IOException {
+    MappedByteBuffer[] s = getSegments();
+    checkRange(position, 4);
+    int index = (int) (position & SEGMENT_MASK);
+    ByteBuffer segment = s[(int) (position >> SEGMENT_SHIFT)];
+    if (index + 4 <= segment.limit()) {
+      return segment.getInt(index);
+    }
+    byte[] b = new byte[4];
+    readFully(position, b, 0, 4);
+    return (b[0] & 0xff)
+      | ((b[1] & 0xff) << 8)
+      | ((b[2] & 0xff) << 16)
+      | ((b[3] & 0xff) << 24);
+  }
+
+  /**
+   * Reads the specified number of bytes from the file starting at
+   * the specified position.
+   *
+   * @param position the file position
+   * @param array the array to receive the bytes
+   * @param arrayOffset the starting position within the array
+   * @param length the number of bytes to read
+   * @throws IOException if the position is out of range or the file is closed.
+   */
+  public void readFully(long position, byte[] array, int arrayOffset, int length)
+    throws IOException {
+    MappedByteBuffer[] s = getSegments();
+    checkRange(position, length);
+    long pos = position;
+    int offset = arrayOffset;
+    int remaining = length;
+    while (remaining > 0) {
+      int index = (int) (pos & SEGMENT_MASK);
+      // The duplicate provides an independent position so that
+      // the operation does not interfere with other threads.
+      ByteBuffer segment = s[(int) (pos >> SEGMENT_SHIFT)].duplicate();
+      int n = Math.min(remaining, segment.limit() - index);
+      segment.position(index);
+      segment.get(array, offset, n);
+      pos += n;
+      offset += n;
+      remaining -= n;
+    }
+  }
+
+  /**
+   * Releases the references to the mapped segments. The memory associated
+   * with the mapping is released when the segments are garbage collected.
+   */
+  @Override
+  public void close() {
+    segments = null;
+  }
+}
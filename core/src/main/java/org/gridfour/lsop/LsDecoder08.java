@@ -40,6 +40,7 @@ import java.io.IOException;
 import java.io.PrintStream;
 import java.util.zip.DataFormatException;
 import java.util.zip.Inflater;
+import org.gridfour.compress.CodecContext;
 import org.gridfour.compress.CodecM32;
 import org.gridfour.compress.HuffmanDecoder;
 import org.gridfour.compress.ICompressionDecoder;
@@ -89,19 +90,17 @@ public class LsDecoder08 implements ICompressionDecoder {
             decoder.decode(inputStore, nInteriorCodes, interiorCodes);
         } else {
             try {
-                Inflater inflater = new Inflater();
+                Inflater inflater = CodecContext.get().getInflater();
                 inflater.setInput(packing, headerSize, packing.length - headerSize);
                 int test = inflater.inflate(initializerCodes);
                 if (test < nInitializerCodes) {
                     throw new IOException("Format mismatch, unable to read initializer codes");
                 }
                 long nBytesRead = inflater.getBytesRead();
-                inflater.end();
-                inflater = new Inflater();
+                inflater.reset();
                 int offset = headerSize + (int) nBytesRead;
                 inflater.setInput(packing, offset, packing.length - offset);
                 test = inflater.inflate(interiorCodes);
-                inflater.end();
                 if (test < nInteriorCodes) {
                     throw new IOException("Format mismatch, unable to read interior codes");
                 }
@@ -198,20 +197,18 @@ public class LsDecoder08 implements ICompressionDecoder {
         } else {
             // Deflate encoding
             try {
-                Inflater inflater = new Inflater();
+                Inflater inflater = CodecContext.get().getInflater();
                 inflater.setInput(packing, headerSize, packing.length - headerSize);
                 int test = inflater.inflate(initializerCodes);
                 if (test < nInitializerCodes) {
                     throw new IOException("Format mismatch, unable to read initializer codes");
                 }
                 nBytesForInitializers = inflater.getBytesRead();
-                inflater.end();
-                inflater = new Inflater();
+                inflater.reset();
                 int offset = headerSize + (int) nBytesForInitializers;
                 inflater.setInput(packing, offset, packing.length - offset);
                 test = inflater.inflate(interiorCodes);
                 nBytesForInterior = inflater.getBytesRead();
-                inflater.end();
                 if (test < nInteriorCodes) {
                     throw new IOException("Format mismatch, unable to read interior codes");
                 }
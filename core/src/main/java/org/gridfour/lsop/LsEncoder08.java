@@ -39,6 +39,7 @@
 package org.gridfour.lsop;
 
 import java.util.zip.Deflater;
+import org.gridfour.compress.CodecContext;
 import org.gridfour.compress.HuffmanEncoder;
 import org.gridfour.compress.ICompressionEncoder;
 import org.gridfour.io.BitOutputStore;
@@ -84,22 +85,25 @@ public class LsEncoder08 implements ICompressionEncoder {
             false,
             0);
 
-        Deflater deflater = new Deflater(6);
+        CodecContext context = CodecContext.get();
+        Deflater deflater = context.getDeflater(6);
         deflater.setInput(result.initializerCodes, 0, result.nInitializerCodes);
         deflater.finish();
-        byte[] initPack = new byte[result.nInitializerCodes + 128];
-        int initN = deflater.deflate(initPack, 0, initPack.length, Deflater.FULL_FLUSH);
-        if (initN <= 0) {
+        int initLimit = result.nInitializerCodes + 128;
+        byte[] initPack = context.getScratch(0, initLimit);
+        int initN = deflater.deflate(initPack, 0, initLimit, Deflater.FULL_FLUSH);
+        if (initN <= 0 || !deflater.finished()) {
             // deflate failed
             return null;
         }
 
-        deflater = new Deflater(6);
+        deflater = context.getDeflater(6);
         deflater.setInput(result.interiorCodes, 0, result.nInteriorCodes);
         deflater.finish();
-        byte[] insidePack = new byte[result.nInteriorCodes + 128];
-        int insideN = deflater.deflate(insidePack, 0, insidePack.length, Deflater.FULL_FLUSH);
-        if (insideN <= 0) {
+        int insideLimit = result.nInteriorCodes + 128;
+        byte[] insidePack = context.getScratch(1, insideLimit);
+        int insideN = deflater.deflate(insidePack, 0, insideLimit, Deflater.FULL_FLUSH);
+        if (insideN <= 0 || !deflater.finished()) {
             // deflate failed
             return null;
         }
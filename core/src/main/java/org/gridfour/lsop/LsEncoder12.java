@@ -52,6 +52,7 @@
 package org.gridfour.lsop;
 
 import java.util.zip.Deflater;
+import org.gridfour.compress.CodecContext;
 import org.gridfour.compress.ICompressionEncoder;
 import org.gridfour.compress.canonicalHuffman.CanonicalHuffman;
 import org.gridfour.io.BitOutputStore;
@@ -118,6 +119,18 @@ public class LsEncoder12 implements ICompressionEncoder {
     this.valueChecksumEnabled = valueChecksumEnabled;
   }
 
+  /**
+   * Enables or disables the division of the computation of the optimal
+   * predictor coefficients across fork-join tasks. This option is intended
+   * for large tiles and is disabled by default.
+   *
+   * @param enabled true if the computation may be divided across
+   * fork-join tasks; otherwise, false.
+   */
+  public void setParallelComputationEnabled(boolean enabled) {
+    optimalPredictor.setParallelComputationEnabled(enabled);
+  }
+
   @Override
   public byte[] encode(int codecIndex, int nRows, int nCols, int[] values) {
     LsOptimalPredictorResult result = optimalPredictor.encode(nRows, nCols, values);
@@ -177,11 +190,16 @@ public class LsEncoder12 implements ICompressionEncoder {
     // This approach gives us a chance for an early exit if the interior
     // is larger than the Huffman coding.  If it is, there is no point
     // in processing the initialization because Deflate is not going to be used.
-    Deflater deflater = new Deflater(6);
+    CodecContext context = CodecContext.get();
+    Deflater deflater = context.getDeflater(6);
     deflater.setInput(result.interiorCodes, 0, result.nInteriorCodes);
     deflater.finish();
-    byte[] insidePack = new byte[result.nInteriorCodes + 128];
-    int insideN = deflater.deflate(insidePack, 0, insidePack.length, Deflater.FULL_FLUSH);
+    int insideLimit = result.nInteriorCodes + 128;
+    byte[] insidePack = context.getScratch(0, insideLimit);
+    int insideN = deflater.deflate(insidePack, 0, insideLimit, Deflater.FULL_FLUSH);
+    if (!deflater.finished()) {
+      insideN = 0;
+    }
     if (insideN <= 0 || insideN >= canonLength) {
       // either the deflate failed (insideN<=0) or the Deflate results for
       // the inside region of the grid is larger than Huffman.
@@ -189,11 +207,15 @@ public class LsEncoder12 implements ICompressionEncoder {
       return packing;
     }
 
-    deflater = new Deflater(6);
+    deflater = context.getDeflater(6);
     deflater.setInput(result.initializerCodes, 0, result.nInitializerCodes);
     deflater.finish();
-    byte[] initPack = new byte[result.nInitializerCodes + 128];
-    int initN = deflater.deflate(initPack, 0, initPack.length, Deflater.FULL_FLUSH);
+    int initLimit = result.nInitializerCodes + 128;
+    byte[] initPack = context.getScratch(1, initLimit);
+    int initN = deflater.deflate(initPack, 0, initLimit, Deflater.FULL_FLUSH);
+    if (!deflater.finished()) {
+      initN = 0;
+    }
     if (initN <= 0 || initN + insideN >= canonLength) {
       // either the deflate failed (insideN<=0) or the Deflate results for
       // the overall grid is larger than Huffman.
@@ -0,0 +1,285 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.lsop;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Accumulates the sums and sums of products used to populate the
+ * normal equations for the optimal-predictor coefficients.
+ * <p>
+ * Each sample point is associated with a set of neighbors given by
+ * fixed row and column offsets. The classic approach loads the neighbors
+ * for each cell into an array and then updates all pairs of products.
+ * This class processes one row of the raster at a time instead.
+ * The neighbors at a given offset form a contiguous run of values, so the
+ * sum of products for a pair of offsets is the dot product of two
+ * runs.  The products are computed four at a time so that each value
+ * of the first run is loaded once for four products, and each of
+ * the four uses its own accumulator so that the additions are not
+ * serialized.  The resulting loops are simple enough for the JIT compiler
+ * to unroll.
+ * <p>
+ * The rows may be divided into bands that are processed by fork-join
+ * tasks.  The partial sums for the bands are merged in a fixed order,
+ * so the results do not depend on the scheduling of the tasks.
+ * Because the input values are integers, their products
+ * and sums are represented exactly in double precision as long as their
+ * magnitudes remain below 2<sup>53</sup>.  Under that condition, the
+ * results are identical to those of the classic approach.
+ */
+class LsNormalEquations {
+
+  /**
+   * The minimum number of rows in a band processed by a fork-join task.
+   */
+  private static final int MIN_ROWS_PER_TASK = 32;
+
+  /**
+   * The minimum number of sample points for which the computation
+   * is divided across fork-join tasks.
+   */
+  private static final int MIN_CELLS_FOR_PARALLEL = 1 << 16;
+
+  private final int nZ;
+  private final int[] rowOffset;
+  private final int[] colOffset;
+  private final int col0;
+  private final int colMargin;
+
+  /**
+   * Constructs an instance for the specified neighbor offsets.
+   * The first offset pair is normally (0, 0), giving the sample point
+   * itself.  Row offsets must be in the range -2 to 0.
+   *
+   * @param rowOffset the row offsets for the neighbors
+   * @param colOffset the column offsets for the neighbors
+   * @param col0 the first column of sample points
+   * @param colMargin the number of columns at the end of each row that are
+   * excluded from the sample points.
+   */
+  LsNormalEquations(int[] rowOffset, int[] colOffset, int col0, int colMargin) {
+    this.nZ = rowOffset.length;
+    this.rowOffset = rowOffset;
+    this.colOffset = colOffset;
+    this.col0 = col0;
+    this.colMargin = colMargin;
+  }
+
+  /**
+   * Computes the sums and the sums of products for the sample points
+   * in the rows from 2 to nRows-1.
+   *
+   * @param nRows the number of rows in the raster
+   * @param nColumns the number of columns in the raster
+   * @param values the values for the raster in row-major order.
+   * @param parallel indicates whether the rows may be divided across
+   * fork-join tasks.
+   * @return an array with the sums in the first nZ elements, followed by
+   * the sums of products as a row-major nZ-by-nZ matrix of which only
+   * the upper triangle is populated.
+   */
+  double[] accumulate(int nRows, int nColumns, int[] values, boolean parallel) {
+    int nCells = (nRows - 2) * (nColumns - col0 - colMargin);
+    if (parallel && nCells >= MIN_CELLS_FOR_PARALLEL
+      && nRows - 2 >= 2 * MIN_ROWS_PER_TASK) {
+      return ForkJoinPool.commonPool().invoke(
+        new BandTask(nColumns, values, 2, nRows));
+    }
+    return accumulateBand(nColumns, values, 2, nRows);
+  }
+
+  private final class BandTask extends RecursiveTask<double[]> {
+
+    private static final long serialVersionUID = 1L;
+    private final int nColumns;
+    private final int[] values;
+    private final int row0;
+    private final int row1;
+
+    BandTask(int nColumns, int[] values, int row0, int row1) {
+      this.nColumns = nColumns;
+      this.values = values;
+      this.row0 = row0;
+      this.row1 = row1;
+    }
+
+    @Override
+    protected double[] compute() {
+      if (row1 - row0 < 2 * MIN_ROWS_PER_TASK) {
+        return accumulateBand(nColumns, values, row0, row1);
+      }
+      int rowMid = (row0 + row1) >>> 1;
+      BandTask upper = new BandTask(nColumns, values, row0, rowMid);
+      BandTask lower = new BandTask(nColumns, values, rowMid, row1);
+      upper.fork();
+      double[] b = lower.compute();
+      double[] a = upper.join();
+      for (int i = 0; i < a.length; i++) {
+        a[i] += b[i];
+      }
+      return a;
+    }
+  }
+
+  /**
+   * Computes the sums for the rows in the specified range.
+   *
+   * @param nColumns the number of columns in the raster
+   * @param values the values for the raster
+   * @param row0 the first row in the band, at least 2
+   * @param row1 the upper bound of the band (exclusive)
+   * @return an array laid out as described for the accumulate method.
+   */
+  double[] accumulateBand(int nColumns, int[] values, int row0, int row1) {
+    double[] sums = new double[nZ + nZ * nZ];
+    int n = nColumns - col0 - colMargin;
+    if (n <= 0) {
+      return sums;
+    }
+
+    // The three most recent rows are converted to double precision
+    // once and held in a ring buffer.
+    double[][] ring = new double[3][nColumns];
+    loadRow(nColumns, values, row0 - 2, ring[(row0 - 2) % 3]);
+    loadRow(nColumns, values, row0 - 1, ring[(row0 - 1) % 3]);
+    double[][] run = new double[nZ][];
+    int[] start = new int[nZ];
+    for (int k = 0; k < nZ; k++) {
+      start[k] = col0 + colOffset[k];
+    }
+
+    for (int iRow = row0; iRow < row1; iRow++) {
+      loadRow(nColumns, values, iRow, ring[iRow % 3]);
+      for (int k = 0; k < nZ; k++) {
+        run[k] = ring[(iRow + rowOffset[k]) % 3];
+      }
+      for (int i = 0; i < nZ; i++) {
+        double[] a = run[i];
+        int ia = start[i];
+        sums[i] += sum(a, ia, n);
+        int base = nZ + i * nZ;
+        int j = i;
+        for (; j + 3 < nZ; j += 4) {
+          dot4(a, ia, run, start, j, n, sums, base + j);
+        }
+        for (; j < nZ; j++) {
+          sums[base + j] += dot(a, ia, run[j], start[j], n);
+        }
+      }
+    }
+    return sums;
+  }
+
+  private static void loadRow(int nColumns, int[] values, int iRow, double[] row) {
+    int offset = iRow * nColumns;
+    for (int i = 0; i < nColumns; i++) {
+      row[i] = values[offset + i];
+    }
+  }
+
+  private static double sum(double[] a, int ia, int n) {
+    double s0 = 0;
+    double s1 = 0;
+    double s2 = 0;
+    double s3 = 0;
+    int i = 0;
+    for (; i + 3 < n; i += 4) {
+      s0 += a[ia + i];
+      s1 += a[ia + i + 1];
+      s2 += a[ia + i + 2];
+      s3 += a[ia + i + 3];
+    }
+    for (; i < n; i++) {
+      s0 += a[ia + i];
+    }
+    return (s0 + s1) + (s2 + s3);
+  }
+
+  /**
+   * Computes the dot products of one run with four others.  Each value
+   * from the first run is loaded once and used for all four products.
+   */
+  private static void dot4(double[] a, int ia,
+    double[][] run, int[] start, int j, int n, double[] sums, int index) {
+    double[] b0 = run[j];
+    double[] b1 = run[j + 1];
+    double[] b2 = run[j + 2];
+    double[] b3 = run[j + 3];
+    int i0 = start[j] - ia;
+    int i1 = start[j + 1] - ia;
+    int i2 = start[j + 2] - ia;
+    int i3 = start[j + 3] - ia;
+    double s0 = 0;
+    double s1 = 0;
+    double s2 = 0;
+    double s3 = 0;
+    int k1 = ia + n;
+    for (int k = ia; k < k1; k++) {
+      double v = a[k];
+      s0 += v * b0[k + i0];
+      s1 += v * b1[k + i1];
+      s2 += v * b2[k + i2];
+      s3 += v * b3[k + i3];
+    }
+    sums[index] += s0;
+    sums[index + 1] += s1;
+    sums[index + 2] += s2;
+    sums[index + 3] += s3;
+  }
+
+  private static double dot(double[] a, int ia, double[] b, int ib, int n) {
+    double s0 = 0;
+    double s1 = 0;
+    double s2 = 0;
+    double s3 = 0;
+    int i = 0;
+    for (; i + 3 < n; i += 4) {
+      s0 += a[ia + i] * b[ib + i];
+      s1 += a[ia + i + 1] * b[ib + i + 1];
+      s2 += a[ia + i + 2] * b[ib + i + 2];
+      s3 += a[ia + i + 3] * b[ib + i + 3];
+    }
+    for (; i < n; i++) {
+      s0 += a[ia + i] * b[ib + i];
+    }
+    return (s0 + s1) + (s2 + s3);
+  }
+}
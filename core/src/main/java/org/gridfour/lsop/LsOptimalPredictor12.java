@@ -90,12 +90,41 @@ import org.gridfour.util.jama.Matrix;
  */
 public class LsOptimalPredictor12 {
 
+  /**
+   * The accumulator for the normal equations.  The neighbor offsets
+   * follow the indexing of the z[] array given in the Lewis and Smith
+   * paper: z[0] is the sample point and z[1] to z[12] are the
+   * neighbors corresponding to coefficients u1 to u12.
+   */
+  private static final LsNormalEquations NORMAL_EQUATIONS
+    = new LsNormalEquations(
+      new int[]{0, 0, -1, -1, -1, -1, 0, -1, -2, -2, -2, -2, -2},
+      new int[]{0, -1, -1, 0, 1, 2, -2, -2, -2, -1, 0, 1, 2},
+      2, 2);
+
+  private boolean parallelComputationEnabled;
+
   double errorSum;
   double errorSquaredSum;
   double errorAbsSum;
   long errorCount;
   long deltaZeroCount;
 
+  /**
+   * Enables or disables the division of the computation of the
+   * normal equations across fork-join tasks. When enabled, the rows
+   * of sufficiently large rasters are divided into bands that are
+   * processed using the common fork-join pool. Because GVRS may already
+   * compress multiple tiles concurrently, this option is disabled by
+   * default.  It is most useful for large tiles.
+   *
+   * @param enabled true if the computation may be divided across
+   * fork-join tasks; otherwise, false.
+   */
+  public void setParallelComputationEnabled(boolean enabled) {
+    parallelComputationEnabled = enabled;
+  }
+
   /**
    * Encode the specified raster using the Smith-Lewis Optimal Predictor
    * 12-coefficient variation
@@ -313,33 +342,14 @@ public class LsOptimalPredictor12 {
       return null;
     }
     // now process the samples and compute the 12 coefficient optimal predictor
-    double[] z = new double[13];
+    double[] sums = NORMAL_EQUATIONS.accumulate(
+      nRows, nColumns, values, parallelComputationEnabled);
     double[] s = new double[13];
     double c[][] = new double[13][13];
-    for (int iRow = 2; iRow < nRows; iRow++) {
-      for (int iCol = 2; iCol < nColumns - 2; iCol++) {
-        int index = iRow * nColumns + iCol;
-        z[0] = values[index];
-        z[1] = values[index - 1];
-        z[2] = values[index - nColumns - 1];
-        z[3] = values[index - nColumns];
-        z[4] = values[index - nColumns + 1];
-        z[5] = values[index - nColumns + 2];
-        z[6] = values[index - 2];
-        z[7] = values[index - nColumns - 2];
-        z[8] = values[index - 2 * nColumns - 2];
-        z[9] = values[index - 2 * nColumns - 1];
-        z[10] = values[index - 2 * nColumns];
-        z[11] = values[index - 2 * nColumns + 1];
-        z[12] = values[index - 2 * nColumns + 2];
-        for (int i = 0; i < 13; i++) {
-          s[i] += z[i];
-        }
-        for (int i = 0; i < 13; i++) {
-          for (int j = i; j < 13; j++) {
-            c[i][j] += z[i] * z[j];
-          }
-        }
+    System.arraycopy(sums, 0, s, 0, 13);
+    for (int i = 0; i < 13; i++) {
+      for (int j = i; j < 13; j++) {
+        c[i][j] = sums[13 + i * 13 + j];
       }
     }
     // transcribe symmetric part of the summation matrix
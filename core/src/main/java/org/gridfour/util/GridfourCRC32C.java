@@ -61,6 +61,10 @@
  */
 package org.gridfour.util;
 
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.zip.Checksum;
+
 /**
  * Provides an implementation of the CRC32C checksum based on the
  * Castagnoli polynomial.
@@ -71,10 +75,13 @@ package org.gridfour.util;
  * </pre>
  * <p>
  * As of Java 9, the standard Java API provides an implementation of
- * the Java CRC32C. This implementation is included in Gridfour only
- * because Gridfour is intended to support Java 8. If you have the
- * option of operating exclusively in Java 9 or above, you will obtain
- * substantially better performance from the standard API.
+ * the CRC32C that takes advantage of hardware instructions on platforms
+ * that support them.  Because Gridfour is intended to support Java 8,
+ * it cannot refer to that class directly. Instead, this class attempts
+ * to load it at run time and, if it is available, delegates the
+ * computation to it. When running under Java 8, this class uses
+ * a table-driven "slicing-by-8" algorithm that processes eight bytes
+ * per step.  Both approaches produce identical values.
  */
 public class GridfourCRC32C {
 
@@ -148,8 +155,88 @@ public class GridfourCRC32C {
   static final long LMASK = 0xffffffffL;
   static final int BMASK = 0xff;
 
+  /**
+   * Tables for the slicing-by-8 algorithm. SLICE[k][n] gives the CRC
+   * contribution of byte n when it is followed by k zero bytes.
+   * SLICE[0] is identical to CRC_TABLE.
+   */
+  private static final int[][] SLICE = new int[8][];
+
+  /**
+   * The constructor for the standard API CRC32C class, or a null
+   * if it is not available in the run-time environment.
+   */
+  private static final Constructor<?> STANDARD_CONSTRUCTOR;
+
+  static {
+    SLICE[0] = CRC_TABLE;
+    for (int k = 1; k < 8; k++) {
+      int[] prior = SLICE[k - 1];
+      int[] table = new int[256];
+      for (int n = 0; n < 256; n++) {
+        int c = prior[n];
+        table[n] = (c >>> 8) ^ CRC_TABLE[c & BMASK];
+      }
+      SLICE[k] = table;
+    }
+
+    Constructor<?> constructor = null;
+    try {
+      Class<?> c = Class.forName("java.util.zip.CRC32C");
+      if (Checksum.class.isAssignableFrom(c)) {
+        constructor = c.getConstructor();
+      }
+    } catch (ClassNotFoundException | NoSuchMethodException | SecurityException ex) {
+      // Running under Java 8, use the slicing-by-8 implementation
+    }
+    STANDARD_CONSTRUCTOR = constructor;
+  }
+
   long crc;
 
+  private final Checksum standard;
+
+  /**
+   * Constructs an instance that uses the standard API implementation
+   * of the CRC32C if it is available.
+   */
+  public GridfourCRC32C() {
+    this(true);
+  }
+
+  /**
+   * Constructs an instance with control over whether the standard
+   * API implementation is used. Intended for testing.
+   *
+   * @param useStandardIfAvailable true if the standard API implementation
+   * is to be used when available; false if the slicing-by-8
+   * implementation is always to be used.
+   */
+  GridfourCRC32C(boolean useStandardIfAvailable) {
+    Checksum checksum = null;
+    if (useStandardIfAvailable && STANDARD_CONSTRUCTOR != null) {
+      try {
+        checksum = (Checksum) STANDARD_CONSTRUCTOR.newInstance();
+      } catch (InstantiationException
+        | IllegalAccessException
+        | InvocationTargetException ex) {
+        checksum = null;
+      }
+    }
+    standard = checksum;
+  }
+
+  /**
+   * Indicates whether the standard API implementation of the
+   * CRC32C is available in the run-time environment.
+   *
+   * @return true if the standard API implementation is available;
+   * otherwise, false.
+   */
+  public static boolean isStandardImplementationAvailable() {
+    return STANDARD_CONSTRUCTOR != null;
+  }
+
   /**
    * Updates the CRC-32C checksum with the specified array of bytes
    *
@@ -158,12 +245,49 @@ public class GridfourCRC32C {
    * @param len the number of bytes to be read from the array
    */
   public void update(byte[] b, int off, int len) {
-    crc ^= LMASK;
-    for (int i = 0; i < len; i++) {
-      int index = (int) (crc ^ b[off + i]) & BMASK;
-      crc = (CRC_TABLE[index] ^ (crc >> 8)) & LMASK;
+    if (standard != null) {
+      standard.update(b, off, len);
+      return;
+    }
+
+    final int[] t0 = SLICE[0];
+    final int[] t1 = SLICE[1];
+    final int[] t2 = SLICE[2];
+    final int[] t3 = SLICE[3];
+    final int[] t4 = SLICE[4];
+    final int[] t5 = SLICE[5];
+    final int[] t6 = SLICE[6];
+    final int[] t7 = SLICE[7];
+
+    int c = ~(int) crc;
+    int i = off;
+    int n = off + len;
+    int n8 = off + (len & ~7);
+    while (i < n8) {
+      int lo = c
+        ^ ((b[i] & BMASK)
+        | (b[i + 1] & BMASK) << 8
+        | (b[i + 2] & BMASK) << 16
+        | (b[i + 3] & BMASK) << 24);
+      int hi = (b[i + 4] & BMASK)
+        | (b[i + 5] & BMASK) << 8
+        | (b[i + 6] & BMASK) << 16
+        | (b[i + 7] & BMASK) << 24;
+      c = t7[lo & BMASK]
+        ^ t6[(lo >>> 8) & BMASK]
+        ^ t5[(lo >>> 16) & BMASK]
+        ^ t4[lo >>> 24]
+        ^ t3[hi & BMASK]
+        ^ t2[(hi >>> 8) & BMASK]
+        ^ t1[(hi >>> 16) & BMASK]
+        ^ t0[hi >>> 24];
+      i += 8;
+    }
+    while (i < n) {
+      c = t0[(c ^ b[i]) & BMASK] ^ (c >>> 8);
+      i++;
     }
-    crc ^= LMASK;
+    crc = (~c) & LMASK;
   }
 
   /**
@@ -181,6 +305,9 @@ public class GridfourCRC32C {
    * @return an value int the range of a 32-bit integer.
    */
   public long getValue() {
+    if (standard != null) {
+      return standard.getValue();
+    }
     return crc & LMASK;
   }
 
@@ -188,6 +315,9 @@ public class GridfourCRC32C {
    * Reset the CRC-32C to initial value
    */
   public void reset() {
+    if (standard != null) {
+      standard.reset();
+    }
     crc = 0;
   }
 
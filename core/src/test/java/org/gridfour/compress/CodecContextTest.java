@@ -0,0 +1,121 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.zip.Deflater;
+import org.gridfour.lsop.LsDecoder12;
+import org.gridfour.lsop.LsEncoder12;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the reuse of per-thread codec resources.
+ */
+public class CodecContextTest {
+
+  public CodecContextTest() {
+  }
+
+  @Test
+  void testResourceReuse() {
+    CodecContext context = CodecContext.get();
+    assertSame(context, CodecContext.get(), "Context not reused");
+    Deflater d6 = context.getDeflater(6);
+    assertSame(d6, context.getDeflater(6), "Deflater not reused");
+    assertTrue(d6 != context.getDeflater(9), "Deflater shared across levels");
+    assertSame(context.getInflater(), context.getInflater(), "Inflater not reused");
+    byte[] b = context.getScratch(0, 100);
+    assertSame(b, context.getScratch(0, 50), "Scratch buffer not reused");
+    assertTrue(context.getScratch(0, 200).length >= 200, "Scratch not expanded");
+    assertTrue(b != context.getScratch(1, 50), "Scratch slots shared");
+  }
+
+  /**
+   * Encodes and decodes a series of tiles of varying sizes so that
+   * the scratch buffers are reused with content left from prior tiles.
+   */
+  @Test
+  void testRoundTripWithReuse() {
+    Random random = new Random(0);
+    int[][] dimensions = {{40, 40}, {10, 12}, {60, 30}, {10, 12}};
+    CodecDeflate deflate = new CodecDeflate();
+    CodecHuffman huffman = new CodecHuffman();
+    CodecFloat codecFloat = new CodecFloat();
+    LsEncoder12 lsEncoder = new LsEncoder12();
+    LsDecoder12 lsDecoder = new LsDecoder12();
+    try {
+      for (int[] dim : dimensions) {
+        int nRows = dim[0];
+        int nCols = dim[1];
+        int[] values = new int[nRows * nCols];
+        float[] fValues = new float[nRows * nCols];
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            int index = iRow * nCols + iCol;
+            values[index] = iRow * 7 + iCol * 3 + random.nextInt(5);
+            fValues[index] = values[index] / 3.0f;
+          }
+        }
+        byte[] e = deflate.encode(0, nRows, nCols, values);
+        assertNotNull(e, "Null result from Deflate");
+        assertArrayEquals(values, deflate.decode(nRows, nCols, e),
+          "Deflate mismatch");
+        e = huffman.encode(1, nRows, nCols, values);
+        assertNotNull(e, "Null result from Huffman");
+        assertArrayEquals(values, huffman.decode(nRows, nCols, e),
+          "Huffman mismatch");
+        e = codecFloat.encodeFloats(2, nRows, nCols, fValues);
+        assertArrayEquals(fValues, codecFloat.decodeFloats(nRows, nCols, e),
+          "Float mismatch");
+        e = lsEncoder.encode(3, nRows, nCols, values);
+        assertNotNull(e, "Null result from LSOP");
+        assertArrayEquals(values, lsDecoder.decode(nRows, nCols, e),
+          "LSOP mismatch");
+      }
+    } catch (IOException ex) {
+      fail("IOException in decoding " + ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,182 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.gridfour.gvrs.GvrsElement;
+import org.gridfour.gvrs.GvrsElementSpecificationFloat;
+import org.gridfour.gvrs.GvrsFile;
+import org.gridfour.gvrs.GvrsFileSpecification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the error-bounded lossy codec for floating-point values.
+ */
+public class CodecFloatErrorBoundedTest {
+
+  @TempDir
+  File tempDir;
+
+  public CodecFloatErrorBoundedTest() {
+  }
+
+  /**
+   * Creates a smooth surface with a small amount of noise in the
+   * low-order bits, similar to many real-valued data products.
+   */
+  private static float[] makeSurface(int nRows, int nCols, Random random) {
+    float[] values = new float[nRows * nCols];
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nCols; iCol++) {
+        values[iRow * nCols + iCol] = (float) (1000.0
+          + 50.0 * Math.sin(iRow / 17.0) * Math.cos(iCol / 23.0)
+          + random.nextGaussian() * 0.001);
+      }
+    }
+    return values;
+  }
+
+  @Test
+  void testErrorBound() throws IOException {
+    int nRows = 100;
+    int nCols = 120;
+    float[] values = makeSurface(nRows, nCols, new Random(0));
+    // include values that must be stored exactly
+    values[5] = Float.NaN;
+    values[6] = -9999.0f;
+    values[7] = Float.POSITIVE_INFINITY;
+    values[8] = 3.0e38f;
+
+    CodecFloatErrorBounded codec = new CodecFloatErrorBounded();
+    assertNull(codec.encodeFloats(0, nRows, nCols, values),
+      "Lossless encoding performed by lossy codec");
+    for (float bound : new float[]{0.5f, 0.01f, 1.0e-4f, 1.0e-7f}) {
+      byte[] packing = codec.encodeFloatsWithErrorBound(
+        3, nRows, nCols, values, -9999.0f, bound);
+      assertNotNull(packing, "Encoding failed for bound " + bound);
+      assertEquals(3, packing[0], "Incorrect codec index");
+      float[] result = codec.decodeFloats(nRows, nCols, packing);
+      assertTrue(Float.isNaN(result[5]), "NaN not preserved");
+      assertEquals(-9999.0f, result[6], "Fill value not preserved");
+      assertEquals(Float.POSITIVE_INFINITY, result[7], "Infinity not preserved");
+      assertEquals(3.0e38f, result[8], "Large value not preserved");
+      for (int i = 0; i < values.length; i++) {
+        if (i < 5 || i > 8) {
+          assertTrue(Math.abs((double) result[i] - values[i]) <= bound,
+            "Error bound " + bound + " exceeded at " + i);
+        }
+      }
+    }
+
+    // a coarse bound gives a substantially better compression ratio
+    // than the lossless codec
+    byte[] lossless = new CodecFloat().encodeFloats(0, nRows, nCols, values);
+    byte[] lossy = codec.encodeFloatsWithErrorBound(
+      0, nRows, nCols, values, -9999.0f, 0.01f);
+    assertTrue(lossy.length * 2 < lossless.length,
+      "Insufficient compression: " + lossy.length + " vs " + lossless.length);
+  }
+
+  /**
+   * Writes a file with an error-bounded element, reopens it, and verifies
+   * that the bound is preserved in the specification and the data.
+   */
+  @Test
+  void testFileAccess() {
+    File testFile = new File(tempDir, "CodecFloatErrorBoundedTest.gvrs");
+    int nRows = 60;
+    int nCols = 80;
+    float bound = 0.005f;
+    float[] values = makeSurface(nRows, nCols, new Random(1));
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    GvrsElementSpecificationFloat fSpec = new GvrsElementSpecificationFloat("f");
+    fSpec.setMaximumAbsoluteError(bound);
+    spec.addElementSpecification(fSpec);
+    spec.addElementFloat("exact");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement exact = gvrs.getElement("exact");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          f.writeValue(iRow, iCol, values[iRow * nCols + iCol]);
+          exact.writeValue(iRow, iCol, values[iRow * nCols + iCol]);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElementSpecificationFloat readSpec
+        = (GvrsElementSpecificationFloat) gvrs.getSpecification()
+          .getElementSpecification("f");
+      assertEquals(bound, readSpec.getMaximumAbsoluteError(),
+        "Maximum absolute error not preserved");
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement exact = gvrs.getElement("exact");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          float v = values[iRow * nCols + iCol];
+          assertTrue(Math.abs((double) f.readValue(iRow, iCol) - v) <= bound,
+            "Error bound exceeded at " + iRow + ", " + iCol);
+          assertEquals(v, exact.readValue(iRow, iCol),
+            "Lossless mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    try {
+      fSpec.setMaximumAbsoluteError(-1);
+      fail("Negative error bound did not throw exception");
+    } catch (IllegalArgumentException expected) {
+      // expected
+    }
+  }
+}
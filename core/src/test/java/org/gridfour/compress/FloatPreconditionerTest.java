@@ -0,0 +1,238 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.util.Random;
+import org.gridfour.gvrs.GvrsElement;
+import org.gridfour.gvrs.GvrsElementSpecificationFloat;
+import org.gridfour.gvrs.GvrsFile;
+import org.gridfour.gvrs.GvrsFileSpecification;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the preconditioners for the float codec.
+ */
+public class FloatPreconditionerTest {
+
+  @TempDir
+  File tempDir;
+
+  public FloatPreconditionerTest() {
+  }
+
+  private static float[] makeSurface(int nRows, int nCols, Random random) {
+    float[] values = new float[nRows * nCols];
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nCols; iCol++) {
+        values[iRow * nCols + iCol] = (float) (15.0
+          + 5.0 * Math.sin(iRow / 30.0) * Math.cos(iCol / 25.0)
+          + random.nextGaussian() * 0.0001);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Verifies that each preconditioner reproduces the values exactly,
+   * including special values and a cell count that is not a multiple of 8,
+   * and that the analysis reports statistics for the shuffle preconditioners.
+   */
+  @Test
+  void testRoundTrip() throws IOException {
+    int nRows = 37;
+    int nCols = 41;
+    float[] values = makeSurface(nRows, nCols, new Random(0));
+    values[3] = Float.NaN;
+    values[4] = -0.0f;
+    values[5] = Float.NEGATIVE_INFINITY;
+    values[6] = -1.0e30f;
+    values[7] = Float.MIN_VALUE;
+
+    CodecFloat codec = new CodecFloat();
+    for (FloatPreconditionerType type : FloatPreconditionerType.values()) {
+      byte[] packing = codec.encodeFloats(5, nRows, nCols, values, type);
+      assertEquals(5, packing[0], "Incorrect codec index");
+      assertEquals(type.getCodeValue(), packing[1], "Incorrect preconditioner code");
+      float[] result = codec.decodeFloats(nRows, nCols, packing);
+      for (int i = 0; i < values.length; i++) {
+        assertEquals(Float.floatToRawIntBits(values[i]),
+          Float.floatToRawIntBits(result[i]),
+          type + " mismatch at " + i);
+      }
+      codec.analyze(nRows, nCols, packing);
+    }
+
+    ByteArrayOutputStream bos = new ByteArrayOutputStream();
+    codec.reportAnalysisData(new PrintStream(bos, true, "UTF-8"), 3);
+    String report = bos.toString("UTF-8");
+    assertTrue(report.contains("ByteShuffle"), "Missing statistics for ByteShuffle");
+    assertTrue(report.contains("BitShuffle"), "Missing statistics for BitShuffle");
+  }
+
+  /**
+   * Verifies that the preconditioner setting is stored in the file and
+   * that elements using different preconditioners read correctly.
+   */
+  @Test
+  void testFileAccess() {
+    File testFile = new File(tempDir, "FloatPreconditionerTest.gvrs");
+    int nRows = 50;
+    int nCols = 60;
+    float[] values = makeSurface(nRows, nCols, new Random(1));
+    FloatPreconditionerType[] types = FloatPreconditionerType.values();
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    for (FloatPreconditionerType type : types) {
+      GvrsElementSpecificationFloat fSpec = new GvrsElementSpecificationFloat(type.name());
+      fSpec.setFloatPreconditioner(type);
+      spec.addElementSpecification(fSpec);
+    }
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      for (FloatPreconditionerType type : types) {
+        GvrsElement e = gvrs.getElement(type.name());
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            e.writeValue(iRow, iCol, values[iRow * nCols + iCol]);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      for (FloatPreconditionerType type : types) {
+        GvrsElementSpecificationFloat fSpec
+          = (GvrsElementSpecificationFloat) gvrs.getSpecification()
+            .getElementSpecification(type.name());
+        assertEquals(type, fSpec.getFloatPreconditioner(),
+          "Preconditioner not preserved");
+        GvrsElement e = gvrs.getElement(type.name());
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            assertEquals(values[iRow * nCols + iCol], e.readValue(iRow, iCol),
+              type + " mismatch at " + iRow + ", " + iCol);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that the preconditioner is not applied to a file that
+   * was created using version 1.04 of the file format.
+   */
+  @Test
+  void testVersion104File() {
+    File testFile = new File(tempDir, "FloatPreconditionerTest104.gvrs");
+    int nRows = 40;
+    int nCols = 40;
+    float[] values = makeSurface(nRows, nCols, new Random(1));
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    GvrsElementSpecificationFloat fSpec = new GvrsElementSpecificationFloat("f");
+    fSpec.setFloatPreconditioner(FloatPreconditionerType.ByteShuffle);
+    spec.addElementSpecification(fSpec);
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.getElement("f").writeValue(0, 0, values[0]);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    // change the sub-version to 4, the version bytes are not included
+    // in the header checksum
+    try (RandomAccessFile raf = new RandomAccessFile(testFile, "rw")) {
+      raf.seek(13);
+      raf.write(4);
+    } catch (IOException ex) {
+      fail("IOException in modifying " + testFile + " " + ex.getMessage());
+    }
+
+    long tilePos = 0;
+    try (GvrsFile gvrs = new GvrsFile(testFile, "rw")) {
+      GvrsElementSpecificationFloat eSpec
+        = (GvrsElementSpecificationFloat) gvrs.getSpecification()
+          .getElementSpecification("f");
+      assertEquals(FloatPreconditionerType.Split, eSpec.getFloatPreconditioner(),
+        "Preconditioner applied to version 1.04 file");
+      GvrsElement e = gvrs.getElement("f");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          e.writeValue(iRow, iCol, values[iRow * nCols + iCol]);
+        }
+      }
+      gvrs.flush();
+      tilePos = gvrs.getTilePosition(3);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (RandomAccessFile raf = new RandomAccessFile(testFile, "r")) {
+      // the tile record gives the tile index and the size of the packing
+      // followed by the packing
+      raf.seek(tilePos + 9);
+      assertEquals(0, raf.read(), "Shuffled packing written to version 1.04 file");
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement e = gvrs.getElement("f");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          assertEquals(values[iRow * nCols + iCol], e.readValue(iRow, iCol),
+            "Mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
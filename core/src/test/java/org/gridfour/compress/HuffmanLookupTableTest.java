@@ -0,0 +1,144 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.compress;
+
+import java.util.Random;
+import org.gridfour.compress.canonicalHuffman.CanonicalHuffman;
+import org.gridfour.io.BitInputStore;
+import org.gridfour.io.BitOutputStore;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the table-driven decoding of Huffman codes.
+ */
+public class HuffmanLookupTableTest {
+
+  public HuffmanLookupTableTest() {
+  }
+
+  /**
+   * Creates a sequence of symbols with frequencies taken from the
+   * Fibonacci series.  Such a distribution produces the deepest possible
+   * Huffman tree, so many of the codes are longer than the lookup table.
+   */
+  private static byte[] makeSkewedSymbols(int nUnique) {
+    int[] counts = new int[nUnique];
+    counts[0] = 1;
+    counts[1] = 1;
+    int n = 2;
+    for (int i = 2; i < nUnique; i++) {
+      counts[i] = counts[i - 1] + counts[i - 2];
+      n += counts[i];
+    }
+    byte[] symbols = new byte[n];
+    int k = 0;
+    for (int i = 0; i < nUnique; i++) {
+      for (int j = 0; j < counts[i]; j++) {
+        symbols[k++] = (byte) (i * 7);
+      }
+    }
+    Random random = new Random(0);
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      byte b = symbols[i];
+      symbols[i] = symbols[j];
+      symbols[j] = b;
+    }
+    return symbols;
+  }
+
+  @Test
+  void testPeekAndSkip() {
+    BitOutputStore output = new BitOutputStore();
+    output.appendBits(5, 0x15);
+    output.appendBits(32, 0x12345678);
+    output.appendBits(3, 0x5);
+    byte[] encoding = output.getEncodedText();
+    BitInputStore input = new BitInputStore(encoding);
+    assertEquals(0x15, input.peekBits(5), "Incorrect peek");
+    assertEquals(0x15, input.peekBits(5), "Peek advanced position");
+    input.skipBits(5);
+    assertEquals(5, input.getPosition(), "Incorrect position after skip");
+    assertEquals(0x12345678, input.peekBits(32), "Incorrect peek across bytes");
+    input.skipBits(32);
+    // only 3 bits remain, so the high-order bits of a longer peek
+    // are not defined
+    assertEquals(0x5, input.peekBits(10) & 0x7, "Incorrect peek at end of data");
+    assertEquals(0x5, input.getBits(3), "Incorrect bits after skip");
+  }
+
+  @Test
+  void testHuffmanRoundTrip() {
+    byte[] symbols = makeSkewedSymbols(20);
+    BitOutputStore output = new BitOutputStore();
+    HuffmanEncoder encoder = new HuffmanEncoder();
+    assertTrue(encoder.encode(output, symbols.length, symbols), "Encoding failed");
+    byte[] encoding = output.getEncodedText();
+
+    BitInputStore input = new BitInputStore(encoding);
+    HuffmanDecoder decoder = new HuffmanDecoder();
+    byte[] result = new byte[symbols.length];
+    decoder.decode(input, symbols.length, result);
+    assertArrayEquals(symbols, result, "Huffman round trip failed");
+  }
+
+  @Test
+  void testCanonicalHuffmanRoundTrip() {
+    byte[] b = makeSkewedSymbols(18);
+    int[] text = new int[b.length + 3];
+    for (int i = 0; i < b.length; i++) {
+      text[i] = b[i];
+    }
+    // values that require escape codes
+    text[b.length] = 1000;
+    text[b.length + 1] = -70000;
+    text[b.length + 2] = 5;
+
+    CanonicalHuffman encoder = new CanonicalHuffman();
+    byte[] encoding = encoder.encode(text.length, 0, text);
+
+    CanonicalHuffman decoder = new CanonicalHuffman();
+    int[] result = new int[text.length];
+    decoder.decode(new BitInputStore(encoding), text.length, result);
+    assertArrayEquals(text, result, "Canonical Huffman round trip failed");
+  }
+}
@@ -0,0 +1,209 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.compress.fse;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.gridfour.compress.HuffmanEncoder;
+import org.gridfour.gvrs.GvrsCodecType;
+import org.gridfour.gvrs.GvrsElement;
+import org.gridfour.gvrs.GvrsFile;
+import org.gridfour.gvrs.GvrsFileSpecification;
+import org.gridfour.io.BitOutputStore;
+import static org.gridfour.util.GridfourConstants.INT4_NULL_CODE;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the finite-state entropy encoder, decoder, and codec.
+ */
+public class FseCodecTest {
+
+  @TempDir
+  File tempDir;
+
+  public FseCodecTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Creates symbols with a two-sided geometric distribution centered on
+   * zero, similar to that of the M32 codes for predictor residuals.
+   */
+  private static byte[] makeSymbols(int n, double p, long seed) {
+    Random random = new Random(seed);
+    byte[] symbols = new byte[n];
+    for (int i = 0; i < n; i++) {
+      int k = 0;
+      while (k < 100 && random.nextDouble() > p) {
+        k++;
+      }
+      symbols[i] = (byte) (random.nextBoolean() ? k : -k);
+    }
+    return symbols;
+  }
+
+  private static byte[] roundTrip(byte[] symbols) throws IOException {
+    BitOutputStore output = new BitOutputStore();
+    FseEncoder encoder = new FseEncoder();
+    assertTrue(encoder.encode(output, symbols.length, symbols), "Encoding failed");
+    byte[] encoding = output.getEncodedText();
+
+    // offset the encoding to verify that the decoder honors the offset
+    byte[] text = new byte[encoding.length + 2];
+    System.arraycopy(encoding, 0, text, 2, encoding.length);
+    FseDecoder decoder = new FseDecoder();
+    byte[] result = new byte[symbols.length];
+    assertTrue(decoder.decode(text, 2, encoding.length, symbols.length, result),
+      "Decoding failed");
+    assertEquals(encoder.getBitsInTableCount(), decoder.getBitsInTableCount(),
+      "Table size mismatch");
+    return result;
+  }
+
+  @Test
+  void testRoundTrip() {
+    try {
+      int[] sizes = {1, 2, 7, 100, 1000, 20000};
+      double[] probabilities = {0.9, 0.5, 0.1, 0.01};
+      for (int n : sizes) {
+        for (double p : probabilities) {
+          byte[] symbols = makeSymbols(n, p, n);
+          assertArrayEquals(symbols, roundTrip(symbols),
+            "Round trip failed for n=" + n + ", p=" + p);
+        }
+      }
+
+      // a uniform text and a text using the full range of symbols
+      byte[] uniform = new byte[500];
+      assertArrayEquals(uniform, roundTrip(uniform), "Uniform round trip failed");
+      byte[] full = new byte[5000];
+      for (int i = 0; i < full.length; i++) {
+        full[i] = (byte) (i * 37);
+      }
+      assertArrayEquals(full, roundTrip(full), "Full-range round trip failed");
+    } catch (IOException ex) {
+      fail("IOException in FSE round trip " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that FSE produces a smaller encoding than Huffman for
+   * a highly skewed distribution where Huffman cannot assign
+   * fractional code lengths.
+   */
+  @Test
+  void testCompressionRatio() {
+    byte[] symbols = makeSymbols(20000, 0.85, 0);
+    BitOutputStore fseOutput = new BitOutputStore();
+    new FseEncoder().encode(fseOutput, symbols.length, symbols);
+    BitOutputStore huffOutput = new BitOutputStore();
+    new HuffmanEncoder().encode(huffOutput, symbols.length, symbols);
+    assertTrue(fseOutput.getEncodedTextLength() < huffOutput.getEncodedTextLength(),
+      "FSE encoding not smaller than Huffman");
+  }
+
+  @Test
+  void testCodec() {
+    int nRows = 50;
+    int nCols = 60;
+    int[] values = new int[nRows * nCols];
+    Random random = new Random(0);
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nCols; iCol++) {
+        values[iRow * nCols + iCol] = iRow * 3 - iCol * 2 + random.nextInt(5);
+      }
+    }
+    CodecFse codec = new CodecFse();
+    try {
+      for (int iTest = 0; iTest < 2; iTest++) {
+        if (iTest == 1) {
+          for (int i = 0; i < 200; i++) {
+            values[random.nextInt(values.length)] = INT4_NULL_CODE;
+          }
+        }
+        byte[] packing = codec.encode(3, nRows, nCols, values);
+        assertNotNull(packing, "Null packing from encoder");
+        assertEquals(3, packing[0], "Incorrect codec index");
+        int[] result = codec.decode(nRows, nCols, packing);
+        assertArrayEquals(values, result, "Codec round trip failed");
+        codec.analyze(nRows, nCols, packing);
+      }
+    } catch (IOException ex) {
+      fail("IOException in codec " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Writes and reads a GVRS file using FSE as its only codec.
+   */
+  @Test
+  void testFileAccess() {
+    File testFile = new File(tempDir, "FseCodecTest.gvrs");
+    int nRows = 100;
+    int nCols = 100;
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    spec.removeAllCompressionCodecs();
+    spec.addCompressionCodec(GvrsCodecType.GvrsFse.name(), CodecFse.class);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          z.writeValueInt(iRow, iCol, (iRow * iCol) / 7);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          assertEquals((iRow * iCol) / 7, z.readValueInt(iRow, iCol),
+            "Mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
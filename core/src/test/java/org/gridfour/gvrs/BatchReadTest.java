@@ -0,0 +1,134 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Random;
+import org.gridfour.coordinates.GridPoint;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the batch point-query methods.
+ */
+public class BatchReadTest {
+
+  private static final int N_ROWS = 91;
+  private static final int N_COLS = 181;
+
+  @TempDir
+  File tempDir;
+
+  public BatchReadTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Verifies that batch queries return the same values as individual
+   * queries, including points in unpopulated tiles.
+   */
+  @Test
+  void testBatchRead() {
+    File testFile = new File(tempDir, "BatchReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.setGeographicCoordinates(-45, 0, 45, 180);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      // leave the last rows of tiles unpopulated
+      for (int iRow = 0; iRow < 70; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol);
+          f.writeValue(iRow, iCol, iRow + iCol / 1000.0f);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    int nPoints = 5000;
+    Random random = new Random(0);
+    double[] rows = new double[nPoints];
+    double[] cols = new double[nPoints];
+    double[] lats = new double[nPoints];
+    double[] lons = new double[nPoints];
+    for (int i = 0; i < nPoints; i++) {
+      rows[i] = random.nextDouble() * (N_ROWS - 1);
+      cols[i] = random.nextDouble() * (N_COLS - 1);
+      lats[i] = random.nextDouble() * 90 - 45;
+      lons[i] = random.nextDouble() * 180;
+    }
+
+    for (int iTest = 0; iTest < 2; iTest++) {
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        gvrs.setTileCacheSize(4);
+        if (iTest == 1) {
+          gvrs.setConcurrentAccessEnabled(true);
+        }
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement f = gvrs.getElement("f");
+        int[] zValues = new int[nPoints];
+        float[] fValues = new float[nPoints + 1];
+        float[] gValues = new float[nPoints];
+        z.readValuesInt(rows, cols, zValues);
+        f.readValues(rows, cols, fValues);
+        f.readValuesGeographic(lats, lons, gValues);
+        for (int i = 0; i < nPoints; i++) {
+          int iRow = (int) Math.floor(rows[i] + 0.5);
+          int iCol = (int) Math.floor(cols[i] + 0.5);
+          assertEquals(z.readValueInt(iRow, iCol), zValues[i],
+            "Integer mismatch for point " + i);
+          assertEquals(f.readValue(iRow, iCol), fValues[i],
+            "Float mismatch for point " + i);
+          GridPoint g = gvrs.mapGeographicToGridPoint(lats[i], lons[i]);
+          assertEquals(f.readValue(g), gValues[i],
+            "Geographic mismatch for point " + i);
+        }
+
+        try {
+          f.readValues(new double[]{0, N_ROWS}, new double[]{0, 0}, fValues);
+          fail("Out-of-bounds point did not throw exception");
+        } catch (IOException expected) {
+          // expected
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+}
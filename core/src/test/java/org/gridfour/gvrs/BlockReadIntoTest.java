@@ -0,0 +1,161 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the block-read methods that store results in arrays and buffers
+ * supplied by the calling application.
+ */
+public class BlockReadIntoTest {
+
+  private static final int N_ROWS = 50;
+  private static final int N_COLS = 60;
+
+  @TempDir
+  File tempDir;
+
+  public BlockReadIntoTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  @Test
+  void testReadIntoArraysAndBuffers() {
+    File testFile = new File(tempDir, "BlockReadIntoTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      // leave the last row of tiles unpopulated
+      for (int iRow = 0; iRow < 40; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol);
+          f.writeValue(iRow, iCol, iRow + iCol / 100.0f);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    int row0 = 5;
+    int col0 = 7;
+    int nRows = 40;
+    int nCols = 25;
+    int offset = 3;
+    int stride = nCols + 4;
+    int sentinel = -999;
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      int[] zRef = z.readBlockInt(row0, col0, nRows, nCols);
+      float[] fRef = f.readBlock(row0, col0, nRows, nCols);
+
+      int[] zArray = new int[offset + nRows * stride];
+      Arrays.fill(zArray, sentinel);
+      z.readBlockInt(row0, col0, nRows, nCols, zArray, offset, stride);
+      float[] fArray = new float[offset + nRows * stride];
+      f.readBlock(row0, col0, nRows, nCols, fArray, offset, stride);
+
+      IntBuffer zDirect = ByteBuffer.allocateDirect(
+        4 * (offset + nRows * stride)).asIntBuffer();
+      zDirect.position(offset);
+      z.readBlockInt(row0, col0, nRows, nCols, zDirect, stride);
+      assertEquals(offset, zDirect.position(), "Buffer position modified");
+      FloatBuffer fDirect = ByteBuffer.allocateDirect(
+        4 * (offset + nRows * stride)).asFloatBuffer();
+      fDirect.position(offset);
+      f.readBlock(row0, col0, nRows, nCols, fDirect, stride);
+
+      IntBuffer zHeap = IntBuffer.wrap(new int[offset + 1 + nRows * stride]);
+      zHeap.position(1);
+      IntBuffer zSlice = zHeap.slice();
+      zSlice.position(offset);
+      z.readBlockInt(row0, col0, nRows, nCols, zSlice, stride);
+
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          int index = offset + iRow * stride + iCol;
+          int refIndex = iRow * nCols + iCol;
+          assertEquals(zRef[refIndex], zArray[index], "Array mismatch");
+          assertEquals(fRef[refIndex], fArray[index], "Array mismatch");
+          assertEquals(zRef[refIndex], zDirect.get(index), "Buffer mismatch");
+          assertEquals(fRef[refIndex], fDirect.get(index), "Buffer mismatch");
+          assertEquals(zRef[refIndex], zSlice.get(index), "Slice mismatch");
+        }
+        // the padding at the end of each row is not modified
+        for (int iCol = nCols; iCol < stride; iCol++) {
+          int index = offset + iRow * stride + iCol;
+          if (index < zArray.length) {
+            assertEquals(sentinel, zArray[index], "Padding modified");
+          }
+        }
+      }
+      for (int i = 0; i < offset; i++) {
+        assertEquals(sentinel, zArray[i], "Offset region modified");
+      }
+
+      // a stride equal to the number of columns gives the standard layout
+      int[] zPacked = new int[nRows * nCols];
+      z.readBlockInt(row0, col0, nRows, nCols, zPacked, 0, nCols);
+      assertArrayEquals(zRef, zPacked, "Packed layout mismatch");
+
+      try {
+        z.readBlockInt(row0, col0, nRows, nCols, zPacked, 0, nCols - 1);
+        fail("Invalid stride accepted");
+      } catch (IllegalArgumentException expected) {
+        // expected
+      }
+      try {
+        z.readBlockInt(row0, col0, nRows, nCols, zPacked, 1, nCols);
+        fail("Insufficient array accepted");
+      } catch (IllegalArgumentException expected) {
+        // expected
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
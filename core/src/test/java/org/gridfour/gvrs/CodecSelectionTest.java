@@ -0,0 +1,146 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the adaptive selection of codecs.
+ */
+public class CodecSelectionTest {
+
+  @TempDir
+  File tempDir;
+
+  public CodecSelectionTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  @Test
+  void testSelector() {
+    CodecSelector selector
+      = new CodecSelector(new boolean[]{true, true, false, true});
+    for (int i = 0; i < CodecSelector.N_WARM_UP_TRIALS; i++) {
+      assertTrue(selector.startTile(), "Warm-up trial not requested");
+      selector.recordWinner(i < 3 ? 3 : 1);
+    }
+    assertFalse(selector.startTile(), "Unexpected full trial");
+    assertEquals(2, selector.getCandidateCount(), "Incorrect candidate count");
+    assertEquals(3, selector.getCandidate(0), "Incorrect first candidate");
+    assertEquals(1, selector.getCandidate(1), "Incorrect second candidate");
+
+    // a non-applicable codec is never a candidate
+    selector.recordWinner(2);
+    selector.recordWinner(2);
+    selector.recordWinner(2);
+    selector.recordWinner(2);
+    selector.startTile();
+    for (int i = 0; i < selector.getCandidateCount(); i++) {
+      assertTrue(selector.getCandidate(i) != 2, "Non-applicable candidate");
+    }
+
+    // full trials are requested at regular intervals
+    int nFull = 0;
+    for (int i = 0; i < CodecSelector.FULL_TRIAL_INTERVAL; i++) {
+      if (selector.startTile()) {
+        nFull++;
+      }
+      selector.recordWinner(3);
+    }
+    assertEquals(1, nFull, "Incorrect number of full trials");
+  }
+
+  /**
+   * Writes the same data with and without adaptive selection and
+   * verifies that the content is preserved and that the difference
+   * in size is small.
+   */
+  @Test
+  void testAdaptiveCompression() {
+    int nRows = 200;
+    int nCols = 200;
+    long[] sizes = new long[2];
+    for (int iTest = 0; iTest < 2; iTest++) {
+      File testFile = new File(tempDir, "CodecSelectionTest" + iTest + ".gvrs");
+      GvrsFileSpecification spec
+        = new GvrsFileSpecification(nRows, nCols, 20, 20);
+      spec.setDataCompressionEnabled(true);
+      spec.addElementInt("z");
+      spec.addElementFloat("f");
+      try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+        gvrs.setAdaptiveCodecSelectionEnabled(iTest == 1);
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement f = gvrs.getElement("f");
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            z.writeValueInt(iRow, iCol, valueAt(iRow, iCol));
+            f.writeValue(iRow, iCol, valueAt(iRow, iCol) / 8.0f);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+      sizes[iTest] = testFile.length();
+
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement f = gvrs.getElement("f");
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            assertEquals(valueAt(iRow, iCol), z.readValueInt(iRow, iCol),
+              "Integer mismatch at " + iRow + ", " + iCol);
+            assertEquals(valueAt(iRow, iCol) / 8.0f, f.readValue(iRow, iCol),
+              "Float mismatch at " + iRow + ", " + iCol);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+    assertTrue(sizes[1] < sizes[0] * 1.1,
+      "Adaptive selection size " + sizes[1] + " exceeds " + sizes[0]);
+  }
+
+  private static int valueAt(int row, int col) {
+    double x = col / 17.0;
+    double y = row / 23.0;
+    return (int) (1000 * Math.sin(x) * Math.cos(y)) + ((row * 31 + col * 17) % 7);
+  }
+}
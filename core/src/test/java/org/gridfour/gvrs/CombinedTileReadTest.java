@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the reading of multiple tiles using combined read operations.
+ */
+public class CombinedTileReadTest {
+
+  @TempDir
+  File tempDir;
+
+  public CombinedTileReadTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private static void writeFile(File testFile, boolean compressed, int nRows, int nCols)
+    throws IOException {
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+    spec.setDataCompressionEnabled(compressed);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        // leave the tiles in the second row of tiles unpopulated
+        if (iRow / 10 == 1) {
+          continue;
+        }
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * nCols + iCol);
+          f.writeValue(iRow, iCol, iRow + iCol / 100.0f);
+        }
+      }
+    }
+  }
+
+  /**
+   * Verifies that the packings obtained by a combined read match those
+   * obtained by reading the tiles individually.
+   */
+  @Test
+  void testPackings() {
+    File testFile = new File(tempDir, "CombinedTileReadTest.gvrs");
+    for (int iTest = 0; iTest < 2; iTest++) {
+      try {
+        writeFile(testFile, iTest == 1, 60, 70);
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        RecordManager recordMan = gvrs.getRecordManager();
+        GvrsFileSpecification spec = gvrs.getSpecification();
+        // request the tiles in reverse order
+        int nTiles = 42;
+        int[] indices = new int[nTiles];
+        for (int i = 0; i < nTiles; i++) {
+          indices[i] = nTiles - 1 - i;
+        }
+        byte[][][] packings = recordMan.readTilePackings(indices, nTiles);
+        assertEquals(1, recordMan.nCombinedReads, "Reads were not combined");
+        for (int i = 0; i < nTiles; i++) {
+          int tileIndex = indices[i];
+          RasterTile tile = new RasterTile(tileIndex, tileIndex / 7, tileIndex % 7,
+            10, 10, spec.elementSpecifications, false);
+          byte[][] expected = recordMan.readTilePacking(tile);
+          if (expected.length == 0) {
+            assertNull(packings[i], "Packing for unpopulated tile " + tileIndex);
+          } else {
+            assertEquals(expected.length, packings[i].length, "Element count mismatch");
+            for (int k = 0; k < expected.length; k++) {
+              assertArrayEquals(expected[k], packings[i][k],
+                "Packing mismatch for tile " + tileIndex);
+            }
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+      testFile.delete();
+    }
+  }
+
+  /**
+   * Verifies that block reads return correct values when tiles are
+   * loaded in advance using combined reads.
+   */
+  @Test
+  void testBlockRead() {
+    File testFile = new File(tempDir, "CombinedTileReadBlock.gvrs");
+    int nRows = 80;
+    int nCols = 90;
+    try {
+      writeFile(testFile, true, nRows, nCols);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+    int[] cacheSizes = {4, 16, 100};
+    for (int cacheSize : cacheSizes) {
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        gvrs.setTileCacheSize(cacheSize);
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement f = gvrs.getElement("f");
+        int[] zBlock = z.readBlockInt(3, 5, 75, 80);
+        float[] fBlock = f.readBlock(3, 5, 75, 80);
+        for (int iRow = 0; iRow < 75; iRow++) {
+          int row = iRow + 3;
+          for (int iCol = 0; iCol < 80; iCol++) {
+            int col = iCol + 5;
+            int index = iRow * 80 + iCol;
+            if (row / 10 == 1) {
+              assertEquals(Integer.MIN_VALUE, zBlock[index], "Unpopulated tile mismatch");
+              assertEquals(Float.NaN, fBlock[index], "Unpopulated tile mismatch");
+            } else {
+              assertEquals(row * nCols + col, zBlock[index],
+                "Mismatch at " + row + ", " + col + " cache size " + cacheSize);
+              assertEquals(row + col / 100.0f, fBlock[index],
+                "Mismatch at " + row + ", " + col + " cache size " + cacheSize);
+            }
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+}
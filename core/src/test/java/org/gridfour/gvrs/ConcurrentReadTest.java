@@ -0,0 +1,219 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the concurrent-access mode in which multiple threads share
+ * a single GvrsFile instance and its tile cache.
+ */
+public class ConcurrentReadTest {
+
+  private static final int N_ROWS = 200;
+  private static final int N_COLS = 300;
+
+  @TempDir
+  File tempDir;
+
+  public ConcurrentReadTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Writes a multi-tile file and then reads it from several threads
+   * simultaneously, using a cache that is too small to hold all the tiles
+   * so that tiles are repeatedly discarded and re-read.
+   */
+  @Test
+  void testConcurrentRead() {
+    File testFile = new File(tempDir, "ConcurrentReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      gvrs.setTileCacheSize(8);
+      gvrs.setConcurrentAccessEnabled(true);
+      assertTrue(gvrs.isConcurrentAccessEnabled(), "Concurrent access not enabled");
+      final GvrsElement z = gvrs.getElement("z");
+      final List<String> failures = new ArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      for (int iThread = 0; iThread < 4; iThread++) {
+        final int offset = iThread * 37;
+        Thread thread = new Thread(() -> {
+          try {
+            for (int i = 0; i < N_ROWS * N_COLS; i += 7) {
+              int k = (i + offset * N_COLS) % (N_ROWS * N_COLS);
+              int row = k / N_COLS;
+              int col = k % N_COLS;
+              int value = z.readValueInt(row, col);
+              if (value != k) {
+                synchronized (failures) {
+                  failures.add("Mismatch at " + row + ", " + col);
+                }
+                return;
+              }
+            }
+            int[] block = z.readBlockInt(offset, offset, 50, 50);
+            for (int i = 0; i < 50; i++) {
+              for (int j = 0; j < 50; j++) {
+                if (block[i * 50 + j] != (offset + i) * N_COLS + offset + j) {
+                  synchronized (failures) {
+                    failures.add("Block mismatch at " + i + ", " + j);
+                  }
+                  return;
+                }
+              }
+            }
+          } catch (IOException ioex) {
+            synchronized (failures) {
+              failures.add(ioex.getMessage());
+            }
+          }
+        });
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertTrue(failures.isEmpty(), "Concurrent read failures " + failures);
+    } catch (IOException | InterruptedException ex) {
+      fail("Exception in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Writes a multi-tile file of compressed floating-point data and reads
+   * it from several threads simultaneously. The floating-point codec
+   * keeps state in member elements, so this test verifies that the
+   * threads do not share codec instances when decoding tiles.
+   */
+  @Test
+  void testConcurrentReadFloat() {
+    File testFile = new File(tempDir, "ConcurrentReadFloatTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementFloat("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValue(iRow, iCol, floatValue(iRow, iCol));
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      gvrs.setTileCacheSize(4);
+      gvrs.setConcurrentAccessEnabled(true);
+      final GvrsElement z = gvrs.getElement("z");
+      final List<String> failures = new ArrayList<>();
+      List<Thread> threads = new ArrayList<>();
+      for (int iThread = 0; iThread < 8; iThread++) {
+        final int offset = iThread * 23;
+        Thread thread = new Thread(() -> {
+          try {
+            for (int pass = 0; pass < 3; pass++) {
+              for (int i = 0; i < N_ROWS * N_COLS; i += 11) {
+                int k = (i + offset * N_COLS) % (N_ROWS * N_COLS);
+                int row = k / N_COLS;
+                int col = k % N_COLS;
+                float value = z.readValue(row, col);
+                if (value != floatValue(row, col)) {
+                  synchronized (failures) {
+                    failures.add("Mismatch at " + row + ", " + col);
+                  }
+                  return;
+                }
+              }
+            }
+          } catch (IOException ioex) {
+            synchronized (failures) {
+              failures.add(ioex.getMessage());
+            }
+          }
+        });
+        threads.add(thread);
+        thread.start();
+      }
+      for (Thread thread : threads) {
+        thread.join();
+      }
+      assertTrue(failures.isEmpty(), "Concurrent read failures " + failures);
+    } catch (IOException | InterruptedException ex) {
+      fail("Exception in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  private static float floatValue(int row, int col) {
+    return (float) (100 * Math.sin(row / 7.0) * Math.cos(col / 11.0) + row * 0.01);
+  }
+
+  /**
+   * Verifies that concurrent access cannot be enabled for a file that
+   * is opened for writing.
+   */
+  @Test
+  void testWriteAccessRejected() {
+    File testFile = new File(tempDir, "ConcurrentReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(10, 10);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setConcurrentAccessEnabled(true);
+      fail("Concurrent access enabled for file opened for writing");
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+}
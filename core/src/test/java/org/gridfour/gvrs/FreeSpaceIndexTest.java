@@ -0,0 +1,158 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.gridfour.gvrs.FreeSpaceIndex.FreeNode;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the free-space index used by the record manager.
+ */
+public class FreeSpaceIndexTest {
+
+  @TempDir
+  File tempDir;
+
+  public FreeSpaceIndexTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  @Test
+  void testBestFitAndCoalescing() {
+    FreeSpaceIndex index = new FreeSpaceIndex();
+    index.add(1000, 64);
+    index.add(2000, 256);
+    index.add(3000, 96);
+    index.add(4000, 128);
+
+    // exact fit
+    assertEquals(3000, index.findBestFit(96, 128).filePos, "Exact fit not found");
+    // 100 bytes cannot be stored in the 128 byte block because the
+    // surplus would be too small, so the 256 byte block is selected.
+    assertEquals(2000, index.findBestFit(100, 132).filePos, "Best fit not found");
+    assertEquals(4000, index.findBestFit(80, 112).filePos, "Best fit not found");
+    assertNull(index.findBestFit(240, 272), "Infeasible fit found");
+
+    // merge with both neighbors
+    FreeNode node = index.release(1064, 936);
+    assertEquals(1000, node.filePos, "Incorrect merged position");
+    assertEquals(1256, node.blockSize, "Incorrect merged size");
+    assertEquals(3, index.size(), "Incorrect count after merge");
+    // merge with next only
+    node = index.release(2900, 100);
+    assertEquals(2900, node.filePos, "Incorrect merged position");
+    assertEquals(196, node.blockSize, "Incorrect merged size");
+    // no merge
+    node = index.release(5000, 40);
+    assertEquals(40, node.blockSize, "Unexpected merge");
+    assertEquals(4, index.size(), "Incorrect count");
+    assertEquals(1256 + 196 + 128 + 40, index.getSizeFreeSpace(), "Incorrect free space");
+    assertEquals(1256, index.getSizeLargestBlock(), "Incorrect largest block");
+    assertEquals(5000, index.getLastNode().filePos, "Incorrect last node");
+
+    long prior = -1;
+    for (FreeNode n : index.getNodesInPositionOrder()) {
+      assertTrue(n.filePos > prior, "Nodes out of order");
+      prior = n.filePos;
+    }
+  }
+
+  /**
+   * Repeatedly rewrites tiles with packings of varying size and verifies
+   * that the free-space statistics maintained in memory agree with
+   * those obtained from a scan of the file and that the content
+   * is preserved.
+   */
+  @Test
+  void testRewrites() {
+    File testFile = new File(tempDir, "FreeSpaceIndexTest.gvrs");
+    int nRows = 50;
+    int nCols = 50;
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    Random random = new Random(0);
+    int[] expected = new int[nRows * nCols];
+    Arrays.fill(expected, Integer.MIN_VALUE); // the default fill value
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setTileCacheSize(2);
+      GvrsElement z = gvrs.getElement("z");
+      RecordManager recordMan = gvrs.getRecordManager();
+      for (int iPass = 0; iPass < 6; iPass++) {
+        // the range of values varies, so the packing sizes vary
+        int range = 1 << (2 + random.nextInt(20));
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            if (random.nextInt(3) == 0) {
+              int v = random.nextInt(range);
+              expected[iRow * nCols + iCol] = v;
+              z.writeValueInt(iRow, iCol, v);
+            }
+          }
+        }
+        gvrs.flush();
+        RecordManagerStats scan = recordMan.scanForFileSpaceStats();
+        RecordManagerStats stats = recordMan.getFreeSpaceStats();
+        assertEquals(scan.sizeFreeSpace, stats.sizeFreeSpace, "Free space mismatch");
+        assertEquals(scan.nFreeBlocks, stats.nFreeBlocks, "Free block count mismatch");
+        assertEquals(scan.sizeLargestFreeBlock, stats.sizeLargestFreeBlock,
+          "Largest block mismatch");
+        double f = stats.getFragmentation();
+        assertTrue(0 <= f && f <= 1, "Fragmentation out of range");
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          assertEquals(expected[iRow * nCols + iCol], z.readValueInt(iRow, iCol),
+            "Mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the compaction of GVRS files.
+ */
+public class GvrsCompactTest {
+
+  @TempDir
+  File tempDir;
+
+  public GvrsCompactTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Writes a file with repeated updates, compacts it, and verifies
+   * that the content is preserved, that the free space is removed,
+   * and that the tiles are stored in row-major order.
+   */
+  @Test
+  void testCompact() {
+    File testFile = new File(tempDir, "GvrsCompactTest.gvrs");
+    int nRows = 60;
+    int nCols = 70;
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.setChecksumEnabled(true);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    Random random = new Random(0);
+    int[] expected = new int[nRows * nCols];
+    Arrays.fill(expected, Integer.MIN_VALUE); // the default fill value
+    UUID uuid = null;
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      uuid = gvrs.getUUID();
+      gvrs.setTileCacheSize(2);
+      gvrs.writeMetadata("Description", "Compaction test");
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iPass = 0; iPass < 4; iPass++) {
+        int range = 1 << (2 + random.nextInt(20));
+        // write in column-major order to scatter the tiles
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          for (int iRow = 0; iRow < nRows; iRow++) {
+            if (random.nextInt(2) == 0) {
+              int v = random.nextInt(range);
+              expected[iRow * nCols + iCol] = v;
+              z.writeValueInt(iRow, iCol, v);
+              f.writeValue(iRow, iCol, v / 4.0f);
+            }
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    long length0 = testFile.length();
+    try {
+      GvrsFile.compact(testFile);
+    } catch (IOException ex) {
+      fail("IOException in compacting " + testFile + " " + ex.getMessage());
+    }
+    assertTrue(testFile.length() < length0, "Compaction did not reduce file size");
+    File temp = new File(tempDir, testFile.getName() + ".compact");
+    assertTrue(!temp.exists(), "Temporary file not removed");
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(uuid, gvrs.getUUID(), "UUID not preserved");
+      List<GvrsMetadata> metadataList = gvrs.readMetadata("Description");
+      assertEquals(1, metadataList.size(), "Metadata not preserved");
+      assertEquals("Compaction test", metadataList.get(0).getString(),
+        "Incorrect metadata");
+
+      RecordManagerStats stats = gvrs.getRecordManager().getFreeSpaceStats();
+      assertEquals(0, stats.nFreeBlocks, "Free space remains after compaction");
+
+      long priorPos = 0;
+      for (int tileIndex = 0; tileIndex < 42; tileIndex++) {
+        long pos = gvrs.getTilePosition(tileIndex);
+        if (pos > 0) {
+          assertTrue(pos > priorPos, "Tiles not in row-major order");
+          priorPos = pos;
+        }
+      }
+
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          int v = expected[iRow * nCols + iCol];
+          assertEquals(v, z.readValueInt(iRow, iCol),
+            "Mismatch at " + iRow + ", " + iCol);
+          if (v != Integer.MIN_VALUE) {
+            assertEquals(v / 4.0f, f.readValue(iRow, iCol),
+              "Mismatch at " + iRow + ", " + iCol);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    try {
+      GvrsFile.compact(testFile, testFile);
+      fail("Compaction onto the input file did not throw exception");
+    } catch (IOException expectedException) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests reading tiles through a memory-mapped file.
+ */
+public class MemoryMappedReadTest {
+
+  private static final int N_ROWS = 100;
+  private static final int N_COLS = 120;
+
+  @TempDir
+  File tempDir;
+
+  public MemoryMappedReadTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Writes a file containing both compressed and non-compressed tiles
+   * and verifies that it can be read through a memory mapping, with and
+   * without concurrent access enabled.
+   */
+  @Test
+  void testMappedRead() {
+    File testFile = new File(tempDir, "MemoryMappedReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 20, 20);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol);
+          // pseudo-random values that will not compress well
+          f.writeValue(iRow, iCol, (float) Math.sin(iRow * 7919.0 + iCol * 104729.0));
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    for (int iTest = 0; iTest < 2; iTest++) {
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        gvrs.setTileCacheSize(4);
+        gvrs.setMemoryMappingEnabled(true);
+        assertTrue(gvrs.isMemoryMappingEnabled(), "Memory mapping not enabled");
+        if (iTest == 1) {
+          gvrs.setConcurrentAccessEnabled(true);
+        }
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement f = gvrs.getElement("f");
+        for (int iRow = 0; iRow < N_ROWS; iRow++) {
+          for (int iCol = 0; iCol < N_COLS; iCol++) {
+            assertEquals(iRow * N_COLS + iCol, z.readValueInt(iRow, iCol),
+              "Mismatch in integer value at " + iRow + ", " + iCol);
+            float expected = (float) Math.sin(iRow * 7919.0 + iCol * 104729.0);
+            assertEquals(expected, f.readValue(iRow, iCol),
+              "Mismatch in float value at " + iRow + ", " + iCol);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Verifies that memory mapping cannot be enabled for a file that
+   * is opened for writing.
+   */
+  @Test
+  void testWriteAccessRejected() {
+    File testFile = new File(tempDir, "MemoryMappedReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(10, 10);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setMemoryMappingEnabled(true);
+      fail("Memory mapping enabled for file opened for writing");
+    } catch (IOException ex) {
+      // expected
+    }
+  }
+}
@@ -155,6 +155,61 @@ public class MultiThreadReadTest {
           testFile.delete();
   }
 
+  /**
+   * Verifies that a pool of decompression threads correctly reads
+   * a file containing a mix of compressed and non-compressed tiles
+   * and that all of the threads are terminated when the file is closed.
+   */
+  @Test
+  void testThreadPool() {
+    File testFile = new File(tempDir, "MultiThreadReadTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(90, 150, 30, 30);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < 90; iRow += 30) {
+        for (int iCol = 0; iCol < 150; iCol += 30) {
+          if (((iRow + iCol) / 30) % 2 == 0) {
+            writeCompressibleData(z, iRow, iCol);
+          } else {
+            writeNonCompressibleData(z, iRow, iCol);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      gvrs.setTileCacheSize(8);
+      gvrs.setMultiThreadingEnabled(true, 4);
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < 90; iRow += 30) {
+        for (int iCol = 0; iCol < 150; iCol += 30) {
+          if (((iRow + iCol) / 30) % 2 == 0) {
+            assertEquals(7, z.readValueInt(iRow + 3, iCol + 4),
+              "Compressed tile not read correctly");
+          } else {
+            Random random = new Random(0);
+            assertEquals(random.nextInt(), z.readValueInt(iRow, iCol),
+              "Non compressed tile not read correctly");
+          }
+        }
+      }
+      if (!isReadingAssistantRunning()) {
+        fail("Reading assistant threads are not running while reading data");
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    shortDelay();
+    if (isReadingAssistantRunning()) {
+      fail("Reading assistant threads still exist after file closed");
+    }
+  }
+
   private void writeCompressibleData(GvrsElement z, int row0, int col0) throws IOException {
      for (int i = 0; i < 30; i++) {
         for (int j = 0; j < 30; j++) {
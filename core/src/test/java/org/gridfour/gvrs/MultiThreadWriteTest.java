@@ -0,0 +1,220 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Set;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the multi-threaded compression of tiles when writing a file.
+ */
+public class MultiThreadWriteTest {
+
+  private static final int N_ROWS = 100;
+  private static final int N_COLS = 130;
+
+  @TempDir
+  File tempDir;
+
+  public MultiThreadWriteTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private static int zValue(int iRow, int iCol, int pass) {
+    return iRow * N_COLS + iCol + pass;
+  }
+
+  private static float fValue(int iRow, int iCol) {
+    // pseudo-random values that will not compress well
+    return (float) Math.sin(iRow * 7919.0 + iCol * 104729.0);
+  }
+
+  /**
+   * Writes a file using a small tile cache so that tiles are frequently
+   * submitted to the compression assistant, and revisits tiles so that
+   * tiles are reclaimed from the assistant before they are written.
+   * Verifies that the resulting file contains the expected values.
+   */
+  @Test
+  void testMultiThreadWrite() {
+    File testFile = new File(tempDir, "MultiThreadWriteTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setMultiThreadingEnabled(true);
+      gvrs.setTileCacheSize(2);
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int pass = 0; pass < 2; pass++) {
+        for (int iRow = 0; iRow < N_ROWS; iRow++) {
+          for (int iCol = 0; iCol < N_COLS; iCol++) {
+            z.writeValueInt(iRow, iCol, zValue(iRow, iCol, pass));
+            f.writeValue(iRow, iCol, fValue(iRow, iCol));
+          }
+        }
+      }
+      assertTrue(isWritingAssistantRunning(),
+        "Writing assistant thread is not running while writing data");
+      // read back data while some tiles may still be pending
+      for (int iRow = 0; iRow < N_ROWS; iRow += 7) {
+        for (int iCol = 0; iCol < N_COLS; iCol += 11) {
+          assertEquals(zValue(iRow, iCol, 1), z.readValueInt(iRow, iCol),
+            "Mismatch in pending value at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    shortDelay();
+    if (isWritingAssistantRunning()) {
+      fail("Writing assistant thread still exists after file closed");
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(130, gvrs.getCountOfPopulatedTiles(),
+        "Incorrect number of populated tiles");
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          assertEquals(zValue(iRow, iCol, 1), z.readValueInt(iRow, iCol),
+            "Mismatch in integer value at " + iRow + ", " + iCol);
+          assertEquals(fValue(iRow, iCol), f.readValue(iRow, iCol),
+            "Mismatch in float value at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that the encoding statistics gathered by the worker threads
+   * are included in the file summary.
+   */
+  @Test
+  void testEncodingStatistics() {
+    File testFile = new File(tempDir, "MultiThreadWriteStatsTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setMultiThreadingEnabled(true);
+      gvrs.setTileCacheSize(2);
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, zValue(iRow, iCol, 0));
+        }
+      }
+      gvrs.flush();
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      PrintStream ps = new PrintStream(baos);
+      gvrs.summarize(ps, true);
+      ps.flush();
+      String summary = baos.toString();
+      assertTrue(summary.contains("Time required for compression"),
+        "Summary does not include compression statistics");
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Interrupts the worker threads and verifies that subsequent writes
+   * fail with an IOException rather than waiting indefinitely for
+   * tiles that will never be compressed.
+   */
+  @Test
+  void testWorkerInterrupted() {
+    File testFile = new File(tempDir, "MultiThreadWriteInterruptTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    boolean failureDetected = false;
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.setMultiThreadingEnabled(true);
+      gvrs.setTileCacheSize(2);
+      for (Thread t : Thread.getAllStackTraces().keySet()) {
+        String name = t.getName();
+        if (name != null && name.startsWith("GVRS Writing Assistant")) {
+          t.interrupt();
+        }
+      }
+      for (int i = 0; i < 20 && isWritingAssistantRunning(); i++) {
+        shortDelay();
+      }
+      assertTrue(!isWritingAssistantRunning(),
+        "Writing assistant thread still exists after interrupt");
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, zValue(iRow, iCol, 0));
+        }
+      }
+    } catch (IOException ex) {
+      failureDetected = true;
+    }
+    assertTrue(failureDetected, "Write did not fail after workers were interrupted");
+  }
+
+  private boolean isWritingAssistantRunning() {
+    Set<Thread> threads = Thread.getAllStackTraces().keySet();
+    for (Thread t : threads) {
+      String name = t.getName();
+      if (name != null && name.startsWith("GVRS Writing Assistant")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private void shortDelay() {
+    try {
+      Thread.sleep(200);
+    } catch (InterruptedException inex) {
+      // no action required.
+    }
+  }
+}
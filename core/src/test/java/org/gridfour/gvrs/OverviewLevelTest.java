@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the generation and access of reduced-resolution overview levels.
+ */
+public class OverviewLevelTest {
+
+  private static final int N_ROWS = 90;
+  private static final int N_COLS = 130;
+
+  @TempDir
+  File tempDir;
+
+  public OverviewLevelTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private void writeTestFile(File testFile, GvrsOverviewMethod method, int offset) {
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 16, 16);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    spec.setOverviewLevels(3, method);
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      for (int iRow = 0; iRow < N_ROWS; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol + offset);
+          f.writeValue(iRow, iCol, iRow + iCol / 2.0f);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that averaged overview levels are generated and can be
+   * read back with the expected dimensions and values.
+   */
+  @Test
+  void testAverage() {
+    File testFile = new File(tempDir, "OverviewLevelTest.gvrs");
+    writeTestFile(testFile, GvrsOverviewMethod.Average, 0);
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(4, gvrs.getNumberOfLevels(), "Incorrect number of levels");
+      assertEquals(45, gvrs.getRowsInLevel(1), "Incorrect rows in level 1");
+      assertEquals(65, gvrs.getColumnsInLevel(1), "Incorrect columns in level 1");
+      assertEquals(12, gvrs.getRowsInLevel(3), "Incorrect rows in level 3");
+      assertEquals(17, gvrs.getColumnsInLevel(3), "Incorrect columns in level 3");
+      assertEquals(0, gvrs.selectLevel(1.5), "Incorrect level selection");
+      assertEquals(2, gvrs.selectLevel(5.0), "Incorrect level selection");
+      assertEquals(3, gvrs.selectLevel(100.0), "Incorrect level selection");
+
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      int nR = gvrs.getRowsInLevel(1);
+      int nC = gvrs.getColumnsInLevel(1);
+      int[] zBlock = z.readLevelBlockInt(1, 0, 0, nR, nC);
+      float[] fBlock = f.readLevelBlock(1, 0, 0, nR, nC);
+      for (int iRow = 0; iRow < nR; iRow++) {
+        for (int iCol = 0; iCol < nC; iCol++) {
+          // the mean of a two-by-two block of the source values.
+          double zExpected = (2 * iRow + 0.5) * N_COLS + 2 * iCol + 0.5;
+          assertEquals(Math.round(zExpected), zBlock[iRow * nC + iCol],
+            "Level 1 integer mismatch at " + iRow + ", " + iCol);
+          double fExpected = 2 * iRow + 0.5 + (2 * iCol + 0.5) / 2.0;
+          assertEquals(fExpected, fBlock[iRow * nC + iCol], 1.0e-4,
+            "Level 1 float mismatch at " + iRow + ", " + iCol);
+        }
+      }
+
+      // Level 2 is an average of averages, which is equivalent
+      // to the average of the four-by-four block of source values
+      float[] f2 = f.readLevelBlock(2, 3, 4, 5, 6);
+      for (int iRow = 0; iRow < 5; iRow++) {
+        for (int iCol = 0; iCol < 6; iCol++) {
+          double fExpected = 4 * (iRow + 3) + 1.5 + (4 * (iCol + 4) + 1.5) / 2.0;
+          assertEquals(fExpected, f2[iRow * 6 + iCol], 1.0e-4,
+            "Level 2 float mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that decimated overview levels preserve the source values
+   * and that the overviews are rebuilt when the file is modified.
+   */
+  @Test
+  void testDecimateAndRebuild() {
+    File testFile = new File(tempDir, "OverviewLevelTest.gvrs");
+    writeTestFile(testFile, GvrsOverviewMethod.Decimate, 0);
+
+    // Modify the data and confirm that the overviews are updated
+    try (GvrsFile gvrs = new GvrsFile(testFile, "rw")) {
+      GvrsElement z = gvrs.getElement("z");
+      z.writeValueInt(8, 16, -1);
+    } catch (IOException ex) {
+      fail("IOException in modifying " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(4, gvrs.getNumberOfLevels(), "Incorrect number of levels");
+      GvrsElement z = gvrs.getElement("z");
+      int nR = gvrs.getRowsInLevel(3);
+      int nC = gvrs.getColumnsInLevel(3);
+      int[] zBlock = z.readLevelBlockInt(3, 0, 0, nR, nC);
+      for (int iRow = 0; iRow < nR; iRow++) {
+        for (int iCol = 0; iCol < nC; iCol++) {
+          int expected = iRow * 8 * N_COLS + iCol * 8;
+          if (iRow == 1 && iCol == 2) {
+            expected = -1;
+          }
+          assertEquals(expected, zBlock[iRow * nC + iCol],
+            "Level 3 mismatch at " + iRow + ", " + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that files without overview levels report a single level.
+   */
+  @Test
+  void testNoOverviews() {
+    File testFile = new File(tempDir, "OverviewLevelTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(20, 20);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.getElement("z").writeValueInt(1, 1, 1);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(1, gvrs.getNumberOfLevels(), "Incorrect number of levels");
+      assertEquals(0, gvrs.selectLevel(16.0), "Incorrect level selection");
+      try {
+        gvrs.getElement("z").readLevelBlockInt(1, 0, 0, 1, 1);
+        fail("Read from non-existent level did not throw exception");
+      } catch (IOException expected) {
+        // expected
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,343 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the recovery of files that were not properly closed.
+ */
+public class RecoveryTest {
+
+  private static final int N_ROWS = 50;
+  private static final int N_COLS = 60;
+
+  @TempDir
+  File tempDir;
+
+  public RecoveryTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private static void writeValues(GvrsFile gvrs, int offset) throws IOException {
+    GvrsElement z = gvrs.getElement("z");
+    for (int iRow = 0; iRow < N_ROWS; iRow++) {
+      for (int iCol = 0; iCol < N_COLS; iCol++) {
+        z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol + offset);
+      }
+    }
+  }
+
+  private static void checkValues(GvrsFile gvrs, int offset, String label)
+    throws IOException {
+    GvrsElement z = gvrs.getElement("z");
+    for (int iRow = 0; iRow < N_ROWS; iRow++) {
+      for (int iCol = 0; iCol < N_COLS; iCol++) {
+        assertEquals(iRow * N_COLS + iCol + offset, z.readValueInt(iRow, iCol),
+          label + " mismatch at " + iRow + ", " + iCol);
+      }
+    }
+  }
+
+  /**
+   * Simulates an application that terminates while writing a file
+   * by copying the file before the writer closes it. Verifies that
+   * the copy is restored to the content of the most recent snapshot.
+   */
+  @Test
+  void testRecovery() {
+    for (int iTest = 0; iTest < 2; iTest++) {
+      File testFile = new File(tempDir, "RecoveryTest" + iTest + ".gvrs");
+      File earlyCrash = new File(tempDir, "EarlyCrash" + iTest + ".gvrs");
+      File crash = new File(tempDir, "Crash" + iTest + ".gvrs");
+      GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+      spec.setChecksumEnabled(true);
+      spec.setDataCompressionEnabled(iTest == 1);
+      spec.addElementInt("z");
+      try (GvrsFile writer = new GvrsFile(testFile, spec)) {
+        writer.writeMetadata("Description", "Recovery test");
+        writeValues(writer, 0);
+        writer.flush();
+        Files.copy(testFile.toPath(), earlyCrash.toPath());
+        writer.publishSnapshot();
+        writeValues(writer, 1000);
+        writer.publishSnapshot();
+        writeValues(writer, 2000);
+        writer.flush();
+        Files.copy(testFile.toPath(), crash.toPath());
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+
+      try {
+        assertFalse(GvrsFile.recover(testFile), "Recovered closed file");
+        long crashSize = crash.length();
+        assertTrue(GvrsFile.recover(crash), "Recovery not performed");
+        assertTrue(crash.length() <= crashSize, "File size increased");
+        assertFalse(GvrsFile.recover(crash), "Recovery repeated");
+      } catch (IOException ex) {
+        fail("IOException in recovering " + crash + " " + ex.getMessage());
+      }
+
+      try {
+        GvrsFile.recover(earlyCrash);
+        fail("Recovered file without snapshot");
+      } catch (IOException expected) {
+        // expected
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+        checkValues(gvrs, 1000, "Recovered file");
+        assertEquals("Recovery test",
+          gvrs.readMetadata("Description").get(0).getString(),
+          "Incorrect metadata");
+      } catch (IOException ex) {
+        fail("IOException in reading " + crash + " " + ex.getMessage());
+      }
+
+      // the recovered file can be written and its free space reused
+      try (GvrsFile gvrs = new GvrsFile(crash, "rw")) {
+        writeValues(gvrs, 3000);
+      } catch (IOException ex) {
+        fail("IOException in rewriting " + crash + " " + ex.getMessage());
+      }
+      try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+        checkValues(gvrs, 3000, "Rewritten file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + crash + " " + ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Verifies that the overview levels of a file are rebuilt when
+   * it is recovered and that they are retained when the recovered
+   * file is rewritten. Also verifies that the file space for the
+   * overview tiles that existed before the recovery is released.
+   */
+  @Test
+  void testRecoveryWithOverviews() {
+    File testFile = new File(tempDir, "RecoveryOverviewTest.gvrs");
+    File crash = new File(tempDir, "OverviewCrash.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.setChecksumEnabled(true);
+    spec.addElementInt("z");
+    spec.setOverviewLevels(2, GvrsOverviewMethod.Average);
+    try (GvrsFile writer = new GvrsFile(testFile, spec)) {
+      writeValues(writer, 0);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    int nR = 0;
+    int nC = 0;
+    int[] reference = null;
+    int nOverviewTiles = 0;
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      assertEquals(3, gvrs.getNumberOfLevels(), "Incorrect number of levels");
+      nR = gvrs.getRowsInLevel(1);
+      nC = gvrs.getColumnsInLevel(1);
+      reference = gvrs.getElement("z").readLevelBlockInt(1, 0, 0, nR, nC);
+      nOverviewTiles = countRecords(testFile, RecordType.OverviewTile);
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile writer = new GvrsFile(testFile, "rw")) {
+      writeValues(writer, 1000);
+      writer.publishSnapshot();
+      writeValues(writer, 2000);
+      writer.flush();
+      Files.copy(testFile.toPath(), crash.toPath());
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try {
+      assertTrue(GvrsFile.recover(crash), "Recovery not performed");
+    } catch (IOException ex) {
+      fail("IOException in recovering " + crash + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+      assertEquals(3, gvrs.getNumberOfLevels(), "Incorrect levels after recovery");
+      assertEquals(GvrsOverviewMethod.Average,
+        gvrs.getSpecification().getOverviewMethod(), "Incorrect overview method");
+      checkValues(gvrs, 1000, "Recovered file");
+      int[] block = gvrs.getElement("z").readLevelBlockInt(1, 0, 0, nR, nC);
+      for (int i = 0; i < block.length; i++) {
+        assertEquals(reference[i] + 1000, block[i], "Overview mismatch at " + i);
+      }
+      assertEquals(nOverviewTiles, countRecords(crash, RecordType.OverviewTile),
+        "Overview tiles from before recovery were not released");
+    } catch (IOException ex) {
+      fail("IOException in reading " + crash + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(crash, "rw")) {
+      writeValues(gvrs, 3000);
+    } catch (IOException ex) {
+      fail("IOException in rewriting " + crash + " " + ex.getMessage());
+    }
+    try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+      assertEquals(3, gvrs.getNumberOfLevels(), "Incorrect levels after rewrite");
+      checkValues(gvrs, 3000, "Rewritten file");
+    } catch (IOException ex) {
+      fail("IOException in reading " + crash + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Counts the records of the specified type by scanning the file.
+   */
+  private static int countRecords(File file, RecordType recordType)
+    throws IOException {
+    int count = 0;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      raf.seek(GvrsFile.FILEPOS_OFFSET_TO_HEADER_RECORD);
+      long filePos = GvrsFile.FILEPOS_OFFSET_TO_HEADER_RECORD
+        + Integer.reverseBytes(raf.readInt());
+      long fileSize = raf.length();
+      while (filePos < fileSize - RecordManager.RECORD_HEADER_SIZE) {
+        raf.seek(filePos);
+        int recordSize = Integer.reverseBytes(raf.readInt());
+        if (recordSize <= 0) {
+          break;
+        }
+        if (raf.read() == recordType.getCodeValue()) {
+          count++;
+        }
+        filePos += recordSize;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * Verifies that the free-space accounting of the file is consistent
+   * with its record headers and that each tile record is marked as a tile.
+   */
+  private static void checkRecords(GvrsFile gvrs, String label)
+    throws IOException {
+    RecordManager recordMan = gvrs.getRecordManager();
+    RecordManagerStats scanStats = recordMan.scanForFileSpaceStats();
+    RecordManagerStats indexStats = recordMan.getFreeSpaceStats();
+    assertEquals(indexStats.sizeFreeSpace, scanStats.sizeFreeSpace,
+      label + " free space does not match record headers");
+    assertEquals(indexStats.sizeAllocatedSpace, scanStats.sizeAllocatedSpace,
+      label + " allocated space does not match record headers");
+    int nTiles = gvrs.getSpecification().nRowsOfTiles
+      * gvrs.getSpecification().nColsOfTiles;
+    try (RandomAccessFile raf = new RandomAccessFile(gvrs.getFile(), "r")) {
+      for (int tileIndex = 0; tileIndex < nTiles; tileIndex++) {
+        long tilePos = gvrs.getTilePosition(tileIndex);
+        raf.seek(tilePos - 4);
+        assertEquals(RecordType.Tile.getCodeValue(), raf.read(),
+          label + " incorrect record type for tile " + tileIndex);
+      }
+    }
+  }
+
+  /**
+   * Simulates an application that terminates during the close operation,
+   * after the final directories are written but before the file header
+   * is updated. Verifies that the records referred to by the most
+   * recent snapshot are intact and that the file is recovered to
+   * its content.
+   */
+  @Test
+  void testRecoveryDuringClose() {
+    for (int iTest = 0; iTest < 2; iTest++) {
+      File testFile = new File(tempDir, "RecoveryCloseTest" + iTest + ".gvrs");
+      File crash = new File(tempDir, "CloseCrash" + iTest + ".gvrs");
+      GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+      spec.setChecksumEnabled(true);
+      spec.setDataCompressionEnabled(iTest == 1);
+      spec.addElementInt("z");
+      try (GvrsFile writer = new GvrsFile(testFile, spec)) {
+        writeValues(writer, 0);
+        writer.publishSnapshot();
+        writeValues(writer, 1000);
+        writer.publishSnapshot();
+        // modify only the second row of tiles so that the records
+        // released at close are adjacent to records that remain in use
+        GvrsElement z = writer.getElement("z");
+        for (int iRow = 10; iRow < 20; iRow++) {
+          for (int iCol = 0; iCol < N_COLS; iCol++) {
+            z.writeValueInt(iRow, iCol, -1);
+          }
+        }
+        writer.writeClosingDirectories();
+        Files.copy(testFile.toPath(), crash.toPath());
+        // the remainder of the close operation is not performed
+        writer.deleteOnClose();
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+
+      try {
+        assertTrue(GvrsFile.recover(crash), "Recovery not performed");
+      } catch (IOException ex) {
+        fail("IOException in recovering " + crash + " " + ex.getMessage());
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+        checkValues(gvrs, 1000, "Recovered file");
+        checkRecords(gvrs, "Recovered file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + crash + " " + ex.getMessage());
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(crash, "rw")) {
+        writeValues(gvrs, 3000);
+      } catch (IOException ex) {
+        fail("IOException in rewriting " + crash + " " + ex.getMessage());
+      }
+      try (GvrsFile gvrs = new GvrsFile(crash, "r")) {
+        checkValues(gvrs, 3000, "Rewritten file");
+        checkRecords(gvrs, "Rewritten file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + crash + " " + ex.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests read access to snapshots published by an application
+ * that is writing a file.
+ */
+public class SnapshotAccessTest {
+
+  private static final int N_ROWS = 50;
+  private static final int N_COLS = 60;
+
+  @TempDir
+  File tempDir;
+
+  public SnapshotAccessTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private static void writeValues(GvrsElement z, int offset) throws IOException {
+    for (int iRow = 0; iRow < N_ROWS; iRow++) {
+      for (int iCol = 0; iCol < N_COLS; iCol++) {
+        z.writeValueInt(iRow, iCol, iRow * N_COLS + iCol + offset);
+      }
+    }
+  }
+
+  private static void checkValues(GvrsFile gvrs, int offset, String label)
+    throws IOException {
+    GvrsElement z = gvrs.getElement("z");
+    for (int iRow = 0; iRow < N_ROWS; iRow++) {
+      for (int iCol = 0; iCol < N_COLS; iCol++) {
+        assertEquals(iRow * N_COLS + iCol + offset, z.readValueInt(iRow, iCol),
+          label + " mismatch at " + iRow + ", " + iCol);
+      }
+    }
+  }
+
+  /**
+   * Verifies that readers see the snapshot that was current when
+   * they opened the file and that the file is consistent after
+   * the writer closes it.
+   */
+  @Test
+  void testSnapshotAccess() {
+    for (int iTest = 0; iTest < 2; iTest++) {
+      File testFile = new File(tempDir, "SnapshotAccessTest" + iTest + ".gvrs");
+      GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+      spec.setChecksumEnabled(true);
+      spec.setDataCompressionEnabled(iTest == 1);
+      spec.addElementInt("z");
+      try (GvrsFile writer = new GvrsFile(testFile, spec)) {
+        GvrsElement z = writer.getElement("z");
+        writeValues(z, 0);
+        writer.flush();
+
+        // no snapshot has been published, so readers are refused
+        try {
+          GvrsFile reader = new GvrsFile(testFile, "r");
+          reader.close();
+          fail("Reader opened file without published snapshot");
+        } catch (IOException expected) {
+          // expected
+        }
+
+        assertEquals(1, writer.publishSnapshot(), "Incorrect generation");
+        try (GvrsFile reader1 = new GvrsFile(testFile, "r")) {
+          assertEquals(1, reader1.getSnapshotGeneration(), "Incorrect generation");
+          checkValues(reader1, 0, "First snapshot");
+
+          writeValues(z, 1000);
+          assertEquals(2, writer.publishSnapshot(), "Incorrect generation");
+          writeValues(z, 2000);
+          writer.flush();
+
+          try (GvrsFile reader2 = new GvrsFile(testFile, "r")) {
+            assertEquals(2, reader2.getSnapshotGeneration(), "Incorrect generation");
+            checkValues(reader2, 1000, "Second snapshot");
+          }
+          // the first reader still sees the original content
+          checkValues(reader1, 0, "First snapshot after update");
+        }
+
+        // writers are refused while the file is opened for writing
+        try {
+          GvrsFile other = new GvrsFile(testFile, "rw");
+          other.close();
+          fail("Second writer opened file");
+        } catch (IOException expected) {
+          // expected
+        }
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        assertEquals(0, gvrs.getSnapshotGeneration(), "Snapshot after close");
+        checkValues(gvrs, 2000, "Closed file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+
+      // the space released by the copy-on-write operations can be reused
+      try (GvrsFile gvrs = new GvrsFile(testFile, "rw")) {
+        writeValues(gvrs.getElement("z"), 3000);
+      } catch (IOException ex) {
+        fail("IOException in rewriting " + testFile + " " + ex.getMessage());
+      }
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        checkValues(gvrs, 3000, "Rewritten file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+
+  /**
+   * Verifies that a reader that opened a file before it was opened
+   * for writing continues to see the original content while the
+   * writer modifies the file, even if no snapshot is published.
+   */
+  @Test
+  void testReaderBeforeWriter() {
+    for (int iTest = 0; iTest < 2; iTest++) {
+      File testFile = new File(tempDir, "ReaderBeforeWriter" + iTest + ".gvrs");
+      GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+      spec.setDataCompressionEnabled(iTest == 1);
+      spec.addElementInt("z");
+      try (GvrsFile writer = new GvrsFile(testFile, spec)) {
+        writeValues(writer.getElement("z"), 0);
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+
+      try (GvrsFile reader = new GvrsFile(testFile, "r")) {
+        reader.setTileCacheSize(1);
+        checkValues(reader, 0, "Before writer");
+        try (GvrsFile writer = new GvrsFile(testFile, "rw")) {
+          writeValues(writer.getElement("z"), 1000);
+          writer.flush();
+          checkValues(reader, 0, "While writing");
+        }
+      } catch (IOException ex) {
+        fail("IOException in accessing " + testFile + " " + ex.getMessage());
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        checkValues(gvrs, 1000, "Closed file");
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+}
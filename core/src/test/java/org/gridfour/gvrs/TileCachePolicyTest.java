@@ -0,0 +1,167 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the tile-cache eviction policies.
+ */
+public class TileCachePolicyTest {
+
+  @TempDir
+  File tempDir;
+
+  public TileCachePolicyTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  private static RasterTile[] makeTiles(int n) {
+    RasterTile[] tiles = new RasterTile[n];
+    for (int i = 0; i < n; i++) {
+      tiles[i] = new RasterTile(i, 0, i, 1, 1, new ArrayList<>(), false);
+    }
+    return tiles;
+  }
+
+  @Test
+  void testLRU() {
+    RasterTile[] t = makeTiles(3);
+    TileCachePolicyLRU policy = new TileCachePolicyLRU();
+    for (RasterTile tile : t) {
+      policy.tileAdded(tile);
+    }
+    policy.tileAccessed(t[0]);
+    assertEquals(1, policy.removeVictim().tileIndex, "Incorrect LRU victim");
+    assertEquals(2, policy.removeVictim().tileIndex, "Incorrect LRU victim");
+    assertEquals(0, policy.removeVictim().tileIndex, "Incorrect LRU victim");
+    assertNull(policy.removeVictim(), "Victim from empty policy");
+  }
+
+  @Test
+  void testClock() {
+    RasterTile[] t = makeTiles(3);
+    TileCachePolicyClock policy = new TileCachePolicyClock();
+    for (RasterTile tile : t) {
+      policy.tileAdded(tile);
+    }
+    // All tiles are referenced, so the hand makes a full circuit
+    // clearing the flags and selects the first tile.
+    assertEquals(0, policy.removeVictim().tileIndex, "Incorrect CLOCK victim");
+    // tile 1 receives a second chance
+    policy.tileAccessed(t[1]);
+    assertEquals(2, policy.removeVictim().tileIndex, "Incorrect CLOCK victim");
+    assertEquals(1, policy.removeVictim().tileIndex, "Incorrect CLOCK victim");
+    assertEquals(0, policy.size(), "Incorrect size");
+  }
+
+  /**
+   * Verifies that the 2Q policy promotes tiles that are requested again
+   * after removal and protects them from a subsequent scan.
+   */
+  @Test
+  void testTwoQueue() {
+    TileCachePolicyTwoQueue policy = new TileCachePolicyTwoQueue();
+    RasterTile[] t = makeTiles(8);
+    for (int i = 0; i < 4; i++) {
+      policy.tileAdded(t[i]);
+    }
+    // remove tile 0 from A1in, its index goes to the ghost queue
+    assertEquals(0, policy.removeVictim().tileIndex, "Incorrect 2Q victim");
+    // re-reading tile 0 places it in the main queue
+    RasterTile t0 = makeTiles(1)[0];
+    policy.tileAdded(t0);
+    // a scan over new tiles evicts only from A1in
+    for (int i = 4; i < 8; i++) {
+      RasterTile victim = policy.removeVictim();
+      assertEquals(i - 3, victim.tileIndex, "Incorrect 2Q victim during scan");
+      policy.tileAdded(t[i]);
+    }
+    assertEquals(4, policy.size(), "Incorrect size");
+  }
+
+  /**
+   * Writes and reads a file using each policy with a small byte budget.
+   */
+  @Test
+  void testFileAccess() {
+    File testFile = new File(tempDir, "TileCachePolicyTest.gvrs");
+    int nRows = 60;
+    int nCols = 70;
+    for (GvrsCachePolicy cachePolicy : GvrsCachePolicy.values()) {
+      GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+      spec.addElementInt("z");
+      spec.addElementShort("s");
+      int tileBytes = spec.getStandardTileSizeInBytes();
+      try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+        gvrs.setTileCachePolicy(cachePolicy);
+        gvrs.setTileCacheSizeInBytes(3 * tileBytes + tileBytes / 2);
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement s = gvrs.getElement("s");
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          for (int iRow = 0; iRow < nRows; iRow++) {
+            z.writeValueInt(iRow, iCol, iRow * nCols + iCol);
+            s.writeValueInt(iRow, iCol, iRow - iCol);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in writing " + testFile + " " + ex.getMessage());
+      }
+
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        gvrs.setTileCacheSizeInBytes(2 * tileBytes);
+        gvrs.setTileCachePolicy(cachePolicy);
+        GvrsElement z = gvrs.getElement("z");
+        GvrsElement s = gvrs.getElement("s");
+        for (int iRow = 0; iRow < nRows; iRow++) {
+          for (int iCol = 0; iCol < nCols; iCol++) {
+            assertEquals(iRow * nCols + iCol, z.readValueInt(iRow, iCol),
+              cachePolicy + " mismatch at " + iRow + ", " + iCol);
+            assertEquals(iRow - iCol, s.readValueInt(iRow, iCol),
+              cachePolicy + " mismatch at " + iRow + ", " + iCol);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+      testFile.delete();
+    }
+  }
+}
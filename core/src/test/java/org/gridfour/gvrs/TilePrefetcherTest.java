@@ -0,0 +1,139 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the strategies used to predict tile access.
+ */
+public class TilePrefetcherTest {
+
+  @TempDir
+  File tempDir;
+
+  public TilePrefetcherTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Verifies the predictions of the built-in prefetch implementations.
+   */
+  @Test
+  void testPredictions() {
+    int[] p = new int[3];
+
+    // a raster with 4 rows and 5 columns of tiles
+    TilePrefetcherColumnMajor column = new TilePrefetcherColumnMajor(4, 5);
+    assertEquals(3, column.predict(12, p), "Incorrect prediction count");
+    assertArrayEquals(new int[]{17, 3, 8}, p, "Incorrect column-major prediction");
+    assertEquals(1, column.predict(14, p), "Incorrect count at end of raster");
+    assertEquals(19, p[0], "Incorrect column-major prediction");
+
+    TilePrefetcherStride stride = new TilePrefetcherStride();
+    stride.recordAccess(2);
+    stride.recordAccess(7);
+    stride.predict(7, p);
+    assertArrayEquals(new int[]{8, 9, 10}, p, "Stride accepted prematurely");
+    stride.recordAccess(12);
+    stride.predict(12, p);
+    assertArrayEquals(new int[]{17, 22, 27}, p, "Stride not detected");
+    // a single deviation does not change the stride
+    stride.recordAccess(13);
+    assertEquals(5, stride.getStride(), "Stride changed by single deviation");
+
+    TilePrefetcherRegion region = new TilePrefetcherRegion(5, null);
+    assertEquals(0, region.predict(6, p), "Prediction without hint or base");
+    region.setRegion(1, 1, 2, 2);
+    assertEquals(3, region.predict(6, p), "Incorrect region prediction count");
+    assertArrayEquals(new int[]{7, 11, 12}, p, "Incorrect region prediction");
+    assertEquals(1, region.predict(11, p), "Incorrect count at end of region");
+    assertEquals(12, p[0], "Incorrect region prediction");
+    region.clearRegion();
+    assertEquals(0, region.predict(6, p), "Region hint not cleared");
+  }
+
+  /**
+   * Verifies that a file read in column-major order and through block reads
+   * returns correct values for each of the prefetch strategies.
+   */
+  @Test
+  void testReadWithStrategies() {
+    File testFile = new File(tempDir, "TilePrefetcherTest.gvrs");
+    int nRows = 80;
+    int nCols = 90;
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          z.writeValueInt(iRow, iCol, iRow * nCols + iCol);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    for (GvrsPrefetchStrategy strategy : GvrsPrefetchStrategy.values()) {
+      try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+        gvrs.setTileCacheSize(6);
+        gvrs.setMultiThreadingEnabled(true, 2);
+        gvrs.setPrefetchStrategy(strategy);
+        GvrsElement z = gvrs.getElement("z");
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          for (int iRow = 0; iRow < nRows; iRow++) {
+            assertEquals(iRow * nCols + iCol, z.readValueInt(iRow, iCol),
+              strategy + " mismatch at " + iRow + ", " + iCol);
+          }
+        }
+        int[] block = z.readBlockInt(5, 15, 50, 30);
+        for (int iRow = 0; iRow < 50; iRow++) {
+          for (int iCol = 0; iCol < 30; iCol++) {
+            assertEquals((iRow + 5) * nCols + iCol + 15, block[iRow * 30 + iCol],
+              strategy + " block mismatch at " + iRow + ", " + iCol);
+          }
+        }
+      } catch (IOException ex) {
+        fail("IOException in reading " + testFile + " " + ex.getMessage());
+      }
+    }
+  }
+}
@@ -0,0 +1,300 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the uniform-tile record and the shared storage for uniform tiles.
+ */
+public class UniformTileTest {
+
+  @TempDir
+  File tempDir;
+
+  public UniformTileTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  @Test
+  void testRecord() {
+    int[] a = new int[100];
+    Arrays.fill(a, -12345);
+    byte[] record = UniformTile.encode(a);
+    assertNotNull(record, "Uniform values not encoded");
+    assertTrue(UniformTile.isUniform(record), "Record not recognized");
+    assertEquals(-12345, UniformTile.getValue(record), "Incorrect value");
+    a[99] = 0;
+    assertNull(UniformTile.encode(a), "Non-uniform values encoded");
+
+    float[] f = new float[100];
+    Arrays.fill(f, Float.NaN);
+    record = UniformTile.encode(f);
+    assertNotNull(record, "Uniform NaN values not encoded");
+    assertTrue(Float.isNaN(Float.intBitsToFloat(UniformTile.getValue(record))),
+      "Incorrect NaN value");
+  }
+
+  /**
+   * Verifies that tiles decoded from the same uniform record share
+   * their storage and that modifying one does not affect the other.
+   */
+  @Test
+  void testCopyOnWrite() {
+    GvrsFileSpecification spec = new GvrsFileSpecification(20, 20, 10, 10);
+    spec.addElementInt("z");
+    RasterTile tile0 = new RasterTile(0, 0, 0, 10, 10, spec.elementSpecifications, false);
+    RasterTile tile1 = new RasterTile(1, 0, 1, 10, 10, spec.elementSpecifications, false);
+    TileElementInt e0 = (TileElementInt) tile0.elements[0];
+    TileElementInt e1 = (TileElementInt) tile1.elements[0];
+    int[] a = new int[100];
+    Arrays.fill(a, 7);
+    byte[] record = UniformTile.encode(a);
+    try {
+      e0.decode(null, record);
+      e1.decode(null, record);
+    } catch (IOException ex) {
+      fail("IOException in decoding " + ex.getMessage());
+    }
+    assertSame(e0.values, e1.values, "Uniform tiles do not share storage");
+    e0.setIntValue(5, 3);
+    assertEquals(3, e0.getValueInt(5), "Value not set");
+    assertEquals(7, e1.getValueInt(5), "Shared storage was modified");
+    assertEquals(7, e0.getValueInt(6), "Content not copied");
+  }
+
+  /**
+   * Writes a file that includes constant and unpopulated tiles for
+   * each data type and verifies the content.
+   */
+  @Test
+  void testFileAccess() {
+    File testFile = new File(tempDir, "UniformTileTest.gvrs");
+    int nRows = 40;
+    int nCols = 40;
+    GvrsFileSpecification spec = new GvrsFileSpecification(nRows, nCols, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("i");
+    spec.addElementFloat("f");
+    spec.addElementShort("s");
+    spec.addElementSpecification(
+      new GvrsElementSpecificationIntCodedFloat("c", 100.0f, 0.0f));
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement i = gvrs.getElement("i");
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement s = gvrs.getElement("s");
+      GvrsElement c = gvrs.getElement("c");
+      // the top half is constant, the bottom-left quarter varies,
+      // and the bottom-right quarter is not populated
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          if (iRow < 20) {
+            i.writeValueInt(iRow, iCol, -5);
+            f.writeValue(iRow, iCol, 0.5f);
+            s.writeValueInt(iRow, iCol, 12);
+            c.writeValue(iRow, iCol, 1.25f);
+          } else if (iCol < 20) {
+            i.writeValueInt(iRow, iCol, iRow * iCol);
+            f.writeValue(iRow, iCol, iRow + iCol / 10.0f);
+            s.writeValueInt(iRow, iCol, iRow - iCol);
+            c.writeValue(iRow, iCol, iRow / 4.0f);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement i = gvrs.getElement("i");
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement s = gvrs.getElement("s");
+      GvrsElement c = gvrs.getElement("c");
+      for (int iRow = 0; iRow < nRows; iRow++) {
+        for (int iCol = 0; iCol < nCols; iCol++) {
+          String at = " at " + iRow + ", " + iCol;
+          if (iRow < 20) {
+            assertEquals(-5, i.readValueInt(iRow, iCol), "Int mismatch" + at);
+            assertEquals(0.5f, f.readValue(iRow, iCol), "Float mismatch" + at);
+            assertEquals(12, s.readValueInt(iRow, iCol), "Short mismatch" + at);
+            assertEquals(1.25f, c.readValue(iRow, iCol), 1.0e-4, "Coded mismatch" + at);
+          } else if (iCol < 20) {
+            assertEquals(iRow * iCol, i.readValueInt(iRow, iCol), "Int mismatch" + at);
+            assertEquals(iRow + iCol / 10.0f, f.readValue(iRow, iCol), "Float mismatch" + at);
+            assertEquals(iRow - iCol, s.readValueInt(iRow, iCol), "Short mismatch" + at);
+            assertEquals(iRow / 4.0f, c.readValue(iRow, iCol), 1.0e-4, "Coded mismatch" + at);
+          } else {
+            assertTrue(Float.isNaN(f.readValue(iRow, iCol)), "Float not null" + at);
+            assertEquals(Integer.MIN_VALUE, i.readValueInt(iRow, iCol), "Int not null" + at);
+          }
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  /**
+   * Verifies that tiles that reference shared uniform arrays are not
+   * charged against the memory limit for the tile cache, but that
+   * they are charged once their values are modified.
+   */
+  @Test
+  void testCacheSize() {
+    File testFile = new File(tempDir, "UniformTileCacheTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(40, 40, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("i");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement i = gvrs.getElement("i");
+      for (int iRow = 0; iRow < 40; iRow++) {
+        for (int iCol = 0; iCol < 40; iCol++) {
+          i.writeValueInt(iRow, iCol, 7);
+        }
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "rw")) {
+      gvrs.setTileCacheSize(2);
+      GvrsElement i = gvrs.getElement("i");
+      for (int iRow = 0; iRow < 40; iRow += 10) {
+        for (int iCol = 0; iCol < 40; iCol += 10) {
+          assertEquals(7, i.readValueInt(iRow, iCol), "Mismatch reading tiles");
+        }
+      }
+      assertEquals(16, getTilesInCache(gvrs),
+        "Uniform tiles were evicted from the cache");
+
+      for (int iRow = 0; iRow < 40; iRow += 10) {
+        for (int iCol = 0; iCol < 40; iCol += 10) {
+          i.writeValueInt(iRow, iCol, 8);
+        }
+      }
+      int n = getTilesInCache(gvrs);
+      assertTrue(n <= 3, "Modified tiles not evicted from cache, count " + n);
+    } catch (IOException ex) {
+      fail("IOException in accessing " + testFile + " " + ex.getMessage());
+    }
+  }
+
+  private int getTilesInCache(GvrsFile gvrs) {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    PrintStream ps = new PrintStream(baos);
+    gvrs.summarize(ps, false);
+    ps.flush();
+    for (String line : baos.toString().split("\\R")) {
+      if (line.contains("Tiles In Cache:")) {
+        return Integer.parseInt(line.substring(line.indexOf(':') + 1).trim());
+      }
+    }
+    fail("Tile cache count not found in summary");
+    return 0;
+  }
+
+  /**
+   * Verifies that uniform records are not written to a file that
+   * was created using version 1.04 of the file format.
+   */
+  @Test
+  void testVersion104File() {
+    File testFile = new File(tempDir, "UniformTileTest104.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(20, 20, 10, 10);
+    spec.setDataCompressionEnabled(true);
+    spec.addElementInt("z");
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      gvrs.getElement("z").writeValueInt(0, 0, 1);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    // the version bytes are not included in the header checksum
+    try (RandomAccessFile raf = new RandomAccessFile(testFile, "rw")) {
+      raf.seek(13);
+      assertEquals(GvrsFileSpecification.SUB_VERSION, raf.read(),
+        "Incorrect sub-version");
+      raf.seek(13);
+      raf.write(4);
+    } catch (IOException ex) {
+      fail("IOException in modifying " + testFile + " " + ex.getMessage());
+    }
+
+    long tilePos = 0;
+    try (GvrsFile gvrs = new GvrsFile(testFile, "rw")) {
+      GvrsElement z = gvrs.getElement("z");
+      for (int iRow = 10; iRow < 20; iRow++) {
+        for (int iCol = 10; iCol < 20; iCol++) {
+          z.writeValueInt(iRow, iCol, 7);
+        }
+      }
+      gvrs.flush();
+      tilePos = gvrs.getTilePosition(3);
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (RandomAccessFile raf = new RandomAccessFile(testFile, "r")) {
+      // the tile record gives the tile index and the size of the packing
+      // followed by the packing
+      raf.seek(tilePos + 8);
+      assertTrue(raf.read() != UniformTile.UNIFORM_TILE_CODE,
+        "Uniform record written to version 1.04 file");
+      raf.seek(13);
+      assertEquals(4, raf.read(), "Sub-version changed");
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement z = gvrs.getElement("z");
+      assertEquals(1, z.readValueInt(0, 0), "Incorrect value");
+      assertEquals(7, z.readValueInt(15, 15), "Incorrect value");
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
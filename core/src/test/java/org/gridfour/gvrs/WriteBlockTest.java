@@ -0,0 +1,144 @@
+/*
+ * The MIT License
+ *
+ * Copyright 2026 G. W. Lucas.
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ */
+package org.gridfour.gvrs;
+
+import java.io.File;
+import java.io.IOException;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests the block-write methods.
+ */
+public class WriteBlockTest {
+
+  private static final int N_ROWS = 45;
+  private static final int N_COLS = 55;
+
+  @TempDir
+  File tempDir;
+
+  public WriteBlockTest() {
+  }
+
+  @BeforeAll
+  public static void setUpClass() {
+  }
+
+  @BeforeEach
+  public void setUp() {
+  }
+
+  /**
+   * Writes overlapping blocks that do not align with tile boundaries
+   * and verifies that the results match the values written one at a time.
+   */
+  @Test
+  void testWriteBlock() {
+    File testFile = new File(tempDir, "WriteBlockTest.gvrs");
+    GvrsFileSpecification spec = new GvrsFileSpecification(N_ROWS, N_COLS, 10, 10);
+    spec.addElementInt("z");
+    spec.addElementFloat("f");
+    spec.addElementShort("s");
+    spec.addElementSpecification(
+      new GvrsElementSpecificationIntCodedFloat("c", 100.0f, 0.0f));
+
+    int row0 = 3;
+    int col0 = 4;
+    int nRows = 37;
+    int nCols = 26;
+    int[] zBlock = new int[nRows * nCols];
+    float[] fBlock = new float[nRows * nCols];
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nCols; iCol++) {
+        zBlock[iRow * nCols + iCol] = (iRow + row0) * N_COLS + iCol + col0;
+        fBlock[iRow * nCols + iCol] = (iRow + row0) + (iCol + col0) / 100.0f;
+      }
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, spec)) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement s = gvrs.getElement("s");
+      GvrsElement c = gvrs.getElement("c");
+      // populate a background using single-value writes, then
+      // overwrite part of it using a block.
+      for (int iRow = 0; iRow < 20; iRow++) {
+        for (int iCol = 0; iCol < N_COLS; iCol++) {
+          z.writeValueInt(iRow, iCol, -1);
+          f.writeValue(iRow, iCol, -1);
+        }
+      }
+      z.writeBlockInt(row0, col0, nRows, nCols, zBlock);
+      f.writeBlock(row0, col0, nRows, nCols, fBlock);
+      s.writeBlockInt(row0, col0, nRows, nCols, zBlock);
+      c.writeBlock(row0, col0, nRows, nCols, fBlock);
+
+      try {
+        int[] bad = new int[4];
+        bad[2] = Integer.MAX_VALUE;
+        s.writeBlockInt(0, 0, 2, 2, bad);
+        fail("Out-of-range value accepted");
+      } catch (IllegalArgumentException expected) {
+        // expected
+      }
+      try {
+        z.writeBlockInt(0, 0, 2, 2, new int[3]);
+        fail("Insufficient input array accepted");
+      } catch (IllegalArgumentException expected) {
+        // expected
+      }
+    } catch (IOException ex) {
+      fail("IOException in writing " + testFile + " " + ex.getMessage());
+    }
+
+    try (GvrsFile gvrs = new GvrsFile(testFile, "r")) {
+      GvrsElement z = gvrs.getElement("z");
+      GvrsElement f = gvrs.getElement("f");
+      GvrsElement s = gvrs.getElement("s");
+      GvrsElement c = gvrs.getElement("c");
+      assertArrayEquals(zBlock, z.readBlockInt(row0, col0, nRows, nCols),
+        "Integer block mismatch");
+      assertArrayEquals(zBlock, s.readBlockInt(row0, col0, nRows, nCols),
+        "Short block mismatch");
+      float[] fResult = f.readBlock(row0, col0, nRows, nCols);
+      float[] cResult = c.readBlock(row0, col0, nRows, nCols);
+      for (int i = 0; i < fBlock.length; i++) {
+        assertEquals(fBlock[i], fResult[i], "Float block mismatch");
+        assertEquals(fBlock[i], cResult[i], 0.005f, "Int-coded block mismatch");
+      }
+      // the background outside the block is preserved
+      assertEquals(-1, z.readValueInt(row0 - 1, col0), "Background modified");
+      assertEquals(-1, z.readValueInt(row0, col0 - 1), "Background modified");
+      assertEquals(-1, f.readValue(19, col0 + nCols), "Background modified");
+    } catch (IOException ex) {
+      fail("IOException in reading " + testFile + " " + ex.getMessage());
+    }
+  }
+}
@@ -0,0 +1,186 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the use of ByteBuffers as the target of a BitOutputStore
+ * and as the source of a BitInputStore.
+ */
+public class BitStoreByteBufferTest {
+
+  private static final int N_VALUES = 1000;
+
+  private static int[] makeWidths(Random random) {
+    int[] w = new int[N_VALUES];
+    for (int i = 0; i < N_VALUES; i++) {
+      w[i] = 1 + random.nextInt(32);
+    }
+    return w;
+  }
+
+  private static int[] makeValues(Random random, int[] widths) {
+    int[] v = new int[N_VALUES];
+    for (int i = 0; i < N_VALUES; i++) {
+      v[i] = random.nextInt();
+      if (widths[i] < 32) {
+        v[i] &= (1 << widths[i]) - 1;
+      }
+    }
+    return v;
+  }
+
+  private static void append(BitOutputStore store, int[] widths, int[] values) {
+    for (int i = 0; i < N_VALUES; i++) {
+      if (widths[i] == 1) {
+        store.appendBit(values[i]);
+      } else {
+        store.appendBits(widths[i], values[i]);
+      }
+    }
+  }
+
+  private static void check(BitInputStore input, int[] widths, int[] values) {
+    for (int i = 0; i < N_VALUES; i++) {
+      if (widths[i] == 1) {
+        assertEquals(values[i], input.getBit(), "Bit mismatch at " + i);
+      } else if ((i & 1) == 0 && widths[i] <= 30) {
+        assertEquals(values[i], input.peekBits(widths[i]),
+          "Peek mismatch at " + i);
+        input.skipBits(widths[i]);
+      } else {
+        assertEquals(values[i], input.getBits(widths[i]),
+          "Value mismatch at " + i);
+      }
+    }
+  }
+
+  /**
+   * Verifies that content written to heap and direct buffers matches
+   * content written to the internal storage of the BitOutputStore and
+   * that it can be read back from the buffers.
+   */
+  @Test
+  void testRoundTrip() {
+    Random random = new Random(0);
+    int[] widths = makeWidths(random);
+    int[] values = makeValues(random, widths);
+
+    BitOutputStore reference = new BitOutputStore();
+    append(reference, widths, values);
+    byte[] expected = reference.getEncodedText();
+    int nBytes = expected.length;
+
+    ByteBuffer[] buffers = {
+      ByteBuffer.allocate(nBytes + 32),
+      ByteBuffer.allocateDirect(nBytes + 32)
+    };
+    for (ByteBuffer buffer : buffers) {
+      buffer.position(3);
+      BitOutputStore store = new BitOutputStore(buffer);
+      append(store, widths, values);
+      assertEquals(3, buffer.position(), "Position changed before flush");
+      assertArrayEquals(expected, store.getEncodedText(),
+        "Encoded text mismatch before flush");
+      assertEquals(nBytes, store.flush(), "Incorrect flush count");
+      assertEquals(3 + nBytes, buffer.position(), "Incorrect position after flush");
+      assertEquals(nBytes, store.flush(), "Incorrect count on second flush");
+      assertEquals(3 + nBytes, buffer.position(), "Position changed by second flush");
+      assertArrayEquals(expected, store.getEncodedText(),
+        "Encoded text mismatch after flush");
+
+      try {
+        store.appendBit(1);
+        fail("Append after flush did not throw exception");
+      } catch (IllegalStateException expectedException) {
+        // expected
+      }
+
+      buffer.flip();
+      buffer.position(3);
+      BitInputStore input = new BitInputStore(buffer);
+      check(input, widths, values);
+      assertEquals(3, buffer.position(), "Position changed by reader");
+    }
+  }
+
+  /**
+   * Verifies that a reader correctly handles a heap buffer that is
+   * a slice with a non-zero array offset.
+   */
+  @Test
+  void testSlice() {
+    Random random = new Random(1);
+    int[] widths = makeWidths(random);
+    int[] values = makeValues(random, widths);
+    BitOutputStore reference = new BitOutputStore();
+    append(reference, widths, values);
+    byte[] text = reference.getEncodedText();
+
+    byte[] backing = new byte[text.length + 20];
+    System.arraycopy(text, 0, backing, 13, text.length);
+    ByteBuffer outer = ByteBuffer.wrap(backing);
+    outer.position(7);
+    ByteBuffer slice = outer.slice();
+    slice.position(6);
+    slice.limit(6 + text.length);
+    check(new BitInputStore(slice), widths, values);
+  }
+
+  @Test
+  void testOverflow() {
+    ByteBuffer buffer = ByteBuffer.allocate(12);
+    BitOutputStore store = new BitOutputStore(buffer);
+    try {
+      for (int i = 0; i < 4; i++) {
+        store.appendBits(32, i);
+      }
+      fail("Overflow of target buffer did not throw exception");
+    } catch (BufferOverflowException expected) {
+      // expected
+    }
+  }
+}
@@ -0,0 +1,140 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.lsop;
+
+import java.io.IOException;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.fail;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the accumulation of the normal equations for the optimal predictors.
+ */
+public class LsNormalEquationsTest {
+
+  private static final int[] ROW_OFFSET
+    = {0, 0, -1, -1, -1, -1, 0, -1, -2, -2, -2, -2, -2};
+  private static final int[] COL_OFFSET
+    = {0, -1, -1, 0, 1, 2, -2, -2, -2, -1, 0, 1, 2};
+
+  public LsNormalEquationsTest() {
+  }
+
+  private static int[] makeValues(int nRows, int nColumns) {
+    Random random = new Random(0);
+    int[] values = new int[nRows * nColumns];
+    for (int iRow = 0; iRow < nRows; iRow++) {
+      for (int iCol = 0; iCol < nColumns; iCol++) {
+        values[iRow * nColumns + iCol]
+          = 3 * iRow - 2 * iCol + (iRow * iCol) / 50 + random.nextInt(20);
+      }
+    }
+    return values;
+  }
+
+  /**
+   * Computes the sums using the classic cell-by-cell loop.
+   */
+  private static double[] classic(int nRows, int nColumns, int[] values) {
+    double[] sums = new double[13 + 169];
+    double[] z = new double[13];
+    for (int iRow = 2; iRow < nRows; iRow++) {
+      for (int iCol = 2; iCol < nColumns - 2; iCol++) {
+        int index = iRow * nColumns + iCol;
+        for (int k = 0; k < 13; k++) {
+          z[k] = values[index + ROW_OFFSET[k] * nColumns + COL_OFFSET[k]];
+        }
+        for (int i = 0; i < 13; i++) {
+          sums[i] += z[i];
+          for (int j = i; j < 13; j++) {
+            sums[13 + i * 13 + j] += z[i] * z[j];
+          }
+        }
+      }
+    }
+    return sums;
+  }
+
+  @Test
+  void testAccumulation() {
+    LsNormalEquations equations
+      = new LsNormalEquations(ROW_OFFSET, COL_OFFSET, 2, 2);
+    int[][] sizes = {{6, 6}, {7, 13}, {300, 301}};
+    for (int[] size : sizes) {
+      int nRows = size[0];
+      int nColumns = size[1];
+      int[] values = makeValues(nRows, nColumns);
+      double[] expected = classic(nRows, nColumns, values);
+      assertArrayEquals(expected,
+        equations.accumulate(nRows, nColumns, values, false),
+        "Serial mismatch for " + nRows + "x" + nColumns);
+      assertArrayEquals(expected,
+        equations.accumulate(nRows, nColumns, values, true),
+        "Parallel mismatch for " + nRows + "x" + nColumns);
+    }
+  }
+
+  /**
+   * Verifies that the serial and parallel computations produce the
+   * same encoding for a large tile.
+   */
+  @Test
+  void testParallelEncoding() {
+    int nRows = 400;
+    int nColumns = 400;
+    int[] values = makeValues(nRows, nColumns);
+    LsEncoder12 encoder = new LsEncoder12();
+    byte[] serial = encoder.encode(1, nRows, nColumns, values);
+    encoder.setParallelComputationEnabled(true);
+    byte[] parallel = encoder.encode(1, nRows, nColumns, values);
+    assertNotNull(parallel, "Null result from encoder");
+    assertArrayEquals(serial, parallel, "Parallel encoding differs");
+    try {
+      int[] result = new LsDecoder12().decode(nRows, nColumns, parallel);
+      for (int i = 0; i < values.length; i++) {
+        assertEquals(values[i], result[i], "failed at index " + i);
+      }
+    } catch (IOException ioex) {
+      fail("IOException " + ioex.getMessage());
+    }
+  }
+}
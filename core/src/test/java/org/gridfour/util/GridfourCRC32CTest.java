@@ -0,0 +1,105 @@
+/* --------------------------------------------------------------------
+ *
+ * The MIT License
+ *
+ * Copyright (C) 2026  Gary W. Lucas.
+
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in
+ * all copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN
+ * THE SOFTWARE.
+ * ---------------------------------------------------------------------
+ */
+
+ /*
+ * -----------------------------------------------------------------------
+ *
+ * Revision History:
+ * Date     Name         Description
+ * ------   ---------    -------------------------------------------------
+ * 10/2026  G. Lucas     Created
+ *
+ * Notes:
+ *
+ * -----------------------------------------------------------------------
+ */
+package org.gridfour.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the CRC-32C implementations.
+ */
+public class GridfourCRC32CTest {
+
+  /**
+   * Computes the CRC-32C one bit at a time as a reference.
+   */
+  private static long reference(byte[] b, int off, int len) {
+    int c = 0xffffffff;
+    for (int i = off; i < off + len; i++) {
+      c ^= b[i] & 0xff;
+      for (int k = 0; k < 8; k++) {
+        c = (c & 1) == 1 ? (c >>> 1) ^ 0x82f63b78 : c >>> 1;
+      }
+    }
+    return (~c) & 0xffffffffL;
+  }
+
+  @Test
+  void testCheckValue() {
+    byte[] b = "123456789".getBytes(StandardCharsets.US_ASCII);
+    for (int iTest = 0; iTest < 2; iTest++) {
+      GridfourCRC32C crc = new GridfourCRC32C(iTest == 0);
+      crc.update(b);
+      assertEquals(0xe3069283L, crc.getValue(), "Incorrect check value");
+      crc.reset();
+      assertEquals(0L, crc.getValue(), "Reset failed");
+    }
+  }
+
+  /**
+   * Verifies that the slicing-by-8 and standard implementations
+   * agree with the reference for various lengths and alignments,
+   * including incremental updates.
+   */
+  @Test
+  void testAgreement() {
+    Random random = new Random(0);
+    byte[] b = new byte[300];
+    random.nextBytes(b);
+    for (int off = 0; off < 9; off++) {
+      for (int len = 0; len < b.length - off; len += 1 + len / 8) {
+        long expected = reference(b, off, len);
+        for (int iTest = 0; iTest < 2; iTest++) {
+          GridfourCRC32C crc = new GridfourCRC32C(iTest == 0);
+          crc.update(b, off, len);
+          assertEquals(expected, crc.getValue(),
+            "Mismatch at offset " + off + ", length " + len);
+          crc.reset();
+          int split = len / 3;
+          crc.update(b, off, split);
+          crc.update(b, off + split, len - split);
+          assertEquals(expected, crc.getValue(),
+            "Incremental mismatch at offset " + off + ", length " + len);
+        }
+      }
+    }
+  }
+}
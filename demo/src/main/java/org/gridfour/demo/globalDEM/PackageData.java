@@ -471,6 +471,8 @@ public class PackageData {
         // -----------------------------------------------------------------
         // Package the data
         GvrsElement zElement = gvrs.getElement("z");
+        int[] iRowValues = new int[nCols];
+        float[] fRowValues = new float[nCols];
         long time0 = System.currentTimeMillis();
         for (int iRow = 0; iRow < nRows; iRow++) {
           if (iRow % 1000 == 999) {
@@ -503,7 +505,7 @@ public class PackageData {
               case SHORT:
                 for (int iCol = 0; iCol < nCols; iCol++) {
                   int sample = array.getInt(iCol);
-                  zElement.writeValueInt(iRow, iCol, sample);
+                  iRowValues[iCol] = sample;
                   stats.addSample(sample);
                   if (sample < zMin) {
                     zMin = sample;
@@ -514,13 +516,14 @@ public class PackageData {
                   zSum += sample;
                   nSum++;
                 }
+                zElement.writeBlockInt(iRow, 0, 1, nCols, iRowValues);
                 break;
               case INT_CODED_FLOAT:
               case FLOAT:
               default:
                 for (int iCol = 0; iCol < nCols; iCol++) {
                   float sample = array.getFloat(iCol);
-                  zElement.writeValue(iRow, iCol, sample);
+                  fRowValues[iCol] = sample;
                   stats.addSample(sample);
                   if (sample < zMin) {
                     zMin = sample;
@@ -531,7 +534,7 @@ public class PackageData {
                   zSum += sample;
                   nSum++;
                 }
-
+                zElement.writeBlock(iRow, 0, 1, nCols, fRowValues);
             }
           } catch (InvalidRangeException irex) {
             throw new IOException(irex.getMessage(), irex);